@@ -31,6 +31,7 @@ import org.apache.poi.hssf.record.NumberRecord;
 import org.apache.poi.hssf.record.Record;
 import org.apache.poi.hssf.usermodel.HSSFDataFormat;
 import org.apache.poi.hssf.usermodel.HSSFDataFormatter;
+import org.apache.poi.ss.usermodel.DateFormatCache;
 import org.apache.poi.util.LocaleUtil;
 import org.apache.poi.util.POILogFactory;
 import org.apache.poi.util.POILogger;
@@ -44,6 +45,7 @@ public class FormatTrackingHSSFListener implements HSSFListener {
 	private final static POILogger logger = POILogFactory.getLogger(FormatTrackingHSSFListener.class);
 	private final HSSFListener _childListener;
 	private final HSSFDataFormatter _formatter;
+	private final DateFormatCache _dateFormats = new DateFormatCache();
 	private final NumberFormat _defaultFormat;
 	private final Map<Integer, FormatRecord> _customFormatRecords = new HashMap<>();
 	private final List<ExtendedFormatRecord> _xfRecords = new ArrayList<>();
@@ -69,6 +71,7 @@ public class FormatTrackingHSSFListener implements HSSFListener {
 			HSSFListener childListener, Locale locale) {
 		_childListener = childListener;
 		_formatter = new HSSFDataFormatter(locale);
+		_formatter.setDateFormatCache(_dateFormats);
 		_defaultFormat = NumberFormat.getInstance(locale);
 	}
 
@@ -166,6 +169,23 @@ public class FormatTrackingHSSFListener implements HSSFListener {
 		return format;
 	}
 
+	/**
+	 * Checks if the format of your cell is a date format. The result is
+	 * remembered per format index, so each format is only checked once.
+	 * 
+	 * @param cell the cell
+	 * 
+	 * @return true if the cell uses a date format
+	 * @since POI 4.0.0
+	 */
+	public boolean isDateFormatted(CellValueRecordInterface cell) {
+		int formatIndex = getFormatIndex(cell);
+		if (formatIndex == -1) {
+			return false;
+		}
+		return _dateFormats.isADateFormat(formatIndex, getFormatString(formatIndex));
+	}
+
 	/**
 	 * Returns the format string, eg $##.##, used by your cell
 	 * 
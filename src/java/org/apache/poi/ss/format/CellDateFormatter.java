@@ -178,7 +178,11 @@ public class CellDateFormatter extends CellFormatter {
             }
         }
 
-        AttributedCharacterIterator it = dateFmt.formatToCharacterIterator(value);
+        // the cached formats are shared between threads, but SimpleDateFormat isn't thread-safe
+        AttributedCharacterIterator it;
+        synchronized (dateFmt) {
+            it = dateFmt.formatToCharacterIterator(value);
+        }
         boolean doneAm = false;
         boolean doneMillis = false;
 
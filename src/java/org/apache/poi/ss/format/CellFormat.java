@@ -21,8 +21,10 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
-import java.util.WeakHashMap;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -128,9 +130,15 @@ public class CellFormat {
         };
     }
 
-    /** Maps a format string to its parsed version for efficiencies sake. */
-    private static final Map<Locale, Map<String, CellFormat>> formatCache =
-            new WeakHashMap<>();
+    /** The default maximum number of cached formats */
+    public static final int DEFAULT_MAX_CACHE_SIZE = 1000;
+
+    /** Maps a locale and format string to its parsed version for efficiencies sake. */
+    private static final ConcurrentMap<CacheKey, CellFormat> formatCache =
+            new ConcurrentHashMap<>();
+    private static volatile int maxCacheSize = DEFAULT_MAX_CACHE_SIZE;
+    private static final AtomicLong cacheHits = new AtomicLong();
+    private static final AtomicLong cacheMisses = new AtomicLong();
 
     /**
      * Returns a {@link CellFormat} that applies the given format.  Two calls
@@ -147,29 +155,140 @@ public class CellFormat {
     /**
      * Returns a {@link CellFormat} that applies the given format.  Two calls
      * with the same format may or may not return the same object.
+     * <p>
+     * The parsed formats are shared by all threads via a cache, which holds up to
+     * {@link #getMaxCacheSize()} formats.
      *
      * @param locale The locale.
      * @param format The format.
      *
      * @return A {@link CellFormat} that applies the given format.
      */
-    public static synchronized CellFormat getInstance(Locale locale, String format) {
-        Map<String, CellFormat> formatMap = formatCache.get(locale);
-        if (formatMap == null) {
-            formatMap = new WeakHashMap<>();
-            formatCache.put(locale, formatMap);
+    public static CellFormat getInstance(Locale locale, String format) {
+        CacheKey key = new CacheKey(locale, format);
+        CellFormat fmt = formatCache.get(key);
+        if (fmt != null) {
+            cacheHits.incrementAndGet();
+            return fmt;
         }
-        CellFormat fmt = formatMap.get(format);
-        if (fmt == null) {
-            if (format.equals("General") || format.equals("@"))
-                fmt = createGeneralFormat(locale);
-            else
-                fmt = new CellFormat(locale, format);
-            formatMap.put(format, fmt);
+        cacheMisses.incrementAndGet();
+        if (format.equals("General") || format.equals("@"))
+            fmt = createGeneralFormat(locale);
+        else
+            fmt = new CellFormat(locale, format);
+        CellFormat cached = formatCache.putIfAbsent(key, fmt);
+        if (cached != null) {
+            // another thread has parsed the same format meanwhile
+            return cached;
         }
+        trimCache();
         return fmt;
     }
 
+    /**
+     * Evicts arbitrary formats, until the cache doesn't exceed its maximum size
+     */
+    private static void trimCache() {
+        int excess = formatCache.size() - maxCacheSize;
+        if (excess <= 0) {
+            return;
+        }
+        Iterator<CacheKey> iter = formatCache.keySet().iterator();
+        while (excess-- > 0 && iter.hasNext()) {
+            iter.next();
+            iter.remove();
+        }
+    }
+
+    /**
+     * @return the maximum number of formats cached by {@link #getInstance(Locale, String)}
+     *
+     * @since POI 4.0.0
+     */
+    public static int getMaxCacheSize() {
+        return maxCacheSize;
+    }
+
+    /**
+     * Sets the maximum number of formats cached by {@link #getInstance(Locale, String)}.
+     * If the cache is full, arbitrary formats are evicted to make room for new ones.
+     *
+     * @param maxSize the maximum number of cached formats, 0 disables the cache
+     *
+     * @since POI 4.0.0
+     */
+    public static void setMaxCacheSize(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("The maximum cache size must not be negative, but was " + maxSize);
+        }
+        maxCacheSize = maxSize;
+        trimCache();
+    }
+
+    /**
+     * @return the number of currently cached formats
+     *
+     * @since POI 4.0.0
+     */
+    public static int getCacheSize() {
+        return formatCache.size();
+    }
+
+    /**
+     * @return the number of calls of {@link #getInstance(Locale, String)}, which found
+     *  the format in the cache, since the last {@link #clearCache()}
+     *
+     * @since POI 4.0.0
+     */
+    public static long getCacheHitCount() {
+        return cacheHits.get();
+    }
+
+    /**
+     * @return the number of calls of {@link #getInstance(Locale, String)}, which had
+     *  to parse the format, since the last {@link #clearCache()}
+     *
+     * @since POI 4.0.0
+     */
+    public static long getCacheMissCount() {
+        return cacheMisses.get();
+    }
+
+    /**
+     * Removes all cached formats and resets the hit and miss counts
+     *
+     * @since POI 4.0.0
+     */
+    public static void clearCache() {
+        formatCache.clear();
+        cacheHits.set(0);
+        cacheMisses.set(0);
+    }
+
+    private static final class CacheKey {
+        private final Locale locale;
+        private final String format;
+
+        CacheKey(Locale locale, String format) {
+            this.locale = locale;
+            this.format = format;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey other = (CacheKey) o;
+            return locale.equals(other.locale) && format.equals(other.format);
+        }
+
+        @Override
+        public int hashCode() {
+            return locale.hashCode() * 31 + format.hashCode();
+        }
+    }
+
     /**
      * Creates a new object.
      *
@@ -559,7 +559,10 @@ public class CellNumberFormatter extends CellFormatter {
 
         StringBuffer result = new StringBuffer();
         FieldPosition fractionPos = new FieldPosition(DecimalFormat.FRACTION_FIELD);
-        decimalFmt.format(value, result, fractionPos);
+        // the cached formats are shared between threads, but DecimalFormat isn't thread-safe
+        synchronized (decimalFmt) {
+            decimalFmt.format(value, result, fractionPos);
+        }
         writeInteger(result, output, integerSpecials, mods, showGroupingSeparator);
         writeFractional(result, output);
 
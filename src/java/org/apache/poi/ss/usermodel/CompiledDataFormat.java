@@ -0,0 +1,345 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+
+package org.apache.poi.ss.usermodel;
+
+import java.math.BigDecimal;
+import java.text.DateFormat;
+import java.text.FieldPosition;
+import java.text.Format;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.poi.ss.format.CellFormat;
+import org.apache.poi.ss.util.NumberToTextConverter;
+import org.apache.poi.util.LocaleUtil;
+import org.apache.poi.util.POILogFactory;
+import org.apache.poi.util.POILogger;
+
+/**
+ * An Excel number format, which has been compiled once for a format string and locale.
+ * <p>
+ * The values are formatted like {@link DataFormatter#formatRawCellContents(double, int, String, boolean)}
+ *  of a new {@link DataFormatter} with the same locale would do. But the instances are immutable
+ *  and shared via {@link #getInstance(Locale, int, String)}, so the format strings don't need to
+ *  be parsed again per formatter or thread.
+ * </p>
+ * <p>
+ * As the {@link Format} classes of the JDK aren't thread-safe, each thread formats with its
+ *  own copies of the compiled formats. The copies are dropped, when the shared formats are cleared.
+ *  The results can be appended to a reused {@link StringBuilder}.
+ * </p>
+ * <p>
+ * Custom formats registered by {@link DataFormatter#addFormat(String, Format)} and the default
+ *  number format of a {@link DataFormatter} are not used.
+ * </p>
+ *
+ * @since POI 4.0.0
+ */
+public final class CompiledDataFormat {
+    private static final POILogger logger = POILogFactory.getLogger(CompiledDataFormat.class);
+
+    /** The maximum number of cached formats, the cache is cleared if it's exceeded */
+    private static final int MAX_CACHED_FORMATS = 10000;
+
+    private static final ConcurrentMap<Key, CompiledDataFormat> formats = new ConcurrentHashMap<>();
+
+    /** incremented when the cache is cleared, so the threads drop their copies of the formats */
+    private static final AtomicInteger generation = new AtomicInteger();
+
+    // the variants of the format, which depend on the formatted value
+    private static final int VARIANT_VALUE = 0;
+    private static final int VARIANT_INVALID_DATE = 1;
+    private static final int VARIANT_ZERO = 2;
+
+    // the buffers of the current thread
+    private static final ThreadLocal<Buffers> buffers = new ThreadLocal<Buffers>() {
+        @Override
+        protected Buffers initialValue() {
+            return new Buffers();
+        }
+    };
+
+    private final Locale locale;
+    private final int formatIndex;
+    private final String formatString;
+    private final boolean emulateCSV;
+    private final boolean isDateFormat;
+    private final boolean hasZeroVariant;
+    /** the formatter of the 2+ part formats or null */
+    private final CellFormat cellFormat;
+
+    /** the compiled formats per variant, null if the format hasn't been compiled yet */
+    private final Format[] prototypes = new Format[3];
+    /** the variants, which are formatted as plain text, as no format could be compiled */
+    private final boolean[] isUnformatted = new boolean[3];
+
+    private CompiledDataFormat(Locale locale, int formatIndex, String formatString, boolean emulateCSV) {
+        this.locale = locale;
+        this.formatIndex = formatIndex;
+        this.formatString = formatString;
+        this.emulateCSV = emulateCSV;
+        this.isDateFormat = DateUtil.isADateFormat(formatIndex, formatString);
+        this.hasZeroVariant = emulateCSV && formatString.contains("#") && !formatString.contains("0");
+
+        CellFormat cf = null;
+        if (DataFormatter.isConditionalFormat(formatString)) {
+            try {
+                cf = CellFormat.getInstance(locale, formatString);
+            } catch (Exception e) {
+                logger.log(POILogger.WARN, "Formatting failed for format " + formatString + ", falling back", e);
+            }
+        }
+        cellFormat = cf;
+    }
+
+    /**
+     * Returns the compiled format for the given format string and locale.
+     *
+     * @param locale the locale of the formatted values
+     * @param formatIndex the index of the format, which is used to detect the builtin date formats
+     * @param formatString the format string
+     * @return the shared compiled format
+     */
+    public static CompiledDataFormat getInstance(Locale locale, int formatIndex, String formatString) {
+        return getInstance(locale, formatIndex, formatString, false);
+    }
+
+    /**
+     * Returns the compiled format for the given format string and locale.
+     *
+     * @param locale the locale of the formatted values
+     * @param formatIndex the index of the format, which is used to detect the builtin date formats
+     * @param formatString the format string
+     * @param emulateCSV whether to emulate CSV output, see {@link DataFormatter#DataFormatter(Locale, boolean)}
+     * @return the shared compiled format
+     */
+    public static CompiledDataFormat getInstance(Locale locale, int formatIndex, String formatString, boolean emulateCSV) {
+        if (locale == null || formatString == null) {
+            throw new IllegalArgumentException("locale and formatString must not be null");
+        }
+        Key key = new Key(locale, formatIndex, formatString, emulateCSV);
+        CompiledDataFormat format = formats.get(key);
+        if (format == null) {
+            if (formats.size() >= MAX_CACHED_FORMATS) {
+                formats.clear();
+                generation.incrementAndGet();
+            }
+            format = new CompiledDataFormat(locale, formatIndex, formatString, emulateCSV);
+            CompiledDataFormat existing = formats.putIfAbsent(key, format);
+            if (existing != null) {
+                format = existing;
+            }
+        }
+        return format;
+    }
+
+    /**
+     * @return the format string
+     */
+    public String getFormatString() {
+        return formatString;
+    }
+
+    /**
+     * @return the locale of the formatted values
+     */
+    public Locale getLocale() {
+        return locale;
+    }
+
+    /**
+     * Formats the given raw cell value with 1900 date windowing.
+     *
+     * @param value the raw cell value
+     * @return the formatted value
+     */
+    public String format(double value) {
+        StringBuilder sb = new StringBuilder();
+        format(value, false, sb);
+        return sb.toString();
+    }
+
+    /**
+     * Formats the given raw cell value and appends it to the given builder.
+     *
+     * @param value the raw cell value
+     * @param use1904Windowing true, if dates use 1904 windowing
+     * @param result the builder, to which the formatted value is appended
+     */
+    public void format(double value, boolean use1904Windowing, StringBuilder result) {
+        boolean isDate = isDateFormat && DateUtil.isValidExcelDate(value);
+        if (isDateFormat && !isDate && emulateCSV) {
+            // invalid dates are 255 #s, even for 2+ part formats
+            result.append(DataFormatter.invalidDateTimeString);
+            return;
+        }
+
+        if (cellFormat != null && formatConditional(value, result)) {
+            return;
+        }
+
+        int variant = (hasZeroVariant && value == 0.0) ? VARIANT_ZERO
+                : (isDateFormat && !isDate) ? VARIANT_INVALID_DATE : VARIANT_VALUE;
+        Buffers buf = buffers.get();
+        Format format = getThreadFormat(buf, variant);
+        if (format == null) {
+            result.append(value);
+            return;
+        }
+
+        Object obj;
+        if (isDate) {
+            if (format instanceof ExcelStyleDateFormatter) {
+                // Hint about the raw excel value
+                ((ExcelStyleDateFormatter)format).setDateToBeFormatted(value);
+            }
+            if (format instanceof DateFormat) {
+                // the dates are converted with the time zone of the current thread
+                TimeZone tz = LocaleUtil.getUserTimeZone();
+                DateFormat df = (DateFormat)format;
+                if (!tz.equals(df.getTimeZone())) {
+                    df.setTimeZone(tz);
+                }
+            }
+            obj = DateUtil.getJavaDate(value, use1904Windowing);
+        } else {
+            // see DataFormatter.formatRawCellContents for the conversion of the value
+            String textValue = NumberToTextConverter.toText(value);
+            obj = (textValue.indexOf('E') > -1) ? (Object)Double.valueOf(value) : new BigDecimal(textValue);
+        }
+
+        buf.buffer.setLength(0);
+        StringBuffer formatted = format.format(obj, buf.buffer, buf.position);
+
+        int start = result.length();
+        result.append(formatted);
+        if (!isDate) {
+            // Complete scientific notation by adding the missing +.
+            int e = result.indexOf("E", start);
+            if (e > -1 && result.indexOf("E-", start) == -1) {
+                result.insert(e + 1, '+');
+            }
+        }
+    }
+
+    /**
+     * Formats 2+ part formats via {@link CellFormat}
+     *
+     * @return false, if the value couldn't be formatted
+     */
+    private boolean formatConditional(double value, StringBuilder result) {
+        try {
+            // CellFormat requires callers to identify date vs not, so do so
+            Object cellValue = Double.valueOf(value);
+            if (isDateFormat && value != 0.0) {
+                cellValue = DateUtil.getJavaDate(value);
+            }
+            result.append(cellFormat.apply(cellValue).text);
+            return true;
+        } catch (Exception e) {
+            logger.log(POILogger.WARN, "Formatting failed for format " + formatString + ", falling back", e);
+            return false;
+        }
+    }
+
+    private Format getThreadFormat(Buffers buf, int variant) {
+        int current = generation.get();
+        if (buf.generation != current) {
+            buf.formats.clear();
+            buf.generation = current;
+        }
+        Format[] copies = buf.formats.get(this);
+        if (copies == null) {
+            copies = new Format[3];
+            buf.formats.put(this, copies);
+        }
+        Format format = copies[variant];
+        if (format == null) {
+            Format prototype = getPrototype(variant);
+            if (prototype == null) {
+                return null;
+            }
+            format = (Format)prototype.clone();
+            copies[variant] = format;
+        }
+        return format;
+    }
+
+    /**
+     * @return the number of formats, which the current thread has copied, for the unit tests
+     */
+    static int getNumberOfThreadCopies() {
+        return buffers.get().formats.size();
+    }
+
+    private synchronized Format getPrototype(int variant) {
+        if (prototypes[variant] == null && !isUnformatted[variant]) {
+            // the value, which leads to the variant
+            double value = (variant == VARIANT_ZERO) ? 0.0 : (variant == VARIANT_INVALID_DATE) ? -1.0 : 1.0;
+            DataFormatter formatter = new DataFormatter(locale, emulateCSV);
+            Format format = formatter.getNonConditionalFormat(value, formatIndex, formatString);
+            prototypes[variant] = format;
+            isUnformatted[variant] = (format == null);
+        }
+        return prototypes[variant];
+    }
+
+    private static final class Key {
+        private final Locale locale;
+        private final int formatIndex;
+        private final String formatString;
+        private final boolean emulateCSV;
+
+        Key(Locale locale, int formatIndex, String formatString, boolean emulateCSV) {
+            this.locale = locale;
+            this.formatIndex = formatIndex;
+            this.formatString = formatString;
+            this.emulateCSV = emulateCSV;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key)o;
+            return formatIndex == other.formatIndex && emulateCSV == other.emulateCSV
+                    && formatString.equals(other.formatString) && locale.equals(other.locale);
+        }
+
+        @Override
+        public int hashCode() {
+            return (formatString.hashCode() * 31 + locale.hashCode()) * 31 + formatIndex * 2 + (emulateCSV ? 1 : 0);
+        }
+    }
+
+    private static final class Buffers {
+        private final StringBuffer buffer = new StringBuffer();
+        private final FieldPosition position = new FieldPosition(0);
+        /** the copies of the compiled formats for the thread */
+        private final Map<CompiledDataFormat, Format[]> formats = new IdentityHashMap<>();
+        /** the cache generation of the copies */
+        private int generation = CompiledDataFormat.generation.get();
+    }
+}
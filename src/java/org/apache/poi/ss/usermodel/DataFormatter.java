@@ -170,7 +170,7 @@ public class DataFormatter implements Observer {
       * Cells formatted with a date or time format and which contain invalid date or time values
      *  show 255 pound signs ("#").
       */
-     private static final String invalidDateTimeString;
+     static final String invalidDateTimeString;
      static {
          StringBuilder buf = new StringBuilder();
          for(int i = 0; i < 255; i++) buf.append('#');
@@ -204,6 +204,9 @@ public class DataFormatter implements Observer {
      */
     private final Map<String,Format> formats = new HashMap<>();
 
+    /** Caches which formats are date formats, so the format strings aren't checked per cell */
+    private DateFormatCache dateFormats = new DateFormatCache();
+
     private final boolean emulateCSV;
 
     /** stores the locale valid it the last formatting call */
@@ -326,16 +329,13 @@ public class DataFormatter implements Observer {
         //  handle these ourselves in a special way.
         // For now, if we detect 2+ parts, we call out to CellFormat to handle it
         // TODO Going forward, we should really merge the logic between the two classes
-        if (formatStr.contains(";") && 
-                (formatStr.indexOf(';') != formatStr.lastIndexOf(';')
-                 || rangeConditionalPattern.matcher(formatStr).matches()
-                ) ) {
+        if (isConditionalFormat(formatStr)) {
             try {
                 // Ask CellFormat to get a formatter for it
                 CellFormat cfmt = CellFormat.getInstance(locale, formatStr);
                 // CellFormat requires callers to identify date vs not, so do so
                 Object cellValueO = Double.valueOf(cellValue);
-                if (DateUtil.isADateFormat(formatIndex, formatStr) && 
+                if (dateFormats.isADateFormat(formatIndex, formatStr) && 
                         // don't try to handle Date value 0, let a 3 or 4-part format take care of it 
                         ((Double)cellValueO).doubleValue() != 0.0) {
                     cellValueO = DateUtil.getJavaDate(cellValue);
@@ -346,7 +346,26 @@ public class DataFormatter implements Observer {
                 logger.log(POILogger.WARN, "Formatting failed for format " + formatStr + ", falling back", e);
             }
         }
-        
+
+        return getNonConditionalFormat(cellValue, formatIndex, formatStr);
+    }
+
+    /**
+     * @return true, if the format has 2+ parts or range conditions, which are handled by {@link CellFormat}
+     */
+    static boolean isConditionalFormat(String formatStr) {
+        return formatStr.contains(";") &&
+                (formatStr.indexOf(';') != formatStr.lastIndexOf(';')
+                 || rangeConditionalPattern.matcher(formatStr).matches());
+    }
+
+    /**
+     * Returns the (cached) format for the format string, without the handling of
+     * the conditional formats by {@link CellFormat}
+     */
+    Format getNonConditionalFormat(double cellValue, int formatIndex, String formatStrIn) {
+        String formatStr = formatStrIn;
+
        // Excel's # with value 0 will output empty where Java will output 0. This hack removes the # from the format.
        if (emulateCSV && cellValue == 0.0 && formatStr.contains("#") && !formatStr.contains("0")) {
            formatStr = formatStr.replaceAll("#", "");
@@ -428,9 +447,10 @@ public class DataFormatter implements Observer {
            return generalNumberFormat;
         }
 
-        if(DateUtil.isADateFormat(formatIndex,formatStr) &&
+        if(dateFormats.isADateFormat(formatIndex,formatStr) &&
                 DateUtil.isValidExcelDate(cellValue)) {
-            return createDateFormat(formatStr, cellValue);
+            return createDateFormat(formatStr, cellValue,
+                    dateFormats.isElapsedTimeFormat(formatIndex, formatStr));
         }
         // Excel supports fractions in format strings, which Java doesn't
         if (formatStr.contains("#/") || formatStr.contains("?/")) {
@@ -467,7 +487,10 @@ public class DataFormatter implements Observer {
     
  
 
-    private Format createDateFormat(String pFormatStr, double cellValue) {
+    /**
+     * @param isElapsed true, if the format contains elapsed time parts like <tt>[h]</tt>
+     */
+    private Format createDateFormat(String pFormatStr, double cellValue, boolean isElapsed) {
         String formatStr = pFormatStr;
         formatStr = formatStr.replaceAll("\\\\-","-");
         formatStr = formatStr.replaceAll("\\\\,",",");
@@ -509,7 +532,7 @@ public class DataFormatter implements Observer {
         char[] chars = formatStr.toCharArray();
         boolean mIsMonth = true;
         List<Integer> ms = new ArrayList<>();
-        boolean isElapsed = false;
+        boolean inElapsed = false;
         for(int j=0; j<chars.length; j++) {
             char c = chars[j];
             if (c == '\'') {
@@ -526,16 +549,16 @@ public class DataFormatter implements Observer {
                     j++;
                 }
             }
-            else if (c == '[' && !isElapsed) {
-                isElapsed = true;
+            else if (c == '[' && isElapsed && !inElapsed) {
+                inElapsed = true;
                 mIsMonth = false;
                 sb.append(c);
             }
-            else if (c == ']' && isElapsed) {
-                isElapsed = false;
+            else if (c == ']' && inElapsed) {
+                inElapsed = false;
                 sb.append(c);
             }
-            else if (isElapsed) {
+            else if (inElapsed) {
             if (c == 'h' || c == 'H') {
                     sb.append('H');
                 }
@@ -692,7 +715,7 @@ public class DataFormatter implements Observer {
         private static final Pattern endsWithCommas = Pattern.compile("(,+)$");
         private BigDecimal divider;
         private static final BigDecimal ONE_THOUSAND = new BigDecimal(1000);
-        private final DecimalFormat df;
+        private DecimalFormat df;
         private static String trimTrailingCommas(String s) {
             return s.replaceAll(",+$", "");
         }
@@ -732,6 +755,13 @@ public class DataFormatter implements Observer {
             return df.format(obj, toAppendTo, pos);
         }
 
+        @Override
+        public InternalDecimalFormatWithScale clone() {
+            InternalDecimalFormatWithScale other = (InternalDecimalFormatWithScale)super.clone();
+            other.df = (DecimalFormat)df.clone();
+            return other;
+        }
+
         @Override
         public Object parseObject(String source, ParsePosition pos) {
             throw new UnsupportedOperationException();
@@ -798,6 +828,18 @@ public class DataFormatter implements Observer {
        return (dateFormat != null ? dateFormat : defaultDateformat).format(d);
     }
 
+    /**
+     * Like {@link DateUtil#isCellDateFormatted(Cell, ConditionalFormattingEvaluator)},
+     *  but remembers the results per format
+     */
+    private boolean isCellDateFormatted(Cell cell, ConditionalFormattingEvaluator cfEvaluator) {
+        if (!DateUtil.isValidExcelDate(cell.getNumericCellValue())) {
+            return false;
+        }
+        ExcelNumberFormat nf = ExcelNumberFormat.from(cell, cfEvaluator);
+        return nf != null && dateFormats.isADateFormat(nf.getIdx(), nf.getFormat());
+    }
+
     /**
      * Returns the formatted value of an Excel date as a <tt>String</tt> based
      * on the cell's <code>DataFormat</code>. i.e. "Thursday, January 02, 2003"
@@ -864,7 +906,7 @@ public class DataFormatter implements Observer {
         localeChangedObservable.checkForLocaleChange();
         
         // Is it a date?
-        if(DateUtil.isADateFormat(formatIndex,formatString)) {
+        if(dateFormats.isADateFormat(formatIndex,formatString)) {
             if(DateUtil.isValidExcelDate(value)) {
                 Format dateFormat = getFormat(value, formatIndex, formatString);
                 if(dateFormat instanceof ExcelStyleDateFormatter) {
@@ -988,7 +1030,7 @@ public class DataFormatter implements Observer {
         switch (cellType) {
             case NUMERIC :
 
-                if (DateUtil.isCellDateFormatted(cell, cfEvaluator)) {
+                if (isCellDateFormatted(cell, cfEvaluator)) {
                     return getFormattedDateString(cell, cfEvaluator);
                 }
                 return getFormattedNumberString(cell, cfEvaluator);
@@ -1049,6 +1091,29 @@ public class DataFormatter implements Observer {
         formats.put(excelFormatStr, format);
     }
 
+    /**
+     * Sets the cache, which remembers the date formats of a workbook by their index.
+     * Parsers of a workbook share one cache, e.g. the one of
+     * <code>StylesTable#getDateFormatCache()</code>, so each format is only checked once.
+     *
+     * @param dateFormatCache the cache to use, not null
+     * @since POI 4.0.0
+     */
+    public void setDateFormatCache(DateFormatCache dateFormatCache) {
+        if (dateFormatCache == null) {
+            throw new IllegalArgumentException("dateFormatCache must not be null");
+        }
+        dateFormats = dateFormatCache;
+    }
+
+    /**
+     * @return the cache, which remembers the date formats by their index
+     * @since POI 4.0.0
+     */
+    public DateFormatCache getDateFormatCache() {
+        return dateFormats;
+    }
+
     // Some custom formats
 
     /**
@@ -1150,7 +1215,10 @@ public class DataFormatter implements Observer {
 
         /** Format a number as an SSN */
         public static String format(Number num) {
-            String result = df.format(num);
+            String result;
+            synchronized (df) {
+                result = df.format(num);
+            }
             return result.substring(0, 3) + '-' +
                     result.substring(3, 5) + '-' +
                     result.substring(5, 9);
@@ -1182,7 +1250,10 @@ public class DataFormatter implements Observer {
 
         /** Format a number as Zip + 4 */
         public static String format(Number num) {
-            String result = df.format(num);
+            String result;
+            synchronized (df) {
+                result = df.format(num);
+            }
             return result.substring(0, 5) + '-' +
                     result.substring(5, 9);
         }
@@ -1213,7 +1284,10 @@ public class DataFormatter implements Observer {
 
         /** Format a number as a phone number */
         public static String format(Number num) {
-            String result = df.format(num);
+            String result;
+            synchronized (df) {
+                result = df.format(num);
+            }
             StringBuilder sb = new StringBuilder();
             String seg1, seg2, seg3;
             int len = result.length();
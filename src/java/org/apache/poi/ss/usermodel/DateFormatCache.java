@@ -0,0 +1,162 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+
+package org.apache.poi.ss.usermodel;
+
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
+/**
+ * Remembers the kind of the number formats of a workbook, so that
+ *  {@link DateUtil#isADateFormat(int, String)} and its regular expressions
+ *  only need to run once per format.
+ * <p>
+ * The results are cached per format index and checked against the format string,
+ *  so a cache should be shared by everything reading the formats of a single workbook,
+ *  see {@link DataFormatter#setDateFormatCache(DateFormatCache)}. Formats of other
+ *  workbooks still give the right results, but will replace the cached entries of
+ *  the same index.
+ * </p>
+ * <p>
+ * Instances can be used by several threads. Concurrent lookups of a new format
+ *  may compute its kind more than once, but never return a wrong result.
+ * </p>
+ *
+ * @since POI 4.0.0
+ */
+public final class DateFormatCache {
+    /** Format indexes above this limit aren't cached */
+    private static final int MAX_CACHED_INDEX = 0xFFFF;
+
+    private static final int DATE = 1;
+    private static final int TIME = 2;
+    private static final int ELAPSED = 4;
+
+    // [h], [mm], [ss] etc.
+    private static final Pattern ELAPSED_PTRN = Pattern.compile("\\[([hH]+|[mM]+|[sS]+)\\]");
+    // quoted text and bracketed prefixes like [Red] or [$-409]
+    private static final Pattern NON_DATE_PARTS_PTRN = Pattern.compile("\"[^\"]*\"|\\[[^\\]]*\\]");
+    private static final Pattern DAY_PART_PTRN = Pattern.compile("[yYdD]");
+    private static final Pattern TIME_PART_PTRN = Pattern.compile("[hHsS]");
+
+    private volatile Entry[] entries = new Entry[64];
+
+    /**
+     * @see DateUtil#isADateFormat(int, String)
+     *
+     * @param formatIndex The index of the format, eg from ExtendedFormatRecord.getFormatIndex
+     * @param formatString The format string, eg from FormatRecord.getFormatString
+     * @return true if it is a valid date format, false if not or null
+     */
+    public boolean isADateFormat(int formatIndex, String formatString) {
+        return (getFlags(formatIndex, formatString) & DATE) != 0;
+    }
+
+    /**
+     * @param formatIndex The index of the format
+     * @param formatString The format string
+     * @return true if it is a date format, which only shows the time or a duration,
+     *  but no year or day
+     */
+    public boolean isTimeFormat(int formatIndex, String formatString) {
+        return (getFlags(formatIndex, formatString) & TIME) != 0;
+    }
+
+    /**
+     * @param formatIndex The index of the format
+     * @param formatString The format string
+     * @return true if it is a date format showing an elapsed time, like <tt>[h]:mm:ss</tt>
+     */
+    public boolean isElapsedTimeFormat(int formatIndex, String formatString) {
+        return (getFlags(formatIndex, formatString) & ELAPSED) != 0;
+    }
+
+    /**
+     * Removes all cached formats, e.g. when the format strings of a workbook have been changed
+     */
+    public void clear() {
+        entries = new Entry[entries.length];
+    }
+
+    private int getFlags(int formatIndex, String formatString) {
+        if (formatIndex < 0 || formatIndex > MAX_CACHED_INDEX) {
+            return computeFlags(formatIndex, formatString);
+        }
+        // the entries are immutable and verified on lookup, so a lost update
+        // of a concurrent lookup only means, that a format is computed again
+        Entry[] current = entries;
+        if (formatIndex >= current.length) {
+            current = Arrays.copyOf(current, Math.min(Math.max(formatIndex + 1, current.length * 2), MAX_CACHED_INDEX + 1));
+            entries = current;
+        }
+        Entry entry = current[formatIndex];
+        if (entry == null || !entry.matches(formatString)) {
+            entry = new Entry(formatString, computeFlags(formatIndex, formatString));
+            current[formatIndex] = entry;
+        }
+        return entry.flags;
+    }
+
+    private static int computeFlags(int formatIndex, String formatString) {
+        if (!DateUtil.isADateFormat(formatIndex, formatString)) {
+            return 0;
+        }
+        if (DateUtil.isInternalDateFormat(formatIndex)) {
+            switch (formatIndex) {
+                case 0x12: case 0x13: case 0x14: case 0x15: case 0x2d: case 0x2f:
+                    return DATE | TIME;
+                case 0x2e:
+                    return DATE | TIME | ELAPSED;
+                default:
+                    return DATE;
+            }
+        }
+
+        int flags = DATE;
+        // only the first part of the format is used for dates
+        String fs = formatString;
+        int separatorIndex = fs.indexOf(';');
+        if (separatorIndex > 0) {
+            fs = fs.substring(0, separatorIndex);
+        }
+        if (ELAPSED_PTRN.matcher(fs).find()) {
+            flags |= ELAPSED;
+        }
+        fs = NON_DATE_PARTS_PTRN.matcher(fs).replaceAll("");
+        if ((flags & ELAPSED) != 0
+                || (TIME_PART_PTRN.matcher(fs).find() && !DAY_PART_PTRN.matcher(fs).find())) {
+            flags |= TIME;
+        }
+        return flags;
+    }
+
+    private static final class Entry {
+        private final String formatString;
+        private final int flags;
+
+        Entry(String formatString, int flags) {
+            this.formatString = formatString;
+            this.flags = flags;
+        }
+
+        boolean matches(String other) {
+            // the format strings are usually the same instances
+            return formatString == null ? other == null : (formatString == other || formatString.equals(other));
+        }
+    }
+}
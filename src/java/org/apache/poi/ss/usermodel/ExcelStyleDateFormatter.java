@@ -130,11 +130,11 @@ public class ExcelStyleDateFormatter extends SimpleDateFormat {
 
             s = s.replaceAll(
                     String.valueOf(H_BRACKET_SYMBOL),
-                    format1digit.format(hours)
+                    formatDigits(format1digit, hours)
             );
             s = s.replaceAll(
                     String.valueOf(HH_BRACKET_SYMBOL),
-                    format2digits.format(hours)
+                    formatDigits(format2digits, hours)
             );
         }
 
@@ -143,11 +143,11 @@ public class ExcelStyleDateFormatter extends SimpleDateFormat {
             float minutes = (float) dateToBeFormatted * 24 * 60;
             s = s.replaceAll(
                     String.valueOf(M_BRACKET_SYMBOL),
-                    format1digit.format(minutes)
+                    formatDigits(format1digit, minutes)
             );
             s = s.replaceAll(
                     String.valueOf(MM_BRACKET_SYMBOL),
-                    format2digits.format(minutes)
+                    formatDigits(format2digits, minutes)
             );
         }
         if (s.indexOf(S_BRACKET_SYMBOL) != -1 ||
@@ -155,11 +155,11 @@ public class ExcelStyleDateFormatter extends SimpleDateFormat {
             float seconds = (float) (dateToBeFormatted * 24.0 * 60.0 * 60.0);
             s = s.replaceAll(
                     String.valueOf(S_BRACKET_SYMBOL),
-                    format1digit.format(seconds)
+                    formatDigits(format1digit, seconds)
             );
             s = s.replaceAll(
                     String.valueOf(SS_BRACKET_SYMBOL),
-                    format2digits.format(seconds)
+                    formatDigits(format2digits, seconds)
             );
         }
 
@@ -169,17 +169,26 @@ public class ExcelStyleDateFormatter extends SimpleDateFormat {
             float millis = (millisTemp - (int) millisTemp);
             s = s.replaceAll(
                     String.valueOf(L_BRACKET_SYMBOL),
-                    format3digit.format(millis * 10)
+                    formatDigits(format3digit, millis * 10)
             );
             s = s.replaceAll(
                     String.valueOf(LL_BRACKET_SYMBOL),
-                    format4digits.format(millis * 100)
+                    formatDigits(format4digits, millis * 100)
             );
         }
 
         return new StringBuffer(s);
     }
 
+    /**
+     * The digit formats are shared by all instances, so the access is synchronized
+     */
+    private static String formatDigits(DecimalFormat format, float value) {
+        synchronized (format) {
+            return format.format(value);
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         if (!(o instanceof ExcelStyleDateFormatter)) {
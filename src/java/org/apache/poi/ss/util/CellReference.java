@@ -209,6 +209,52 @@ public class CellReference {
         return retval-1;
     }
 
+    /**
+     * Takes the column of a cell reference like "AB12" or "$AB$12" and converts it
+     * to a 0-based index, without creating a CellReference or any Strings, e.g.
+     * for reading the cells of large sheets.
+     *
+     * @param ref a cell reference in A1 style, the column letters may be upper or lower case
+     * @return zero based column index or -1, if the text isn't a cell reference
+     */
+    public static int convertCellRefToColIndex(CharSequence ref) {
+        final int len = ref.length();
+        int i = (len > 0 && ref.charAt(0) == ABSOLUTE_REFERENCE_MARKER) ? 1 : 0;
+        final int colStart = i;
+        int retval = 0;
+        for (; i < len; i++) {
+            char c = ref.charAt(i);
+            int letter;
+            if (c >= 'A' && c <= 'Z') {
+                letter = c - 'A' + 1;
+            } else if (c >= 'a' && c <= 'z') {
+                letter = c - 'a' + 1;
+            } else {
+                break;
+            }
+            if (retval > (Integer.MAX_VALUE - letter) / 26) {
+                return -1;
+            }
+            retval = (retval * 26) + letter;
+        }
+        if (i == colStart) {
+            return -1;
+        }
+        if (i < len && ref.charAt(i) == ABSOLUTE_REFERENCE_MARKER) {
+            i++;
+        }
+        if (i == len) {
+            return -1;
+        }
+        for (; i < len; i++) {
+            char c = ref.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+        }
+        return retval-1;
+    }
+
     /**
      * Classifies an identifier as either a simple (2D) cell reference or a named range name
      * @return one of the values from <tt>NameType</tt>
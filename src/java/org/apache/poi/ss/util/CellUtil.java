@@ -24,6 +24,7 @@ import java.util.HashSet;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
 
 import org.apache.poi.ss.usermodel.BorderStyle;
 import org.apache.poi.ss.usermodel.Cell;
@@ -105,6 +106,37 @@ public final class CellUtil {
 
     private static UnicodeMapping unicodeMappings[];
 
+    /**
+     * The styles found by {@link #setCellStyleProperties(Cell, Map)} per workbook,
+     * mapping the original style and the properties to the index of the resulting style
+     */
+    private static final Map<Workbook, Map<StyleKey, Integer>> styleCache =
+            Collections.synchronizedMap(new WeakHashMap<Workbook, Map<StyleKey, Integer>>());
+
+    private static final class StyleKey {
+        private final int styleIndex;
+        private final Map<String, Object> properties;
+
+        StyleKey(int styleIndex, Map<String, Object> properties) {
+            this.styleIndex = styleIndex;
+            this.properties = properties;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof StyleKey)) {
+                return false;
+            }
+            StyleKey other = (StyleKey)o;
+            return styleIndex == other.styleIndex && properties.equals(other.properties);
+        }
+
+        @Override
+        public int hashCode() {
+            return styleIndex * 31 + properties.hashCode();
+        }
+    }
+
     private static final class UnicodeMapping {
 
         public final String entityName;
@@ -266,6 +298,10 @@ public final class CellUtil {
      * [@link #removeStyleFromWorkbookIfUnused(CellStyle, Workbook)]. -->
      * </p>
      *
+     * <p>The resulting style is cached per workbook for the original style and the properties,
+     * so repeated calls don't need to search the styles of the workbook. A cached style is
+     * only reused, if it still has the given properties.</p>
+     *
      * @param cell The cell to change the style of
      * @param properties The properties to be added to a cell style, as {propertyName: propertyValue}.
      * @since POI 3.14 beta 2
@@ -273,6 +309,23 @@ public final class CellUtil {
     public static void setCellStyleProperties(Cell cell, Map<String, Object> properties) {
         Workbook workbook = cell.getSheet().getWorkbook();
         CellStyle originalStyle = cell.getCellStyle();
+
+        Map<StyleKey, Integer> cache = styleCache.get(workbook);
+        if (cache == null) {
+            cache = new HashMap<>();
+            styleCache.put(workbook, cache);
+        }
+        // the cached style might have been modified in the meantime, so check the requested properties
+        StyleKey key = new StyleKey(originalStyle.getIndex(), properties);
+        Integer cachedIndex = cache.get(key);
+        if (cachedIndex != null && cachedIndex < workbook.getNumCellStyles()) {
+            CellStyle cachedStyle = workbook.getCellStyleAt(cachedIndex);
+            if (hasFormatProperties(cachedStyle, properties)) {
+                cell.setCellStyle(cachedStyle);
+                return;
+            }
+        }
+
         CellStyle newStyle = null;
         Map<String, Object> values = getFormatProperties(originalStyle);
         putAll(properties, values);
@@ -298,6 +351,8 @@ public final class CellUtil {
             setFormatProperties(newStyle, workbook, values);
         }
 
+        // the properties of the caller might change
+        cache.put(new StyleKey(key.styleIndex, new HashMap<>(properties)), (int)newStyle.getIndex());
         cell.setCellStyle(newStyle);
     }
 
@@ -358,6 +413,57 @@ public final class CellUtil {
         return properties;
     }
     
+    /**
+     * Returns the format property of the given cell style, with the same type as in
+     * {@link #getFormatProperties(CellStyle)}
+     *
+     * @param style cell style
+     * @param name property name
+     * @return the property value or null, if the property name is unknown
+     */
+    private static Object getFormatProperty(CellStyle style, String name) {
+        switch (name) {
+            case ALIGNMENT: return style.getAlignment();
+            case VERTICAL_ALIGNMENT: return style.getVerticalAlignment();
+            case BORDER_BOTTOM: return style.getBorderBottom();
+            case BORDER_LEFT: return style.getBorderLeft();
+            case BORDER_RIGHT: return style.getBorderRight();
+            case BORDER_TOP: return style.getBorderTop();
+            case BOTTOM_BORDER_COLOR: return style.getBottomBorderColor();
+            case DATA_FORMAT: return style.getDataFormat();
+            case FILL_PATTERN: return style.getFillPattern();
+            case FILL_FOREGROUND_COLOR: return style.getFillForegroundColor();
+            case FILL_BACKGROUND_COLOR: return style.getFillBackgroundColor();
+            case FONT: return style.getFontIndex();
+            case HIDDEN: return style.getHidden();
+            case INDENTION: return style.getIndention();
+            case LEFT_BORDER_COLOR: return style.getLeftBorderColor();
+            case LOCKED: return style.getLocked();
+            case RIGHT_BORDER_COLOR: return style.getRightBorderColor();
+            case ROTATION: return style.getRotation();
+            case TOP_BORDER_COLOR: return style.getTopBorderColor();
+            case WRAP_TEXT: return style.getWrapText();
+            default: return null;
+        }
+    }
+
+    /**
+     * Checks if the cell style has the given format properties, without copying its other properties
+     *
+     * @param style cell style
+     * @param properties the properties as passed to {@link #setCellStyleProperties(Cell, Map)}
+     * @return true, if all known properties have the given values
+     */
+    private static boolean hasFormatProperties(CellStyle style, Map<String, Object> properties) {
+        for (final String key : properties.keySet()) {
+            Object value = getPreferredValue(properties, key);
+            if (value != null && !value.equals(getFormatProperty(style, key))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Copies the entries in src to dest, using the preferential data type
      * so that maps can be compared for equality
@@ -368,18 +474,9 @@ public final class CellUtil {
      */
     private static void putAll(final Map<String, Object> src, Map<String, Object> dest) {
         for (final String key : src.keySet()) {
-            if (shortValues.contains(key)) {
-                dest.put(key, getShort(src, key));
-            } else if (booleanValues.contains(key)) {
-                dest.put(key, getBoolean(src, key));
-            } else if (borderTypeValues.contains(key)) {
-                dest.put(key, getBorderStyle(src, key));
-            } else if (ALIGNMENT.equals(key)) {
-                dest.put(key, getHorizontalAlignment(src, key));
-            } else if (VERTICAL_ALIGNMENT.equals(key)) {
-                dest.put(key, getVerticalAlignment(src, key));
-            } else if (FILL_PATTERN.equals(key)) {
-                dest.put(key, getFillPattern(src, key));
+            Object value = getPreferredValue(src, key);
+            if (value != null) {
+                dest.put(key, value);
             } else {
                 if (log.check(POILogger.INFO)) {
                     log.log(POILogger.INFO, "Ignoring unrecognized CellUtil format properties key: " + key);
@@ -388,6 +485,30 @@ public final class CellUtil {
         }
     }
 
+    /**
+     * Returns the property value with the preferential data type of {@link #getFormatProperties(CellStyle)}
+     *
+     * @param properties map of named properties (String -> Object)
+     * @param key property name
+     * @return the converted value or null, if the property name is unknown
+     */
+    private static Object getPreferredValue(final Map<String, Object> properties, String key) {
+        if (shortValues.contains(key)) {
+            return getShort(properties, key);
+        } else if (booleanValues.contains(key)) {
+            return getBoolean(properties, key);
+        } else if (borderTypeValues.contains(key)) {
+            return getBorderStyle(properties, key);
+        } else if (ALIGNMENT.equals(key)) {
+            return getHorizontalAlignment(properties, key);
+        } else if (VERTICAL_ALIGNMENT.equals(key)) {
+            return getVerticalAlignment(properties, key);
+        } else if (FILL_PATTERN.equals(key)) {
+            return getFillPattern(properties, key);
+        }
+        return null;
+    }
+
     /**
      * Sets the format properties of the given style based on the given map.
      *
@@ -0,0 +1,176 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.ss.util;
+
+import java.awt.font.TextAttribute;
+import java.awt.font.TextLayout;
+import java.awt.geom.Rectangle2D;
+import java.text.AttributedCharacterIterator.Attribute;
+import java.text.AttributedString;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.util.Internal;
+
+/**
+ * Caches the glyph advances of fonts, so that the width of simple text can be
+ * computed by summing up the advances instead of laying out the text with AWT.
+ * <p>
+ * The advances are measured with the same attributes and font render context as
+ * {@link SheetUtil#getCellWidth(org.apache.poi.ss.usermodel.Cell, int, org.apache.poi.ss.usermodel.DataFormatter, boolean)},
+ * so the result matches the text layout for text without kerning, ligatures and
+ * complex scripts. Text containing other characters than latin, greek and cyrillic ones
+ * isn't estimated and needs to be measured by the text layout.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+@Internal
+public class GlyphWidthCache {
+    /**
+     * characters up to the end of the armenian block don't need bidi or shaping,
+     * the following hebrew block is right-to-left
+     */
+    private static final int MAX_SIMPLE_CHAR = 0x058F;
+
+    private final Map<FontKey, Advances> fonts = new HashMap<>();
+
+    /**
+     * Compute the width of the text followed by the given trailing character, i.e. the distance
+     * from the origin to the right edge of the trailing character's glyph.
+     *
+     * @param font the font of the text
+     * @param text the text without line breaks
+     * @param trailingChar the character appended to the text
+     * @return the width in points or -1, if the text can't be estimated
+     */
+    public double getTextWidth(Font font, String text, char trailingChar) {
+        if (!isSimple(trailingChar)) {
+            return -1;
+        }
+        final int len = text.length();
+        for (int i = 0; i < len; i++) {
+            if (!isSimple(text.charAt(i))) {
+                return -1;
+            }
+        }
+
+        FontKey key = new FontKey(font);
+        Advances adv = fonts.get(key);
+        if (adv == null) {
+            adv = new Advances(key);
+            fonts.put(key, adv);
+        }
+
+        double width = 0;
+        for (int i = 0; i < len; i++) {
+            width += adv.getAdvance(text.charAt(i));
+        }
+        return width + adv.getRightEdge(trailingChar);
+    }
+
+    private static boolean isSimple(char c) {
+        // control characters and combining diacritical marks need the text layout
+        return c >= ' ' && c <= MAX_SIMPLE_CHAR && (c < 0x0300 || c > 0x036F);
+    }
+
+    private static final class FontKey {
+        private final String name;
+        private final short height;
+        private final boolean bold;
+        private final boolean italic;
+        private final boolean underline;
+
+        FontKey(Font font) {
+            name = font.getFontName();
+            height = font.getFontHeightInPoints();
+            bold = font.getBold();
+            italic = font.getItalic();
+            underline = (font.getUnderline() == Font.U_SINGLE);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof FontKey)) {
+                return false;
+            }
+            FontKey other = (FontKey)o;
+            return height == other.height && bold == other.bold && italic == other.italic
+                && underline == other.underline && (name == null ? other.name == null : name.equals(other.name));
+        }
+
+        @Override
+        public int hashCode() {
+            int result = (name == null) ? 0 : name.hashCode();
+            result = 31 * result + height;
+            return 4 * result + (bold ? 2 : 0) + (italic ? 1 : 0) + (underline ? 8 : 0);
+        }
+    }
+
+    /**
+     * lazily measured advances and glyph right edges of the simple characters of a font
+     */
+    private static final class Advances {
+        /**
+         * the text attributes of {@link SheetUtil#copyAttributes}, taken from the key,
+         * as the POI font might be modified after the advances have been created
+         */
+        private final Map<Attribute, Object> attributes = new HashMap<>();
+        private final float[] advances = new float[MAX_SIMPLE_CHAR + 1];
+        private final float[] rightEdges = new float[MAX_SIMPLE_CHAR + 1];
+
+        Advances(FontKey key) {
+            attributes.put(TextAttribute.FAMILY, key.name);
+            attributes.put(TextAttribute.SIZE, (float)key.height);
+            if (key.bold) attributes.put(TextAttribute.WEIGHT, TextAttribute.WEIGHT_BOLD);
+            if (key.italic) attributes.put(TextAttribute.POSTURE, TextAttribute.POSTURE_OBLIQUE);
+            if (key.underline) attributes.put(TextAttribute.UNDERLINE, TextAttribute.UNDERLINE_ON);
+            Arrays.fill(advances, Float.NaN);
+            Arrays.fill(rightEdges, Float.NaN);
+        }
+
+        float getAdvance(char c) {
+            float adv = advances[c];
+            if (Float.isNaN(adv)) {
+                measure(c);
+                adv = advances[c];
+            }
+            return adv;
+        }
+
+        float getRightEdge(char c) {
+            float edge = rightEdges[c];
+            if (Float.isNaN(edge)) {
+                measure(c);
+                edge = rightEdges[c];
+            }
+            return edge;
+        }
+
+        private void measure(char c) {
+            AttributedString str = new AttributedString(String.valueOf(c), attributes);
+            TextLayout layout = new TextLayout(str.getIterator(), SheetUtil.fontRenderContext);
+            Rectangle2D bounds = layout.getBounds();
+            advances[c] = layout.getAdvance();
+            rightEdges[c] = (float)(bounds.getX() + bounds.getWidth());
+        }
+    }
+}
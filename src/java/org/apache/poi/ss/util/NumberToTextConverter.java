@@ -17,6 +17,7 @@
 
 package org.apache.poi.ss.util;
 
+import java.math.BigInteger;
 
 /**
  * Excel converts numbers to text with different rules to those of java, so
@@ -113,6 +114,33 @@ public final class NumberToTextConverter {
 
 	private static final long EXCEL_NAN_BITS = 0xFFFF0420003C0000L;
 	private static final int MAX_TEXT_LEN = 20;
+	private static final int MAX_SIG_DIGITS = 15;
+
+	private static final double LOG10_2 = 0.30102999566398119521;
+	// powers of ten used by the fast path, covering decimal exponents up to 98 (either sign)
+	private static final int MIN_POW10 = MAX_SIG_DIGITS + 1 - 98;
+	private static final int MAX_POW10 = MAX_SIG_DIGITS + 1 + 99;
+	/** 64 bit mantissas (top bit set) of the powers of ten, truncated */
+	private static final long[] POW10_MANTISSAS = new long[MAX_POW10 - MIN_POW10 + 1];
+	/** binary exponents matching {@link #POW10_MANTISSAS} */
+	private static final int[] POW10_EXPONENTS = new int[MAX_POW10 - MIN_POW10 + 1];
+	static {
+		for (int q = MIN_POW10; q <= MAX_POW10; q++) {
+			BigInteger p = BigInteger.TEN.pow(Math.abs(q));
+			int nBits = p.bitLength();
+			BigInteger mantissa;
+			int exponent;
+			if (q >= 0) {
+				exponent = nBits - 64;
+				mantissa = exponent > 0 ? p.shiftRight(exponent) : p.shiftLeft(-exponent);
+			} else {
+				exponent = -63 - nBits;
+				mantissa = BigInteger.ONE.shiftLeft(63 + nBits).divide(p);
+			}
+			POW10_MANTISSAS[q - MIN_POW10] = mantissa.longValue();
+			POW10_EXPONENTS[q - MIN_POW10] = exponent;
+		}
+	}
 
 	private NumberToTextConverter() {
 		// no instances of this class
@@ -129,6 +157,13 @@ public final class NumberToTextConverter {
 		return rawDoubleBitsToText(Double.doubleToLongBits(value));
 	}
 	/* package */ static String rawDoubleBitsToText(long pRawBits) {
+		return rawDoubleBitsToText(pRawBits, true);
+	}
+	/**
+	 * @param useFastPath <code>false</code> to always go through the exact (but slower)
+	 * {@link NormalisedDecimal} conversion
+	 */
+	/* package */ static String rawDoubleBitsToText(long pRawBits, boolean useFastPath) {
 
 		long rawBits = pRawBits;
 		boolean isNegative = rawBits < 0; // sign bit is in the same place for long and double
@@ -155,6 +190,11 @@ public final class NumberToTextConverter {
 			// Special numbers like Infinity and NaN are interpreted according to
 			// the standard rules below.
 			isNegative = false; // except that the sign bit is ignored
+		} else if (useFastPath) {
+			String result = fastConvertToText(Double.longBitsToDouble(rawBits), isNegative);
+			if (result != null) {
+				return result;
+			}
 		}
 		NormalisedDecimal nd = ed.normaliseBaseTen();
 		StringBuilder sb = new StringBuilder(MAX_TEXT_LEN+1);
@@ -185,6 +225,95 @@ public final class NumberToTextConverter {
 		}
 	}
 
+	/**
+	 * Renders a normal, finite value without the <tt>BigInteger</tt> arithmetic of
+	 * {@link ExpandedDouble} and {@link NormalisedDecimal}.  The value is scaled by a
+	 * tabulated power of ten with a single 64x64 bit multiplication, which gives the
+	 * leading 17 or 18 decimal digits to within a small fraction of the last digit.
+	 * That is enough to round to 15 significant digits, unless the remaining digits
+	 * are too close to one half.
+	 *
+	 * @param value a positive normal finite value
+	 * @return <code>null</code> if the rounding cannot be decided from the approximation,
+	 * or the value needs Excel's special treatment of very large or small exponents
+	 */
+	private static String fastConvertToText(double value, boolean isNegative) {
+		if (value < 1E-98 || value >= 1E98) {
+			return null;
+		}
+		long rawBits = Double.doubleToRawLongBits(value);
+		int binaryExponent = (int) (rawBits >> 52) - 1023;
+		long mantissa = ((rawBits & 0x000FFFFFFFFFFFFFL) | 0x0010000000000000L) << 11;
+
+		// value is at least 10^decExponent and less than 10^(decExponent+2)
+		int decExponent = (int) Math.floor(binaryExponent * LOG10_2);
+		int pow10Index = MAX_SIG_DIGITS + 1 - decExponent - MIN_POW10;
+		long product = multiplyHighUnsigned(mantissa, POW10_MANTISSAS[pow10Index]);
+		// the scaled value (at most one unit too small) has 17 or 18 digits
+		long scaled = product >>> -(binaryExponent + 1 + POW10_EXPONENTS[pow10Index]);
+		long divisor;
+		if (scaled >= 100000000000000000L) {
+			divisor = 1000;
+			decExponent++;
+		} else if (scaled >= 10000000000000000L) {
+			divisor = 100;
+		} else {
+			// exact power of ten approximated from below
+			return null;
+		}
+		long units = scaled / divisor;
+		long remainder = scaled % divisor;
+		long half = divisor / 2;
+		if (remainder == half - 1 || remainder == half) {
+			return null;
+		}
+		if (remainder > half) {
+			units++;
+			if (units == 1000000000000000L) {
+				units = 100000000000000L;
+				decExponent++;
+			}
+		}
+		if (Math.abs(decExponent) > 98) {
+			return null;
+		}
+
+		int nDigits = MAX_SIG_DIGITS;
+		while (units % 10 == 0) {
+			units /= 10;
+			nDigits--;
+		}
+		char[] digits = new char[nDigits];
+		for (int i = nDigits - 1; i >= 0; i--) {
+			digits[i] = (char) ('0' + units % 10);
+			units /= 10;
+		}
+		String decimalDigits = new String(digits);
+		StringBuilder sb = new StringBuilder(MAX_TEXT_LEN+1);
+		if (isNegative) {
+			sb.append('-');
+		}
+		if (decExponent < 0) {
+			formatLessThanOne(sb, decimalDigits, decExponent, nDigits);
+		} else {
+			formatGreaterThanOne(sb, decimalDigits, decExponent, nDigits);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * @return the high 64 bits of the unsigned 128 bit product of <tt>a</tt> and <tt>b</tt>
+	 */
+	private static long multiplyHighUnsigned(long a, long b) {
+		long aLow = a & 0xFFFFFFFFL;
+		long aHigh = a >>> 32;
+		long bLow = b & 0xFFFFFFFFL;
+		long bHigh = b >>> 32;
+		long lowHigh = aLow * bHigh;
+		long middle = aHigh * bLow + ((aLow * bLow) >>> 32) + (lowHigh & 0xFFFFFFFFL);
+		return aHigh * bHigh + (middle >>> 32) + (lowHigh >>> 32);
+	}
+
 	private static void formatLessThanOne(StringBuilder sb, String decimalDigits, int decExponent,
 			int countSigDigits) {
 		int nLeadingZeros = -decExponent - 1;
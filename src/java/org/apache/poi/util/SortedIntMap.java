@@ -0,0 +1,286 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.util;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A map with int keys, which iterates its values in ascending key order.
+ * <p>
+ * The keys and values are kept in two parallel arrays sorted by key, so an entry
+ *  costs two array slots instead of a boxed key and a tree node. Appending
+ *  in ascending key order - which is the usual case when rows or cells are read
+ *  or created - doesn't need to move any entries.
+ * <p>
+ * Lookups use the key as array index, while the keys are contiguous (i.e. for
+ *  dense rows and sheets) and fall back to a binary search otherwise.
+ * <p>
+ * The iterators are fail-fast like the ones of {@link java.util.TreeMap}
+ *  and support removal. The map is not thread-safe.
+ *
+ * @param <V> the type of the values
+ */
+@Internal
+public class SortedIntMap<V> {
+    private static final int DEFAULT_CAPACITY = 8;
+
+    private int[] keys;
+    private Object[] values;
+    private int size;
+    private int modCount;
+
+    public SortedIntMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param initialCapacity the number of entries, which can be added without resizing
+     */
+    public SortedIntMap(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal capacity: " + initialCapacity);
+        }
+        keys = new int[initialCapacity];
+        values = new Object[initialCapacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(int key) {
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * @return the value of the given key or {@code null} if the key isn't mapped
+     */
+    public V get(int key) {
+        int idx = indexOf(key);
+        return idx < 0 ? null : valueAt(idx);
+    }
+
+    /**
+     * Associates the value with the key
+     *
+     * @return the previous value of the key or {@code null} if the key wasn't mapped
+     */
+    public V put(int key, V value) {
+        if (size == 0 || key > keys[size - 1]) {
+            insertAt(size, key, value);
+            return null;
+        }
+        int idx = indexOf(key);
+        if (idx >= 0) {
+            V prev = valueAt(idx);
+            values[idx] = value;
+            return prev;
+        }
+        insertAt(-(idx + 1), key, value);
+        return null;
+    }
+
+    /**
+     * Removes the mapping of the key
+     *
+     * @return the removed value or {@code null} if the key wasn't mapped
+     */
+    public V remove(int key) {
+        int idx = indexOf(key);
+        if (idx < 0) {
+            return null;
+        }
+        V prev = valueAt(idx);
+        removeAt(idx);
+        return prev;
+    }
+
+    public void clear() {
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * @throws NoSuchElementException if the map is empty
+     */
+    public int firstKey() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return keys[0];
+    }
+
+    /**
+     * @throws NoSuchElementException if the map is empty
+     */
+    public int lastKey() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return keys[size - 1];
+    }
+
+    /**
+     * @return the number of keys, which are less than the given key,
+     *  i.e. the position of the key in the iteration order
+     */
+    public int headSize(int key) {
+        int idx = indexOf(key);
+        return idx >= 0 ? idx : -(idx + 1);
+    }
+
+    /**
+     * @param fromKey the lowest key, inclusive
+     * @param toKey the highest key, exclusive
+     * @return a copy of the values of the given key range in ascending key order
+     */
+    public List<V> values(int fromKey, int toKey) {
+        if (fromKey > toKey) {
+            throw new IllegalArgumentException("fromKey > toKey");
+        }
+        int from = headSize(fromKey);
+        int to = headSize(toKey);
+        List<V> list = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            list.add(valueAt(i));
+        }
+        return list;
+    }
+
+    /**
+     * @return a view of the values in ascending key order, which supports removal
+     */
+    public Collection<V> values() {
+        return new AbstractCollection<V>() {
+            @Override
+            public Iterator<V> iterator() {
+                return new ValueIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * @return the array index of the key or {@code -(insertion point) - 1} if the key isn't mapped
+     */
+    private int indexOf(int key) {
+        if (size == 0) {
+            return -1;
+        }
+        int first = keys[0];
+        int last = keys[size - 1];
+        if (key < first) {
+            return -1;
+        }
+        if (key > last) {
+            return -(size + 1);
+        }
+        if (last - first == size - 1) {
+            // the keys are contiguous
+            return key - first;
+        }
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int idx) {
+        return (V)values[idx];
+    }
+
+    private void insertAt(int idx, int key, V value) {
+        if (size == keys.length) {
+            int newCapacity = Math.max(DEFAULT_CAPACITY, size + (size >> 1));
+            keys = Arrays.copyOf(keys, newCapacity);
+            values = Arrays.copyOf(values, newCapacity);
+        }
+        if (idx < size) {
+            System.arraycopy(keys, idx, keys, idx + 1, size - idx);
+            System.arraycopy(values, idx, values, idx + 1, size - idx);
+        }
+        keys[idx] = key;
+        values[idx] = value;
+        size++;
+        modCount++;
+    }
+
+    private void removeAt(int idx) {
+        int tail = size - idx - 1;
+        if (tail > 0) {
+            System.arraycopy(keys, idx + 1, keys, idx, tail);
+            System.arraycopy(values, idx + 1, values, idx, tail);
+        }
+        size--;
+        values[size] = null;
+        modCount++;
+    }
+
+    private final class ValueIterator implements Iterator<V> {
+        private int next;
+        private int last = -1;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        @Override
+        public V next() {
+            checkForComodification();
+            if (next >= size) {
+                throw new NoSuchElementException();
+            }
+            last = next++;
+            return valueAt(last);
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            checkForComodification();
+            removeAt(last);
+            next = last;
+            last = -1;
+            expectedModCount = modCount;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+}
@@ -59,9 +59,9 @@ public abstract class PackagePart implements RelationshipSource, Comparable<Pack
 	private boolean _isDeleted;
 
 	/**
-	 * This part's relationships.
+	 * This part's relationships, loaded on first access by {@link #loadRelationships()}.
 	 */
-	private PackageRelationshipCollection _relationships;
+	private volatile PackageRelationshipCollection _relationships;
 
 
 	/**
@@ -91,7 +91,8 @@ public abstract class PackagePart implements RelationshipSource, Comparable<Pack
 	 * @param contentType
 	 *            The content type.
 	 * @param loadRelationships
-	 *            Specify if the relationships will be loaded
+	 *            Specify if the relationships will be loaded now, otherwise
+	 *            they are loaded on first access
 	 * @throws InvalidFormatException
 	 *             If the specified URI is not valid.
 	 */
@@ -133,7 +134,7 @@ public abstract class PackagePart implements RelationshipSource, Comparable<Pack
 	 * @return The existing relationship, or null if there isn't yet one
 	 */
 	public PackageRelationship findExistingRelation(PackagePart packagePart) {
-		return _relationships.findExistingInternalRelation(packagePart);
+		return getLoadedRelationships().findExistingInternalRelation(packagePart);
     }
 
 	/**
@@ -182,8 +183,9 @@ public abstract class PackagePart implements RelationshipSource, Comparable<Pack
 			throw new IllegalArgumentException("relationshipType");
 		}
 
-		if (_relationships == null) {
-			_relationships = new PackageRelationshipCollection();
+		PackageRelationshipCollection relationships = getLoadedRelationships();
+		if (relationships == null) {
+			relationships = _relationships = new PackageRelationshipCollection();
 		}
 
 		URI targetURI;
@@ -193,7 +195,7 @@ public abstract class PackagePart implements RelationshipSource, Comparable<Pack
 			throw new IllegalArgumentException("Invalid target - " + e);
 		}
 
-		return _relationships.addRelationship(targetURI, TargetMode.EXTERNAL,
+		return relationships.addRelationship(targetURI, TargetMode.EXTERNAL,
 				relationshipType, id);
 	}
 
@@ -263,11 +265,12 @@ public abstract class PackagePart implements RelationshipSource, Comparable<Pack
 					"Rule M1.25: The Relationships part shall not have relationships to any other part.");
 		}
 
-		if (_relationships == null) {
-			_relationships = new PackageRelationshipCollection();
+		PackageRelationshipCollection relationships = getLoadedRelationships();
+		if (relationships == null) {
+			relationships = _relationships = new PackageRelationshipCollection();
 		}
 
-		return _relationships.addRelationship(targetPartName.getURI(),
+		return relationships.addRelationship(targetPartName.getURI(),
 				targetMode, relationshipType, id);
 	}
 
@@ -336,11 +339,12 @@ public abstract class PackagePart implements RelationshipSource, Comparable<Pack
 					"Rule M1.25: The Relationships part shall not have relationships to any other part.");
 		}
 
-		if (_relationships == null) {
-			_relationships = new PackageRelationshipCollection();
+		PackageRelationshipCollection relationships = getLoadedRelationships();
+		if (relationships == null) {
+			relationships = _relationships = new PackageRelationshipCollection();
 		}
 
-		return _relationships.addRelationship(targetURI,
+		return relationships.addRelationship(targetURI,
 				targetMode, relationshipType, id);
 	}
 
@@ -348,8 +352,9 @@ public abstract class PackagePart implements RelationshipSource, Comparable<Pack
 	 * @see org.apache.poi.openxml4j.opc.RelationshipSource#clearRelationships()
 	 */
 	public void clearRelationships() {
-		if (_relationships != null) {
-			_relationships.clear();
+		PackageRelationshipCollection relationships = getLoadedRelationships();
+		if (relationships != null) {
+			relationships.clear();
 		}
 	}
 
@@ -362,8 +367,9 @@ public abstract class PackagePart implements RelationshipSource, Comparable<Pack
 	 */
 	public void removeRelationship(String id) {
 		this._container.throwExceptionIfReadOnly();
-		if (this._relationships != null)
-			this._relationships.removeRelationship(id);
+		PackageRelationshipCollection relationships = getLoadedRelationships();
+		if (relationships != null)
+			relationships.removeRelationship(id);
 	}
 
 	/**
@@ -390,7 +396,7 @@ public abstract class PackagePart implements RelationshipSource, Comparable<Pack
 	public PackageRelationship getRelationship(String id) {
 	    if (id==null)
 	        return null;
-	    PackageRelationship result = this._relationships.getRelationshipByID(id);
+	    PackageRelationship result = getLoadedRelationships().getRelationshipByID(id);
 		return result;
 	}
 
@@ -433,7 +439,7 @@ public abstract class PackagePart implements RelationshipSource, Comparable<Pack
 		this._container.throwExceptionIfWriteOnly();
 		if (_relationships == null) {
 			this.throwExceptionIfRelationship();
-			_relationships = new PackageRelationshipCollection(this);
+			loadRelationships();
 		}
 		return new PackageRelationshipCollection(_relationships, filter);
 	}
@@ -446,8 +452,11 @@ public abstract class PackagePart implements RelationshipSource, Comparable<Pack
 	 * @see org.apache.poi.openxml4j.opc.RelationshipSource#hasRelationships()
 	 */
 	public boolean hasRelationships() {
-		return (!this._isRelationshipPart && (_relationships != null && _relationships
-				.size() > 0));
+		if (this._isRelationshipPart) {
+			return false;
+		}
+		PackageRelationshipCollection relationships = getLoadedRelationships();
+		return (relationships != null && relationships.size() > 0);
 	}
 
 	/**
@@ -468,7 +477,7 @@ public abstract class PackagePart implements RelationshipSource, Comparable<Pack
 	    if (id==null) {
 	        return false;
 	    }
-	    PackageRelationship rs = _relationships.getRelationshipByID(id);
+	    PackageRelationship rs = getLoadedRelationships().getRelationshipByID(id);
 		return  rs!= null;
 	}
 
@@ -543,7 +552,7 @@ public abstract class PackagePart implements RelationshipSource, Comparable<Pack
 			    throw new InvalidOperationException(
 			            "Can't create a temporary part !");
 			}
-			part._relationships = this._relationships;
+			part._relationships = getLoadedRelationships();
 			outStream = part.getOutputStreamImpl();
 		} else {
 			outStream = this.getOutputStreamImpl();
@@ -573,8 +582,34 @@ public abstract class PackagePart implements RelationshipSource, Comparable<Pack
 	private void loadRelationships() throws InvalidFormatException {
 		if (this._relationships == null && !this._isRelationshipPart) {
 			this.throwExceptionIfRelationship();
-			_relationships = new PackageRelationshipCollection(this);
+			// parts can be read by several threads, e.g. when sheets are parsed concurrently,
+			// so the collection is only published after it has been completely loaded
+			synchronized (this) {
+				if (this._relationships == null) {
+					_relationships = new PackageRelationshipCollection(this);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the relationships of this part. If the part has been created without
+	 * loading its relationships, they are loaded from the package on the first access.
+	 *
+	 * @return the relationships, or <code>null</code> for relationship parts
+	 * @throws InvalidOperationException
+	 *             If the relationships part can't be parsed
+	 */
+	private PackageRelationshipCollection getLoadedRelationships() {
+		if (this._relationships == null && !this._isRelationshipPart) {
+			try {
+				loadRelationships();
+			} catch (InvalidFormatException e) {
+				throw new InvalidOperationException("Failed to parse the relationships of "
+						+ _partName.getName() + ": " + e.getMessage(), e);
+			}
 		}
+		return this._relationships;
 	}
 
 	/*
@@ -25,6 +25,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Enumeration;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
 import java.util.zip.ZipFile;
 import java.util.zip.ZipOutputStream;
 
@@ -38,12 +39,15 @@ import org.apache.poi.openxml4j.opc.internal.ContentTypeManager;
 import org.apache.poi.openxml4j.opc.internal.FileHelper;
 import org.apache.poi.openxml4j.opc.internal.MemoryPackagePart;
 import org.apache.poi.openxml4j.opc.internal.PartMarshaller;
+import org.apache.poi.openxml4j.opc.internal.TempFilePackagePart;
 import org.apache.poi.openxml4j.opc.internal.ZipContentTypeManager;
 import org.apache.poi.openxml4j.opc.internal.ZipHelper;
 import org.apache.poi.openxml4j.opc.internal.marshallers.ZipPartMarshaller;
+import org.apache.poi.openxml4j.util.MappedZipEntrySource;
 import org.apache.poi.openxml4j.util.ZipEntrySource;
 import org.apache.poi.openxml4j.util.ZipFileZipEntrySource;
 import org.apache.poi.openxml4j.util.ZipInputStreamZipEntrySource;
+import org.apache.poi.openxml4j.util.ZipRawCopyOutputStream;
 import org.apache.poi.openxml4j.util.ZipSecureFile.ThresholdInputStream;
 import org.apache.poi.util.IOUtils;
 import org.apache.poi.util.POILogFactory;
@@ -65,6 +69,113 @@ public final class ZipPackage extends OPCPackage {
      */
     private final ZipEntrySource zipArchive;
 
+    /** Open files for reading via a {@link MappedZipEntrySource} */
+    private static volatile boolean useMemoryMapping;
+
+    /**
+     * Sets if zip files, which are opened with {@link PackageAccess#READ}, are memory mapped
+     * instead of being read via {@link ZipFile}. It defaults to <code>false</code>.
+     * Files, which can't be mapped, e.g. ZIP64 files, are always read via {@link ZipFile}.
+     * The mapping is released by the garbage collector, so a mapped file might stay locked
+     * for a while after closing the package.
+     *
+     * @param useMemoryMapping true to memory map read-only files
+     *
+     * @since POI 4.0.0
+     */
+    public static void setUseMemoryMapping(boolean useMemoryMapping) {
+        ZipPackage.useMemoryMapping = useMemoryMapping;
+    }
+
+    /**
+     * @return true if zip files, which are opened with {@link PackageAccess#READ}, are memory mapped
+     *
+     * @since POI 4.0.0
+     */
+    public static boolean isUseMemoryMapping() {
+        return useMemoryMapping;
+    }
+
+    /** Copy the unmodified parts as-is from the original file when saving */
+    private static boolean useIncrementalSave = true;
+
+    /**
+     * Sets if the unmodified parts of a package, which has been opened from a file, are copied
+     * as-is from the original file when saving, i.e. without inflating and deflating them again.
+     * It defaults to <code>true</code>. The modified parts are always marshalled again.
+     *
+     * @param useIncrementalSave true to copy unmodified parts as-is
+     *
+     * @since POI 4.0.0
+     */
+    public static void setUseIncrementalSave(boolean useIncrementalSave) {
+        ZipPackage.useIncrementalSave = useIncrementalSave;
+    }
+
+    /**
+     * @return true if the unmodified parts are copied as-is from the original file when saving
+     *
+     * @since POI 4.0.0
+     */
+    public static boolean isUseIncrementalSave() {
+        return useIncrementalSave;
+    }
+
+    /** The size, above which created parts are moved to temp files, or -1 to keep them in memory */
+    private static long tempFilePackagePartThreshold = -1;
+
+    /** Encrypt the temp files of the parts */
+    private static boolean encryptTempFilePackageParts;
+
+    /**
+     * Sets the size in bytes, above which the data of new or modified parts is moved
+     * from memory to a temp file. It defaults to <code>-1</code>, i.e. all parts are kept
+     * in memory.
+     *
+     * @param threshold the size in bytes, or -1 to keep all parts in memory
+     * @throws IllegalArgumentException if the threshold is less than -1
+     *
+     * @see TempFilePackagePart
+     * @since POI 4.0.0
+     */
+    public static void setTempFilePackagePartThreshold(long threshold) {
+        if (threshold < -1) {
+            throw new IllegalArgumentException("The threshold must be -1 or greater: " + threshold);
+        }
+        ZipPackage.tempFilePackagePartThreshold = threshold;
+    }
+
+    /**
+     * @return the size in bytes, above which the data of new or modified parts is moved to a temp file,
+     *  or -1 if all parts are kept in memory
+     *
+     * @since POI 4.0.0
+     */
+    public static long getTempFilePackagePartThreshold() {
+        return tempFilePackagePartThreshold;
+    }
+
+    /**
+     * Sets if the temp files of parts, which exceed the {@link #setTempFilePackagePartThreshold(long) threshold},
+     * are encrypted via {@link org.apache.poi.poifs.crypt.temp.EncryptedTempData}. It defaults to <code>false</code>.
+     *
+     * @param encryptTempFilePackageParts true to encrypt the temp files
+     *
+     * @since POI 4.0.0
+     */
+    public static void setEncryptTempFilePackageParts(boolean encryptTempFilePackageParts) {
+        ZipPackage.encryptTempFilePackageParts = encryptTempFilePackageParts;
+    }
+
+    /**
+     * @return true if the temp files of parts are encrypted
+     *
+     * @since POI 4.0.0
+     */
+    public static boolean isEncryptTempFilePackageParts() {
+        return encryptTempFilePackageParts;
+    }
+
     /**
      * Constructor. Creates a new, empty ZipPackage.
      */
@@ -131,8 +242,7 @@ public final class ZipPackage extends OPCPackage {
 
         ZipEntrySource ze;
         try {
-            final ZipFile zipFile = ZipHelper.openZipFile(file); // NOSONAR
-            ze = new ZipFileZipEntrySource(zipFile);
+            ze = openZipEntrySourceFile(file, access);
         } catch (IOException e) {
             // probably not happening with write access - not sure how to handle the default read-write access ...
             if (access == PackageAccess.WRITE) {
@@ -144,6 +254,18 @@ public final class ZipPackage extends OPCPackage {
         this.zipArchive = ze;
     }
     
+    private static ZipEntrySource openZipEntrySourceFile(File file, PackageAccess access) throws IOException {
+        if (access == PackageAccess.READ && useMemoryMapping) {
+            try {
+                return ZipHelper.openMappedZipFile(file);
+            } catch (ZipException e) {
+                LOG.log(POILogger.INFO, "Can't memory map zip file " + file + " - falling back to ZipFile: " + e.getMessage());
+            }
+        }
+        final ZipFile zipFile = ZipHelper.openZipFile(file); // NOSONAR
+        return new ZipFileZipEntrySource(zipFile);
+    }
+
     private static ZipEntrySource openZipEntrySourceStream(File file) throws InvalidOperationException {
         final FileInputStream fis;
         // Acquire a resource that is needed to read the next level of openZipEntrySourceStream
@@ -371,7 +493,8 @@ public final class ZipPackage extends OPCPackage {
     }
 
     /**
-     * Create a new MemoryPackagePart from the specified URI and content type
+     * Create a new MemoryPackagePart from the specified URI and content type,
+     * or a TempFilePackagePart if a {@link #setTempFilePackagePartThreshold(long) threshold} is set
      *
      *
      * aram partName The part URI.
@@ -392,6 +515,10 @@ public final class ZipPackage extends OPCPackage {
         }
 
         try {
+            if (tempFilePackagePartThreshold >= 0) {
+                return new TempFilePackagePart(this, partName, contentType, loadRelationships,
+                        tempFilePackagePartThreshold, encryptTempFilePackageParts);
+            }
             return new MemoryPackagePart(this, partName, contentType, loadRelationships);
         } catch (InvalidFormatException e) {
             LOG.log(POILogger.WARN, e);
@@ -479,12 +606,38 @@ public final class ZipPackage extends OPCPackage {
 		return FileHelper.getFilename(tmpFilename.getAbsoluteFile());
 	}
 
+    /**
+     * Close and save the package, the temp files of the parts are removed afterwards.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            clearTempFileParts();
+        }
+    }
+
+	/**
+	 * Remove the temp files of the parts.
+	 */
+	private void clearTempFileParts() {
+		if (this.partList != null) {
+			for (PackagePart part : this.partList.sortedValues()) {
+				if (part instanceof TempFilePackagePart) {
+					part.clear();
+				}
+			}
+		}
+	}
+
 	/**
 	 * Close the package without saving the document. Discard all the changes
 	 * made to this package.
 	 */
 	@Override
 	protected void revertImpl() {
+		clearTempFileParts();
 		try {
 			if (this.zipArchive != null) {
                 this.zipArchive.close();
@@ -524,9 +677,11 @@ public final class ZipPackage extends OPCPackage {
 		throwExceptionIfReadOnly();
 
 		final ZipOutputStream zos;
+		MappedZipEntrySource rawSource = null;
 		try {
 			if (!(outputStream instanceof ZipOutputStream)) {
-                zos = new ZipOutputStream(outputStream);
+				rawSource = openRawCopySource();
+				zos = (rawSource == null) ? new ZipOutputStream(outputStream) : new ZipRawCopyOutputStream(outputStream);
             } else {
                 zos = (ZipOutputStream) outputStream;
             }
@@ -575,6 +730,10 @@ public final class ZipPackage extends OPCPackage {
 				final PackagePartName ppn = part.getPartName();
 				LOG.log(POILogger.DEBUG,"Save part '" + ZipHelper.getZipItemNameFromOPCName(ppn.getName()) + "'");
 				PartMarshaller marshaller = partMarshallers.get(part._contentType);
+				if (marshaller == null && rawSource != null
+						&& copyRawPart(part, rawSource, (ZipRawCopyOutputStream)zos)) {
+					continue;
+				}
 				String errMsg = "The part " + ppn.getURI() + " failed to be saved in the stream with marshaller ";
 
 				if (marshaller != null) {
@@ -595,9 +754,70 @@ public final class ZipPackage extends OPCPackage {
             throw new OpenXML4JRuntimeException(
                 "Fail to save: an error occurs while saving the package : "
 				+ e.getMessage(), e);
+		} finally {
+			IOUtils.closeQuietly(rawSource);
 		}
     }
 
+    /**
+     * Maps the original file of the package, so the unmodified parts can be copied as-is.
+     *
+     * @return the mapped original file, or null if the parts need to be marshalled
+     */
+    private MappedZipEntrySource openRawCopySource() {
+        if (!useIncrementalSave || !(zipArchive instanceof ZipFileZipEntrySource)
+                || originalPackagePath == null || originalPackagePath.isEmpty()) {
+            return null;
+        }
+        File file = new File(originalPackagePath);
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            return ZipHelper.openMappedZipFile(file);
+        } catch (IOException e) {
+            LOG.log(POILogger.INFO, "Can't copy the unmodified parts of " + file + " - marshalling all parts: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Copies the compressed data of an unmodified part from the original file and
+     * marshalls its relationships.
+     *
+     * @return true if the part has been copied, false if it needs to be marshalled
+     */
+    private static boolean copyRawPart(PackagePart part, MappedZipEntrySource rawSource, ZipRawCopyOutputStream zos)
+    throws IOException, InvalidFormatException {
+        if (!(part instanceof ZipPackagePart)) {
+            return false;
+        }
+        ZipEntry partEntry = ((ZipPackagePart)part).getZipArchive();
+        ZipEntry rawEntry = (partEntry == null) ? null : rawSource.getEntry(partEntry.getName());
+        // empty parts are left to the marshaller, which skips some of them
+        if (rawEntry == null || rawEntry.getSize() <= 0
+                || rawEntry.getSize() != partEntry.getSize() || rawEntry.getCrc() != partEntry.getCrc()) {
+            return false;
+        }
+
+        final PackagePartName ppn = part.getPartName();
+        ZipEntry entry = new ZipEntry(ZipHelper.getZipItemNameFromOPCName(ppn.getURI().getPath()));
+        entry.setMethod(rawEntry.getMethod());
+        entry.setTime(rawEntry.getTime());
+        entry.setCrc(rawEntry.getCrc());
+        entry.setSize(rawEntry.getSize());
+        entry.setCompressedSize(rawEntry.getCompressedSize());
+        try (InputStream rawData = rawSource.getRawInputStream(rawEntry)) {
+            zos.putRawEntry(entry, rawData);
+        }
+
+        if (part.hasRelationships()) {
+            PackagePartName relationshipPartName = PackagingURIHelper.getRelationshipPartName(ppn);
+            ZipPartMarshaller.marshallRelationshipPart(part.getRelationships(), relationshipPartName, zos);
+        }
+        return true;
+    }
+
     /**
      * Get the zip archive
      *
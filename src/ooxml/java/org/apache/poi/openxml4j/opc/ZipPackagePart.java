@@ -25,6 +25,7 @@ import java.util.zip.ZipEntry;
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
 import org.apache.poi.openxml4j.exceptions.InvalidOperationException;
 import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.internal.ContentType;
 import org.apache.poi.openxml4j.opc.internal.marshallers.ZipPartMarshaller;
 import org.apache.poi.util.NotImplemented;
 
@@ -60,7 +61,7 @@ public class ZipPackagePart extends PackagePart {
 	}
 
 	/**
-	 * Constructor.
+	 * Constructor. The relationships of the part are loaded on first access.
 	 *
 	 * @param container
 	 *            The container package.
@@ -76,7 +77,7 @@ public class ZipPackagePart extends PackagePart {
 	public ZipPackagePart(OPCPackage container, ZipEntry zipEntry,
 			PackagePartName partName, String contentType)
 			throws InvalidFormatException {
-		super(container, partName, contentType);
+		super(container, partName, new ContentType(contentType), false);
 		this.zipEntry = zipEntry;
 	}
 
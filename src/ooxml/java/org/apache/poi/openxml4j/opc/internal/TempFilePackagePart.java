@@ -0,0 +1,304 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+
+package org.apache.poi.openxml4j.opc.internal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.openxml4j.opc.PackagePartName;
+import org.apache.poi.openxml4j.opc.internal.marshallers.ZipPartMarshaller;
+import org.apache.poi.poifs.crypt.temp.EncryptedTempData;
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.util.POILogFactory;
+import org.apache.poi.util.POILogger;
+import org.apache.poi.util.TempFile;
+
+/**
+ * Package part, which keeps its data in memory like {@link MemoryPackagePart},
+ * until the data exceeds a threshold. Larger data is written to a temp file,
+ * which is optionally encrypted via {@link EncryptedTempData}.
+ * <p>
+ * The temp file is removed, when the part is cleared or the package is closed or reverted.
+ *
+ * @since POI 4.0.0
+ */
+public final class TempFilePackagePart extends PackagePart {
+	private static final POILogger LOG = POILogFactory.getLogger(TempFilePackagePart.class);
+
+	/**
+	 * The size in bytes, above which the data is moved to a temp file.
+	 */
+	private final long threshold;
+
+	/**
+	 * Encrypt the temp file.
+	 */
+	private final boolean encrypt;
+
+	/**
+	 * Storage for the part data, while it's kept in memory.
+	 */
+	private byte[] data;
+
+	/**
+	 * Storage for the part data, after it has been moved to a temp file.
+	 */
+	private TempData tempData;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param pack
+	 *            The owner package.
+	 * @param partName
+	 *            The part name.
+	 * @param contentType
+	 *            The content type.
+	 * @param loadRelationships
+	 *            Specify if the relationships will be loaded.
+	 * @param threshold
+	 *            The size in bytes, above which the data is moved to a temp file.
+	 * @param encrypt
+	 *            Encrypt the temp file.
+	 * @throws InvalidFormatException
+	 *             If the specified URI is not OPC compliant.
+	 * @throws IllegalArgumentException
+	 *             If the threshold is negative.
+	 */
+	public TempFilePackagePart(OPCPackage pack, PackagePartName partName,
+			String contentType, boolean loadRelationships, long threshold, boolean encrypt)
+			throws InvalidFormatException {
+		super(pack, partName, new ContentType(contentType), loadRelationships);
+		if (threshold < 0) {
+			throw new IllegalArgumentException("The threshold must not be negative: " + threshold);
+		}
+		this.threshold = threshold;
+		this.encrypt = encrypt;
+	}
+
+	/**
+	 * @return true, if the data has been moved to a temp file
+	 */
+	public boolean isInTempFile() {
+		return tempData != null;
+	}
+
+	@Override
+	protected InputStream getInputStreamImpl() throws IOException {
+		if (tempData != null) {
+			return tempData.getInputStream();
+		}
+		return new ByteArrayInputStream(data == null ? new byte[0] : data);
+	}
+
+	@Override
+	protected OutputStream getOutputStreamImpl() {
+		return new TempFilePackagePartOutputStream();
+	}
+
+	@Override
+	public long getSize() {
+		if (tempData != null) {
+			return tempData.size;
+		}
+		return data == null ? 0 : data.length;
+	}
+
+	@Override
+	public void clear() {
+		data = null;
+		if (tempData != null) {
+			tempData.dispose();
+			tempData = null;
+		}
+	}
+
+	@Override
+	public boolean save(OutputStream os) throws OpenXML4JException {
+		return new ZipPartMarshaller().marshall(this, os);
+	}
+
+	@Override
+	public boolean load(InputStream ios) throws InvalidFormatException {
+		clear();
+		try (OutputStream os = getOutputStreamImpl()) {
+			IOUtils.copy(ios, os);
+		} catch (IOException e) {
+			throw new InvalidFormatException(e.getMessage());
+		}
+		return true;
+	}
+
+	@Override
+	public void close() {
+		// Do nothing
+	}
+
+	@Override
+	public void flush() {
+		// Do nothing
+	}
+
+	/**
+	 * Appends to the data of the part like {@link MemoryPackagePartOutputStream}.
+	 * The data is buffered in memory, until the part exceeds the threshold.
+	 * Then the data is written to a new temp file, which replaces the data of
+	 * the part when the stream is closed.
+	 */
+	private final class TempFilePackagePartOutputStream extends OutputStream {
+		private final ByteArrayOutputStream buff = new ByteArrayOutputStream();
+		private TempData spilled;
+		private OutputStream spillStream;
+		private boolean closed;
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[]{ (byte)b }, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			if (closed) {
+				throw new IOException("Stream closed");
+			}
+			if (spillStream != null) {
+				spillStream.write(b, off, len);
+				spilled.size += len;
+				return;
+			}
+			buff.write(b, off, len);
+			if (getSize() + buff.size() > threshold) {
+				spill();
+			}
+		}
+
+		private void spill() throws IOException {
+			TempData td = new TempData(encrypt);
+			OutputStream os = null;
+			try {
+				os = td.getOutputStream();
+				// the stream appends to the existing data
+				try (InputStream is = getInputStreamImpl()) {
+					IOUtils.copy(is, os);
+				}
+				buff.writeTo(os);
+			} catch (IOException | RuntimeException e) {
+				IOUtils.closeQuietly(os);
+				td.dispose();
+				throw e;
+			}
+			td.size = getSize() + buff.size();
+			buff.reset();
+			spilled = td;
+			spillStream = os;
+		}
+
+		/**
+		 * Flushes the buffered data to the part, while it's kept in memory.
+		 * The data of a temp file is only handed over to the part on close.
+		 */
+		@Override
+		public void flush() throws IOException {
+			if (spillStream != null) {
+				spillStream.flush();
+			} else if (buff.size() > 0) {
+				if (data != null) {
+					byte[] newArray = new byte[data.length + buff.size()];
+					System.arraycopy(data, 0, newArray, 0, data.length);
+					byte[] buffArr = buff.toByteArray();
+					System.arraycopy(buffArr, 0, newArray, data.length, buffArr.length);
+					data = newArray;
+				} else {
+					data = buff.toByteArray();
+				}
+				buff.reset();
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			if (spillStream == null) {
+				flush();
+				return;
+			}
+			try {
+				spillStream.close();
+			} catch (IOException e) {
+				spilled.dispose();
+				throw e;
+			}
+			clear();
+			tempData = spilled;
+		}
+	}
+
+	/**
+	 * A temp file, which is optionally encrypted
+	 */
+	private static final class TempData {
+		private final File file;
+		private final EncryptedTempData encrypted;
+		/** the (decrypted) size of the data */
+		private long size;
+
+		TempData(boolean encrypt) throws IOException {
+			if (encrypt) {
+				encrypted = new EncryptedTempData();
+				file = null;
+			} else {
+				encrypted = null;
+				file = TempFile.createTempFile("poi-package-part", ".tmp");
+			}
+		}
+
+		OutputStream getOutputStream() throws IOException {
+			return new BufferedOutputStream(encrypted != null
+					? encrypted.getOutputStream() : new FileOutputStream(file));
+		}
+
+		InputStream getInputStream() throws IOException {
+			return new BufferedInputStream(encrypted != null
+					? encrypted.getInputStream() : new FileInputStream(file));
+		}
+
+		void dispose() {
+			if (encrypted != null) {
+				encrypted.dispose();
+			} else if (!file.delete()) {
+				LOG.log(POILogger.WARN, file.getAbsolutePath() + " can't be removed (or was already removed).");
+			}
+		}
+	}
+}
@@ -26,6 +26,7 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Enumeration;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
 import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
 
@@ -35,6 +36,7 @@ import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
 import org.apache.poi.openxml4j.opc.PackageRelationship;
 import org.apache.poi.openxml4j.opc.PackageRelationshipTypes;
 import org.apache.poi.openxml4j.opc.ZipPackage;
+import org.apache.poi.openxml4j.util.MappedZipEntrySource;
 import org.apache.poi.openxml4j.util.ZipSecureFile;
 import org.apache.poi.openxml4j.util.ZipSecureFile.ThresholdInputStream;
 import org.apache.poi.poifs.filesystem.FileMagic;
@@ -232,6 +234,37 @@ public final class ZipHelper {
         return new ZipSecureFile(file);
     }
 
+    /**
+     * Opens the specified file as a memory mapped zip
+     *
+     * @param file
+     *            The file to open.
+     * @return The zip archive freshly open.
+     * @throws ZipException if the file can't be memory mapped, e.g. because it's a ZIP64 file
+     * @throws IOException if the zip file cannot be opened or closed to read the header signature
+     * @throws NotOfficeXmlFileException if stream does not start with zip header signature
+     *
+     * @since POI 4.0.0
+     */
+    public static MappedZipEntrySource openMappedZipFile(File file) throws IOException, NotOfficeXmlFileException {
+        if (!file.exists()) {
+            throw new FileNotFoundException("File does not exist");
+        }
+        if (file.isDirectory()) {
+            throw new IOException("File is a directory");
+        }
+
+        // Peek at the first few bytes to sanity check
+        FileInputStream input = new FileInputStream(file);
+        try {
+            verifyZipHeader(input);
+        } finally {
+            input.close();
+        }
+
+        return new MappedZipEntrySource(file);
+    }
+
     /**
      * Retrieve and open as a secure zip file with the specified path.
      *
@@ -79,16 +79,14 @@ public final class ZipPartMarshaller implements PartMarshaller {
 			// Create next zip entry
 			zos.putNextEntry(partEntry);
 
-			// Saving data in the ZIP file
-			InputStream ins = part.getInputStream();
-			byte[] buff = new byte[READ_WRITE_FILE_BUFFER_SIZE];
-			while (ins.available() > 0) {
-				int resultRead = ins.read(buff);
-				if (resultRead == -1) {
-					// End of file reached
-					break;
+			// Saving data in the ZIP file - read until the end of the stream,
+			// as the available bytes of e.g. a cipher stream might be 0
+			try (InputStream ins = part.getInputStream()) {
+				byte[] buff = new byte[READ_WRITE_FILE_BUFFER_SIZE];
+				int resultRead;
+				while ((resultRead = ins.read(buff)) != -1) {
+					zos.write(buff, 0, resultRead);
 				}
-				zos.write(buff, 0, resultRead);
 			}
 			zos.closeEntry();
 		} catch (IOException ioe) {
@@ -0,0 +1,409 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+
+package org.apache.poi.openxml4j.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+
+import org.apache.poi.openxml4j.util.ZipSecureFile.ThresholdInputStream;
+import org.apache.poi.util.LocaleUtil;
+import org.apache.poi.util.SuppressForbidden;
+
+/**
+ * A ZipEntrySource, which memory maps a zip file.
+ * The central directory is parsed once when opening the file. The entries
+ *  are then read from the mapped file, i.e. stored entries are served without
+ *  additional buffering and deflated entries are inflated from the mapped data.
+ * <p>
+ * The zip bomb detection of {@link ZipSecureFile} applies to the entry streams.
+ * Only single disk archives without ZIP64 extensions up to 2GB are supported,
+ *  a {@link ZipException} is thrown for others, so the caller can fall back
+ *  to {@link ZipFileZipEntrySource}.
+ * </p>
+ * <p>
+ * The entry streams can't be read after {@link #close()}. The mapping itself is
+ *  released by the garbage collector, as unmapping it explicitly would crash
+ *  the JVM, if another thread is still reading an entry.
+ * </p>
+ *
+ * @since POI 4.0.0
+ */
+public class MappedZipEntrySource implements ZipEntrySource {
+    private static final int LOCAL_HEADER_SIG = 0x04034b50;
+    private static final int CENTRAL_HEADER_SIG = 0x02014b50;
+    private static final int END_HEADER_SIG = 0x06054b50;
+    private static final int LOCAL_HEADER_LEN = 30;
+    private static final int CENTRAL_HEADER_LEN = 46;
+    private static final int END_HEADER_LEN = 22;
+    private static final int MAX_COMMENT_LEN = 0xFFFF;
+    private static final int FLAG_ENCRYPTED = 1;
+    private static final int INFLATER_BUFFER_SIZE = 8192;
+
+    private final List<MappedZipEntry> entries;
+    private final Map<String, MappedZipEntry> entriesByName;
+    /** the mapped file, or null if the source has been closed */
+    private volatile ByteBuffer mappedFile;
+
+    /**
+     * Maps the zip file and reads its central directory
+     *
+     * @param file the zip file
+     * @throws ZipException if the file isn't a zip file, or uses unsupported zip features
+     * @throws IOException if the file can't be read
+     */
+    public MappedZipEntrySource(File file) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new ZipException("The zip file is too large to be mapped: " + size + " bytes");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        entries = new ArrayList<>();
+        entriesByName = new HashMap<>();
+        try {
+            readCentralDirectory(buffer);
+        } catch (IndexOutOfBoundsException e) {
+            throw new ZipException("Invalid zip file - a header points outside of the file");
+        }
+        mappedFile = buffer;
+    }
+
+    private void readCentralDirectory(ByteBuffer buffer) throws IOException {
+        int size = buffer.limit();
+        int endPos = -1;
+        for (int pos = size - END_HEADER_LEN; pos >= Math.max(0, size - END_HEADER_LEN - MAX_COMMENT_LEN); pos--) {
+            if (buffer.getInt(pos) == END_HEADER_SIG
+                    && pos + END_HEADER_LEN + getUShort(buffer, pos + 20) <= size) {
+                endPos = pos;
+                break;
+            }
+        }
+        if (endPos == -1) {
+            throw new ZipException("Invalid zip file - the end of central directory record wasn't found");
+        }
+        if (getUShort(buffer, endPos + 4) != 0 || getUShort(buffer, endPos + 6) != 0) {
+            throw new ZipException("Multi disk zip files are not supported");
+        }
+        int entryCount = getUShort(buffer, endPos + 10);
+        long dirSize = getUInt(buffer, endPos + 12);
+        long dirOffset = getUInt(buffer, endPos + 16);
+        if (entryCount == 0xFFFF || dirSize == 0xFFFFFFFFL || dirOffset == 0xFFFFFFFFL) {
+            throw new ZipException("ZIP64 files are not supported");
+        }
+        if (dirOffset + dirSize > endPos) {
+            throw new ZipException("Invalid zip file - the central directory overlaps its end record");
+        }
+
+        int pos = (int)dirOffset;
+        for (int i = 0; i < entryCount; i++) {
+            if (buffer.getInt(pos) != CENTRAL_HEADER_SIG) {
+                throw new ZipException("Invalid zip file - central directory header expected at " + pos);
+            }
+            int flags = getUShort(buffer, pos + 8);
+            int method = getUShort(buffer, pos + 10);
+            long dosTime = getUInt(buffer, pos + 12);
+            long crc = getUInt(buffer, pos + 16);
+            long compressedSize = getUInt(buffer, pos + 20);
+            long uncompressedSize = getUInt(buffer, pos + 24);
+            int nameLen = getUShort(buffer, pos + 28);
+            int extraLen = getUShort(buffer, pos + 30);
+            int commentLen = getUShort(buffer, pos + 32);
+            long localHeaderOffset = getUInt(buffer, pos + 42);
+            if (compressedSize == 0xFFFFFFFFL || uncompressedSize == 0xFFFFFFFFL || localHeaderOffset == 0xFFFFFFFFL) {
+                throw new ZipException("ZIP64 files are not supported");
+            }
+
+            String name = getString(buffer, pos + CENTRAL_HEADER_LEN, nameLen);
+            MappedZipEntry entry = new MappedZipEntry(name, flags, (int)localHeaderOffset);
+            entry.setMethod(method);
+            entry.setTime(dosToJavaTime(dosTime));
+            entry.setCrc(crc);
+            entry.setCompressedSize(compressedSize);
+            entry.setSize(uncompressedSize);
+            if (commentLen > 0) {
+                entry.setComment(getString(buffer, pos + CENTRAL_HEADER_LEN + nameLen + extraLen, commentLen));
+            }
+            entries.add(entry);
+            if (!entriesByName.containsKey(name)) {
+                entriesByName.put(name, entry);
+            }
+            pos += CENTRAL_HEADER_LEN + nameLen + extraLen + commentLen;
+        }
+    }
+
+    @Override
+    public Enumeration<? extends ZipEntry> getEntries() {
+        if (mappedFile == null) {
+            throw new IllegalStateException("Zip File is closed");
+        }
+        return Collections.enumeration(entries);
+    }
+
+    /**
+     * Returns the entry with the given name
+     *
+     * @param name the name of the entry
+     * @return the entry, or null if there's no such entry in this zip file
+     *
+     * @since POI 4.0.0
+     */
+    public ZipEntry getEntry(String name) {
+        if (mappedFile == null) {
+            throw new IllegalStateException("Zip File is closed");
+        }
+        return entriesByName.get(name);
+    }
+
+    /**
+     * Returns an InputStream of the decompressed data of the entry, or null if
+     *  the entry isn't part of this zip file
+     */
+    @Override
+    public InputStream getInputStream(ZipEntry entry) throws IOException {
+        MappedZipEntry mappedEntry = entriesByName.get(entry.getName());
+        ByteBuffer data = getEntryData(entry);
+        if (data == null) {
+            return null;
+        }
+
+        switch (mappedEntry.getMethod()) {
+            case ZipEntry.STORED:
+                return new ThresholdInputStream(new MappedInputStream(data, false), null);
+            case ZipEntry.DEFLATED:
+                // the zip bomb detection compares the inflated with the compressed length
+                ThresholdInputStream compressed = new ThresholdInputStream(new MappedInputStream(data, true), null);
+                return new ThresholdInputStream(new EntryInflaterInputStream(compressed), compressed);
+            default:
+                throw new ZipException("Unsupported compression method " + mappedEntry.getMethod()
+                        + " of entry " + entry.getName());
+        }
+    }
+
+    /**
+     * Returns an InputStream of the data of the entry as it is stored in the
+     *  zip file, i.e. without decompressing it. The compression method, crc and
+     *  sizes of the data are those of {@link #getEntry(String)}.
+     *
+     * @param entry the entry
+     * @return the raw data of the entry, or null if the entry isn't part of this zip file
+     * @throws IOException if the entry data can't be located
+     *
+     * @since POI 4.0.0
+     */
+    public InputStream getRawInputStream(ZipEntry entry) throws IOException {
+        ByteBuffer data = getEntryData(entry);
+        return (data == null) ? null : new MappedInputStream(data, false);
+    }
+
+    /**
+     * @return the (compressed) data of the entry, or null if it isn't part of this zip file
+     */
+    private ByteBuffer getEntryData(ZipEntry entry) throws IOException {
+        ByteBuffer buffer = mappedFile;
+        if (buffer == null) {
+            throw new IllegalStateException("Zip File is closed");
+        }
+        MappedZipEntry mappedEntry = entriesByName.get(entry.getName());
+        if (mappedEntry == null) {
+            return null;
+        }
+        if ((mappedEntry.flags & FLAG_ENCRYPTED) != 0) {
+            throw new ZipException("Encrypted zip entries are not supported: " + entry.getName());
+        }
+
+        int pos = mappedEntry.localHeaderOffset;
+        if (pos > buffer.limit() - LOCAL_HEADER_LEN || buffer.getInt(pos) != LOCAL_HEADER_SIG) {
+            throw new ZipException("Invalid local file header of entry " + entry.getName());
+        }
+        long dataStart = (long)pos + LOCAL_HEADER_LEN + getUShort(buffer, pos + 26) + getUShort(buffer, pos + 28);
+        long dataEnd = dataStart + mappedEntry.getCompressedSize();
+        if (dataEnd > buffer.limit()) {
+            throw new ZipException("The data of entry " + entry.getName() + " exceeds the zip file");
+        }
+        ByteBuffer data = buffer.duplicate();
+        data.limit((int)dataEnd);
+        data.position((int)dataStart);
+        return data.slice();
+    }
+
+    @Override
+    public void close() throws IOException {
+        // the mapping is released, when the buffer and its slices are garbage collected
+        mappedFile = null;
+    }
+
+    @Override
+    public boolean isClosed() {
+        return mappedFile == null;
+    }
+
+    private static int getUShort(ByteBuffer buffer, int pos) {
+        return buffer.getShort(pos) & 0xFFFF;
+    }
+
+    private static long getUInt(ByteBuffer buffer, int pos) {
+        return buffer.getInt(pos) & 0xFFFFFFFFL;
+    }
+
+    private static String getString(ByteBuffer buffer, int pos, int len) {
+        // like ZipFile, the names are always decoded as UTF-8
+        byte[] bytes = new byte[len];
+        ByteBuffer src = buffer.duplicate();
+        src.position(pos);
+        src.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Converts a MS-DOS date/time to the milliseconds since the epoch,
+     *  with the default time zone like {@link java.util.zip.ZipFile}
+     */
+    @SuppressForbidden("zip entry times are local times of the default time zone")
+    private static long dosToJavaTime(long dosTime) {
+        Calendar cal = LocaleUtil.getLocaleCalendar(TimeZone.getDefault());
+        cal.set((int)((dosTime >> 25) & 0x7f) + 1980,
+                (int)((dosTime >> 21) & 0x0f) - 1,
+                (int)((dosTime >> 16) & 0x1f),
+                (int)((dosTime >> 11) & 0x1f),
+                (int)((dosTime >> 5) & 0x3f),
+                (int)((dosTime << 1) & 0x3e));
+        cal.set(Calendar.MILLISECOND, 0);
+        return cal.getTimeInMillis();
+    }
+
+    private static final class MappedZipEntry extends ZipEntry {
+        private final int flags;
+        private final int localHeaderOffset;
+
+        MappedZipEntry(String name, int flags, int localHeaderOffset) {
+            super(name);
+            this.flags = flags;
+            this.localHeaderOffset = localHeaderOffset;
+        }
+    }
+
+    /**
+     * Reads the data of an entry from the mapped file
+     */
+    private final class MappedInputStream extends InputStream {
+        private final ByteBuffer data;
+        // the inflater in nowrap mode might need an extra dummy byte, see ZipFile
+        private boolean addDummyByte;
+
+        MappedInputStream(ByteBuffer data, boolean addDummyByte) {
+            this.data = data;
+            this.addDummyByte = addDummyByte;
+        }
+
+        @Override
+        public int read() throws IOException {
+            checkOpen();
+            if (data.hasRemaining()) {
+                return data.get() & 0xFF;
+            }
+            if (addDummyByte) {
+                addDummyByte = false;
+                return 0;
+            }
+            return -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            checkOpen();
+            if (len == 0) {
+                return 0;
+            }
+            int count = Math.min(len, data.remaining());
+            if (count > 0) {
+                data.get(b, off, count);
+                return count;
+            }
+            if (addDummyByte) {
+                addDummyByte = false;
+                b[off] = 0;
+                return 1;
+            }
+            return -1;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            checkOpen();
+            int count = (int)Math.max(0, Math.min(n, data.remaining()));
+            data.position(data.position() + count);
+            return count;
+        }
+
+        @Override
+        public int available() throws IOException {
+            checkOpen();
+            return data.remaining();
+        }
+
+        private void checkOpen() throws IOException {
+            if (mappedFile == null) {
+                throw new IOException("Zip File is closed");
+            }
+        }
+    }
+
+    /**
+     * Inflates an entry with its own inflater, which is released on close
+     */
+    private static final class EntryInflaterInputStream extends InflaterInputStream {
+        private boolean closed;
+
+        EntryInflaterInputStream(InputStream in) {
+            super(in, new Inflater(true), INFLATER_BUFFER_SIZE);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                inf.end();
+                super.close();
+            }
+        }
+    }
+}
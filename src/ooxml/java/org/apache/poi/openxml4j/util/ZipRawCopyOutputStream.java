@@ -0,0 +1,426 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+
+package org.apache.poi.openxml4j.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.poi.util.Internal;
+import org.apache.poi.util.LittleEndian;
+import org.apache.poi.util.LocaleUtil;
+import org.apache.poi.util.SuppressForbidden;
+
+/**
+ * A ZipOutputStream, which additionally allows to copy the compressed data of
+ *  entries from another zip file as-is via {@link #putRawEntry(ZipEntry, InputStream)},
+ *  i.e. without inflating and deflating it again.
+ * <p>
+ * The entries written via {@link #putNextEntry(ZipEntry)} are deflated by default
+ *  like with {@link ZipOutputStream}. ZIP64 isn't supported, a {@link ZipException}
+ *  is thrown when the limits of the zip format are exceeded.
+ * </p>
+ *
+ * @since POI 4.0.0
+ */
+@Internal
+public class ZipRawCopyOutputStream extends ZipOutputStream {
+    private static final int LOCAL_HEADER_SIG = 0x04034b50;
+    private static final int DATA_DESCRIPTOR_SIG = 0x08074b50;
+    private static final int CENTRAL_HEADER_SIG = 0x02014b50;
+    private static final int END_HEADER_SIG = 0x06054b50;
+    private static final int LOCAL_HEADER_LEN = 30;
+    private static final int CENTRAL_HEADER_LEN = 46;
+    private static final int END_HEADER_LEN = 22;
+    private static final int FLAG_DATA_DESCRIPTOR = 0x08;
+    private static final int FLAG_UTF8 = 0x800;
+    private static final int VERSION_STORED = 10;
+    private static final int VERSION_DEFLATED = 20;
+    private static final long MAX_UINT = 0xFFFFFFFFL;
+    private static final int MAX_USHORT = 0xFFFF;
+    private static final int BUFFER_SIZE = 8192;
+
+    private final List<CentralEntry> centralEntries = new ArrayList<>();
+    private final Set<String> names = new HashSet<>();
+    private final CRC32 crc = new CRC32();
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+
+    private int defaultMethod = DEFLATED;
+    private byte[] comment;
+    /** the number of bytes written to the underlying stream */
+    private long written;
+    /** the entry which is currently written, or null */
+    private CentralEntry current;
+    private long currentSize;
+    private boolean finished;
+    private boolean closed;
+
+    /**
+     * Creates a new zip output stream
+     *
+     * @param out the stream to write the zip file to
+     */
+    public ZipRawCopyOutputStream(OutputStream out) {
+        super(out);
+    }
+
+    @Override
+    public void setComment(String comment) {
+        if (comment != null) {
+            byte[] bytes = comment.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > MAX_USHORT) {
+                throw new IllegalArgumentException("ZIP file comment too long.");
+            }
+            this.comment = bytes;
+        } else {
+            this.comment = null;
+        }
+    }
+
+    @Override
+    public void setMethod(int method) {
+        if (method != DEFLATED && method != STORED) {
+            throw new IllegalArgumentException("invalid compression method");
+        }
+        defaultMethod = method;
+    }
+
+    @Override
+    public void setLevel(int level) {
+        def.setLevel(level);
+    }
+
+    /**
+     * Starts a new entry, whose data is written via the write methods.
+     * Like with {@link ZipOutputStream}, the size and crc of stored entries
+     *  need to be set beforehand.
+     */
+    @Override
+    public void putNextEntry(ZipEntry e) throws IOException {
+        ensureOpen();
+        closeEntry();
+
+        int method = (e.getMethod() == -1) ? defaultMethod : e.getMethod();
+        CentralEntry ce = newEntry(e, method);
+        if (method == STORED) {
+            if (e.getSize() == -1 || e.getCrc() == -1) {
+                throw new ZipException("STORED entry missing size, compressed size, or crc-32");
+            }
+            ce.crc = e.getCrc();
+            ce.size = ce.compressedSize = e.getSize();
+        } else {
+            ce.flags |= FLAG_DATA_DESCRIPTOR;
+            def.reset();
+        }
+        crc.reset();
+        currentSize = 0;
+        writeLocalHeader(ce);
+        current = ce;
+    }
+
+    /**
+     * Writes an entry, whose data is copied as-is from another zip file.
+     * The compression method, crc, compressed and uncompressed size of the
+     *  entry need to be set and match the data.
+     *
+     * @param e the entry
+     * @param compressedData the data of the entry as it is stored in the zip file
+     * @throws ZipException if the entry is incomplete or the data doesn't match the compressed size
+     * @throws IOException if the data can't be read or written
+     */
+    public void putRawEntry(ZipEntry e, InputStream compressedData) throws IOException {
+        ensureOpen();
+        closeEntry();
+
+        if (e.getMethod() != STORED && e.getMethod() != DEFLATED) {
+            throw new ZipException("Unsupported compression method " + e.getMethod() + " of entry " + e.getName());
+        }
+        if (e.getSize() == -1 || e.getCompressedSize() == -1 || e.getCrc() == -1) {
+            throw new ZipException("Raw entry " + e.getName() + " is missing its size, compressed size, or crc-32");
+        }
+        CentralEntry ce = newEntry(e, e.getMethod());
+        ce.crc = e.getCrc();
+        ce.size = e.getSize();
+        ce.compressedSize = e.getCompressedSize();
+        writeLocalHeader(ce);
+
+        long remaining = ce.compressedSize;
+        while (remaining > 0) {
+            int count = compressedData.read(buffer, 0, (int)Math.min(buffer.length, remaining));
+            if (count == -1) {
+                throw new ZipException("Raw entry " + e.getName() + " has less data than its compressed size");
+            }
+            writeBytes(buffer, 0, count);
+            remaining -= count;
+        }
+        centralEntries.add(ce);
+    }
+
+    @Override
+    public void closeEntry() throws IOException {
+        ensureOpen();
+        CentralEntry ce = current;
+        if (ce == null) {
+            return;
+        }
+        current = null;
+
+        if (ce.method == STORED) {
+            if (currentSize != ce.size) {
+                throw new ZipException("invalid entry size (expected " + ce.size + " but got " + currentSize + " bytes)");
+            }
+            if (crc.getValue() != ce.crc) {
+                throw new ZipException("invalid entry crc-32 (expected 0x" + Long.toHexString(ce.crc)
+                        + " but got 0x" + Long.toHexString(crc.getValue()) + ")");
+            }
+        } else {
+            def.finish();
+            while (!def.finished()) {
+                deflate();
+            }
+            ce.crc = crc.getValue();
+            ce.size = def.getBytesRead();
+            ce.compressedSize = def.getBytesWritten();
+            checkUInt(ce.size, ce.name);
+            checkUInt(ce.compressedSize, ce.name);
+
+            byte[] descriptor = new byte[16];
+            LittleEndian.putInt(descriptor, 0, DATA_DESCRIPTOR_SIG);
+            LittleEndian.putUInt(descriptor, 4, ce.crc);
+            LittleEndian.putUInt(descriptor, 8, ce.compressedSize);
+            LittleEndian.putUInt(descriptor, 12, ce.size);
+            writeBytes(descriptor, 0, descriptor.length);
+        }
+        centralEntries.add(ce);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        byte[] buf = { (byte)b };
+        write(buf, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        if (off < 0 || len < 0 || off > b.length - len) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (current == null) {
+            throw new ZipException("no current ZIP entry");
+        }
+        if (len == 0) {
+            return;
+        }
+        crc.update(b, off, len);
+        currentSize += len;
+        if (current.method == STORED) {
+            if (currentSize > current.size) {
+                throw new ZipException("attempt to write past end of STORED entry");
+            }
+            writeBytes(b, off, len);
+        } else {
+            def.setInput(b, off, len);
+            while (!def.needsInput()) {
+                deflate();
+            }
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        out.flush();
+    }
+
+    @Override
+    public void finish() throws IOException {
+        ensureOpen();
+        if (finished) {
+            return;
+        }
+        closeEntry();
+
+        long dirOffset = written;
+        for (CentralEntry ce : centralEntries) {
+            writeCentralHeader(ce);
+        }
+        long dirSize = written - dirOffset;
+        if (centralEntries.size() > MAX_USHORT) {
+            throw new ZipException("Too many zip entries, ZIP64 is not supported");
+        }
+        checkUInt(dirOffset, "the central directory");
+
+        int commentLen = (comment == null) ? 0 : comment.length;
+        byte[] end = new byte[END_HEADER_LEN];
+        LittleEndian.putInt(end, 0, END_HEADER_SIG);
+        LittleEndian.putUShort(end, 8, centralEntries.size());
+        LittleEndian.putUShort(end, 10, centralEntries.size());
+        LittleEndian.putUInt(end, 12, dirSize);
+        LittleEndian.putUInt(end, 16, dirOffset);
+        LittleEndian.putUShort(end, 20, commentLen);
+        writeBytes(end, 0, end.length);
+        if (commentLen > 0) {
+            writeBytes(comment, 0, commentLen);
+        }
+        finished = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            finish();
+        } finally {
+            closed = true;
+            def.end();
+            out.close();
+        }
+    }
+
+    private CentralEntry newEntry(ZipEntry e, int method) throws ZipException {
+        if (!names.add(e.getName())) {
+            throw new ZipException("duplicate entry: " + e.getName());
+        }
+        CentralEntry ce = new CentralEntry(e.getName());
+        if (ce.nameBytes.length > MAX_USHORT) {
+            throw new ZipException("The name of entry " + e.getName() + " is too long");
+        }
+        ce.method = method;
+        ce.flags = FLAG_UTF8;
+        ce.dosTime = javaToDosTime(e.getTime() == -1 ? System.currentTimeMillis() : e.getTime());
+        ce.localHeaderOffset = written;
+        checkUInt(written, e.getName());
+        return ce;
+    }
+
+    private void writeLocalHeader(CentralEntry ce) throws IOException {
+        byte[] header = new byte[LOCAL_HEADER_LEN + ce.nameBytes.length];
+        LittleEndian.putInt(header, 0, LOCAL_HEADER_SIG);
+        LittleEndian.putUShort(header, 4, ce.getVersion());
+        LittleEndian.putUShort(header, 6, ce.flags);
+        LittleEndian.putUShort(header, 8, ce.method);
+        LittleEndian.putUInt(header, 10, ce.dosTime);
+        if ((ce.flags & FLAG_DATA_DESCRIPTOR) == 0) {
+            // otherwise the crc and sizes are written in the data descriptor
+            LittleEndian.putUInt(header, 14, ce.crc);
+            LittleEndian.putUInt(header, 18, ce.compressedSize);
+            LittleEndian.putUInt(header, 22, ce.size);
+        }
+        LittleEndian.putUShort(header, 26, ce.nameBytes.length);
+        System.arraycopy(ce.nameBytes, 0, header, LOCAL_HEADER_LEN, ce.nameBytes.length);
+        writeBytes(header, 0, header.length);
+    }
+
+    private void writeCentralHeader(CentralEntry ce) throws IOException {
+        byte[] header = new byte[CENTRAL_HEADER_LEN + ce.nameBytes.length];
+        LittleEndian.putInt(header, 0, CENTRAL_HEADER_SIG);
+        LittleEndian.putUShort(header, 4, ce.getVersion());
+        LittleEndian.putUShort(header, 6, ce.getVersion());
+        LittleEndian.putUShort(header, 8, ce.flags);
+        LittleEndian.putUShort(header, 10, ce.method);
+        LittleEndian.putUInt(header, 12, ce.dosTime);
+        LittleEndian.putUInt(header, 16, ce.crc);
+        LittleEndian.putUInt(header, 20, ce.compressedSize);
+        LittleEndian.putUInt(header, 24, ce.size);
+        LittleEndian.putUShort(header, 28, ce.nameBytes.length);
+        LittleEndian.putUInt(header, 42, ce.localHeaderOffset);
+        System.arraycopy(ce.nameBytes, 0, header, CENTRAL_HEADER_LEN, ce.nameBytes.length);
+        writeBytes(header, 0, header.length);
+    }
+
+    @Override
+    protected void deflate() throws IOException {
+        int count = def.deflate(buffer, 0, buffer.length);
+        if (count > 0) {
+            writeBytes(buffer, 0, count);
+        }
+    }
+
+    private void writeBytes(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        written += len;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    private static void checkUInt(long value, String name) throws ZipException {
+        if (value > MAX_UINT) {
+            throw new ZipException("The size or offset of " + name + " exceeds 4GB, ZIP64 is not supported");
+        }
+    }
+
+    /**
+     * Converts the milliseconds since the epoch to a MS-DOS date/time,
+     *  with the default time zone like {@link ZipOutputStream}
+     */
+    @SuppressForbidden("zip entry times are local times of the default time zone")
+    private static long javaToDosTime(long time) {
+        Calendar cal = LocaleUtil.getLocaleCalendar(TimeZone.getDefault());
+        cal.setTimeInMillis(time);
+        int year = cal.get(Calendar.YEAR);
+        if (year < 1980) {
+            return (1 << 21) | (1 << 16);
+        }
+        return ((long)(year - 1980) << 25)
+                | ((cal.get(Calendar.MONTH) + 1) << 21)
+                | (cal.get(Calendar.DAY_OF_MONTH) << 16)
+                | (cal.get(Calendar.HOUR_OF_DAY) << 11)
+                | (cal.get(Calendar.MINUTE) << 5)
+                | (cal.get(Calendar.SECOND) >> 1);
+    }
+
+    private static final class CentralEntry {
+        private final String name;
+        private final byte[] nameBytes;
+        private int method;
+        private int flags;
+        private long dosTime;
+        private long crc;
+        private long compressedSize;
+        private long size;
+        private long localHeaderOffset;
+
+        CentralEntry(String name) {
+            this.name = name;
+            this.nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        }
+
+        int getVersion() {
+            return (method == STORED) ? VERSION_STORED : VERSION_DEFLATED;
+        }
+    }
+}
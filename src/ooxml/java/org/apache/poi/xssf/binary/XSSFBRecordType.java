@@ -42,6 +42,7 @@ public enum XSSFBRecordType {
     BrtRowHdr(0),
     BrtCellRString(62),
     BrtBeginSheet(129),
+    BrtEndSheet(130),
     BrtWsProp(147),
     BrtWsDim(148),
     BrtColInfo(60),
@@ -66,12 +67,38 @@ public enum XSSFBRecordType {
     BrtEndCellXFs(618),
     BrtBeginCellStyleXFS(626),
     BrtEndCellStyleXFS(627),
+    BrtBeginStyleSheet(278),
+    BrtEndStyleSheet(279),
+    BrtFont(43),
+    BrtBeginFonts(611),
+    BrtEndFonts(612),
+    BrtFill(45),
+    BrtBeginFills(603),
+    BrtEndFills(604),
+    BrtBorder(46),
+    BrtBeginBorders(613),
+    BrtEndBorders(614),
+    BrtStyle(48),
+    BrtBeginStyles(619),
+    BrtEndStyles(620),
+    BrtBeginDXFs(505),
+    BrtEndDXFs(506),
+    BrtBeginTableStyles(508),
+    BrtEndTableStyles(509),
 
     //stored strings table
     BrtSstItem(19),   //stored strings items
     BrtBeginSst(159), //stored strings begin sst
     BrtEndSst(160),   //stored strings end sst
 
+    //workbook part
+    BrtBeginBook(131),
+    BrtEndBook(132),
+    BrtBeginBookViews(135),
+    BrtEndBookViews(136),
+    BrtBookView(158),
+    BrtBeginBundleShs(143),
+    BrtEndBundleShs(144),
     BrtBundleSh(156), //defines worksheet in wb part
 
     BrtAbsPath15(2071), //Excel 2013 path where the file was stored in wbpart
@@ -0,0 +1,180 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xssf.binary;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import org.apache.poi.util.Internal;
+import org.apache.poi.util.LittleEndian;
+
+/**
+ * Writes the records of a xlsb part, the counterpart of {@link XSSFBParser}.
+ * <p>
+ * A record is assembled in a reused buffer between {@link #startRecord(XSSFBRecordType)}
+ * and {@link #endRecord()}, so writing records doesn't allocate.
+ * Not thread safe.
+ * </p>
+ *
+ * @since POI 4.0.0
+ */
+@Internal
+class XSSFBRecordWriter {
+    //the record length is encoded in at most 4 bytes with 7 bits each
+    private static final int MAX_RECORD_LENGTH = (1 << 28) - 1;
+
+    private final OutputStream out;
+    private byte[] buffer = new byte[256];
+    private int length;
+    private XSSFBRecordType type;
+
+    XSSFBRecordWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Writes a record without data
+     */
+    void writeRecord(XSSFBRecordType type) throws IOException {
+        startRecord(type);
+        endRecord();
+    }
+
+    XSSFBRecordWriter startRecord(XSSFBRecordType type) {
+        if (this.type != null) {
+            throw new IllegalStateException("Record " + this.type + " hasn't been ended");
+        }
+        this.type = type;
+        length = 0;
+        return this;
+    }
+
+    void endRecord() throws IOException {
+        if (type == null) {
+            throw new IllegalStateException("No record has been started");
+        }
+        int id = type.getId();
+        if (id < 0x80) {
+            out.write(id);
+        } else {
+            out.write((id & 0x7F) | 0x80);
+            out.write(id >> 7);
+        }
+        int len = length;
+        do {
+            int b = len & 0x7F;
+            len >>>= 7;
+            out.write(len == 0 ? b : (b | 0x80));
+        } while (len != 0);
+        out.write(buffer, 0, length);
+        type = null;
+    }
+
+    private int reserve(int n) {
+        int offset = length;
+        if (offset + n > buffer.length) {
+            if (offset + n > MAX_RECORD_LENGTH) {
+                throw new IllegalArgumentException("Record " + type + " exceeds the maximum length");
+            }
+            buffer = Arrays.copyOf(buffer, Math.max(offset + n, buffer.length * 2));
+        }
+        length += n;
+        return offset;
+    }
+
+    XSSFBRecordWriter writeByte(int value) {
+        buffer[reserve(1)] = (byte)value;
+        return this;
+    }
+
+    XSSFBRecordWriter writeShort(int value) {
+        LittleEndian.putShort(buffer, reserve(2), (short)value);
+        return this;
+    }
+
+    XSSFBRecordWriter writeInt(int value) {
+        LittleEndian.putInt(buffer, reserve(4), value);
+        return this;
+    }
+
+    XSSFBRecordWriter writeDouble(double value) {
+        LittleEndian.putDouble(buffer, reserve(8), value);
+        return this;
+    }
+
+    /**
+     * Writes a XLWideString, i.e. the number of characters followed by the UTF-16LE characters
+     */
+    XSSFBRecordWriter writeXLWideString(String value) {
+        int len = value.length();
+        writeInt(len);
+        int offset = reserve(len * 2);
+        for (int i = 0; i < len; i++) {
+            char c = value.charAt(i);
+            buffer[offset++] = (byte)c;
+            buffer[offset++] = (byte)(c >> 8);
+        }
+        return this;
+    }
+
+    /**
+     * Writes the "Cell" structure preceding the value of cell records,
+     * see {@link XSSFBCellHeader}
+     */
+    XSSFBRecordWriter writeCellHeader(int column, int styleIndex) {
+        writeInt(column);
+        int offset = reserve(4);
+        buffer[offset] = (byte)styleIndex;
+        buffer[offset + 1] = (byte)(styleIndex >> 8);
+        buffer[offset + 2] = (byte)(styleIndex >> 16);
+        // fPhShow and reserved bits
+        buffer[offset + 3] = 0;
+        return this;
+    }
+
+    /**
+     * Writes a BrtColor with the given rgb value
+     */
+    XSSFBRecordWriter writeRgbColor(int red, int green, int blue) {
+        // fValidRGB and xColorType = 2 (rgb)
+        writeByte(0x05);
+        // index
+        writeByte(0);
+        // nTintAndShade
+        writeShort(0);
+        writeByte(red);
+        writeByte(green);
+        writeByte(blue);
+        // alpha
+        writeByte(0xFF);
+        return this;
+    }
+
+    /**
+     * Writes a BrtColor with the given index into the color palette
+     */
+    XSSFBRecordWriter writeIndexedColor(int index) {
+        // xColorType = 1 (indexed)
+        writeByte(0x02);
+        writeByte(index);
+        writeShort(0);
+        writeInt(0);
+        return this;
+    }
+}
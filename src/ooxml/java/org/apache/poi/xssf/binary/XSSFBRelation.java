@@ -50,6 +50,13 @@ public class XSSFBRelation extends POIXMLRelation {
             null
     );
 
+    static final XSSFBRelation WORKSHEET_BINARY = new XSSFBRelation(
+            "application/vnd.ms-excel.worksheet",
+            "http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet",
+            "/xl/worksheets/sheet#.bin",
+            null
+    );
+
     private XSSFBRelation(String type, String rel, String defaultName, Class<? extends POIXMLDocumentPart> cls) {
         super(type, rel, defaultName, cls);
     }
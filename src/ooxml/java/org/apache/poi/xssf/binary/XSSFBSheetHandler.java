@@ -48,7 +48,6 @@ public class XSSFBSheetHandler extends XSSFBParser {
     private int lastEndedRow = -1;
     private int lastStartedRow = -1;
     private int currentRow;
-    private byte[] rkBuffer = new byte[8];
     private XSSFBCellRange hyperlinkCellRange;
     private StringBuilder xlWideStringBuffer = new StringBuilder();
 
@@ -187,7 +186,7 @@ public class XSSFBSheetHandler extends XSSFBParser {
 
     private void handleCellRk(byte[] data) {
         beforeCellValue(data);
-        double val = rkNumber(data, XSSFBCellHeader.length);
+        double val = XSSFBUtils.rkNumber(data, XSSFBCellHeader.length);
         handleCellValue(formatVal(val, cellBuffer.getStyleIdx()));
     }
 
@@ -300,31 +299,6 @@ public class XSSFBSheetHandler extends XSSFBParser {
         handler.cell(cellAddress.formatAsString(), null, comment);
     }
 
-    private double rkNumber(byte[] data, int offset) {
-        //see 2.5.122 for this abomination
-        byte b0 = data[offset];
-        String s = Integer.toString(b0, 2);
-        boolean numDivBy100 = ((b0 & 1) == 1); // else as is
-        boolean floatingPoint = ((b0 >> 1 & 1) == 0); // else signed integer
-
-        //unset highest 2 bits
-        b0 &= ~1;
-        b0 &= ~(1<<1);
-
-        rkBuffer[4] = b0;
-        for (int i = 1; i < 4; i++) {
-            rkBuffer[i+4] = data[offset+i];
-        }
-        double d = 0.0;
-        if (floatingPoint) {
-            d = LittleEndian.getDouble(rkBuffer);
-        } else {
-            d = LittleEndian.getInt(rkBuffer);
-        }
-        d = (numDivBy100) ? d/100 : d;
-        return d;
-    }
-
     /**
      * You need to implement this to handle the results
      *  of the sheet parsing.
@@ -0,0 +1,286 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xssf.binary;
+
+import java.io.IOException;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.FormulaError;
+import org.apache.poi.util.SortedIntMap;
+
+/**
+ * A row of a {@link XSSFBStreamingSheet}, which is kept in memory until it is flushed.
+ * <p>
+ * The cells are set with typed setters, the style index refers to a style created
+ *  by {@link XSSFBStreamingWorkbook#createCellStyle(String)}, 0 is the default style.
+ * </p>
+ *
+ * @since POI 4.0.0
+ */
+public class XSSFBStreamingRow {
+    private static final int TWIPS_PER_POINT = 20;
+    // the default height of rows with the default font
+    private static final int DEFAULT_HEIGHT_IN_TWIPS = 300;
+
+    private static final byte TYPE_BLANK = 0;
+    private static final byte TYPE_NUMERIC = 1;
+    private static final byte TYPE_STRING = 2;
+    private static final byte TYPE_BOOLEAN = 3;
+    private static final byte TYPE_ERROR = 4;
+
+    private final XSSFBStreamingSheet sheet;
+    private final int rowNum;
+    private final SortedIntMap<CellValue> cells = new SortedIntMap<>();
+    private int heightInTwips = -1;
+
+    XSSFBStreamingRow(XSSFBStreamingSheet sheet, int rowNum) {
+        this.sheet = sheet;
+        this.rowNum = rowNum;
+    }
+
+    /**
+     * @return the 0-based row number
+     */
+    public int getRowNum() {
+        return rowNum;
+    }
+
+    public XSSFBStreamingSheet getSheet() {
+        return sheet;
+    }
+
+    /**
+     * @return the number of cells set in the row
+     */
+    public int getPhysicalNumberOfCells() {
+        return cells.size();
+    }
+
+    /**
+     * Set the row's height in points, -1 resets to the default height
+     */
+    public void setHeightInPoints(float height) {
+        heightInTwips = (height == -1) ? -1 : (int)(height * TWIPS_PER_POINT);
+    }
+
+    /**
+     * @return the row's height in points or -1, if the default height is used
+     */
+    public float getHeightInPoints() {
+        return (heightInTwips == -1) ? -1 : ((float)heightInTwips / TWIPS_PER_POINT);
+    }
+
+    public void setNumericCell(int column, double value) {
+        setNumericCell(column, value, 0);
+    }
+
+    /**
+     * Sets a numeric cell, dates need to be converted with
+     * {@link org.apache.poi.ss.usermodel.DateUtil#getExcelDate(java.util.Date)} and
+     * formatted with a date style.
+     */
+    public void setNumericCell(int column, double value, int styleIndex) {
+        CellValue cell = setCell(column, TYPE_NUMERIC, styleIndex);
+        cell.number = value;
+    }
+
+    public void setStringCell(int column, String value) {
+        setStringCell(column, value, 0);
+    }
+
+    /**
+     * Sets a string cell, a null value creates a blank cell
+     *
+     * @throws IllegalArgumentException if the text is longer than 32767 characters
+     */
+    public void setStringCell(int column, String value, int styleIndex) {
+        if (value == null) {
+            setBlankCell(column, styleIndex);
+            return;
+        }
+        if (value.length() > SpreadsheetVersion.EXCEL2007.getMaxTextLength()) {
+            throw new IllegalArgumentException("The maximum length of cell contents (text) is "
+                    + SpreadsheetVersion.EXCEL2007.getMaxTextLength() + " characters");
+        }
+        CellValue cell = setCell(column, TYPE_STRING, styleIndex);
+        cell.text = value;
+    }
+
+    public void setBooleanCell(int column, boolean value) {
+        setBooleanCell(column, value, 0);
+    }
+
+    public void setBooleanCell(int column, boolean value, int styleIndex) {
+        CellValue cell = setCell(column, TYPE_BOOLEAN, styleIndex);
+        cell.number = value ? 1 : 0;
+    }
+
+    public void setErrorCell(int column, FormulaError error) {
+        setErrorCell(column, error, 0);
+    }
+
+    public void setErrorCell(int column, FormulaError error, int styleIndex) {
+        CellValue cell = setCell(column, TYPE_ERROR, styleIndex);
+        cell.number = error.getCode();
+    }
+
+    /**
+     * Sets a cell without value, which only carries a style
+     */
+    public void setBlankCell(int column, int styleIndex) {
+        setCell(column, TYPE_BLANK, styleIndex);
+    }
+
+    private CellValue setCell(int column, byte type, int styleIndex) {
+        int maxcol = SpreadsheetVersion.EXCEL2007.getLastColumnIndex();
+        if (column < 0 || column > maxcol) {
+            throw new IllegalArgumentException("Invalid column index (" + column
+                    + ").  Allowable column range for " + SpreadsheetVersion.EXCEL2007.name() + " is (0.."
+                    + maxcol + ") or ('A'..'" + SpreadsheetVersion.EXCEL2007.getLastColumnName() + "')");
+        }
+        sheet.getWorkbook().checkStyleIndex(styleIndex);
+        CellValue cell = new CellValue(column, type, styleIndex);
+        cells.put(column, cell);
+        return cell;
+    }
+
+    int getFirstColumn() {
+        return cells.isEmpty() ? -1 : cells.firstKey();
+    }
+
+    int getLastColumn() {
+        return cells.isEmpty() ? -1 : cells.lastKey();
+    }
+
+    /**
+     * Writes the BrtRowHdr and the cell records
+     */
+    void write(XSSFBRecordWriter writer) throws IOException {
+        writeRowHeader(writer);
+        XSSFBStreamingWorkbook workbook = sheet.getWorkbook();
+        for (CellValue cell : cells.values()) {
+            switch (cell.type) {
+                case TYPE_NUMERIC:
+                    int rk = toRkNumber(cell.number);
+                    if (rk != NO_RK_NUMBER) {
+                        writer.startRecord(XSSFBRecordType.BrtCellRk)
+                            .writeCellHeader(cell.column, cell.styleIndex)
+                            .writeInt(rk);
+                    } else {
+                        writer.startRecord(XSSFBRecordType.BrtCellReal)
+                            .writeCellHeader(cell.column, cell.styleIndex)
+                            .writeDouble(cell.number);
+                    }
+                    break;
+                case TYPE_STRING:
+                    int sstIndex = workbook.addSharedString(cell.text);
+                    if (sstIndex >= 0) {
+                        writer.startRecord(XSSFBRecordType.BrtCellIsst)
+                            .writeCellHeader(cell.column, cell.styleIndex)
+                            .writeInt(sstIndex);
+                    } else {
+                        writer.startRecord(XSSFBRecordType.BrtCellSt)
+                            .writeCellHeader(cell.column, cell.styleIndex)
+                            .writeXLWideString(cell.text);
+                    }
+                    break;
+                case TYPE_BOOLEAN:
+                    writer.startRecord(XSSFBRecordType.BrtCellBool)
+                        .writeCellHeader(cell.column, cell.styleIndex)
+                        .writeByte((int)cell.number);
+                    break;
+                case TYPE_ERROR:
+                    writer.startRecord(XSSFBRecordType.BrtCellError)
+                        .writeCellHeader(cell.column, cell.styleIndex)
+                        .writeByte((int)cell.number);
+                    break;
+                default:
+                    writer.startRecord(XSSFBRecordType.BrtCellBlank)
+                        .writeCellHeader(cell.column, cell.styleIndex);
+                    break;
+            }
+            writer.endRecord();
+        }
+    }
+
+    private void writeRowHeader(XSSFBRecordWriter writer) throws IOException {
+        // the column spans of the cells per block of 1024 columns
+        int[] spans = new int[32];
+        int spanCount = 0;
+        for (CellValue cell : cells.values()) {
+            if (spanCount > 0 && (spans[spanCount - 1] >> 10) == (cell.column >> 10)) {
+                spans[spanCount - 1] = cell.column;
+            } else {
+                spans[spanCount++] = cell.column;
+                spans[spanCount++] = cell.column;
+            }
+        }
+
+        writer.startRecord(XSSFBRecordType.BrtRowHdr)
+            .writeInt(rowNum)
+            // ixfe, rows don't have styles
+            .writeInt(0)
+            .writeShort(heightInTwips == -1 ? DEFAULT_HEIGHT_IN_TWIPS : heightInTwips)
+            // fExtraAsc and fExtraDsc
+            .writeByte(0)
+            // fUnsynced for custom heights
+            .writeByte(heightInTwips == -1 ? 0 : 0x20)
+            // fPhShow
+            .writeByte(0)
+            .writeInt(spanCount / 2);
+        for (int i = 0; i < spanCount; i++) {
+            writer.writeInt(spans[i]);
+        }
+        writer.endRecord();
+    }
+
+    // never returned for an encodable number, as the fX100 bit is set
+    private static final int NO_RK_NUMBER = -1;
+
+    /**
+     * Encodes the number as RkNumber, if this is possible without loss
+     *
+     * @return the RkNumber or {@link #NO_RK_NUMBER}
+     */
+    static int toRkNumber(double value) {
+        if (value == Math.rint(value) && value >= -(1 << 29) && value < (1 << 29)) {
+            // 30 bit signed integer
+            return ((int)value << 2) | 2;
+        }
+        long bits = Double.doubleToRawLongBits(value);
+        if ((bits & 0x3FFFFFFFFL) == 0) {
+            // the lower 34 bits of the double are 0
+            return (int)(bits >>> 32);
+        }
+        return NO_RK_NUMBER;
+    }
+
+    private static final class CellValue {
+        private final int column;
+        private final byte type;
+        private final int styleIndex;
+        private double number;
+        private String text;
+
+        CellValue(int column, byte type, int styleIndex) {
+            this.column = column;
+            this.type = type;
+            this.styleIndex = styleIndex;
+        }
+    }
+}
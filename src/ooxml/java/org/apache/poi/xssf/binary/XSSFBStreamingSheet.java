@@ -0,0 +1,229 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xssf.binary;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.util.TempFile;
+
+/**
+ * A sheet of a {@link XSSFBStreamingWorkbook}.
+ * <p>
+ * Like {@link org.apache.poi.xssf.streaming.SXSSFSheet}, only a window of rows is kept in
+ *  memory, the rows beyond the window are flushed as binary records to a temporary file.
+ * </p>
+ *
+ * @since POI 4.0.0
+ */
+public class XSSFBStreamingSheet {
+    private final XSSFBStreamingWorkbook workbook;
+    private final String name;
+    private final TreeMap<Integer, XSSFBStreamingRow> rows = new TreeMap<>();
+    private int randomAccessWindowSize;
+
+    private File tempFile;
+    private OutputStream out;
+    private XSSFBRecordWriter writer;
+
+    private int lastFlushedRowNumber = -1;
+    private int firstRowNum = -1;
+    private int lastRowNum = -1;
+    private int firstColumn = -1;
+    private int lastColumn = -1;
+
+    XSSFBStreamingSheet(XSSFBStreamingWorkbook workbook, String name, int randomAccessWindowSize) {
+        this.workbook = workbook;
+        this.name = name;
+        setRandomAccessWindowSize(randomAccessWindowSize);
+    }
+
+    public XSSFBStreamingWorkbook getWorkbook() {
+        return workbook;
+    }
+
+    public String getSheetName() {
+        return name;
+    }
+
+    /**
+     * Specifies how many rows can be accessed at most via {@link #getRow(int)}.
+     * When a new row is created via {@link #createRow(int)} and the total number
+     * of unflushed records would exceed the specified value, then the
+     * row with the lowest index value is flushed and cannot be accessed
+     * via {@link #getRow(int)} anymore.
+     * A value of -1 indicates unlimited access. In this case all
+     * records that have not been flushed by a call to <code>flushRows()</code> are available
+     * for random access.
+     *
+     * @throws IllegalArgumentException if value is 0 or less than -1
+     */
+    public void setRandomAccessWindowSize(int value) {
+        if (value == 0 || value < -1) {
+            throw new IllegalArgumentException("RandomAccessWindowSize must be either -1 or a positive integer");
+        }
+        randomAccessWindowSize = value;
+    }
+
+    /**
+     * Create a new row within the sheet and return the high level representation.
+     * An existing row with the same number in the window is replaced.
+     *
+     * @param rownum row number
+     * @return high level row object
+     * @throws IllegalArgumentException if the row number is outside the valid range
+     *  or the row has already been flushed
+     */
+    public XSSFBStreamingRow createRow(int rownum) {
+        int maxrow = SpreadsheetVersion.EXCEL2007.getLastRowIndex();
+        if (rownum < 0 || rownum > maxrow) {
+            throw new IllegalArgumentException("Invalid row number (" + rownum
+                    + ") outside allowable range (0.." + maxrow + ")");
+        }
+
+        // attempt to overwrite a row that is already flushed to disk
+        if (rownum <= lastFlushedRowNumber) {
+            throw new IllegalArgumentException(
+                    "Attempting to write a row["+rownum+"] " +
+                    "in the range [0," + lastFlushedRowNumber + "] that is already written to disk.");
+        }
+
+        XSSFBStreamingRow newRow = new XSSFBStreamingRow(this, rownum);
+        rows.put(rownum, newRow);
+        if (randomAccessWindowSize >= 0 && rows.size() > randomAccessWindowSize) {
+            try {
+                flushRows(randomAccessWindowSize);
+            } catch (IOException ioe) {
+                throw new RuntimeException(ioe);
+            }
+        }
+        return newRow;
+    }
+
+    /**
+     * Returns the row, if it hasn't been flushed yet
+     *
+     * @param rownum  row to get (0-based)
+     * @return the row or null, if it doesn't exist or has been flushed
+     */
+    public XSSFBStreamingRow getRow(int rownum) {
+        return rows.get(rownum);
+    }
+
+    /**
+     * @return the number of the last row flushed to disk, -1 if none has been flushed yet
+     */
+    public int getLastFlushedRowNum() {
+        return lastFlushedRowNumber;
+    }
+
+    /**
+     * Specifies how many rows can be accessed at most via getRow().
+     * The rows outside of this window are flushed to disk.
+     *
+     * @param remaining the number of rows to keep in memory
+     */
+    public void flushRows(int remaining) throws IOException {
+        while (rows.size() > remaining) {
+            flushOneRow();
+        }
+    }
+
+    /**
+     * Flush all rows to disk. After this call no rows can be accessed via getRow()
+     */
+    public void flushRows() throws IOException {
+        flushRows(0);
+    }
+
+    private void flushOneRow() throws IOException {
+        Map.Entry<Integer, XSSFBStreamingRow> firstEntry = rows.pollFirstEntry();
+        XSSFBStreamingRow row = firstEntry.getValue();
+        int rowNum = row.getRowNum();
+        if (writer == null) {
+            tempFile = TempFile.createTempFile("poi-sxssfb-sheet", ".bin");
+            out = new BufferedOutputStream(new FileOutputStream(tempFile));
+            writer = new XSSFBRecordWriter(out);
+        }
+        row.write(writer);
+
+        if (firstRowNum == -1) {
+            firstRowNum = rowNum;
+        }
+        lastRowNum = rowNum;
+        if (row.getPhysicalNumberOfCells() > 0) {
+            firstColumn = (firstColumn == -1) ? row.getFirstColumn() : Math.min(firstColumn, row.getFirstColumn());
+            lastColumn = Math.max(lastColumn, row.getLastColumn());
+        }
+        lastFlushedRowNumber = rowNum;
+    }
+
+    /**
+     * Writes the complete sheet part, all rows need to be flushed before
+     */
+    void writeSheetPart(OutputStream os) throws IOException {
+        XSSFBRecordWriter partWriter = new XSSFBRecordWriter(os);
+        partWriter.writeRecord(XSSFBRecordType.BrtBeginSheet);
+        partWriter.startRecord(XSSFBRecordType.BrtWsDim)
+            .writeInt(Math.max(firstRowNum, 0))
+            .writeInt(Math.max(lastRowNum, 0))
+            .writeInt(Math.max(firstColumn, 0))
+            .writeInt(Math.max(lastColumn, 0))
+            .endRecord();
+        partWriter.writeRecord(XSSFBRecordType.BrtBeginSheetData);
+        if (out != null) {
+            out.flush();
+            try (InputStream is = new FileInputStream(tempFile)) {
+                IOUtils.copy(is, os);
+            }
+        }
+        partWriter.writeRecord(XSSFBRecordType.BrtEndSheetData);
+        partWriter.writeRecord(XSSFBRecordType.BrtEndSheet);
+    }
+
+    /**
+     * Deletes the temporary file that backs this sheet on disk.
+     * @return true if the file was deleted, false if it wasn't.
+     */
+    boolean dispose() throws IOException {
+        if (out == null) {
+            return true;
+        }
+        out.close();
+        out = null;
+        writer = null;
+        return tempFile.delete();
+    }
+
+    /**
+     * @return an iterator over the rows, which haven't been flushed yet
+     */
+    Iterator<XSSFBStreamingRow> rowIterator() {
+        return rows.values().iterator();
+    }
+}
@@ -0,0 +1,523 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xssf.binary;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.poi.POIXMLException;
+import org.apache.poi.POIXMLRelation;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.openxml4j.opc.PackagePartName;
+import org.apache.poi.openxml4j.opc.PackagingURIHelper;
+import org.apache.poi.openxml4j.opc.TargetMode;
+import org.apache.poi.openxml4j.util.ZipEntrySource;
+import org.apache.poi.openxml4j.util.ZipFileZipEntrySource;
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+import org.apache.poi.ss.util.WorkbookUtil;
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.util.TempFile;
+import org.apache.poi.xssf.usermodel.XSSFRelation;
+
+/**
+ * Streaming version of a xlsb (BIFF12) workbook.
+ * <p>
+ * Like {@link org.apache.poi.xssf.streaming.SXSSFWorkbook}, only a window of rows per sheet
+ *  is kept in memory and the older rows are written as binary records to temporary files,
+ *  which are merged into the package on {@link #write(OutputStream)}.
+ * This allows to write very large files in the binary format with a small memory footprint.
+ * </p>
+ * <p>
+ * The cell values are set by typed setters on {@link XSSFBStreamingRow} and styles are
+ *  referenced by the index returned by {@link #createCellStyle(String)}. Formulas, merged
+ *  regions, column widths and cell styles other than number formats are not supported.
+ * </p>
+ * <p>
+ * Carefully review your memory budget and the size of the temporary files -
+ *  the same considerations as for SXSSF apply.
+ * </p>
+ *
+ * @since POI 4.0.0
+ */
+public class XSSFBStreamingWorkbook implements Closeable {
+    /**
+     * Specifies how many rows can be accessed at most via {@link XSSFBStreamingSheet#getRow(int)}.
+     * When a new node is created via {@link XSSFBStreamingSheet#createRow(int)} and the total number
+     * of unflushed records would exceed the specified value, then the
+     * row with the lowest index value is flushed and cannot be accessed
+     * via {@link XSSFBStreamingSheet#getRow(int)} anymore.
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 100;
+
+    private static final int FIRST_CUSTOM_FORMAT_ID = 164;
+
+    private final int rowAccessWindowSize;
+    private final boolean useSharedStringsTable;
+    private final List<XSSFBStreamingSheet> sheets = new ArrayList<>();
+
+    // the number format ids of the cell XFs, index 0 is the default style
+    private final List<Integer> styleFormats = new ArrayList<>();
+    private final Map<String, Integer> stylesByFormat = new HashMap<>();
+    private final Map<String, Integer> customFormats = new LinkedHashMap<>();
+
+    private final Map<String, Integer> sharedStrings = new LinkedHashMap<>();
+    private int sharedStringsCount;
+
+    /**
+     * Construct an empty workbook with the default row window size and inline strings
+     */
+    public XSSFBStreamingWorkbook() {
+        this(DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Construct an empty workbook with inline strings
+     *
+     * @param rowAccessWindowSize the number of rows that are kept in memory until flushed out,
+     *  -1 means no limit
+     */
+    public XSSFBStreamingWorkbook(int rowAccessWindowSize) {
+        this(rowAccessWindowSize, false);
+    }
+
+    /**
+     * Construct an empty workbook
+     *
+     * @param rowAccessWindowSize the number of rows that are kept in memory until flushed out,
+     *  -1 means no limit
+     * @param useSharedStringsTable whether to use a shared strings table. The table is kept in
+     *  memory, so this saves file size at the expense of memory for many distinct strings.
+     */
+    public XSSFBStreamingWorkbook(int rowAccessWindowSize, boolean useSharedStringsTable) {
+        if (rowAccessWindowSize == 0 || rowAccessWindowSize < -1) {
+            throw new IllegalArgumentException("rowAccessWindowSize must be either -1 or a positive integer");
+        }
+        this.rowAccessWindowSize = rowAccessWindowSize;
+        this.useSharedStringsTable = useSharedStringsTable;
+        styleFormats.add(0);
+        stylesByFormat.put(BuiltinFormats.getBuiltinFormat(0), 0);
+    }
+
+    /**
+     * Create a sheet for this workbook and add it to the sheets, with a default name
+     */
+    public XSSFBStreamingSheet createSheet() {
+        String sheetname = "Sheet" + (sheets.size());
+        int idx = 0;
+        while (getSheet(sheetname) != null) {
+            sheetname = "Sheet" + idx;
+            idx++;
+        }
+        return createSheet(sheetname);
+    }
+
+    /**
+     * Create a new sheet for this workbook and return the high level representation.
+     *
+     * @param sheetname  sheetname to set for the sheet.
+     * @return the new sheet
+     * @throws IllegalArgumentException if the name is null or invalid
+     *  or workbook already contains a sheet with this name
+     * @see WorkbookUtil#createSafeSheetName(String)
+     */
+    public XSSFBStreamingSheet createSheet(String sheetname) {
+        WorkbookUtil.validateSheetName(sheetname);
+        if (getSheet(sheetname) != null) {
+            throw new IllegalArgumentException("The workbook already contains a sheet named '" + sheetname + "'");
+        }
+        XSSFBStreamingSheet sheet = new XSSFBStreamingSheet(this, sheetname, rowAccessWindowSize);
+        sheets.add(sheet);
+        return sheet;
+    }
+
+    /**
+     * @return the sheet with the given name (case insensitive match) or null
+     */
+    public XSSFBStreamingSheet getSheet(String name) {
+        for (XSSFBStreamingSheet sheet : sheets) {
+            if (sheet.getSheetName().equalsIgnoreCase(name)) {
+                return sheet;
+            }
+        }
+        return null;
+    }
+
+    public XSSFBStreamingSheet getSheetAt(int index) {
+        if (index < 0 || index >= sheets.size()) {
+            throw new IllegalArgumentException("Sheet index (" + index + ") is out of range (0.." + (sheets.size() - 1) + ")");
+        }
+        return sheets.get(index);
+    }
+
+    public int getNumberOfSheets() {
+        return sheets.size();
+    }
+
+    /**
+     * Returns the index of a cell style with the given number format, the style is
+     *  created on first use. Built-in formats are referenced by their id.
+     *
+     * @param dataFormat the number format, e.g. "0.00" or "yyyy-mm-dd"
+     * @return the style index to be used for the cells
+     */
+    public int createCellStyle(String dataFormat) {
+        if (dataFormat == null) {
+            throw new IllegalArgumentException("dataFormat must not be null");
+        }
+        Integer styleIndex = stylesByFormat.get(dataFormat);
+        if (styleIndex != null) {
+            return styleIndex;
+        }
+        int formatId = BuiltinFormats.getBuiltinFormat(dataFormat);
+        if (formatId == -1) {
+            formatId = FIRST_CUSTOM_FORMAT_ID + customFormats.size();
+            customFormats.put(dataFormat, formatId);
+        }
+        styleIndex = styleFormats.size();
+        styleFormats.add(formatId);
+        stylesByFormat.put(dataFormat, styleIndex);
+        return styleIndex;
+    }
+
+    /**
+     * @return the number of cell styles, including the default style
+     */
+    public int getNumCellStyles() {
+        return styleFormats.size();
+    }
+
+    void checkStyleIndex(int styleIndex) {
+        if (styleIndex < 0 || styleIndex >= styleFormats.size()) {
+            throw new IllegalArgumentException("Style index (" + styleIndex + ") is out of range (0.." + (styleFormats.size() - 1) + ")");
+        }
+    }
+
+    /**
+     * Adds the string to the shared strings table
+     *
+     * @return the index of the shared string or -1, if the strings are written inline
+     */
+    int addSharedString(String text) {
+        if (!useSharedStringsTable) {
+            return -1;
+        }
+        sharedStringsCount++;
+        Integer idx = sharedStrings.get(text);
+        if (idx == null) {
+            idx = sharedStrings.size();
+            sharedStrings.put(text, idx);
+        }
+        return idx;
+    }
+
+    /**
+     * Write out this workbook to an OutputStream.
+     *
+     * @param stream - the java OutputStream you wish to write to
+     * @exception IOException if anything can't be written.
+     */
+    public void write(OutputStream stream) throws IOException {
+        for (XSSFBStreamingSheet sheet : sheets) {
+            sheet.flushRows();
+        }
+
+        //Save the template
+        File tmplFile = TempFile.createTempFile("poi-sxssfb-template", ".xlsb");
+        boolean deleted;
+        try {
+            try (FileOutputStream os = new FileOutputStream(tmplFile)) {
+                writeTemplate(os);
+            }
+
+            //Substitute the template entries with the generated sheet data files
+            final ZipEntrySource source = new ZipFileZipEntrySource(new ZipFile(tmplFile));
+            injectData(source, stream);
+        } finally {
+            deleted = tmplFile.delete();
+        }
+        if (!deleted) {
+            throw new IOException("Could not delete temporary file after processing: " + tmplFile);
+        }
+    }
+
+    /**
+     * Writes the package with the workbook, styles and shared strings part,
+     *  the sheet parts are empty placeholders
+     */
+    private void writeTemplate(OutputStream os) throws IOException {
+        OPCPackage pkg = OPCPackage.create(os);
+        try {
+            PackagePart workbookPart = createPart(pkg, XSSFRelation.XLSB_BINARY_WORKBOOK, -1);
+            pkg.addRelationship(workbookPart.getPartName(), TargetMode.INTERNAL,
+                    XSSFRelation.XLSB_BINARY_WORKBOOK.getRelation());
+
+            List<String> sheetRelIds = new ArrayList<>();
+            for (int i = 0; i < sheets.size(); i++) {
+                PackagePart sheetPart = createPart(pkg, XSSFBRelation.WORKSHEET_BINARY, i + 1);
+                sheetRelIds.add(workbookPart.addRelationship(sheetPart.getPartName(), TargetMode.INTERNAL,
+                        XSSFBRelation.WORKSHEET_BINARY.getRelation()).getId());
+            }
+
+            PackagePart stylesPart = createPart(pkg, XSSFBRelation.STYLES_BINARY, -1);
+            workbookPart.addRelationship(stylesPart.getPartName(), TargetMode.INTERNAL,
+                    XSSFBRelation.STYLES_BINARY.getRelation());
+            try (OutputStream out = stylesPart.getOutputStream()) {
+                writeStyles(new XSSFBRecordWriter(out));
+            }
+
+            if (!sharedStrings.isEmpty()) {
+                PackagePart sstPart = createPart(pkg, XSSFBRelation.SHARED_STRINGS_BINARY, -1);
+                workbookPart.addRelationship(sstPart.getPartName(), TargetMode.INTERNAL,
+                        XSSFBRelation.SHARED_STRINGS_BINARY.getRelation());
+                try (OutputStream out = sstPart.getOutputStream()) {
+                    writeSharedStrings(new XSSFBRecordWriter(out));
+                }
+            }
+
+            try (OutputStream out = workbookPart.getOutputStream()) {
+                writeWorkbook(new XSSFBRecordWriter(out), sheetRelIds);
+            }
+        } finally {
+            pkg.close();
+        }
+    }
+
+    private static PackagePart createPart(OPCPackage pkg, POIXMLRelation relation, int idx) {
+        try {
+            String name = (idx == -1) ? relation.getDefaultFileName() : relation.getFileName(idx);
+            PackagePartName partName = PackagingURIHelper.createPartName(name);
+            return pkg.createPart(partName, relation.getContentType());
+        } catch (InvalidFormatException e) {
+            throw new POIXMLException(e);
+        }
+    }
+
+    private void writeWorkbook(XSSFBRecordWriter writer, List<String> sheetRelIds) throws IOException {
+        writer.writeRecord(XSSFBRecordType.BrtBeginBook);
+
+        writer.writeRecord(XSSFBRecordType.BrtBeginBookViews);
+        writer.startRecord(XSSFBRecordType.BrtBookView)
+            // xWn, yWn, dxWn, dyWn
+            .writeInt(0).writeInt(0).writeInt(16384).writeInt(8192)
+            // iTabRatio, itabFirst, itabCur
+            .writeInt(600).writeInt(0).writeInt(0)
+            // fVisible, fVertScroll, fHorzScroll and fBoolNoAFDateGroup
+            .writeByte(0x38)
+            .endRecord();
+        writer.writeRecord(XSSFBRecordType.BrtEndBookViews);
+
+        writer.writeRecord(XSSFBRecordType.BrtBeginBundleShs);
+        for (int i = 0; i < sheets.size(); i++) {
+            writer.startRecord(XSSFBRecordType.BrtBundleSh)
+                // hsState: visible
+                .writeInt(0)
+                .writeInt(i + 1)
+                .writeXLWideString(sheetRelIds.get(i))
+                .writeXLWideString(sheets.get(i).getSheetName())
+                .endRecord();
+        }
+        writer.writeRecord(XSSFBRecordType.BrtEndBundleShs);
+
+        writer.writeRecord(XSSFBRecordType.BrtEndBook);
+    }
+
+    private void writeStyles(XSSFBRecordWriter writer) throws IOException {
+        writer.writeRecord(XSSFBRecordType.BrtBeginStyleSheet);
+
+        writer.startRecord(XSSFBRecordType.BrtBeginFmts).writeInt(customFormats.size()).endRecord();
+        for (Map.Entry<String, Integer> format : customFormats.entrySet()) {
+            writer.startRecord(XSSFBRecordType.BrtFmt)
+                .writeShort(format.getValue())
+                .writeXLWideString(format.getKey())
+                .endRecord();
+        }
+        writer.writeRecord(XSSFBRecordType.BrtEndFmts);
+
+        writer.startRecord(XSSFBRecordType.BrtBeginFonts).writeInt(1).endRecord();
+        writer.startRecord(XSSFBRecordType.BrtFont)
+            // dyHeight in twips, grbit, bls (normal weight), sss, uls, bFamily, bCharSet, unused
+            .writeShort(220).writeShort(0).writeShort(400).writeShort(0)
+            .writeByte(0).writeByte(2).writeByte(0).writeByte(0)
+            .writeRgbColor(0, 0, 0)
+            // bFontScheme: none
+            .writeByte(0)
+            .writeXLWideString("Calibri")
+            .endRecord();
+        writer.writeRecord(XSSFBRecordType.BrtEndFonts);
+
+        // the two mandatory fills: none and gray125
+        writer.startRecord(XSSFBRecordType.BrtBeginFills).writeInt(2).endRecord();
+        writeFill(writer, 0);
+        writeFill(writer, 17);
+        writer.writeRecord(XSSFBRecordType.BrtEndFills);
+
+        writer.startRecord(XSSFBRecordType.BrtBeginBorders).writeInt(1).endRecord();
+        writer.startRecord(XSSFBRecordType.BrtBorder).writeByte(0);
+        // top, bottom, left, right and diagonal
+        for (int i = 0; i < 5; i++) {
+            writer.writeByte(0).writeByte(0).writeIndexedColor(64);
+        }
+        writer.endRecord();
+        writer.writeRecord(XSSFBRecordType.BrtEndBorders);
+
+        writer.startRecord(XSSFBRecordType.BrtBeginCellStyleXFS).writeInt(1).endRecord();
+        writeXf(writer, 0xFFFF, 0);
+        writer.writeRecord(XSSFBRecordType.BrtEndCellStyleXFS);
+
+        writer.startRecord(XSSFBRecordType.BrtBeginCellXFs).writeInt(styleFormats.size()).endRecord();
+        for (int formatId : styleFormats) {
+            writeXf(writer, 0, formatId);
+        }
+        writer.writeRecord(XSSFBRecordType.BrtEndCellXFs);
+
+        writer.startRecord(XSSFBRecordType.BrtBeginStyles).writeInt(1).endRecord();
+        writer.startRecord(XSSFBRecordType.BrtStyle)
+            // ixf, grbitObj1 (fBuiltIn), iStyBuiltIn, iLevel
+            .writeInt(0).writeShort(1).writeByte(0).writeByte(0xFF)
+            .writeXLWideString("Normal")
+            .endRecord();
+        writer.writeRecord(XSSFBRecordType.BrtEndStyles);
+
+        writer.startRecord(XSSFBRecordType.BrtBeginDXFs).writeInt(0).endRecord();
+        writer.writeRecord(XSSFBRecordType.BrtEndDXFs);
+
+        writer.startRecord(XSSFBRecordType.BrtBeginTableStyles)
+            .writeInt(0)
+            .writeXLWideString("TableStyleMedium2")
+            .writeXLWideString("PivotStyleLight16")
+            .endRecord();
+        writer.writeRecord(XSSFBRecordType.BrtEndTableStyles);
+
+        writer.writeRecord(XSSFBRecordType.BrtEndStyleSheet);
+    }
+
+    private static void writeFill(XSSFBRecordWriter writer, int pattern) throws IOException {
+        writer.startRecord(XSSFBRecordType.BrtFill)
+            .writeInt(pattern)
+            .writeIndexedColor(64)
+            .writeIndexedColor(65)
+            // iGradientType, xnumDegree, xnumFillToLeft, xnumFillToRight, xnumFillToTop, xnumFillToBottom
+            .writeInt(0)
+            .writeDouble(0).writeDouble(0).writeDouble(0).writeDouble(0).writeDouble(0)
+            // cNumStop
+            .writeInt(0)
+            .endRecord();
+    }
+
+    private static void writeXf(XSSFBRecordWriter writer, int parent, int formatId) throws IOException {
+        writer.startRecord(XSSFBRecordType.BrtXf)
+            // ixfeParent, iFmt, iFont, iFill, ixBorder
+            .writeShort(parent).writeShort(formatId).writeShort(0).writeShort(0).writeShort(0)
+            // trot, indent
+            .writeByte(0).writeByte(0)
+            // alignment and protection flags: fLocked and default alignment
+            .writeShort(0x1010)
+            // xfGrbitAtr: apply the number format
+            .writeByte(formatId == 0 ? 0 : 0x01)
+            .writeByte(0)
+            .endRecord();
+    }
+
+    private void writeSharedStrings(XSSFBRecordWriter writer) throws IOException {
+        writer.startRecord(XSSFBRecordType.BrtBeginSst)
+            .writeInt(sharedStringsCount)
+            .writeInt(sharedStrings.size())
+            .endRecord();
+        for (String text : sharedStrings.keySet()) {
+            // no rich text or phonetic data
+            writer.startRecord(XSSFBRecordType.BrtSstItem)
+                .writeByte(0)
+                .writeXLWideString(text)
+                .endRecord();
+        }
+        writer.writeRecord(XSSFBRecordType.BrtEndSst);
+    }
+
+    private void injectData(ZipEntrySource zipEntrySource, OutputStream out) throws IOException {
+        try {
+            try (ZipOutputStream zos = new ZipOutputStream(out)) {
+                Enumeration<? extends ZipEntry> en = zipEntrySource.getEntries();
+                while (en.hasMoreElements()) {
+                    ZipEntry ze = en.nextElement();
+                    zos.putNextEntry(new ZipEntry(ze.getName()));
+                    XSSFBStreamingSheet sheet = getSheetFromZipEntryName(ze.getName());
+                    if (sheet != null) {
+                        sheet.writeSheetPart(zos);
+                    } else {
+                        try (InputStream is = zipEntrySource.getInputStream(ze)) {
+                            IOUtils.copy(is, zos);
+                        }
+                    }
+                }
+            }
+        } finally {
+            zipEntrySource.close();
+        }
+    }
+
+    private XSSFBStreamingSheet getSheetFromZipEntryName(String entryName) {
+        for (int i = 0; i < sheets.size(); i++) {
+            String partName = XSSFBRelation.WORKSHEET_BINARY.getFileName(i + 1);
+            if (partName.substring(1).equals(entryName)) {
+                return sheets.get(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Dispose of temporary files backing this workbook on disk.
+     * Calling this method will render the workbook unusable.
+     * @return true if all temporary files were deleted successfully.
+     */
+    public boolean dispose() {
+        boolean success = true;
+        for (XSSFBStreamingSheet sheet : sheets) {
+            try {
+                success = sheet.dispose() && success;
+            } catch (IOException e) {
+                success = false;
+            }
+        }
+        return success;
+    }
+
+    /**
+     * Closes the workbook and deletes the temporary files, the workbook needs
+     *  to be written before via {@link #write(OutputStream)}
+     */
+    @Override
+    public void close() throws IOException {
+        dispose();
+    }
+}
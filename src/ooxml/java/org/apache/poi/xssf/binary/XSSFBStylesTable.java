@@ -27,6 +27,7 @@ import java.util.TreeMap;
 import org.apache.poi.POIXMLException;
 import org.apache.poi.ss.usermodel.BuiltinFormats;
 import org.apache.poi.util.Internal;
+import org.apache.poi.util.LittleEndian;
 
 /**
  * This is a very thin shim to gather number formats from styles.bin
@@ -91,7 +92,7 @@ public class XSSFBStylesTable extends XSSFBParser {
     }
 
     private void handleFormat(byte[] data) {
-        int ifmt = data[0] & 0xFF;
+        int ifmt = LittleEndian.getUShort(data, 0);
         if (ifmt > Short.MAX_VALUE) {
             throw new POIXMLException("Format id must be a short");
         }
@@ -103,10 +104,9 @@ public class XSSFBStylesTable extends XSSFBParser {
 
     private void handleBrtXFInCellXF(byte[] data) {
         int ifmtOffset = 2;
-        //int ifmtLength = 2;
 
         //numFmtId in xml terms
-        int ifmt = data[ifmtOffset] & 0xFF;//the second byte is ignored
+        int ifmt = LittleEndian.getUShort(data, ifmtOffset);
         styleIds.add((short)ifmt);
     }
 }
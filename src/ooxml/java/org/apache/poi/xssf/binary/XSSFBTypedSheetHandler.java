@@ -0,0 +1,199 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xssf.binary;
+
+import java.io.InputStream;
+
+import org.apache.poi.ss.usermodel.FormulaError;
+import org.apache.poi.util.LittleEndian;
+
+/**
+ * Parses the sheet part of a xlsb file and reports the cells with their typed values.
+ * <p>
+ * In contrast to {@link XSSFBSheetHandler}, the values are not formatted and the cell
+ *  references aren't converted to text: numbers are reported as doubles, shared strings
+ *  as their index into the {@link XSSFBSharedStringsTable} and errors as {@link FormulaError}.
+ *  So apart from the record buffers, parsing doesn't allocate objects for numeric,
+ *  boolean and shared string cells.
+ * </p>
+ * <p>
+ * Comments, hyperlinks and headers/footers are not reported, use {@link XSSFBSheetHandler} for them.
+ * </p>
+ *
+ * @since POI 4.0.0
+ */
+public class XSSFBTypedSheetHandler extends XSSFBParser {
+
+    private final TypedSheetContentsHandler handler;
+
+    private final XSSFBCellHeader cellBuffer = new XSSFBCellHeader();
+    private final StringBuilder xlWideStringBuffer = new StringBuilder();
+
+    private int currentRow = -1;
+    private boolean rowStarted;
+
+    public XSSFBTypedSheetHandler(InputStream is, TypedSheetContentsHandler sheetContentsHandler) {
+        super(is);
+        this.handler = sheetContentsHandler;
+    }
+
+    @Override
+    public void handleRecord(int id, byte[] data) throws XSSFBParseException {
+        XSSFBRecordType type = XSSFBRecordType.lookup(id);
+
+        switch(type) {
+            case BrtRowHdr:
+                int rw = XSSFBUtils.castToInt(LittleEndian.getUInt(data, 0));
+                if (rw > 0x00100000) {
+                    throw new XSSFBParseException("Row number beyond allowable range: "+rw);
+                }
+                endRow();
+                currentRow = rw;
+                handler.startRow(currentRow);
+                rowStarted = true;
+                break;
+            case BrtCellBlank:
+                readCellHeader(data);
+                handler.blankCell(currentRow, cellBuffer.getColNum(), cellBuffer.getStyleIdx());
+                break;
+            case BrtCellRk:
+                readCellHeader(data);
+                handleNumber(XSSFBUtils.rkNumber(data, XSSFBCellHeader.length), false);
+                break;
+            case BrtCellReal:
+                readCellHeader(data);
+                handleNumber(LittleEndian.getDouble(data, XSSFBCellHeader.length), false);
+                break;
+            case BrtFmlaNum:
+                readCellHeader(data);
+                handleNumber(LittleEndian.getDouble(data, XSSFBCellHeader.length), true);
+                break;
+            case BrtCellBool:
+                readCellHeader(data);
+                handleBoolean(data, false);
+                break;
+            case BrtFmlaBool:
+                readCellHeader(data);
+                handleBoolean(data, true);
+                break;
+            case BrtCellError:
+                readCellHeader(data);
+                handleError(data, false);
+                break;
+            case BrtFmlaError:
+                readCellHeader(data);
+                handleError(data, true);
+                break;
+            case BrtCellIsst:
+                readCellHeader(data);
+                int idx = XSSFBUtils.castToInt(LittleEndian.getUInt(data, XSSFBCellHeader.length));
+                handler.sharedStringCell(currentRow, cellBuffer.getColNum(), cellBuffer.getStyleIdx(), idx);
+                break;
+            case BrtCellSt:
+                readCellHeader(data);
+                handleString(data, XSSFBCellHeader.length, false);
+                break;
+            case BrtFmlaString:
+                readCellHeader(data);
+                handleString(data, XSSFBCellHeader.length, true);
+                break;
+            case BrtCellRString:
+                readCellHeader(data);
+                // skip the byte with the fRichStr and fExtStr flags
+                handleString(data, XSSFBCellHeader.length + 1, false);
+                break;
+            case BrtEndSheetData:
+                endRow();
+                handler.endSheet();
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void readCellHeader(byte[] data) {
+        XSSFBCellHeader.parse(data, 0, currentRow, cellBuffer);
+    }
+
+    private void endRow() {
+        if (rowStarted) {
+            handler.endRow(currentRow);
+            rowStarted = false;
+        }
+    }
+
+    private void handleNumber(double value, boolean formula) {
+        handler.numericCell(currentRow, cellBuffer.getColNum(), cellBuffer.getStyleIdx(), value, formula);
+    }
+
+    private void handleBoolean(byte[] data, boolean formula) {
+        boolean value = data[XSSFBCellHeader.length] == 1;
+        handler.booleanCell(currentRow, cellBuffer.getColNum(), cellBuffer.getStyleIdx(), value, formula);
+    }
+
+    private void handleError(byte[] data, boolean formula) {
+        byte code = data[XSSFBCellHeader.length];
+        if (!FormulaError.isValidCode(code)) {
+            throw new XSSFBParseException("Unknown error code " + code + " in row " + currentRow);
+        }
+        handler.errorCell(currentRow, cellBuffer.getColNum(), cellBuffer.getStyleIdx(),
+                FormulaError.forInt(code), formula);
+    }
+
+    private void handleString(byte[] data, int offset, boolean formula) {
+        xlWideStringBuffer.setLength(0);
+        XSSFBUtils.readXLWideString(data, offset, xlWideStringBuffer);
+        handler.stringCell(currentRow, cellBuffer.getColNum(), cellBuffer.getStyleIdx(),
+                xlWideStringBuffer.toString(), formula);
+    }
+
+    /**
+     * You need to implement this to handle the results of the sheet parsing.
+     * The row and column indexes are 0-based, the style index refers to the
+     * cell formats (cellXfs) of the styles part. For formula cells, the cached
+     * result is reported.
+     */
+    public interface TypedSheetContentsHandler {
+        /** A row with the (zero based) row number has started */
+        void startRow(int rowNum);
+
+        /** A row with the (zero based) row number has ended */
+        void endRow(int rowNum);
+
+        /** A numeric cell, dates are reported as Excel serial numbers */
+        void numericCell(int rowNum, int columnIndex, int styleIndex, double value, boolean formula);
+
+        /** A boolean cell */
+        void booleanCell(int rowNum, int columnIndex, int styleIndex, boolean value, boolean formula);
+
+        /** A cell referring to the string with the given index of the shared strings table */
+        void sharedStringCell(int rowNum, int columnIndex, int styleIndex, int sstIndex);
+
+        /** A cell with an inline string or the string result of a formula */
+        void stringCell(int rowNum, int columnIndex, int styleIndex, String value, boolean formula);
+
+        /** A cell with an error value */
+        void errorCell(int rowNum, int columnIndex, int styleIndex, FormulaError error, boolean formula);
+
+        /** A cell without value, which only carries a style */
+        default void blankCell(int rowNum, int columnIndex, int styleIndex) {}
+
+        /** Signal that the end of a sheet was been reached */
+        default void endSheet() {}
+    }
+}
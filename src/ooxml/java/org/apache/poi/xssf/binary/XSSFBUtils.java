@@ -108,4 +108,26 @@ public class XSSFBUtils {
         int b2 = data[i] & 0xFF;
         return ( b2 << 16 ) + ( b1 << 8 ) + b0;
     }
+
+    /**
+     * Decodes a RkNumber, see 2.5.122 of the spec
+     *
+     * @param data raw data
+     * @param offset offset of the 4 byte RkNumber
+     * @return the decoded number
+     */
+    static double rkNumber(byte[] data, int offset) {
+        int rk = LittleEndian.getInt(data, offset);
+        boolean numDivBy100 = (rk & 1) == 1;
+        boolean integer = (rk & 2) == 2;
+        double d;
+        if (integer) {
+            // 30 bit signed integer
+            d = rk >> 2;
+        } else {
+            // the 30 most significant bits of a double, the remaining bits are 0
+            d = Double.longBitsToDouble(((long)(rk & ~3)) << 32);
+        }
+        return numDivBy100 ? d/100 : d;
+    }
 }
@@ -0,0 +1,277 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+package org.apache.poi.xssf.eventusermodel;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.poifs.nio.FileBackedDataSource;
+import org.apache.poi.util.POILogFactory;
+import org.apache.poi.util.POILogger;
+import org.apache.poi.util.TempFile;
+import org.xml.sax.SAXException;
+
+/**
+ * A {@link ReadOnlySharedStringsTable}, which keeps the strings in a memory-mapped
+ *  temp file instead of the heap.
+ * <p>
+ * While the table is read, the strings are appended UTF-8 encoded to a temp file
+ *  and only their offsets are kept in memory (8 bytes per string). Afterwards the
+ *  file is mapped into memory and the strings are decoded on demand.
+ *  The recently used strings are cached.
+ * </p>
+ * <p>
+ * Like the in-memory table, the table can be shared by concurrent sheet parsers.
+ *  It needs to be closed to release the temp file.
+ * </p>
+ *
+ * @since POI 4.0.0
+ */
+public class DiskBackedSharedStringsTable extends ReadOnlySharedStringsTable implements Closeable {
+    private static final POILogger LOG = POILogFactory.getLogger(DiskBackedSharedStringsTable.class);
+
+    /**
+     * The default number of cached strings
+     */
+    public static final int DEFAULT_CACHE_SIZE = 10000;
+
+    // the mapped segments overlap by the longest entry, so each entry is within one segment
+    private static final long SEGMENT_SIZE = 1L << 30;
+
+    // the fields used while reading are assigned by addEntry(), which is called by the super constructor
+    private File tempFile;
+    private OutputStream out;
+    private long[] offsets;
+    private int numEntries;
+    private int maxEntryLength;
+
+    private FileBackedDataSource dataSource;
+    private ByteBuffer[] segments;
+    private Map<Integer, String> cache;
+    private int cacheSize = DEFAULT_CACHE_SIZE;
+
+    /**
+     * @param pkg The {@link OPCPackage} to use as basis for the shared-strings table.
+     * @throws IOException If reading the data from the package fails.
+     * @throws SAXException if parsing the XML data fails.
+     */
+    public DiskBackedSharedStringsTable(OPCPackage pkg) throws IOException, SAXException {
+        this(pkg, true);
+    }
+
+    /**
+     * @param pkg The {@link OPCPackage} to use as basis for the shared-strings table.
+     * @param includePhoneticRuns whether or not to concatenate phoneticRuns onto the shared string
+     * @throws IOException If reading the data from the package fails.
+     * @throws SAXException if parsing the XML data fails.
+     */
+    public DiskBackedSharedStringsTable(OPCPackage pkg, boolean includePhoneticRuns)
+            throws IOException, SAXException {
+        super(pkg, includePhoneticRuns);
+        finishReading();
+    }
+
+    /**
+     * @param part the shared strings part
+     * @param includePhoneticRuns whether or not to concatenate phoneticRuns onto the shared string
+     * @throws IOException If reading the data from the package fails.
+     * @throws SAXException if parsing the XML data fails.
+     */
+    public DiskBackedSharedStringsTable(PackagePart part, boolean includePhoneticRuns)
+            throws IOException, SAXException {
+        super(part, includePhoneticRuns);
+        finishReading();
+    }
+
+    /**
+     * Set the number of decoded strings, which are cached
+     *
+     * @param cacheSize the number of strings or 0 to disable the cache
+     */
+    public void setCacheSize(int cacheSize) {
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("cacheSize must not be negative");
+        }
+        synchronized (this) {
+            this.cacheSize = cacheSize;
+            cache = null;
+        }
+    }
+
+    @Override
+    public void readFrom(InputStream is) throws IOException, SAXException {
+        if (segments != null) {
+            throw new IllegalStateException("The shared strings have already been read");
+        }
+        super.readFrom(is);
+    }
+
+    @Override
+    protected void addEntry(String entry) {
+        try {
+            if (out == null) {
+                tempFile = TempFile.createTempFile("poi-shared-strings", ".tmp");
+                out = new BufferedOutputStream(new FileOutputStream(tempFile));
+                offsets = new long[1024];
+            }
+            byte[] bytes = entry.getBytes(StandardCharsets.UTF_8);
+            out.write(bytes);
+            if (numEntries + 1 == offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            offsets[numEntries + 1] = offsets[numEntries] + bytes.length;
+            numEntries++;
+            maxEntryLength = Math.max(maxEntryLength, bytes.length);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void finishReading() throws IOException {
+        if (out == null) {
+            segments = new ByteBuffer[0];
+            return;
+        }
+        out.close();
+        out = null;
+        offsets = Arrays.copyOf(offsets, numEntries + 1);
+
+        long size = offsets[numEntries];
+        int numSegments = (int)((size + SEGMENT_SIZE - 1) / SEGMENT_SIZE);
+        segments = new ByteBuffer[numSegments];
+        if (size == 0) {
+            return;
+        }
+        dataSource = new FileBackedDataSource(tempFile, false);
+        for (int i = 0; i < numSegments; i++) {
+            long start = i * SEGMENT_SIZE;
+            long length = Math.min(size - start, SEGMENT_SIZE + maxEntryLength);
+            segments[i] = dataSource.read((int)length, start);
+        }
+    }
+
+    /**
+     * Return the string at a given index.
+     * Formatting is ignored.
+     *
+     * @param idx index of item to return.
+     * @return the item at the specified position in this Shared String table.
+     */
+    @Override
+    public String getEntryAt(int idx) {
+        if (idx < 0 || idx >= numEntries) {
+            throw new IndexOutOfBoundsException("Index: " + idx + ", Size: " + numEntries);
+        }
+        synchronized (this) {
+            if (cache != null) {
+                String str = cache.get(idx);
+                if (str != null) {
+                    return str;
+                }
+            }
+        }
+
+        long start = offsets[idx];
+        int length = (int)(offsets[idx + 1] - start);
+        if (length == 0) {
+            return "";
+        }
+        int segment = (int)(start / SEGMENT_SIZE);
+        // use a view of the segment, so concurrent lookups don't share the buffer position
+        ByteBuffer buf = segments[segment].duplicate();
+        buf.position((int)(start - segment * SEGMENT_SIZE));
+        byte[] bytes = new byte[length];
+        buf.get(bytes);
+        String str = new String(bytes, StandardCharsets.UTF_8);
+
+        synchronized (this) {
+            if (cacheSize > 0) {
+                if (cache == null) {
+                    cache = new LinkedHashMap<Integer, String>(Math.min(cacheSize, 1024), 0.75f, true) {
+                        @Override
+                        protected boolean removeEldestEntry(Map.Entry<Integer, String> eldest) {
+                            return size() > cacheSize;
+                        }
+                    };
+                }
+                cache.put(idx, str);
+            }
+        }
+        return str;
+    }
+
+    /**
+     * @return a view of the strings, which are decoded on access
+     */
+    @Override
+    public List<String> getItems() {
+        return new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                return getEntryAt(index);
+            }
+
+            @Override
+            public int size() {
+                return numEntries;
+            }
+        };
+    }
+
+    /**
+     * Release the mapped memory and delete the temp file
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            cache = null;
+        }
+        segments = new ByteBuffer[0];
+        numEntries = 0;
+        try {
+            if (out != null) {
+                out.close();
+                out = null;
+            }
+            if (dataSource != null) {
+                dataSource.close();
+                dataSource = null;
+            }
+        } finally {
+            if (tempFile != null) {
+                if (!tempFile.delete()) {
+                    LOG.log(POILogger.WARN, "Could not delete temporary file " + tempFile);
+                }
+                tempFile = null;
+            }
+        }
+    }
+}
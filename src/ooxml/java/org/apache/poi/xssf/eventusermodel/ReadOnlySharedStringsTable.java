@@ -75,7 +75,9 @@ import org.xml.sax.helpers.DefaultHandler;
  &lt;/si>
 &lt;/sst>
 * </pre>
- *
+ * <p>The table isn't modified after it has been read, so it can be shared
+ *  by sheet parsers running concurrently, see
+ *  {@link XSSFReader#processSheets(XSSFReader.SheetHandlerFactory, java.util.concurrent.ExecutorService)}.
  */
 public class ReadOnlySharedStringsTable extends DefaultHandler {
 
@@ -221,6 +223,22 @@ public class ReadOnlySharedStringsTable extends DefaultHandler {
         return strings;
     }
 
+    /**
+     * Stores a string read from the shared strings table.
+     * Subclasses may store the strings differently, e.g. outside of the heap.
+     * Overriding methods need to be aware, that this is called during the
+     * construction of the table.
+     *
+     * @param entry the text of the string item
+     * @since POI 4.0.0
+     */
+    protected void addEntry(String entry) {
+        if (strings == null) {
+            strings = new ArrayList<>(Math.max(uniqueCount, 16));
+        }
+        strings.add(entry);
+    }
+
     //// ContentHandler methods ////
 
     private StringBuilder characters;
@@ -239,7 +257,7 @@ public class ReadOnlySharedStringsTable extends DefaultHandler {
             String uniqueCount = attributes.getValue("uniqueCount");
             if(uniqueCount != null) this.uniqueCount = Integer.parseInt(uniqueCount);
 
-            this.strings = new ArrayList<>(this.uniqueCount);
+            this.strings = null;
             this.phoneticStrings = new HashMap<>();
             characters = new StringBuilder(64);
         } else if ("si".equals(localName)) {
@@ -262,7 +280,11 @@ public class ReadOnlySharedStringsTable extends DefaultHandler {
         }
 
         if ("si".equals(localName)) {
-            strings.add(characters.toString());
+            addEntry(characters.toString());
+        } else if ("sst".equals(localName)) {
+            if (strings == null) {
+                strings = new ArrayList<>();
+            }
         } else if ("t".equals(localName)) {
             tIsOpen = false;
         } else if ("rPh".equals(localName)) {
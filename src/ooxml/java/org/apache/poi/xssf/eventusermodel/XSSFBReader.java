@@ -27,6 +27,9 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
 import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
@@ -45,10 +48,14 @@ import org.apache.poi.xssf.binary.XSSFBParseException;
 import org.apache.poi.xssf.binary.XSSFBParser;
 import org.apache.poi.xssf.binary.XSSFBRecordType;
 import org.apache.poi.xssf.binary.XSSFBRelation;
+import org.apache.poi.xssf.binary.XSSFBSharedStringsTable;
 import org.apache.poi.xssf.binary.XSSFBStylesTable;
+import org.apache.poi.xssf.binary.XSSFBTypedSheetHandler;
+import org.apache.poi.xssf.binary.XSSFBTypedSheetHandler.TypedSheetContentsHandler;
 import org.apache.poi.xssf.binary.XSSFBUtils;
 import org.apache.poi.xssf.model.CommentsTable;
 import org.apache.poi.xssf.usermodel.XSSFRelation;
+import org.xml.sax.SAXException;
 
 /**
  * Reader for xlsb files.
@@ -106,6 +113,109 @@ public class XSSFBReader extends XSSFReader {
         return new SheetIterator(workbookPart);
     }
 
+    /**
+     * Creates the handlers for {@link #processTypedSheets(TypedSheetHandlerFactory, ExecutorService)}
+     *
+     * @since POI 4.0.0
+     */
+    public interface TypedSheetHandlerFactory {
+        /**
+         * Create the handler for a sheet. This method is called on the thread,
+         * which invoked <code>processTypedSheets</code>, while the returned handler
+         * is called by a worker thread.
+         *
+         * @param sheetIndex the 0-based index of the sheet in the workbook
+         * @param sheetName the name of the sheet
+         * @return the handler of the sheet or null to skip the sheet
+         */
+        TypedSheetContentsHandler createSheetHandler(int sheetIndex, String sheetName);
+    }
+
+    /**
+     * Not supported for xlsb files, as the sheets aren't xml.
+     * Please use {@link #processTypedSheets(TypedSheetHandlerFactory, ExecutorService)} instead.
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void processSheets(SheetHandlerFactory factory, ExecutorService executor) {
+        throw new UnsupportedOperationException("Please use processTypedSheets");
+    }
+
+    /**
+     * Parses the sheets concurrently with the given number of threads.
+     *
+     * @param factory creates the handler for each sheet
+     * @param numThreads the number of worker threads
+     * @see #processTypedSheets(TypedSheetHandlerFactory, ExecutorService)
+     * @since POI 4.0.0
+     */
+    public void processTypedSheets(TypedSheetHandlerFactory factory, int numThreads)
+    throws IOException, InvalidFormatException {
+        if (numThreads <= 0) {
+            throw new IllegalArgumentException("numThreads must be greater than 0");
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            processTypedSheets(factory, executor);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Parses the sheets concurrently with {@link XSSFBTypedSheetHandler}s, each sheet on
+     * a thread of the executor. This method returns when all sheets have been parsed.
+     * <p>
+     * The handlers of different sheets run concurrently, so the objects they share need
+     * to be thread-safe. The {@link XSSFBSharedStringsTable} and {@link XSSFBStylesTable}
+     * aren't modified after they have been read, so they can be shared by the handlers.
+     * </p>
+     * <p>
+     * If a sheet can't be parsed, the remaining sheets are cancelled and the
+     * exception is rethrown, after the sheets, which are already being parsed, have completed.
+     * </p>
+     *
+     * @param factory creates the handler for each sheet
+     * @param executor the executor, which runs the parsers
+     * @since POI 4.0.0
+     */
+    public void processTypedSheets(final TypedSheetHandlerFactory factory, ExecutorService executor)
+    throws IOException, InvalidFormatException {
+        try {
+            processSheets(new SheetTaskFactory() {
+                @Override
+                public Callable<Void> createSheetTask(int sheetIndex, String sheetName, PackagePart sheetPart) {
+                    TypedSheetContentsHandler handler = factory.createSheetHandler(sheetIndex, sheetName);
+                    return (handler == null || sheetPart == null) ? null : new TypedSheetParser(sheetPart, handler);
+                }
+            }, executor);
+        } catch (SAXException e) {
+            // not thrown by the binary parsers
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Parses a binary sheet part
+     */
+    private static final class TypedSheetParser implements Callable<Void> {
+        private final PackagePart sheetPart;
+        private final TypedSheetContentsHandler handler;
+
+        TypedSheetParser(PackagePart sheetPart, TypedSheetContentsHandler handler) {
+            this.sheetPart = sheetPart;
+            this.handler = handler;
+        }
+
+        @Override
+        public Void call() throws IOException {
+            try (InputStream is = sheetPart.getInputStream()) {
+                new XSSFBTypedSheetHandler(is, handler).parse();
+            }
+            return null;
+        }
+    }
+
     public XSSFBStylesTable getXSSFBStylesTable() throws IOException {
         ArrayList<PackagePart> parts = pkg.getPartsByContentType(XSSFBRelation.STYLES_BINARY.getContentType());
         if(parts.size() == 0) return null;
@@ -0,0 +1,480 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+package org.apache.poi.xssf.eventusermodel;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.poi.POIXMLException;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.util.SAXHelper;
+import org.apache.poi.xssf.eventusermodel.XSSFTypedSheetXMLHandler.TypedCell;
+import org.apache.poi.xssf.eventusermodel.XSSFTypedSheetXMLHandler.TypedSheetContentsHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+/**
+ * Parses a single worksheet part with multiple threads.
+ * <p>
+ * The sheet is decompressed once into memory and the <code>sheetData</code> element
+ *  is split at <code>&lt;row</code> boundaries into chunks. The chunks are parsed
+ *  concurrently by {@link XSSFTypedSheetXMLHandler}s and the buffered rows are passed
+ *  to the {@link TypedSheetContentsHandler} in sheet order on the calling thread.
+ *  So the contents handler doesn't need to be thread-safe.
+ * </p>
+ * <p>
+ * Sheets which can't be split safely - e.g. rows without a row number, namespace
+ *  prefixed elements or other encodings than UTF-8 - are parsed sequentially.
+ *  The memory footprint is the uncompressed sheet plus the rows of the pending chunks.
+ * </p>
+ *
+ * @since POI 4.0.0
+ */
+public class XSSFParallelSheetReader {
+    private static final byte[] SHEET_DATA_START = "<sheetData".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SHEET_DATA_END = "</sheetData>".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ROW_START = "<row".getBytes(StandardCharsets.US_ASCII);
+
+    private static final int DEFAULT_CHUNK_SIZE = 1024 * 1024;
+
+    private final StylesTable styles;
+    private final ReadOnlySharedStringsTable strings;
+    private final ExecutorService executor;
+    private DataFormatter formatter;
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private int maxPendingChunks = 2 * Runtime.getRuntime().availableProcessors();
+
+    /**
+     * @param styles Table of styles, may be null
+     * @param strings Table of shared strings, may be null if no shared strings are accessed
+     * @param executor the executor, which parses the chunks - it's not shut down by this reader
+     */
+    public XSSFParallelSheetReader(StylesTable styles, ReadOnlySharedStringsTable strings, ExecutorService executor) {
+        this.styles = styles;
+        this.strings = strings;
+        this.executor = executor;
+    }
+
+    /**
+     * @param chunkSize the approximate number of bytes of the rows parsed by one task
+     */
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be greater than 0");
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @param maxPendingChunks the number of chunks, which are parsed ahead of the contents handler
+     */
+    public void setMaxPendingChunks(int maxPendingChunks) {
+        if (maxPendingChunks <= 0) {
+            throw new IllegalArgumentException("maxPendingChunks must be greater than 0");
+        }
+        this.maxPendingChunks = maxPendingChunks;
+    }
+
+    /**
+     * @param formatter the formatter for {@link TypedCell#getFormattedValue()}
+     */
+    public void setDataFormatter(DataFormatter formatter) {
+        this.formatter = formatter;
+    }
+
+    /**
+     * Parses the sheet and reports its rows in order to the contents handler.
+     *
+     * @param sheetInputStream the stream of the worksheet part, which is read completely but not closed
+     * @param output the receiver of the rows and cells
+     */
+    public void processSheet(InputStream sheetInputStream, TypedSheetContentsHandler output)
+    throws IOException, SAXException {
+        byte[] data = IOUtils.toByteArray(sheetInputStream);
+        XSSFTypedSheetXMLHandler replay = new XSSFTypedSheetXMLHandler(styles, strings, output, formatter);
+
+        SheetLayout layout = SheetLayout.scan(data, chunkSize);
+        if (layout == null) {
+            parse(new ByteArrayInputStream(data), replay);
+            return;
+        }
+
+        Deque<Future<RowChunk>> pending = new ArrayDeque<>();
+        try {
+            int nextChunk = 0;
+            int numChunks = layout.boundaries.length - 1;
+            while (nextChunk < numChunks || !pending.isEmpty()) {
+                while (nextChunk < numChunks && pending.size() < maxPendingChunks) {
+                    pending.add(executor.submit(new ChunkParser(layout, nextChunk++)));
+                }
+                pending.remove().get().replay(output, replay);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while parsing the sheet", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException)cause;
+            } else if (cause instanceof SAXException) {
+                throw (SAXException)cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            } else if (cause instanceof Error) {
+                throw (Error)cause;
+            }
+            throw new POIXMLException(cause);
+        } finally {
+            for (Future<RowChunk> future : pending) {
+                future.cancel(true);
+            }
+        }
+        output.endSheet();
+    }
+
+    private static void parse(InputStream is, XSSFTypedSheetXMLHandler handler) throws IOException, SAXException {
+        XMLReader parser;
+        try {
+            parser = SAXHelper.newXMLReader();
+        } catch (ParserConfigurationException e) {
+            throw new RuntimeException("SAX parser appears to be broken - " + e.getMessage());
+        }
+        parser.setContentHandler(handler);
+        parser.parse(new InputSource(is));
+    }
+
+    /**
+     * The positions of the row chunks and the synthetic document around them
+     */
+    private static final class SheetLayout {
+        final byte[] data;
+        final byte[] header;
+        final byte[] footer;
+        // start offsets of the chunks followed by the end of the last chunk
+        final int[] boundaries;
+
+        private SheetLayout(byte[] data, byte[] header, byte[] footer, int[] boundaries) {
+            this.data = data;
+            this.header = header;
+            this.footer = footer;
+            this.boundaries = boundaries;
+        }
+
+        /**
+         * @return the layout or null, if the sheet needs to be parsed sequentially
+         */
+        static SheetLayout scan(byte[] data, int chunkSize) {
+            if (data.length > 1 && ((data[0] & 0xFF) == 0xFE || (data[0] & 0xFF) == 0xFF)) {
+                // UTF-16 byte order mark
+                return null;
+            }
+            int pos = 0;
+            // skip the XML declaration, comments and whitespace before the root element
+            while (true) {
+                pos = indexOf(data, (byte)'<', pos);
+                if (pos < 0 || pos + 1 >= data.length) {
+                    return null;
+                }
+                byte next = data[pos + 1];
+                if (next == '?') {
+                    int end = indexOf(data, (byte)'>', pos);
+                    if (end < 0 || !isUtf8Declaration(new String(data, pos, end - pos, StandardCharsets.ISO_8859_1))) {
+                        return null;
+                    }
+                    pos = end;
+                } else if (next == '!') {
+                    pos++;
+                } else {
+                    break;
+                }
+            }
+            int rootEnd = indexOf(data, (byte)'>', pos);
+            if (rootEnd < 0) {
+                return null;
+            }
+            int nameEnd = pos + 1;
+            while (nameEnd < rootEnd && !isWhitespace(data[nameEnd]) && data[nameEnd] != '/') {
+                nameEnd++;
+            }
+            String rootName = new String(data, pos + 1, nameEnd - pos - 1, StandardCharsets.UTF_8);
+
+            int sheetData = indexOf(data, SHEET_DATA_START, rootEnd);
+            if (sheetData < 0) {
+                return null;
+            }
+            int sheetDataTagEnd = indexOf(data, (byte)'>', sheetData);
+            if (sheetDataTagEnd < 0 || data[sheetDataTagEnd - 1] == '/') {
+                // no or empty sheet data
+                return null;
+            }
+            int sheetDataEnd = lastIndexOf(data, SHEET_DATA_END);
+            if (sheetDataEnd < sheetDataTagEnd) {
+                return null;
+            }
+
+            int[] boundaries = new int[16];
+            int numBoundaries = 0;
+            int chunkEnd = -1;
+            int row = sheetDataTagEnd;
+            while ((row = indexOf(data, ROW_START, row + 1)) >= 0 && row < sheetDataEnd) {
+                int afterName = row + ROW_START.length;
+                if (!isWhitespace(data[afterName]) && data[afterName] != '>' && data[afterName] != '/') {
+                    // e.g. <rowBreaks> outside of the sheet data
+                    continue;
+                }
+                if (!hasRowNumber(data, afterName)) {
+                    return null;
+                }
+                if (row >= chunkEnd) {
+                    if (numBoundaries == boundaries.length) {
+                        boundaries = Arrays.copyOf(boundaries, numBoundaries * 2);
+                    }
+                    boundaries[numBoundaries++] = row;
+                    chunkEnd = row + chunkSize;
+                }
+            }
+            if (numBoundaries < 2) {
+                // nothing to split
+                return null;
+            }
+            boundaries = Arrays.copyOf(boundaries, numBoundaries + 1);
+            boundaries[numBoundaries] = sheetDataEnd;
+
+            byte[] rootTag = Arrays.copyOfRange(data, pos, rootEnd + 1);
+            byte[] prolog = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>".getBytes(StandardCharsets.US_ASCII);
+            byte[] header = new byte[prolog.length + rootTag.length + 11];
+            System.arraycopy(prolog, 0, header, 0, prolog.length);
+            System.arraycopy(rootTag, 0, header, prolog.length, rootTag.length);
+            System.arraycopy("<sheetData>".getBytes(StandardCharsets.US_ASCII), 0, header, prolog.length + rootTag.length, 11);
+            byte[] footer = ("</sheetData></" + rootName + ">").getBytes(StandardCharsets.UTF_8);
+            return new SheetLayout(data, header, footer, boundaries);
+        }
+
+        InputStream getChunk(int chunk) {
+            int start = boundaries[chunk];
+            int end = boundaries[chunk + 1];
+            return new SequenceInputStream(new SequenceInputStream(
+                    new ByteArrayInputStream(header),
+                    new ByteArrayInputStream(data, start, end - start)),
+                    new ByteArrayInputStream(footer));
+        }
+
+        private static boolean isUtf8Declaration(String decl) {
+            int enc = decl.indexOf("encoding");
+            if (enc < 0) {
+                return true;
+            }
+            String rest = decl.substring(enc + 8).toLowerCase(Locale.ROOT);
+            return rest.contains("utf-8") || rest.contains("utf8");
+        }
+
+        /**
+         * @return true, if the attributes of the row tag contain the row number
+         */
+        private static boolean hasRowNumber(byte[] data, int pos) {
+            for (int i = pos; i + 2 < data.length && data[i] != '>'; i++) {
+                if (data[i] == 'r' && isWhitespace(data[i - 1])) {
+                    int j = i + 1;
+                    while (isWhitespace(data[j])) {
+                        j++;
+                    }
+                    if (data[j] == '=') {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private static boolean isWhitespace(byte b) {
+            return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+        }
+
+        private static int indexOf(byte[] data, byte b, int from) {
+            for (int i = from; i < data.length; i++) {
+                if (data[i] == b) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private static int indexOf(byte[] data, byte[] pattern, int from) {
+            final int last = data.length - pattern.length;
+            outer:
+            for (int i = from; i <= last; i++) {
+                if (data[i] != pattern[0]) {
+                    continue;
+                }
+                for (int j = 1; j < pattern.length; j++) {
+                    if (data[i + j] != pattern[j]) {
+                        continue outer;
+                    }
+                }
+                return i;
+            }
+            return -1;
+        }
+
+        private static int lastIndexOf(byte[] data, byte[] pattern) {
+            outer:
+            for (int i = data.length - pattern.length; i >= 0; i--) {
+                for (int j = 0; j < pattern.length; j++) {
+                    if (data[i + j] != pattern[j]) {
+                        continue outer;
+                    }
+                }
+                return i;
+            }
+            return -1;
+        }
+    }
+
+    private final class ChunkParser implements Callable<RowChunk> {
+        private final SheetLayout layout;
+        private final int chunk;
+
+        ChunkParser(SheetLayout layout, int chunk) {
+            this.layout = layout;
+            this.chunk = chunk;
+        }
+
+        @Override
+        public RowChunk call() throws IOException, SAXException {
+            RowChunk rows = new RowChunk();
+            // the styles are only needed for formatting, which happens on the consumer thread
+            parse(layout.getChunk(chunk), new XSSFTypedSheetXMLHandler(null, null, rows));
+            return rows;
+        }
+    }
+
+    /**
+     * The buffered rows and cells of a chunk in a columnar layout
+     */
+    private static final class RowChunk implements TypedSheetContentsHandler {
+        private static final CellType[] TYPES = CellType.values();
+
+        private int[] rowNums = new int[64];
+        // index of the first cell after the row
+        private int[] rowEnds = new int[64];
+        private int numRows;
+
+        private int[] columns = new int[256];
+        private int[] styleIndexes = new int[256];
+        private byte[] types = new byte[256];
+        private double[] numbers = new double[256];
+        // shared string index or boolean value
+        private int[] ints = new int[256];
+        private String[] texts = new String[256];
+        private String[] formulas;
+        private int numCells;
+
+        @Override
+        public void startRow(int rowNum) {
+            if (numRows == rowNums.length) {
+                rowNums = Arrays.copyOf(rowNums, numRows * 2);
+                rowEnds = Arrays.copyOf(rowEnds, numRows * 2);
+            }
+            rowNums[numRows] = rowNum;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            rowEnds[numRows++] = numCells;
+        }
+
+        @Override
+        public void cell(TypedCell cell) {
+            if (numCells == columns.length) {
+                int newLen = numCells * 2;
+                columns = Arrays.copyOf(columns, newLen);
+                styleIndexes = Arrays.copyOf(styleIndexes, newLen);
+                types = Arrays.copyOf(types, newLen);
+                numbers = Arrays.copyOf(numbers, newLen);
+                ints = Arrays.copyOf(ints, newLen);
+                texts = Arrays.copyOf(texts, newLen);
+                if (formulas != null) {
+                    formulas = Arrays.copyOf(formulas, newLen);
+                }
+            }
+            int idx = numCells++;
+            columns[idx] = cell.getColumnIndex();
+            styleIndexes[idx] = cell.getStyleIndex();
+            CellType type = cell.getCellType();
+            types[idx] = (byte)type.ordinal();
+            switch (type) {
+                case NUMERIC:
+                    numbers[idx] = cell.getNumericCellValue();
+                    // the raw text is needed to format unstyled numbers
+                    texts[idx] = cell.hasPlainIntegerText() ? null : cell.getText();
+                    break;
+                case BOOLEAN:
+                    ints[idx] = cell.getBooleanCellValue() ? 1 : 0;
+                    break;
+                case STRING:
+                    ints[idx] = cell.getSharedStringIndex();
+                    texts[idx] = cell.isSharedString() ? null : cell.getText();
+                    break;
+                case ERROR:
+                    texts[idx] = cell.getText();
+                    break;
+                default:
+                    break;
+            }
+            if (cell.isFormula()) {
+                if (formulas == null) {
+                    formulas = new String[columns.length];
+                }
+                String f = cell.getFormula();
+                formulas[idx] = (f == null) ? "" : f;
+            }
+        }
+
+        void replay(TypedSheetContentsHandler output, XSSFTypedSheetXMLHandler replay) {
+            int cellIdx = 0;
+            for (int r = 0; r < numRows; r++) {
+                int rowNum = rowNums[r];
+                output.startRow(rowNum);
+                for (; cellIdx < rowEnds[r]; cellIdx++) {
+                    CellType type = TYPES[types[cellIdx]];
+                    replay.replayCell(rowNum, columns[cellIdx], styleIndexes[cellIdx], type, numbers[cellIdx],
+                            type == CellType.BOOLEAN && ints[cellIdx] != 0,
+                            type == CellType.STRING ? ints[cellIdx] : -1,
+                            texts[cellIdx], formulas == null ? null : formulas[cellIdx]);
+                }
+                output.endRow(rowNum);
+            }
+        }
+    }
+}
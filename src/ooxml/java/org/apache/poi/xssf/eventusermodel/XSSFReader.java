@@ -29,6 +29,15 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.poi.POIXMLException;
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
@@ -52,6 +61,7 @@ import org.apache.poi.xssf.usermodel.XSSFRelation;
 import org.apache.poi.xssf.usermodel.XSSFShape;
 import org.apache.xmlbeans.XmlException;
 import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 import org.xml.sax.XMLReader;
@@ -195,6 +205,212 @@ public class XSSFReader {
         return new SheetIterator(workbookPart);
     }
 
+    /**
+     * Creates the SAX handlers for {@link #processSheets(SheetHandlerFactory, ExecutorService)}
+     *
+     * @since POI 4.0.0
+     */
+    public interface SheetHandlerFactory {
+        /**
+         * Create the handler for a sheet. This method is called on the thread,
+         * which invoked <code>processSheets</code>, while the returned handler
+         * is called by a worker thread.
+         *
+         * @param sheetIndex the 0-based index of the sheet in the workbook
+         * @param sheetName the name of the sheet
+         * @return the handler of the sheet or null to skip the sheet
+         */
+        ContentHandler createSheetHandler(int sheetIndex, String sheetName);
+    }
+
+    /**
+     * Parses the sheets concurrently with the given number of threads.
+     *
+     * @param factory creates the handler for each sheet
+     * @param numThreads the number of worker threads
+     * @see #processSheets(SheetHandlerFactory, ExecutorService)
+     * @since POI 4.0.0
+     */
+    public void processSheets(SheetHandlerFactory factory, int numThreads)
+    throws IOException, SAXException, InvalidFormatException {
+        if (numThreads <= 0) {
+            throw new IllegalArgumentException("numThreads must be greater than 0");
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            processSheets(factory, executor);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Parses the sheets concurrently, each sheet with its own SAX parser on a thread
+     * of the executor. This method returns when all sheets have been parsed.
+     * <p>
+     * The handlers of different sheets run concurrently, so the objects they share need
+     * to be thread-safe. A {@link ReadOnlySharedStringsTable} and a {@link StylesTable},
+     * which aren't modified anymore, can be shared by the handlers.
+     * </p>
+     * <p>
+     * If a sheet can't be parsed, the remaining sheets are cancelled and the
+     * exception is rethrown, after the sheets, which are already being parsed, have completed.
+     * </p>
+     *
+     * @param factory creates the handler for each sheet
+     * @param executor the executor, which runs the parsers
+     * @since POI 4.0.0
+     */
+    public void processSheets(final SheetHandlerFactory factory, ExecutorService executor)
+    throws IOException, SAXException, InvalidFormatException {
+        processSheets(new SheetTaskFactory() {
+            @Override
+            public Callable<Void> createSheetTask(int sheetIndex, String sheetName, PackagePart sheetPart) {
+                ContentHandler handler = factory.createSheetHandler(sheetIndex, sheetName);
+                return (handler == null || sheetPart == null) ? null : new SheetParser(sheetPart, handler);
+            }
+        }, executor);
+    }
+
+    /**
+     * Creates the tasks parsing the sheet parts, see {@link #processSheets(SheetTaskFactory, ExecutorService)}
+     */
+    interface SheetTaskFactory {
+        /**
+         * @param sheetPart the sheet part or null, if the relationship of the sheet is broken
+         * @return the task parsing the sheet or null to skip the sheet
+         */
+        Callable<Void> createSheetTask(int sheetIndex, String sheetName, PackagePart sheetPart);
+    }
+
+    /**
+     * Runs the tasks parsing the sheets on the executor. The tasks are created on the
+     * calling thread in sheet order. The tasks are awaited in the order they complete,
+     * so the first failure is rethrown as soon as it occurs and the other tasks are cancelled.
+     * As a running parser doesn't stop on cancellation, the started tasks are awaited
+     * before returning, so the sheet parts aren't read anymore, when the caller closes the package.
+     */
+    void processSheets(SheetTaskFactory factory, ExecutorService executor)
+    throws IOException, SAXException, InvalidFormatException {
+        SheetIterator iter = (SheetIterator)getSheetsData();
+        CompletionService<Void> completionService = new ExecutorCompletionService<>(executor);
+        List<Future<Void>> futures = new ArrayList<>();
+        List<SheetTask> tasks = new ArrayList<>();
+        try {
+            int sheetIndex = 0;
+            while (iter.sheetIterator.hasNext()) {
+                XSSFSheetRef ref = iter.sheetIterator.next();
+                PackagePart sheetPart = iter.sheetMap.get(ref.getId());
+                Callable<Void> task = factory.createSheetTask(sheetIndex++, ref.getName(), sheetPart);
+                if (task != null) {
+                    SheetTask sheetTask = new SheetTask(task);
+                    tasks.add(sheetTask);
+                    futures.add(completionService.submit(sheetTask));
+                }
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                completionService.take().get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while parsing the sheets", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException)cause;
+            } else if (cause instanceof SAXException) {
+                throw (SAXException)cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            } else if (cause instanceof Error) {
+                throw (Error)cause;
+            }
+            throw new POIXMLException(cause);
+        } finally {
+            for (Future<Void> future : futures) {
+                future.cancel(true);
+            }
+            for (SheetTask task : tasks) {
+                task.awaitCompletion();
+            }
+        }
+    }
+
+    /**
+     * Wraps a sheet task, so it can be awaited, even if its future has been cancelled
+     */
+    private static final class SheetTask implements Callable<Void> {
+        private final Callable<Void> task;
+        private final AtomicBoolean started = new AtomicBoolean();
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        SheetTask(Callable<Void> task) {
+            this.task = task;
+        }
+
+        @Override
+        public Void call() throws Exception {
+            if (!started.compareAndSet(false, true)) {
+                // already given up by awaitCompletion()
+                return null;
+            }
+            try {
+                return task.call();
+            } finally {
+                completed.countDown();
+            }
+        }
+
+        /**
+         * Waits until the task has completed or prevents it from starting
+         */
+        void awaitCompletion() {
+            if (started.compareAndSet(false, true)) {
+                return;
+            }
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    completed.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Parses a sheet part with its own SAX parser
+     */
+    private static final class SheetParser implements Callable<Void> {
+        private final PackagePart sheetPart;
+        private final ContentHandler handler;
+
+        SheetParser(PackagePart sheetPart, ContentHandler handler) {
+            this.sheetPart = sheetPart;
+            this.handler = handler;
+        }
+
+        @Override
+        public Void call() throws IOException, SAXException {
+            XMLReader parser;
+            try {
+                parser = SAXHelper.newXMLReader();
+            } catch (ParserConfigurationException e) {
+                throw new RuntimeException("SAX parser appears to be broken - " + e.getMessage());
+            }
+            parser.setContentHandler(handler);
+            try (InputStream is = sheetPart.getInputStream()) {
+                parser.parse(new InputSource(is));
+            }
+            return null;
+        }
+    }
+
     /**
      * Iterator over sheet data.
      */
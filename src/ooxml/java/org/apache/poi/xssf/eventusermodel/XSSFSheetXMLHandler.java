@@ -110,6 +110,9 @@ public class XSSFSheetXMLHandler extends DefaultHandler {
 
    /**
     * Accepts objects needed while parsing.
+    * <p>
+    * The data formatter uses the {@link StylesTable#getDateFormatCache() date format cache}
+    * of the styles table, so the date formats of a workbook are only checked once.
     *
     * @param styles  Table of styles
     * @param strings Table of shared strings
@@ -128,6 +131,10 @@ public class XSSFSheetXMLHandler extends DefaultHandler {
        this.formulasNotResults = formulasNotResults;
        this.nextDataType = xssfDataType.NUMBER;
        this.formatter = dataFormatter;
+       if (styles != null && dataFormatter != null) {
+           // check the date formats of the workbook once for all its sheets
+           dataFormatter.setDateFormatCache(styles.getDateFormatCache());
+       }
        init();
    }
    
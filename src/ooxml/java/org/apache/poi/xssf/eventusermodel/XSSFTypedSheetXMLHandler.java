@@ -0,0 +1,617 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+package org.apache.poi.xssf.eventusermodel;
+
+import static org.apache.poi.xssf.usermodel.XSSFRelation.NS_SPREADSHEETML;
+
+import java.util.Arrays;
+
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.FormulaError;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * This class handles the processing of a sheet#.xml sheet part of a XSSF .xlsx file
+ *  and generates typed row and cell events for it.
+ * <p>
+ * In contrast to {@link XSSFSheetXMLHandler}, the cells aren't formatted and their
+ *  references aren't passed as text. Each cell is reported by a reused {@link TypedCell},
+ *  which provides the row and column index, the raw value, the style index and - on demand -
+ *  the formula and the formatted value. So reading large sheets allocates little more
+ *  than the SAX parser itself.
+ * </p>
+ * <p>
+ * Cell comments and headers/footers are not reported, use {@link XSSFSheetXMLHandler} for them.
+ * </p>
+ */
+public class XSSFTypedSheetXMLHandler extends DefaultHandler {
+    /**
+     * Table with the styles used for formatting, may be null
+     */
+    private final StylesTable stylesTable;
+
+    /**
+     * Read only access to the shared strings table, may be null
+     */
+    private final ReadOnlySharedStringsTable sharedStringsTable;
+
+    /**
+     * Where the cells are going
+     */
+    private final TypedSheetContentsHandler output;
+
+    private DataFormatter formatter;
+
+    // cached data formats by style index, see lookupFormat()
+    private short[] formatIndexes = new short[0];
+    private String[] formatStrings = new String[0];
+
+    private final TypedCell cell = new TypedCell();
+
+    private int rowNum;
+    private int nextRowNum;
+    private int lastColumn;
+    private boolean inCell;
+    private boolean vIsOpen;
+    private boolean fIsOpen;
+    private boolean isIsOpen;
+    private boolean rPhIsOpen;
+    private boolean hasValue;
+    private CellKind kind;
+
+    private final StringBuilder value = new StringBuilder(64);
+    private final StringBuilder formula = new StringBuilder(64);
+
+    /**
+     * the kind of cell value given by the <code>t</code> attribute
+     */
+    private enum CellKind {
+        NUMBER, SST_STRING, INLINE_STRING, FORMULA_STRING, BOOLEAN, ERROR
+    }
+
+    /**
+     * Accepts objects needed while parsing.
+     *
+     * @param styles  Table of styles, may be null
+     * @param strings Table of shared strings, may be null if no shared strings are accessed
+     * @param sheetContentsHandler the receiver of the rows and cells
+     * @param dataFormatter the formatter for {@link TypedCell#getFormattedValue()},
+     *      null to create a default formatter when needed
+     */
+    public XSSFTypedSheetXMLHandler(
+            StylesTable styles,
+            ReadOnlySharedStringsTable strings,
+            TypedSheetContentsHandler sheetContentsHandler,
+            DataFormatter dataFormatter) {
+        this.stylesTable = styles;
+        this.sharedStringsTable = strings;
+        this.output = sheetContentsHandler;
+        this.formatter = dataFormatter;
+        if (styles != null && dataFormatter != null) {
+            dataFormatter.setDateFormatCache(styles.getDateFormatCache());
+        }
+    }
+
+    /**
+     * Accepts objects needed while parsing.
+     *
+     * @param styles  Table of styles, may be null
+     * @param strings Table of shared strings, may be null if no shared strings are accessed
+     * @param sheetContentsHandler the receiver of the rows and cells
+     */
+    public XSSFTypedSheetXMLHandler(
+            StylesTable styles,
+            ReadOnlySharedStringsTable strings,
+            TypedSheetContentsHandler sheetContentsHandler) {
+        this(styles, strings, sheetContentsHandler, null);
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName,
+                             Attributes attributes) throws SAXException {
+        if (uri != null && ! uri.equals(NS_SPREADSHEETML)) {
+            return;
+        }
+
+        if ("c".equals(localName)) {
+            startCell(attributes);
+        } else if (!inCell) {
+            if ("row".equals(localName)) {
+                String rowNumStr = attributes.getValue("r");
+                // some sheets do not have rowNums, Excel can read them so we should try to handle them correctly as well
+                rowNum = (rowNumStr != null) ? Integer.parseInt(rowNumStr) - 1 : nextRowNum;
+                lastColumn = -1;
+                output.startRow(rowNum);
+            }
+        } else if ("v".equals(localName)) {
+            vIsOpen = true;
+            hasValue = true;
+            value.setLength(0);
+        } else if ("is".equals(localName)) {
+            // the text of all runs of the inline string is concatenated
+            isIsOpen = true;
+            hasValue = true;
+            value.setLength(0);
+        } else if ("t".equals(localName) && isIsOpen && !rPhIsOpen) {
+            vIsOpen = true;
+        } else if ("rPh".equals(localName)) {
+            // skip the phonetic runs
+            rPhIsOpen = true;
+        } else if ("f".equals(localName)) {
+            fIsOpen = true;
+            cell.formula = true;
+        }
+    }
+
+    private void startCell(Attributes attributes) throws SAXException {
+        inCell = true;
+        hasValue = false;
+        formula.setLength(0);
+
+        String ref = attributes.getValue("r");
+        int column = (ref == null) ? lastColumn + 1 : CellReference.convertCellRefToColIndex(ref);
+        if (column < 0) {
+            throw new SAXException("Invalid cell reference '" + ref + "'");
+        }
+        lastColumn = column;
+
+        String cellType = attributes.getValue("t");
+        if (cellType == null || "n".equals(cellType)) {
+            kind = CellKind.NUMBER;
+        } else if ("s".equals(cellType)) {
+            kind = CellKind.SST_STRING;
+        } else if ("inlineStr".equals(cellType)) {
+            kind = CellKind.INLINE_STRING;
+        } else if ("b".equals(cellType)) {
+            kind = CellKind.BOOLEAN;
+        } else if ("e".equals(cellType)) {
+            kind = CellKind.ERROR;
+        } else {
+            // "str" formula results and ISO 8601 dates ("d") are reported as text
+            kind = CellKind.FORMULA_STRING;
+        }
+
+        String styleStr = attributes.getValue("s");
+        cell.reset(rowNum, column, (styleStr == null) ? 0 : Integer.parseInt(styleStr));
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName)
+            throws SAXException {
+        if (uri != null && ! uri.equals(NS_SPREADSHEETML)) {
+            return;
+        }
+
+        if ("v".equals(localName) || ("t".equals(localName) && isIsOpen)) {
+            vIsOpen = false;
+        } else if ("is".equals(localName)) {
+            isIsOpen = false;
+        } else if ("rPh".equals(localName)) {
+            rPhIsOpen = false;
+        } else if ("f".equals(localName)) {
+            fIsOpen = false;
+        } else if ("c".equals(localName)) {
+            inCell = false;
+            if (hasValue) {
+                setCellValue();
+                output.cell(cell);
+            }
+        } else if ("row".equals(localName)) {
+            output.endRow(rowNum);
+            nextRowNum = rowNum + 1;
+        } else if ("sheetData".equals(localName)) {
+            output.endSheet();
+        }
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length)
+            throws SAXException {
+        if (vIsOpen) {
+            value.append(ch, start, length);
+        }
+        if (fIsOpen) {
+            formula.append(ch, start, length);
+        }
+    }
+
+    private void setCellValue() {
+        switch (kind) {
+            case NUMBER:
+                if (value.length() == 0) {
+                    cell.type = CellType.BLANK;
+                } else {
+                    cell.type = CellType.NUMERIC;
+                    cell.numericValue = parseDouble(value);
+                }
+                break;
+            case SST_STRING:
+                cell.type = CellType.STRING;
+                cell.sstIndex = (int)parseLong(value, 0, value.length());
+                break;
+            case BOOLEAN:
+                cell.type = CellType.BOOLEAN;
+                cell.booleanValue = value.length() > 0 && value.charAt(0) != '0';
+                break;
+            case ERROR:
+                cell.type = CellType.ERROR;
+                break;
+            default:
+                cell.type = CellType.STRING;
+                break;
+        }
+    }
+
+    /**
+     * Reports a cell, which has been parsed before by another handler,
+     * see {@link XSSFParallelSheetReader}
+     *
+     * @param text the raw text of non-shared strings, errors and numbers, which aren't plain integers,
+     *  otherwise null
+     * @param formulaText the formula, "" for a formula without text or null for no formula
+     */
+    void replayCell(int row, int column, int styleIndex, CellType type, double numericValue,
+            boolean booleanValue, int sstIndex, String text, String formulaText) {
+        cell.reset(row, column, styleIndex);
+        cell.type = type;
+        cell.numericValue = numericValue;
+        cell.booleanValue = booleanValue;
+        cell.sstIndex = sstIndex;
+        value.setLength(0);
+        if (text != null) {
+            value.append(text);
+        }
+        formula.setLength(0);
+        if (formulaText != null) {
+            cell.formula = true;
+            formula.append(formulaText);
+        }
+        output.cell(cell);
+    }
+
+    /**
+     * Parses a number without creating a String for the common cases,
+     * i.e. integers and decimals with up to 15 significant digits,
+     * which can be converted exactly with a single division.
+     */
+    static double parseDouble(CharSequence s) {
+        final int len = s.length();
+        int i = 0;
+        boolean negative = false;
+        if (s.charAt(0) == '-') {
+            negative = true;
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        for (; i < len; i++) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (mantissa != 0 || c != '0') {
+                    digits++;
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+            } else if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                // exponents and other notations
+                return Double.parseDouble(s.toString());
+            }
+            if (digits > 15) {
+                return Double.parseDouble(s.toString());
+            }
+        }
+        if (i == (negative ? 1 : 0)) {
+            return Double.parseDouble(s.toString());
+        }
+        double result = mantissa;
+        if (fractionDigits > 0) {
+            if (fractionDigits > 22) {
+                return Double.parseDouble(s.toString());
+            }
+            result /= POWERS_OF_TEN[fractionDigits];
+        }
+        return negative ? -result : result;
+    }
+
+    /**
+     * Checks if the text is an integer, which is converted to a double and back
+     * to the same text, i.e. without leading zeros and with up to 15 digits
+     */
+    static boolean isPlainInteger(CharSequence s) {
+        final int len = s.length();
+        final int start = (len > 0 && s.charAt(0) == '-') ? 1 : 0;
+        final int digits = len - start;
+        if (digits < 1 || digits > 15 || (s.charAt(start) == '0' && (digits > 1 || start > 0))) {
+            return false;
+        }
+        for (int i = start; i < len; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private static long parseLong(CharSequence s, int start, int end) {
+        if (start == end) {
+            throw new NumberFormatException("empty number");
+        }
+        long result = 0;
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException("Invalid number '" + s + "'");
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    /**
+     * Looks up the data format of a style once per style index,
+     * as creating the {@link XSSFCellStyle} for each cell would be expensive
+     */
+    private void lookupFormat(int styleIndex) {
+        if (styleIndex < formatStrings.length && formatIndexes[styleIndex] != Short.MIN_VALUE) {
+            return;
+        }
+        if (styleIndex >= formatStrings.length) {
+            int oldLen = formatStrings.length;
+            int newLen = Math.max(styleIndex + 1, oldLen * 2);
+            formatIndexes = Arrays.copyOf(formatIndexes, newLen);
+            formatStrings = Arrays.copyOf(formatStrings, newLen);
+            Arrays.fill(formatIndexes, oldLen, newLen, Short.MIN_VALUE);
+        }
+        short formatIndex = -1;
+        String formatString = null;
+        XSSFCellStyle style = null;
+        if (stylesTable != null && styleIndex < stylesTable.getNumCellStyles()) {
+            style = stylesTable.getStyleAt(styleIndex);
+        }
+        if (style != null) {
+            formatIndex = style.getDataFormat();
+            formatString = style.getDataFormatString();
+            if (formatString == null) {
+                formatString = BuiltinFormats.getBuiltinFormat(formatIndex);
+            }
+        }
+        formatIndexes[styleIndex] = formatIndex;
+        formatStrings[styleIndex] = formatString;
+    }
+
+    private String formatNumber(double d, int styleIndex) {
+        lookupFormat(styleIndex);
+        String formatString = formatStrings[styleIndex];
+        if (formatString == null) {
+            // No formatting applied, just the raw value like XSSFSheetXMLHandler does.
+            // Replayed cells only omit the raw text of plain integers
+            return (value.length() > 0) ? value.toString() : Long.toString((long)d);
+        }
+        if (formatter == null) {
+            formatter = new DataFormatter();
+            if (stylesTable != null) {
+                formatter.setDateFormatCache(stylesTable.getDateFormatCache());
+            }
+        }
+        return formatter.formatRawCellContents(d, formatIndexes[styleIndex], formatString);
+    }
+
+    /**
+     * A cell of the sheet. The same instance is passed for all cells of a sheet
+     * and is only valid during the {@link TypedSheetContentsHandler#cell(TypedCell)} call.
+     */
+    public final class TypedCell {
+        private int row;
+        private int column;
+        private int styleIndex;
+        private CellType type;
+        private double numericValue;
+        private boolean booleanValue;
+        private int sstIndex;
+        private boolean formula;
+
+        private TypedCell() {
+        }
+
+        private void reset(int row, int column, int styleIndex) {
+            this.row = row;
+            this.column = column;
+            this.styleIndex = styleIndex;
+            this.sstIndex = -1;
+            this.formula = false;
+        }
+
+        /**
+         * @return the 0-based row index
+         */
+        public int getRowIndex() {
+            return row;
+        }
+
+        /**
+         * @return the 0-based column index
+         */
+        public int getColumnIndex() {
+            return column;
+        }
+
+        /**
+         * @return the index of the cell style, 0 for the default style
+         */
+        public int getStyleIndex() {
+            return styleIndex;
+        }
+
+        /**
+         * @return the type of the value, i.e. the type of the cached result for formula cells.
+         *  One of {@link CellType#NUMERIC}, {@link CellType#STRING}, {@link CellType#BOOLEAN},
+         *  {@link CellType#ERROR} or {@link CellType#BLANK}
+         */
+        public CellType getCellType() {
+            return type;
+        }
+
+        /**
+         * @return true, if the cell contains a formula
+         */
+        public boolean isFormula() {
+            return formula;
+        }
+
+        /**
+         * @return the formula text or null, if the cell doesn't contain a formula or
+         *  refers to a shared formula defined by another cell
+         */
+        public String getFormula() {
+            return (formula && XSSFTypedSheetXMLHandler.this.formula.length() > 0)
+                    ? XSSFTypedSheetXMLHandler.this.formula.toString() : null;
+        }
+
+        /**
+         * @return the numeric value, dates are returned as Excel serial numbers
+         * @throws IllegalStateException if the cell type isn't {@link CellType#NUMERIC}
+         */
+        public double getNumericCellValue() {
+            checkType(CellType.NUMERIC);
+            return numericValue;
+        }
+
+        /**
+         * @throws IllegalStateException if the cell type isn't {@link CellType#BOOLEAN}
+         */
+        public boolean getBooleanCellValue() {
+            checkType(CellType.BOOLEAN);
+            return booleanValue;
+        }
+
+        /**
+         * @return true, if the text is stored in the shared strings table
+         */
+        public boolean isSharedString() {
+            return sstIndex >= 0;
+        }
+
+        /**
+         * @return the index of the shared string or -1, if the cell doesn't refer to a shared string
+         */
+        public int getSharedStringIndex() {
+            return sstIndex;
+        }
+
+        /**
+         * Gets the text of the cell, shared strings are looked up in the shared strings table.
+         *
+         * @throws IllegalStateException if the cell type isn't {@link CellType#STRING}
+         */
+        public String getStringCellValue() {
+            checkType(CellType.STRING);
+            if (sstIndex < 0) {
+                return value.toString();
+            }
+            if (sharedStringsTable == null) {
+                throw new IllegalStateException("No shared strings table available to look up string " + sstIndex);
+            }
+            return sharedStringsTable.getEntryAt(sstIndex);
+        }
+
+        /**
+         * @return the error code, e.g. {@link FormulaError#DIV0}
+         * @throws IllegalStateException if the cell type isn't {@link CellType#ERROR}
+         */
+        public FormulaError getErrorCellValue() {
+            checkType(CellType.ERROR);
+            return FormulaError.forString(value.toString());
+        }
+
+        /**
+         * Formats the value like {@link XSSFSheetXMLHandler} does,
+         * i.e. numbers are formatted according to the cell style.
+         */
+        public String getFormattedValue() {
+            switch (type) {
+                case NUMERIC:
+                    return formatNumber(numericValue, styleIndex);
+                case BOOLEAN:
+                    return booleanValue ? "TRUE" : "FALSE";
+                case ERROR:
+                    return "ERROR:" + value;
+                case BLANK:
+                    return "";
+                default:
+                    return getStringCellValue();
+            }
+        }
+
+        /**
+         * @return the raw text of numbers, non-shared strings and errors
+         */
+        String getText() {
+            return value.toString();
+        }
+
+        /**
+         * @return true, if the raw text of the number can be restored from its value
+         */
+        boolean hasPlainIntegerText() {
+            return isPlainInteger(value);
+        }
+
+        private void checkType(CellType expected) {
+            if (type != expected) {
+                throw new IllegalStateException("Cannot get a " + expected + " value from a " + type + " cell");
+            }
+        }
+    }
+
+    /**
+     * You need to implement this to handle the results of the sheet parsing.
+     */
+    public interface TypedSheetContentsHandler {
+        /** A row with the (zero based) row number has started */
+        void startRow(int rowNum);
+
+        /** A row with the (zero based) row number has ended */
+        void endRow(int rowNum);
+
+        /**
+         * A cell with a value was encountered. The cell instance is reused for the next cell,
+         * so it must not be kept beyond this call.
+         */
+        void cell(TypedCell cell);
+
+        /** Signal that the end of a sheet was been reached */
+        default void endSheet() {}
+    }
+}
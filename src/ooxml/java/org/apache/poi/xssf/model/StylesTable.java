@@ -66,8 +66,44 @@ public class StylesTable extends POIXMLDocumentPart {
 
     private final List<CTDxf> dxfs = new ArrayList<>();
     private final Map<String, TableStyle> tableStyles = new HashMap<>();
+    private final DateFormatCache dateFormatCache = new DateFormatCache();
     
     private IndexedColorMap indexedColors = new DefaultIndexedColorMap();
+
+    // indexes over the contents of the style parts, which avoid linear searches for duplicates
+    // fonts are usually modified after they have been registered, they report it via fontModified
+    private final ContentIndex<XSSFFont> fontIndex = new ContentIndex<XSSFFont>(fonts) {
+        @Override
+        Object keyOf(XSSFFont font) {
+            return font.getCTFont().toString();
+        }
+    };
+    private final ContentIndex<XSSFCellFill> fillIndex = new ContentIndex<XSSFCellFill>(fills) {
+        @Override
+        Object keyOf(XSSFCellFill fill) {
+            return fill.getCTFill().toString();
+        }
+    };
+    private final ContentIndex<XSSFCellBorder> borderIndex = new ContentIndex<XSSFCellBorder>(borders) {
+        @Override
+        Object keyOf(XSSFCellBorder border) {
+            return border.getCTBorder().toString();
+        }
+    };
+    // the beans are compared by identity, as in List.indexOf
+    private final ContentIndex<CTXf> xfIndex = new ContentIndex<CTXf>(xfs) {
+        @Override
+        Object keyOf(CTXf xf) {
+            return xf;
+        }
+    };
+    // the fonts by their attributes without the color, see findFont
+    private final ContentIndex<XSSFFont> fontAttributeIndex = new ContentIndex<XSSFFont>(fonts) {
+        @Override
+        Object keyOf(XSSFFont font) {
+            return getFontAttributes(font);
+        }
+    };
     
     /**
      * The first style id available for use as a custom style
@@ -210,7 +246,7 @@ public class StylesTable extends POIXMLDocumentPart {
                 for (CTFont font : ctfonts.getFontArray()) {
                     // Create the font and save it. Themes Table supplied later
                     XSSFFont f = new XSSFFont(font, idx, indexedColors);
-                    fonts.add(f);
+                    addFont(f);
                     idx++;
                 }
             }
@@ -388,7 +424,7 @@ public class StylesTable extends POIXMLDocumentPart {
     public int putFont(XSSFFont font, boolean forceRegistration) {
         int idx = -1;
         if(!forceRegistration) {
-            idx = fonts.indexOf(font);
+            idx = fontIndex.indexOf(font);
         }
 
         if (idx != -1) {
@@ -396,13 +432,36 @@ public class StylesTable extends POIXMLDocumentPart {
         }
 
         idx = fonts.size();
-        fonts.add(font);
+        addFont(font);
         return idx;
     }
     public int putFont(XSSFFont font) {
         return putFont(font, false);
     }
 
+    private void addFont(XSSFFont font) {
+        fonts.add(font);
+        font.setStylesSource(this);
+    }
+
+    /**
+     * Updates the indexes of a font of this table after it has been modified.
+     * Called by the setters of {@link XSSFFont}.
+     */
+    @Internal
+    public void fontModified(XSSFFont font) {
+        int idx = font.getIndex();
+        if (idx < 0 || idx >= fonts.size() || fonts.get(idx) != font) {
+            // the font wasn't registered via XSSFFont.registerTo, it's usually one of the last ones
+            for (idx = fonts.size() - 1; idx >= 0 && fonts.get(idx) != font; idx--);
+            if (idx == -1) {
+                return;
+            }
+        }
+        fontIndex.update(idx);
+        fontAttributeIndex.update(idx);
+    }
+
     /**
      *
      * @param idx style index
@@ -425,10 +484,12 @@ public class StylesTable extends POIXMLDocumentPart {
     public int putStyle(XSSFCellStyle style) {
         CTXf mainXF = style.getCoreXf();
 
-        if(! xfs.contains(mainXF)) {
+        int idx = xfIndex.indexOf(mainXF);
+        if (idx == -1) {
+            idx = xfs.size();
             xfs.add(mainXF);
         }
-        return xfs.indexOf(mainXF);
+        return idx;
     }
 
     public XSSFCellBorder getBorderAt(int idx) {
@@ -443,7 +504,7 @@ public class StylesTable extends POIXMLDocumentPart {
      * @return the index of the added border
      */
     public int putBorder(XSSFCellBorder border) {
-        int idx = borders.indexOf(border);
+        int idx = borderIndex.indexOf(border);
         if (idx != -1) {
             return idx;
         }
@@ -472,6 +533,17 @@ public class StylesTable extends POIXMLDocumentPart {
         return Collections.unmodifiableMap(numberFormats);
     }
 
+    /**
+     * Gets the cache of the date formats of this workbook, which is shared by
+     * the parsers of its sheets, see {@link DataFormatter#setDateFormatCache(DateFormatCache)}
+     *
+     * @return the date format cache of the number formats of this table
+     * @since POI 4.0.0
+     */
+    public DateFormatCache getDateFormatCache() {
+        return dateFormatCache;
+    }
+
     /**
      * Adds a fill to the fill style table if it isn't already in the style table
      * Does nothing if fill is already in fill style table
@@ -480,7 +552,7 @@ public class StylesTable extends POIXMLDocumentPart {
      * @return the index of the added fill
      */
     public int putFill(XSSFCellFill fill) {
-        int idx = fills.indexOf(fill);
+        int idx = fillIndex.indexOf(fill);
         if (idx != -1) {
             return idx;
         }
@@ -509,6 +581,7 @@ public class StylesTable extends POIXMLDocumentPart {
     @Internal
     public void replaceCellXfAt(int idx, CTXf cellXf) {
         xfs.set(idx, cellXf);
+        xfIndex.update(idx);
     }
 
     @Internal
@@ -696,7 +769,7 @@ public class StylesTable extends POIXMLDocumentPart {
     private void initialize() {
         //CTFont ctFont = createDefaultFont();
         XSSFFont xssfFont = createDefaultFont();
-        fonts.add(xssfFont);
+        addFont(xssfFont);
 
         CTFill[] ctFill = createDefaultFills();
         fills.add(new XSSFCellFill(ctFill[0], indexedColors));
@@ -829,20 +902,7 @@ public class StylesTable extends POIXMLDocumentPart {
      * where color is the indexed-value, not the actual color.
      */
     public XSSFFont findFont(boolean bold, short color, short fontHeight, String name, boolean italic, boolean strikeout, short typeOffset, byte underline) {
-        for (XSSFFont font : fonts) {
-            if (    (font.getBold() == bold)
-                    && font.getColor() == color
-                    && font.getFontHeight() == fontHeight
-                    && font.getFontName().equals(name)
-                    && font.getItalic() == italic
-                    && font.getStrikeout() == strikeout
-                    && font.getTypeOffset() == typeOffset
-                    && font.getUnderline() == underline)
-            {
-                return font;
-            }
-        }
-        return null;
+        return findFont(bold, color, null, fontHeight, name, italic, strikeout, typeOffset, underline);
     }
     
     /**
@@ -850,26 +910,122 @@ public class StylesTable extends POIXMLDocumentPart {
      * where color is the actual Color-value, not the indexed color
      */
     public XSSFFont findFont(boolean bold, Color color, short fontHeight, String name, boolean italic, boolean strikeout, short typeOffset, byte underline) {
-        for (XSSFFont font : fonts) {
-            if (    (font.getBold() == bold)
-                    && font.getXSSFColor().equals(color)
-                    && font.getFontHeight() == fontHeight
-                    && font.getFontName().equals(name)
-                    && font.getItalic() == italic
-                    && font.getStrikeout() == strikeout
-                    && font.getTypeOffset() == typeOffset
-                    && font.getUnderline() == underline)
-            {
+        return findFont(bold, (short)0, color, fontHeight, name, italic, strikeout, typeOffset, underline);
+    }
+
+    /**
+     * Finds a font via the attribute index.
+     *
+     * @param color the actual color or null, if the indexed color is compared
+     */
+    private XSSFFont findFont(boolean bold, short indexedColor, Color color, short fontHeight, String name,
+            boolean italic, boolean strikeout, short typeOffset, byte underline) {
+        List<Object> key = Arrays.<Object>asList(bold, fontHeight, name, italic, strikeout, typeOffset, underline);
+        List<Integer> indexes = fontAttributeIndex.indexesOf(key);
+        for (int i = 0; i < indexes.size(); ) {
+            int idx = indexes.get(i);
+            XSSFFont font = fonts.get(idx);
+            if (!getFontAttributes(font).equals(key)) {
+                // modified without being reported, this moves idx to its current attributes
+                fontAttributeIndex.update(idx);
+            } else if (color == null ? font.getColor() == indexedColor : font.getXSSFColor().equals(color)) {
                 return font;
+            } else {
+                i++;
             }
         }
         return null;
     }
 
+    private static List<Object> getFontAttributes(XSSFFont font) {
+        return Arrays.<Object>asList(font.getBold(), font.getFontHeight(), font.getFontName(), font.getItalic(),
+                font.getStrikeout(), font.getTypeOffset(), font.getUnderline());
+    }
+
     /**
      * @return default or custom indexed color to RGB mapping
      */
     public IndexedColorMap getIndexedColors() {
         return indexedColors;
     }
+
+    /**
+     * Maps the contents of the entries of a style part list to their indexes.
+     * Entries appended to the list are indexed on demand, entries modified in place
+     * have to be re-keyed via {@link #update(int)}. Hits are verified against the
+     * current contents, misses are trusted.
+     */
+    private static abstract class ContentIndex<T> {
+        private final List<T> list;
+        // the ascending indexes of the entries by their key
+        private final Map<Object, List<Integer>> indexes = new HashMap<>();
+        // the key under which each indexed entry has been recorded
+        private final List<Object> keys = new ArrayList<>();
+
+        ContentIndex(List<T> list) {
+            this.list = list;
+        }
+
+        abstract Object keyOf(T entry);
+
+        /**
+         * @return the index of the first entry with the same contents or -1 if there's none
+         */
+        int indexOf(T entry) {
+            Object key = keyOf(entry);
+            List<Integer> found = indexesOf(key);
+            while (!found.isEmpty()) {
+                int idx = found.get(0);
+                if (key.equals(keyOf(list.get(idx)))) {
+                    return idx;
+                }
+                update(idx);
+            }
+            return -1;
+        }
+
+        /**
+         * @return the ascending indexes of the entries recorded under the key,
+         *  which is a live view modified by {@link #update(int)}
+         */
+        List<Integer> indexesOf(Object key) {
+            for (int idx = keys.size(); idx < list.size(); idx++) {
+                Object entryKey = keyOf(list.get(idx));
+                keys.add(entryKey);
+                add(entryKey, idx);
+            }
+            List<Integer> found = indexes.get(key);
+            return found == null ? Collections.<Integer>emptyList() : found;
+        }
+
+        /**
+         * Records the entry at the index under its current contents
+         */
+        void update(int idx) {
+            if (idx >= keys.size()) {
+                // not indexed yet
+                return;
+            }
+            Object key = keyOf(list.get(idx));
+            Object oldKey = keys.set(idx, key);
+            if (!key.equals(oldKey)) {
+                List<Integer> oldIndexes = indexes.get(oldKey);
+                oldIndexes.remove(Collections.binarySearch(oldIndexes, idx));
+                if (oldIndexes.isEmpty()) {
+                    indexes.remove(oldKey);
+                }
+                add(key, idx);
+            }
+        }
+
+        private void add(Object key, int idx) {
+            List<Integer> keyIndexes = indexes.get(key);
+            if (keyIndexes == null) {
+                keyIndexes = new ArrayList<>(1);
+                indexes.put(key, keyIndexes);
+            }
+            int pos = Collections.binarySearch(keyIndexes, idx);
+            keyIndexes.add(-pos - 1, idx);
+        }
+    }
 }
@@ -0,0 +1,470 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xssf.readonly;
+
+import java.util.Calendar;
+import java.util.Date;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.formula.FormulaParser;
+import org.apache.poi.ss.formula.FormulaRenderer;
+import org.apache.poi.ss.formula.FormulaType;
+import org.apache.poi.ss.formula.SharedFormula;
+import org.apache.poi.ss.formula.eval.ErrorEval;
+import org.apache.poi.ss.formula.ptg.Ptg;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Comment;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Hyperlink;
+import org.apache.poi.ss.usermodel.RichTextString;
+import org.apache.poi.ss.util.CellAddress;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.Removal;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+
+/**
+ * A cell of a {@link ReadOnlyXSSFRow}.
+ * <p>
+ * The cell is a view of the data kept by the row, so the same cell may be
+ *  represented by several instances, which are {@link #equals(Object) equal}.
+ * </p>
+ *
+ * @since POI 4.0.0
+ */
+public final class ReadOnlyXSSFCell implements Cell {
+    private final ReadOnlyXSSFRow row;
+    private final int idx;
+
+    ReadOnlyXSSFCell(ReadOnlyXSSFRow row, int idx) {
+        this.row = row;
+        this.idx = idx;
+    }
+
+    @Override
+    public int getColumnIndex() {
+        return row.getColumn(idx);
+    }
+
+    @Override
+    public int getRowIndex() {
+        return row.getRowNum();
+    }
+
+    @Override
+    public ReadOnlyXSSFSheet getSheet() {
+        return row.getSheet();
+    }
+
+    @Override
+    public ReadOnlyXSSFRow getRow() {
+        return row;
+    }
+
+    @Override
+    public void setCellType(CellType cellType) {
+        throw ReadOnlyXSSFWorkbook.readOnly();
+    }
+
+    /**
+     * Return the cell type. Cells in an array formula return
+     *  {@link CellType#FORMULA}, even though the formula is only defined
+     *  for the top left cell of the array.
+     *
+     * @return the cell type
+     */
+    @Override
+    public CellType getCellType() {
+        if (isFormulaCell()) {
+            return CellType.FORMULA;
+        }
+        return getBaseCellType();
+    }
+
+    /**
+     * @deprecated use <code>getCellType</code> instead
+     */
+    @Deprecated
+    @Removal(version = "4.2")
+    @Override
+    public CellType getCellTypeEnum() {
+        return getCellType();
+    }
+
+    @Override
+    public CellType getCachedFormulaResultType() {
+        if (!isFormulaCell()) {
+            throw new IllegalStateException("Only formula cells have cached results");
+        }
+        return getBaseCellType();
+    }
+
+    /**
+     * @deprecated use <code>getCachedFormulaResultType</code> instead
+     */
+    @Deprecated
+    @Removal(version = "4.2")
+    @Override
+    public CellType getCachedFormulaResultTypeEnum() {
+        return getCachedFormulaResultType();
+    }
+
+    private boolean isFormulaCell() {
+        return row.isFormula(idx) || getSheet().getArrayFormulaRange(getRowIndex(), getColumnIndex()) != null;
+    }
+
+    private CellType getBaseCellType() {
+        switch (row.getValueType(idx)) {
+            case ReadOnlyXSSFRow.TYPE_NUMERIC:
+                return CellType.NUMERIC;
+            case ReadOnlyXSSFRow.TYPE_SHARED_STRING:
+            case ReadOnlyXSSFRow.TYPE_INLINE_STRING:
+                return CellType.STRING;
+            case ReadOnlyXSSFRow.TYPE_BOOLEAN:
+                return CellType.BOOLEAN;
+            case ReadOnlyXSSFRow.TYPE_ERROR:
+                return CellType.ERROR;
+            default:
+                // a formula cell without a cached value is treated as numeric
+                return isFormulaCell() ? CellType.NUMERIC : CellType.BLANK;
+        }
+    }
+
+    @Override
+    public void setCellValue(double value) {
+        throw ReadOnlyXSSFWorkbook.readOnly();
+    }
+
+    @Override
+    public void setCellValue(Date value) {
+        throw ReadOnlyXSSFWorkbook.readOnly();
+    }
+
+    @Override
+    public void setCellValue(Calendar value) {
+        throw ReadOnlyXSSFWorkbook.readOnly();
+    }
+
+    @Override
+    public void setCellValue(RichTextString value) {
+        throw ReadOnlyXSSFWorkbook.readOnly();
+    }
+
+    @Override
+    public void setCellValue(String value) {
+        throw ReadOnlyXSSFWorkbook.readOnly();
+    }
+
+    @Override
+    public void setCellFormula(String formula) {
+        throw ReadOnlyXSSFWorkbook.readOnly();
+    }
+
+    /**
+     * Return a formula for the cell, for example, <code>SUM(C4:E4)</code>
+     *
+     * @return a formula for the cell
+     * @throws IllegalStateException if the cell type returned by {@link #getCellType()} is not {@link CellType#FORMULA}
+     */
+    @Override
+    public String getCellFormula() {
+        CellType cellType = getCellType();
+        if (cellType != CellType.FORMULA) {
+            throw typeMismatch(CellType.FORMULA, cellType, false);
+        }
+
+        Object f = row.getFormula(idx);
+        if ((f == null || "".equals(f)) && isPartOfArrayFormulaGroup()) {
+            // a cell of an array formula, which is only stored in the top left cell
+            CellRangeAddress range = getArrayFormulaRange();
+            ReadOnlyXSSFRow firstRow = getSheet().getRow(range.getFirstRow());
+            ReadOnlyXSSFCell firstCell = (firstRow == null) ? null : firstRow.getCell(range.getFirstColumn());
+            if (firstCell == null || firstCell.equals(this)) {
+                return "";
+            }
+            return firstCell.getCellFormula();
+        }
+        if (f instanceof Integer) {
+            return convertSharedFormula((Integer)f);
+        }
+        return f == null ? "" : (String)f;
+    }
+
+    /**
+     * Creates a non shared formula from the shared formula counterpart
+     */
+    private String convertSharedFormula(int si) {
+        ReadOnlyXSSFSheet sheet = getSheet();
+        ReadOnlyXSSFSheet.SharedFormulaMaster master = sheet.getSharedFormula(si);
+        if (master == null) {
+            throw new IllegalStateException(
+                    "Master cell of a shared formula with sid="+si+" was not found");
+        }
+
+        ReadOnlyXSSFEvaluationWorkbook fpb = sheet.getWorkbook().getEvaluationWorkbook();
+        int sheetIndex = sheet.getWorkbook().getSheetIndex(sheet);
+        SharedFormula sf = new SharedFormula(SpreadsheetVersion.EXCEL2007);
+        CellRangeAddress ref = master.getRange();
+
+        Ptg[] ptgs = FormulaParser.parse(master.getFormula(), fpb, FormulaType.CELL, sheetIndex, getRowIndex());
+        Ptg[] fmla = sf.convertSharedFormulas(ptgs,
+                getRowIndex() - ref.getFirstRow(), getColumnIndex() - ref.getFirstColumn());
+        return FormulaRenderer.toFormulaString(fpb, fmla);
+    }
+
+    /**
+     * Get the value of the cell as a number.
+     * <p>
+     * For strings we throw an exception. For blank cells we return a 0.
+     * For formulas or error cells we return the precalculated value;
+     * </p>
+     * @return the value of the cell as a number
+     * @throws IllegalStateException if the cell type returned by {@link #getCellType()} is {@link CellType#STRING}
+     */
+    @Override
+    public double getNumericCellValue() {
+        CellType cellType = getCellType();
+        switch (cellType) {
+            case BLANK:
+                return 0.0;
+            case FORMULA:
+                CellType cachedType = getBaseCellType();
+                if (cachedType != CellType.NUMERIC) {
+                    throw typeMismatch(CellType.NUMERIC, cachedType, true);
+                }
+                return row.getValue(idx);
+            case NUMERIC:
+                return row.getValue(idx);
+            default:
+                throw typeMismatch(CellType.NUMERIC, cellType, false);
+        }
+    }
+
+    @Override
+    public Date getDateCellValue() {
+        if (getCellType() == CellType.BLANK) {
+            return null;
+        }
+        double value = getNumericCellValue();
+        return DateUtil.getJavaDate(value, getSheet().getWorkbook().isDate1904());
+    }
+
+    /**
+     * @return the string value as a plain rich text string, the formatting runs are not read
+     */
+    @Override
+    public XSSFRichTextString getRichStringCellValue() {
+        return new XSSFRichTextString(getStringCellValue());
+    }
+
+    /**
+     * Get the value of the cell as a string
+     * <p>
+     * For numeric cells we throw an exception. For blank cells we return an empty string.
+     * For formulaCells that are not string Formulas, we throw an exception
+     * </p>
+     * @return the value of the cell as a string
+     */
+    @Override
+    public String getStringCellValue() {
+        CellType cellType = getCellType();
+        switch (cellType) {
+            case BLANK:
+                return "";
+            case FORMULA:
+                CellType cachedType = getBaseCellType();
+                if (cachedType != CellType.STRING) {
+                    throw typeMismatch(CellType.STRING, cachedType, true);
+                }
+                return getStringValue();
+            case STRING:
+                return getStringValue();
+            default:
+                throw typeMismatch(CellType.STRING, cellType, false);
+        }
+    }
+
+    private String getStringValue() {
+        if (row.getValueType(idx) == ReadOnlyXSSFRow.TYPE_SHARED_STRING) {
+            return getSheet().getWorkbook().getSharedStringSource().getEntryAt((int)row.getValue(idx));
+        }
+        String text = row.getText(idx);
+        return text == null ? "" : text;
+    }
+
+    @Override
+    public void setCellValue(boolean value) {
+        throw ReadOnlyXSSFWorkbook.readOnly();
+    }
+
+    @Override
+    public void setCellErrorValue(byte value) {
+        throw ReadOnlyXSSFWorkbook.readOnly();
+    }
+
+    /**
+     * Get the value of the cell as a boolean.
+     * <p>
+     * For strings, numbers, and errors, we throw an exception. For blank cells we return a false.
+     * </p>
+     * @return the value of the cell as a boolean
+     */
+    @Override
+    public boolean getBooleanCellValue() {
+        CellType cellType = getCellType();
+        switch (cellType) {
+            case BLANK:
+                return false;
+            case BOOLEAN:
+            case FORMULA:
+                return row.getValueType(idx) == ReadOnlyXSSFRow.TYPE_BOOLEAN && row.getValue(idx) != 0;
+            default:
+                throw typeMismatch(CellType.BOOLEAN, cellType, false);
+        }
+    }
+
+    /**
+     * Get the value of the cell as an error code.
+     *
+     * @return the value of the cell as an error code
+     * @throws IllegalStateException if the cell doesn't have an error value
+     */
+    @Override
+    public byte getErrorCellValue() {
+        CellType cellType = getBaseCellType();
+        if (cellType != CellType.ERROR) {
+            throw typeMismatch(CellType.ERROR, cellType, false);
+        }
+        return (byte)row.getValue(idx);
+    }
+
+    @Override
+    public void setCellStyle(CellStyle style) {
+        throw ReadOnlyXSSFWorkbook.readOnly();
+    }
+
+    @Override
+    public XSSFCellStyle getCellStyle() {
+        StylesTable stylesSource = getSheet().getWorkbook().getStylesSource();
+        if (stylesSource.getNumCellStyles() == 0) {
+            return null;
+        }
+        return stylesSource.getStyleAt(row.getStyleIndex(idx));
+    }
+
+    @Override
+    public void setAsActiveCell() {
+        throw ReadOnlyXSSFWorkbook.readOnly();
+    }
+
+    @Override
+    public CellAddress getAddress() {
+        return new CellAddress(this);
+    }
+
+    @Override
+    public void setCellComment(Comment comment) {
+        throw ReadOnlyXSSFWorkbook.readOnly();
+    }
+
+    @Override
+    public Comment getCellComment() {
+        throw ReadOnlyXSSFWorkbook.notRead("Comments");
+    }
+
+    @Override
+    public void removeCellComment() {
+        throw ReadOnlyXSSFWorkbook.readOnly();
+    }
+
+    @Override
+    public Hyperlink getHyperlink() {
+        throw ReadOnlyXSSFWorkbook.notRead("Hyperlinks");
+    }
+
+    @Override
+    public void setHyperlink(Hyperlink link) {
+        throw ReadOnlyXSSFWorkbook.readOnly();
+    }
+
+    @Override
+    public void removeHyperlink() {
+        throw ReadOnlyXSSFWorkbook.readOnly();
+    }
+
+    @Override
+    public CellRangeAddress getArrayFormulaRange() {
+        CellRangeAddress range = getSheet().getArrayFormulaRange(getRowIndex(), getColumnIndex());
+        if (range == null) {
+            String ref = new CellReference(this).formatAsString();
+            throw new IllegalStateException("Cell " + ref + " is not part of an array formula.");
+        }
+        return range;
+    }
+
+    @Override
+    public boolean isPartOfArrayFormulaGroup() {
+        return getSheet().getArrayFormulaRange(getRowIndex(), getColumnIndex()) != null;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof ReadOnlyXSSFCell)) {
+            return false;
+        }
+        ReadOnlyXSSFCell other = (ReadOnlyXSSFCell)obj;
+        return row == other.row && idx == other.idx;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(row) * 31 + idx;
+    }
+
+    /**
+     * Returns a string representation of the cell
+     */
+    @Override
+    public String toString() {
+        switch (getCellType()) {
+            case NUMERIC:
+                return Double.toString(getNumericCellValue());
+            case STRING:
+                return getStringCellValue();
+            case FORMULA:
+                return getCellFormula();
+            case BLANK:
+                return "";
+            case BOOLEAN:
+                return getBooleanCellValue() ? "TRUE" : "FALSE";
+            case ERROR:
+                return ErrorEval.getText(getErrorCellValue());
+            default:
+                return "Unknown Cell Type: " + getCellType();
+        }
+    }
+
+    private static RuntimeException typeMismatch(CellType expectedType, CellType actualType, boolean isFormulaCell) {
+        String msg = "Cannot get a " + expectedType + " value from a " + actualType+ " " + (isFormulaCell ? "formula " : "") + "cell";
+        return new IllegalStateException(msg);
+    }
+}
@@ -0,0 +1,88 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xssf.readonly;
+
+import org.apache.poi.common.usermodel.HyperlinkType;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.ClientAnchor;
+import org.apache.poi.ss.usermodel.CreationHelper;
+import org.apache.poi.ss.usermodel.DataFormat;
+import org.apache.poi.ss.usermodel.ExtendedColor;
+import org.apache.poi.ss.usermodel.Hyperlink;
+import org.apache.poi.ss.util.AreaReference;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+
+/**
+ * The {@link CreationHelper} of a {@link ReadOnlyXSSFWorkbook}, which can
+ *  only create objects not modifying the workbook.
+ *
+ * @since POI 4.0.0
+ */
+public class ReadOnlyXSSFCreationHelper implements CreationHelper {
+    private final ReadOnlyXSSFWorkbook workbook;
+
+    ReadOnlyXSSFCreationHelper(ReadOnlyXSSFWorkbook wb) {
+        workbook = wb;
+    }
+
+    @Override
+    public XSSFRichTextString createRichTextString(String text) {
+        return new XSSFRichTextString(text);
+    }
+
+    @Override
+    public DataFormat createDataFormat() {
+        return workbook.createDataFormat();
+    }
+
+    @Override
+    public ExtendedColor createExtendedColor() {
+        throw ReadOnlyXSSFWorkbook.readOnly();
+    }
+
+    @Override
+    public Hyperlink createHyperlink(HyperlinkType type) {
+        throw ReadOnlyXSSFWorkbook.readOnly();
+    }
+
+    /**
+     * Creates a ReadOnlyXSSFFormulaEvaluator, the object that evaluates formula cells.
+     *
+     * @return a ReadOnlyXSSFFormulaEvaluator instance
+     */
+    @Override
+    public ReadOnlyXSSFFormulaEvaluator createFormulaEvaluator() {
+        return new ReadOnlyXSSFFormulaEvaluator(workbook);
+    }
+
+    @Override
+    public ClientAnchor createClientAnchor() {
+        throw ReadOnlyXSSFWorkbook.readOnly();
+    }
+
+    @Override
+    public AreaReference createAreaReference(String reference) {
+        return new AreaReference(reference, SpreadsheetVersion.EXCEL2007);
+    }
+
+    @Override
+    public AreaReference createAreaReference(CellReference topLeft, CellReference bottomRight) {
+        return new AreaReference(topLeft, bottomRight, SpreadsheetVersion.EXCEL2007);
+    }
+}
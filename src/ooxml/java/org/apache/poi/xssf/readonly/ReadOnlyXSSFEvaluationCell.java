@@ -0,0 +1,134 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xssf.readonly;
+
+import org.apache.poi.ss.formula.EvaluationCell;
+import org.apache.poi.ss.formula.EvaluationSheet;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.util.Internal;
+import org.apache.poi.util.Removal;
+
+/**
+ * Read-only XSSF wrapper for a cell under evaluation
+ */
+@Internal
+final class ReadOnlyXSSFEvaluationCell implements EvaluationCell {
+    private final EvaluationSheet _evalSheet;
+    private final ReadOnlyXSSFCell _cell;
+
+    ReadOnlyXSSFEvaluationCell(ReadOnlyXSSFCell cell, ReadOnlyXSSFEvaluationSheet evaluationSheet) {
+        _cell = cell;
+        _evalSheet = evaluationSheet;
+    }
+
+    ReadOnlyXSSFEvaluationCell(ReadOnlyXSSFCell cell) {
+        this(cell, new ReadOnlyXSSFEvaluationSheet(cell.getSheet()));
+    }
+
+    @Override
+    public Object getIdentityKey() {
+        // the cells are created on access, but implement equals and hashCode based on their position
+        return _cell;
+    }
+
+    ReadOnlyXSSFCell getCell() {
+        return _cell;
+    }
+
+    @Override
+    public boolean getBooleanCellValue() {
+        return _cell.getBooleanCellValue();
+    }
+
+    /**
+     * @return cell type
+     */
+    @Override
+    public CellType getCellType() {
+        return _cell.getCellType();
+    }
+
+    /**
+     * @deprecated use <code>getCellType</code> instead
+     */
+    @Deprecated
+    @Removal(version = "4.2")
+    @Override
+    public CellType getCellTypeEnum() {
+        return getCellType();
+    }
+
+    @Override
+    public int getColumnIndex() {
+        return _cell.getColumnIndex();
+    }
+
+    @Override
+    public int getErrorCellValue() {
+        return _cell.getErrorCellValue();
+    }
+
+    @Override
+    public double getNumericCellValue() {
+        return _cell.getNumericCellValue();
+    }
+
+    @Override
+    public int getRowIndex() {
+        return _cell.getRowIndex();
+    }
+
+    @Override
+    public EvaluationSheet getSheet() {
+        return _evalSheet;
+    }
+
+    @Override
+    public String getStringCellValue() {
+        return _cell.getStringCellValue();
+    }
+
+    @Override
+    public CellRangeAddress getArrayFormulaRange() {
+        return _cell.getArrayFormulaRange();
+    }
+
+    @Override
+    public boolean isPartOfArrayFormulaGroup() {
+        return _cell.isPartOfArrayFormulaGroup();
+    }
+
+    /**
+     * @return cell type of cached formula result
+     */
+    @Override
+    public CellType getCachedFormulaResultType() {
+        return _cell.getCachedFormulaResultType();
+    }
+
+    /**
+     * @deprecated use <code>getCachedFormulaResultType</code> instead
+     */
+    @Deprecated
+    @Internal(since="POI 3.15 beta 3")
+    @Override
+    public CellType getCachedFormulaResultTypeEnum() {
+        return getCachedFormulaResultType();
+    }
+}
@@ -0,0 +1,66 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xssf.readonly;
+
+import org.apache.poi.ss.formula.EvaluationCell;
+import org.apache.poi.ss.formula.EvaluationSheet;
+import org.apache.poi.util.Internal;
+
+/**
+ * Read-only XSSF wrapper for a sheet under evaluation.
+ * <p>
+ * The cells are looked up directly in the rows, which are already indexed by column,
+ *  so no cell cache is needed.
+ * </p>
+ */
+@Internal
+final class ReadOnlyXSSFEvaluationSheet implements EvaluationSheet {
+    private final ReadOnlyXSSFSheet _xs;
+
+    ReadOnlyXSSFEvaluationSheet(ReadOnlyXSSFSheet sheet) {
+        _xs = sheet;
+    }
+
+    ReadOnlyXSSFSheet getSheet() {
+        return _xs;
+    }
+
+    @Override
+    public int getLastRowNum() {
+        return _xs.getLastRowNum();
+    }
+
+    /* (non-JavaDoc), inherit JavaDoc from EvaluationSheet */
+    @Override
+    public void clearAllCachedResultValues() {
+        // nothing to do, the sheet can't change
+    }
+
+    @Override
+    public EvaluationCell getCell(int rowIndex, int columnIndex) {
+        ReadOnlyXSSFRow row = _xs.getRow(rowIndex);
+        if (row == null) {
+            return null;
+        }
+        ReadOnlyXSSFCell cell = row.getCell(columnIndex, ReadOnlyXSSFRow.MissingCellPolicy.RETURN_NULL_AND_BLANK);
+        if (cell == null) {
+            return null;
+        }
+        return new ReadOnlyXSSFEvaluationCell(cell, this);
+    }
+}
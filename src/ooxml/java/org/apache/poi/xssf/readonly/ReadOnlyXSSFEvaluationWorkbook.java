@@ -0,0 +1,322 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xssf.readonly;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.formula.EvaluationCell;
+import org.apache.poi.ss.formula.EvaluationName;
+import org.apache.poi.ss.formula.EvaluationSheet;
+import org.apache.poi.ss.formula.EvaluationWorkbook;
+import org.apache.poi.ss.formula.FormulaParser;
+import org.apache.poi.ss.formula.FormulaParsingWorkbook;
+import org.apache.poi.ss.formula.FormulaRenderingWorkbook;
+import org.apache.poi.ss.formula.FormulaType;
+import org.apache.poi.ss.formula.SheetIdentifier;
+import org.apache.poi.ss.formula.functions.FreeRefFunction;
+import org.apache.poi.ss.formula.ptg.Area3DPxg;
+import org.apache.poi.ss.formula.ptg.NamePtg;
+import org.apache.poi.ss.formula.ptg.NameXPtg;
+import org.apache.poi.ss.formula.ptg.NameXPxg;
+import org.apache.poi.ss.formula.ptg.Ptg;
+import org.apache.poi.ss.formula.ptg.Ref3DPxg;
+import org.apache.poi.ss.formula.udf.IndexedUDFFinder;
+import org.apache.poi.ss.formula.udf.UDFFinder;
+import org.apache.poi.ss.usermodel.Name;
+import org.apache.poi.ss.usermodel.Table;
+import org.apache.poi.ss.util.AreaReference;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.Internal;
+import org.apache.poi.util.NotImplemented;
+
+/**
+ * Internal POI use only - the formula parsing and evaluation view of a {@link ReadOnlyXSSFWorkbook}.
+ * <p>
+ * Unlike the XSSF counterpart, references to external workbooks and tables are not supported.
+ * </p>
+ */
+@Internal
+final class ReadOnlyXSSFEvaluationWorkbook implements FormulaRenderingWorkbook, EvaluationWorkbook, FormulaParsingWorkbook {
+    private final ReadOnlyXSSFWorkbook _uBook;
+    private ReadOnlyXSSFEvaluationSheet[] _sheetCache;
+
+    ReadOnlyXSSFEvaluationWorkbook(ReadOnlyXSSFWorkbook book) {
+        _uBook = book;
+    }
+
+    /* (non-JavaDoc), inherit JavaDoc from EvaluationWorkbook */
+    @Override
+    public void clearAllCachedResultValues() {
+        _sheetCache = null;
+    }
+
+    /**
+     * XSSF doesn't use external sheet indexes, so when asked treat
+     * it just as a local index
+     */
+    @Override
+    public int convertFromExternSheetIndex(int externSheetIndex) {
+        return externSheetIndex;
+    }
+
+    @Override
+    public int getExternalSheetIndex(String sheetName) {
+        return _uBook.getSheetIndex(sheetName);
+    }
+
+    @NotImplemented
+    @Override
+    public int getExternalSheetIndex(String workbookName, String sheetName) {
+        throw new RuntimeException("not implemented yet");
+    }
+
+    private static int resolveBookIndex(String bookName) {
+        throw new IllegalStateException("External workbook references are not supported by read-only workbooks: " + bookName);
+    }
+
+    @Override
+    public EvaluationName getName(String name, int sheetIndex) {
+        for (int i = 0; i < _uBook.getNumberOfNames(); i++) {
+            ReadOnlyXSSFName nm = _uBook.getNameAt(i);
+            int nameSheetindex = nm.getSheetIndex();
+            if (name.equalsIgnoreCase(nm.getNameName()) &&
+                    (nameSheetindex == -1 || nameSheetindex == sheetIndex)) {
+                return new EvalName(nm, i, this);
+            }
+        }
+        return sheetIndex == -1 ? null : getName(name, -1);
+    }
+
+    @Override
+    public EvaluationName getName(NamePtg namePtg) {
+        int ix = namePtg.getIndex();
+        return new EvalName(_uBook.getNameAt(ix), ix, this);
+    }
+
+    @Override
+    public String getNameText(NamePtg namePtg) {
+        return _uBook.getNameAt(namePtg.getIndex()).getNameName();
+    }
+
+    @Override
+    public Name createName() {
+        throw ReadOnlyXSSFWorkbook.readOnly();
+    }
+
+    /**
+     * Tables are not read, so this always returns {@code null}
+     */
+    @Override
+    public Table getTable(String name) {
+        return null;
+    }
+
+    @Override
+    public String getSheetName(int sheetIndex) {
+        return _uBook.getSheetName(sheetIndex);
+    }
+
+    @Override
+    public int getSheetIndex(String sheetName) {
+        return _uBook.getSheetIndex(sheetName);
+    }
+
+    @Override
+    public int getSheetIndex(EvaluationSheet evalSheet) {
+        ReadOnlyXSSFSheet sheet = ((ReadOnlyXSSFEvaluationSheet)evalSheet).getSheet();
+        return _uBook.getSheetIndex(sheet);
+    }
+
+    @Override
+    public EvaluationSheet getSheet(int sheetIndex) {
+        if (_sheetCache == null) {
+            _sheetCache = new ReadOnlyXSSFEvaluationSheet[_uBook.getNumberOfSheets()];
+        }
+        if (sheetIndex < 0 || sheetIndex >= _sheetCache.length) {
+            // do this to reuse the out-of-bounds logic and message from the workbook
+            _uBook.getSheetAt(sheetIndex);
+        }
+        // the sheets are only read when they are referenced by a formula
+        ReadOnlyXSSFEvaluationSheet sheet = _sheetCache[sheetIndex];
+        if (sheet == null) {
+            sheet = new ReadOnlyXSSFEvaluationSheet(_uBook.getSheetAt(sheetIndex));
+            _sheetCache[sheetIndex] = sheet;
+        }
+        return sheet;
+    }
+
+    @Override
+    public String getSheetFirstNameByExternSheet(int externSheetIndex) {
+        return _uBook.getSheetName(externSheetIndex);
+    }
+
+    @Override
+    public String getSheetLastNameByExternSheet(int externSheetIndex) {
+        // XSSF does multi-sheet references differently, so this is the same as the first
+        return getSheetFirstNameByExternSheet(externSheetIndex);
+    }
+
+    @Override
+    public ExternalName getExternalName(int externSheetIndex, int externNameIndex) {
+        throw new IllegalStateException("HSSF-style external references are not supported for XSSF");
+    }
+
+    @Override
+    public ExternalName getExternalName(String nameName, String sheetName, int externalWorkbookNumber) {
+        if (externalWorkbookNumber > 0) {
+            throw new IllegalStateException("External workbook references are not supported by read-only workbooks");
+        }
+        return new ExternalName(nameName, _uBook.getNameIndex(nameName), 0);
+    }
+
+    @Override
+    public ExternalSheet getExternalSheet(int externSheetIndex) {
+        throw new IllegalStateException("HSSF-style external references are not supported for XSSF");
+    }
+
+    @Override
+    public ExternalSheet getExternalSheet(String firstSheetName, String lastSheetName, int externalWorkbookNumber) {
+        if (externalWorkbookNumber > 0) {
+            throw new IllegalStateException("External workbook references are not supported by read-only workbooks");
+        }
+        if (lastSheetName == null || firstSheetName.equals(lastSheetName)) {
+            return new ExternalSheet(null, firstSheetName);
+        } else {
+            return new ExternalSheetRange(null, firstSheetName, lastSheetName);
+        }
+    }
+
+    /**
+     * Return an external name (named range, function, user-defined function) Pxg
+     */
+    @Override
+    public NameXPxg getNameXPtg(String name, SheetIdentifier sheet) {
+        // First, try to find it as a User Defined Function
+        IndexedUDFFinder udfFinder = (IndexedUDFFinder)getUDFFinder();
+        FreeRefFunction func = udfFinder.findFunction(name);
+        if (func != null) {
+            return new NameXPxg(null, name);
+        }
+
+        // Otherwise, try it as a named range
+        if (sheet == null) {
+            if (!_uBook.getNames(name).isEmpty()) {
+                return new NameXPxg(null, name);
+            }
+            return null;
+        }
+        if (sheet._bookName != null) {
+            resolveBookIndex(sheet._bookName);
+        }
+        if (sheet._sheetIdentifier == null) {
+            return null;
+        }
+        return new NameXPxg(sheet._sheetIdentifier.getName(), name);
+    }
+
+    @Override
+    public Ptg get3DReferencePtg(CellReference cell, SheetIdentifier sheet) {
+        if (sheet._bookName != null) {
+            resolveBookIndex(sheet._bookName);
+        }
+        return new Ref3DPxg(sheet, cell);
+    }
+
+    @Override
+    public Ptg get3DReferencePtg(AreaReference area, SheetIdentifier sheet) {
+        if (sheet._bookName != null) {
+            resolveBookIndex(sheet._bookName);
+        }
+        return new Area3DPxg(sheet, area);
+    }
+
+    @Override
+    public String resolveNameXText(NameXPtg n) {
+        int idx = n.getNameIndex();
+
+        // First, try to find it as a User Defined Function
+        IndexedUDFFinder udfFinder = (IndexedUDFFinder)getUDFFinder();
+        String name = udfFinder.getFunctionName(idx);
+        if (name != null) {
+            return name;
+        }
+
+        // Otherwise, try it as a named range
+        ReadOnlyXSSFName xname = _uBook.getNameAt(idx);
+        return xname == null ? null : xname.getNameName();
+    }
+
+    @Override
+    public Ptg[] getFormulaTokens(EvaluationCell evalCell) {
+        final ReadOnlyXSSFCell cell = ((ReadOnlyXSSFEvaluationCell)evalCell).getCell();
+        final int sheetIndex = _uBook.getSheetIndex(cell.getSheet());
+        final int rowIndex = cell.getRowIndex();
+        return FormulaParser.parse(cell.getCellFormula(), this, FormulaType.CELL, sheetIndex, rowIndex);
+    }
+
+    @Override
+    public UDFFinder getUDFFinder() {
+        return _uBook.getUDFFinder();
+    }
+
+    @Override
+    public SpreadsheetVersion getSpreadsheetVersion() {
+        return SpreadsheetVersion.EXCEL2007;
+    }
+
+    private static final class EvalName implements EvaluationName {
+        private final ReadOnlyXSSFName _nameRecord;
+        private final int _index;
+        private final FormulaParsingWorkbook _fpBook;
+
+        public EvalName(ReadOnlyXSSFName name, int index, FormulaParsingWorkbook fpBook) {
+            _nameRecord = name;
+            _index = index;
+            _fpBook = fpBook;
+        }
+
+        @Override
+        public Ptg[] getNameDefinition() {
+            return FormulaParser.parse(_nameRecord.getRefersToFormula(), _fpBook, FormulaType.NAMEDRANGE, _nameRecord.getSheetIndex());
+        }
+
+        @Override
+        public String getNameText() {
+            return _nameRecord.getNameName();
+        }
+
+        @Override
+        public boolean hasFormula() {
+            return !_nameRecord.isFunctionName() && _nameRecord.getRefersToFormula() != null;
+        }
+
+        @Override
+        public boolean isFunctionName() {
+            return _nameRecord.isFunctionName();
+        }
+
+        @Override
+        public boolean isRange() {
+            return hasFormula();
+        }
+
+        @Override
+        public NamePtg createPtg() {
+            return new NamePtg(_index);
+        }
+    }
+}
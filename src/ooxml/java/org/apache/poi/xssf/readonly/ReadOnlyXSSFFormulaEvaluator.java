@@ -0,0 +1,101 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xssf.readonly;
+
+import org.apache.poi.ss.formula.EvaluationCell;
+import org.apache.poi.ss.formula.IStabilityClassifier;
+import org.apache.poi.ss.formula.WorkbookEvaluator;
+import org.apache.poi.ss.formula.udf.UDFFinder;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.xssf.usermodel.BaseXSSFFormulaEvaluator;
+
+/**
+ * Evaluates formula cells of a {@link ReadOnlyXSSFWorkbook}.
+ * <p>
+ * Only {@link #evaluate(Cell)} and {@link #evaluateFormulaCell(Cell)} on cells without
+ *  formulas can be used, the methods storing the results in the cells fail, as the
+ *  workbook is read-only.
+ * </p>
+ * For performance reasons, this class keeps a cache of all previously calculated intermediate
+ * cell values.
+ *
+ * @since POI 4.0.0
+ */
+public final class ReadOnlyXSSFFormulaEvaluator extends BaseXSSFFormulaEvaluator {
+    private final ReadOnlyXSSFWorkbook _book;
+
+    public ReadOnlyXSSFFormulaEvaluator(ReadOnlyXSSFWorkbook workbook) {
+        this(workbook, null, null);
+    }
+
+    private ReadOnlyXSSFFormulaEvaluator(ReadOnlyXSSFWorkbook workbook, IStabilityClassifier stabilityClassifier, UDFFinder udfFinder) {
+        super(new WorkbookEvaluator(workbook.getEvaluationWorkbook(), stabilityClassifier, udfFinder));
+        _book = workbook;
+    }
+
+    /**
+     * @param stabilityClassifier used to optimise caching performance. Pass <code>null</code>
+     * for the (conservative) assumption that any cell may have its definition changed after
+     * evaluation begins.
+     * @param udfFinder pass <code>null</code> for default (AnalysisToolPak only)
+     */
+    public static ReadOnlyXSSFFormulaEvaluator create(ReadOnlyXSSFWorkbook workbook, IStabilityClassifier stabilityClassifier, UDFFinder udfFinder) {
+        return new ReadOnlyXSSFFormulaEvaluator(workbook, stabilityClassifier, udfFinder);
+    }
+
+    @Override
+    public void notifySetFormula(Cell cell) {
+        throw ReadOnlyXSSFWorkbook.readOnly();
+    }
+
+    @Override
+    public void notifyDeleteCell(Cell cell) {
+        throw ReadOnlyXSSFWorkbook.readOnly();
+    }
+
+    @Override
+    public void notifyUpdateCell(Cell cell) {
+        throw ReadOnlyXSSFWorkbook.readOnly();
+    }
+
+    /**
+     * Not supported, as the results can't be stored in the read-only workbook
+     */
+    @Override
+    public void evaluateAll() {
+        throw ReadOnlyXSSFWorkbook.readOnly();
+    }
+
+    /**
+     * Turns a ReadOnlyXSSFCell into a ReadOnlyXSSFEvaluationCell
+     */
+    @Override
+    protected EvaluationCell toEvaluationCell(Cell cell) {
+        if (!(cell instanceof ReadOnlyXSSFCell)) {
+            throw new IllegalArgumentException("Unexpected type of cell: " + cell.getClass() + "." +
+                    " Only ReadOnlyXSSFCells can be evaluated.");
+        }
+        ReadOnlyXSSFCell roCell = (ReadOnlyXSSFCell)cell;
+        if (roCell.getSheet().getWorkbook() != _book) {
+            throw new IllegalArgumentException("The cell belongs to a different workbook");
+        }
+        return new ReadOnlyXSSFEvaluationCell(roCell,
+                (ReadOnlyXSSFEvaluationSheet)_book.getEvaluationWorkbook().getSheet(
+                        _book.getSheetIndex(roCell.getSheet())));
+    }
+}
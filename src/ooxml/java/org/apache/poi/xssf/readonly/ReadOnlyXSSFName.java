@@ -0,0 +1,118 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xssf.readonly;
+
+import org.apache.poi.ss.formula.FormulaParser;
+import org.apache.poi.ss.formula.FormulaType;
+import org.apache.poi.ss.formula.ptg.Ptg;
+import org.apache.poi.ss.usermodel.Name;
+
+/**
+ * A defined name of a {@link ReadOnlyXSSFWorkbook}
+ *
+ * @since POI 4.0.0
+ */
+public final class ReadOnlyXSSFName implements Name {
+    private final ReadOnlyXSSFWorkbook workbook;
+    private final String name;
+    private final String refersTo;
+    private final int sheetIndex;
+    private final boolean function;
+    private final String comment;
+
+    ReadOnlyXSSFName(ReadOnlyXSSFWorkbook workbook, String name, String refersTo, int sheetIndex,
+            boolean function, String comment) {
+        this.workbook = workbook;
+        this.name = name;
+        this.refersTo = refersTo;
+        this.sheetIndex = sheetIndex;
+        this.function = function;
+        this.comment = comment;
+    }
+
+    @Override
+    public String getSheetName() {
+        return sheetIndex == -1 ? null : workbook.getSheetName(sheetIndex);
+    }
+
+    @Override
+    public String getNameName() {
+        return name;
+    }
+
+    @Override
+    public void setNameName(String name) {
+        throw ReadOnlyXSSFWorkbook.readOnly();
+    }
+
+    @Override
+    public String getRefersToFormula() {
+        return refersTo == null || refersTo.isEmpty() ? null : refersTo;
+    }
+
+    @Override
+    public void setRefersToFormula(String formulaText) {
+        throw ReadOnlyXSSFWorkbook.readOnly();
+    }
+
+    @Override
+    public boolean isFunctionName() {
+        return function;
+    }
+
+    @Override
+    public boolean isDeleted() {
+        String formulaText = getRefersToFormula();
+        if (formulaText == null) {
+            return false;
+        }
+        Ptg[] ptgs = FormulaParser.parse(formulaText, workbook.getEvaluationWorkbook(),
+                FormulaType.NAMEDRANGE, sheetIndex);
+        return Ptg.doesFormulaReferToDeletedCell(ptgs);
+    }
+
+    @Override
+    public void setSheetIndex(int sheetId) {
+        throw ReadOnlyXSSFWorkbook.readOnly();
+    }
+
+    @Override
+    public int getSheetIndex() {
+        return sheetIndex;
+    }
+
+    @Override
+    public String getComment() {
+        return comment;
+    }
+
+    @Override
+    public void setComment(String comment) {
+        throw ReadOnlyXSSFWorkbook.readOnly();
+    }
+
+    @Override
+    public void setFunction(boolean value) {
+        throw ReadOnlyXSSFWorkbook.readOnly();
+    }
+
+    @Override
+    public String toString() {
+        return name + "=" + refersTo;
+    }
+}
@@ -0,0 +1,362 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xssf.readonly;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+
+/**
+ * A row of a {@link ReadOnlyXSSFSheet}.
+ * <p>
+ * The cells are stored column-wise in parallel arrays, the {@link ReadOnlyXSSFCell}
+ *  objects are only light-weight views, which are created on access.
+ * </p>
+ *
+ * @since POI 4.0.0
+ */
+public final class ReadOnlyXSSFRow implements Row, Comparable<ReadOnlyXSSFRow> {
+    // the value types of the cells, the formula flag is or-ed
+    static final byte TYPE_BLANK = 0;
+    static final byte TYPE_NUMERIC = 1;
+    static final byte TYPE_SHARED_STRING = 2;
+    static final byte TYPE_INLINE_STRING = 3;
+    static final byte TYPE_BOOLEAN = 4;
+    static final byte TYPE_ERROR = 5;
+    static final byte TYPE_MASK = 0x0F;
+    static final byte FLAG_FORMULA = 0x10;
+
+    private static final int[] EMPTY_INTS = {};
+    private static final byte[] EMPTY_BYTES = {};
+    private static final double[] EMPTY_DOUBLES = {};
+
+    private final ReadOnlyXSSFSheet sheet;
+    private final int rowNum;
+    private final float height;
+    private final boolean zeroHeight;
+    private final int styleIndex;
+    private final int outlineLevel;
+
+    private int size;
+    private int[] columns = EMPTY_INTS;
+    private byte[] types = EMPTY_BYTES;
+    // numeric, boolean (0/1) and error values as well as shared string indexes
+    private double[] values = EMPTY_DOUBLES;
+    private int[] styles = EMPTY_INTS;
+    // inline strings and cached string results of formulas, allocated on demand
+    private String[] texts;
+    // the formulas: a String or the Integer group index of a shared formula, allocated on demand
+    private Object[] formulas;
+
+    ReadOnlyXSSFRow(ReadOnlyXSSFSheet sheet, int rowNum, float height, boolean zeroHeight,
+            int styleIndex, int outlineLevel) {
+        this.sheet = sheet;
+        this.rowNum = rowNum;
+        this.height = height;
+        this.zeroHeight = zeroHeight;
+        this.styleIndex = styleIndex;
+        this.outlineLevel = outlineLevel;
+    }
+
+    /**
+     * Append a cell, the columns need to be added in ascending order
+     */
+    void addCell(int column, byte type, double value, String text, Object formula, int style) {
+        if (size == columns.length) {
+            int capacity = Math.max(4, size * 2);
+            columns = Arrays.copyOf(columns, capacity);
+            types = Arrays.copyOf(types, capacity);
+            values = Arrays.copyOf(values, capacity);
+            styles = Arrays.copyOf(styles, capacity);
+            if (texts != null) {
+                texts = Arrays.copyOf(texts, capacity);
+            }
+            if (formulas != null) {
+                formulas = Arrays.copyOf(formulas, capacity);
+            }
+        }
+        if (text != null && texts == null) {
+            texts = new String[columns.length];
+        }
+        if (formula != null && formulas == null) {
+            formulas = new Object[columns.length];
+        }
+        columns[size] = column;
+        types[size] = (formula != null) ? (byte)(type | FLAG_FORMULA) : type;
+        values[size] = value;
+        styles[size] = style;
+        if (text != null) {
+            texts[size] = text;
+        }
+        if (formula != null) {
+            formulas[size] = formula;
+        }
+        size++;
+    }
+
+    /**
+     * Release the unused capacity, after all cells have been added
+     */
+    void trimToSize() {
+        if (size < columns.length) {
+            columns = Arrays.copyOf(columns, size);
+            types = Arrays.copyOf(types, size);
+            values = Arrays.copyOf(values, size);
+            styles = Arrays.copyOf(styles, size);
+            if (texts != null) {
+                texts = Arrays.copyOf(texts, size);
+            }
+            if (formulas != null) {
+                formulas = Arrays.copyOf(formulas, size);
+            }
+        }
+    }
+
+    /**
+     * @return the array index of the cell in the given column or -1 if there's none
+     */
+    private int indexOf(int column) {
+        if (size == 0 || column < columns[0] || column > columns[size - 1]) {
+            return -1;
+        }
+        if (columns[size - 1] - columns[0] == size - 1) {
+            // dense row
+            return column - columns[0];
+        }
+        int idx = Arrays.binarySearch(columns, 0, size, column);
+        return idx < 0 ? -1 : idx;
+    }
+
+    int getColumn(int idx) {
+        return columns[idx];
+    }
+
+    byte getValueType(int idx) {
+        return (byte)(types[idx] & TYPE_MASK);
+    }
+
+    boolean isFormula(int idx) {
+        return (types[idx] & FLAG_FORMULA) != 0;
+    }
+
+    double getValue(int idx) {
+        return values[idx];
+    }
+
+    int getStyleIndex(int idx) {
+        return styles[idx];
+    }
+
+    String getText(int idx) {
+        return texts == null ? null : texts[idx];
+    }
+
+    Object getFormula(int idx) {
+        return formulas == null ? null : formulas[idx];
+    }
+
+    @Override
+    public ReadOnlyXSSFCell createCell(int column) {
+        throw ReadOnlyXSSFWorkbook.readOnly();
+    }
+
+    @Override
+    public ReadOnlyXSSFCell createCell(int column, CellType type) {
+        throw ReadOnlyXSSFWorkbook.readOnly();
+    }
+
+    @Override
+    public void removeCell(Cell cell) {
+        throw ReadOnlyXSSFWorkbook.readOnly();
+    }
+
+    @Override
+    public void setRowNum(int rowNum) {
+        throw ReadOnlyXSSFWorkbook.readOnly();
+    }
+
+    @Override
+    public int getRowNum() {
+        return rowNum;
+    }
+
+    /**
+     * Returns the cell at the given (0 based) index, with the
+     *  {@link org.apache.poi.ss.usermodel.Row.MissingCellPolicy} from the parent Workbook.
+     *
+     * @return the cell at the given (0 based) index
+     */
+    @Override
+    public ReadOnlyXSSFCell getCell(int cellnum) {
+        return getCell(cellnum, sheet.getWorkbook().getMissingCellPolicy());
+    }
+
+    /**
+     * Returns the cell at the given (0 based) index, with the specified
+     *  {@link org.apache.poi.ss.usermodel.Row.MissingCellPolicy}.
+     * Missing cells are never created, so {@link MissingCellPolicy#CREATE_NULL_AS_BLANK}
+     *  is not supported for missing cells.
+     *
+     * @return the cell at the given (0 based) index
+     * @throws IllegalArgumentException if cellnum &lt; 0 or the specified MissingCellPolicy is invalid
+     */
+    @Override
+    public ReadOnlyXSSFCell getCell(int cellnum, MissingCellPolicy policy) {
+        if (cellnum < 0) {
+            throw new IllegalArgumentException("Cell index must be >= 0");
+        }
+        int idx = indexOf(cellnum);
+        ReadOnlyXSSFCell cell = idx < 0 ? null : new ReadOnlyXSSFCell(this, idx);
+        switch (policy) {
+            case RETURN_NULL_AND_BLANK:
+                return cell;
+            case RETURN_BLANK_AS_NULL:
+                boolean isBlank = (cell != null && cell.getCellType() == CellType.BLANK);
+                return isBlank ? null : cell;
+            case CREATE_NULL_AS_BLANK:
+                if (cell == null) {
+                    throw ReadOnlyXSSFWorkbook.readOnly();
+                }
+                return cell;
+            default:
+                throw new IllegalArgumentException("Illegal policy " + policy);
+        }
+    }
+
+    @Override
+    public short getFirstCellNum() {
+        return (short)(size == 0 ? -1 : columns[0]);
+    }
+
+    @Override
+    public short getLastCellNum() {
+        return (short)(size == 0 ? -1 : columns[size - 1] + 1);
+    }
+
+    @Override
+    public int getPhysicalNumberOfCells() {
+        return size;
+    }
+
+    @Override
+    public void setHeight(short height) {
+        throw ReadOnlyXSSFWorkbook.readOnly();
+    }
+
+    @Override
+    public void setZeroHeight(boolean zHeight) {
+        throw ReadOnlyXSSFWorkbook.readOnly();
+    }
+
+    @Override
+    public boolean getZeroHeight() {
+        return zeroHeight;
+    }
+
+    @Override
+    public void setHeightInPoints(float height) {
+        throw ReadOnlyXSSFWorkbook.readOnly();
+    }
+
+    @Override
+    public short getHeight() {
+        return (short)(getHeightInPoints()*20);
+    }
+
+    @Override
+    public float getHeightInPoints() {
+        return height >= 0 ? height : sheet.getDefaultRowHeightInPoints();
+    }
+
+    @Override
+    public boolean isFormatted() {
+        return styleIndex >= 0;
+    }
+
+    @Override
+    public XSSFCellStyle getRowStyle() {
+        if (!isFormatted()) {
+            return null;
+        }
+        StylesTable stylesSource = sheet.getWorkbook().getStylesSource();
+        return stylesSource.getNumCellStyles() > 0 ? stylesSource.getStyleAt(styleIndex) : null;
+    }
+
+    @Override
+    public void setRowStyle(CellStyle style) {
+        throw ReadOnlyXSSFWorkbook.readOnly();
+    }
+
+    @Override
+    public Iterator<Cell> cellIterator() {
+        return new Iterator<Cell>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public Cell next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return new ReadOnlyXSSFCell(ReadOnlyXSSFRow.this, next++);
+            }
+
+            @Override
+            public void remove() {
+                throw ReadOnlyXSSFWorkbook.readOnly();
+            }
+        };
+    }
+
+    /**
+     * Alias for {@link #cellIterator()} to allow foreach loops
+     */
+    @Override
+    public Iterator<Cell> iterator() {
+        return cellIterator();
+    }
+
+    @Override
+    public ReadOnlyXSSFSheet getSheet() {
+        return sheet;
+    }
+
+    @Override
+    public int getOutlineLevel() {
+        return outlineLevel;
+    }
+
+    @Override
+    public int compareTo(ReadOnlyXSSFRow other) {
+        if (this.getSheet() != other.getSheet()) {
+            throw new IllegalArgumentException("The compared rows must belong to the same sheet");
+        }
+        return Integer.compare(rowNum, other.rowNum);
+    }
+}
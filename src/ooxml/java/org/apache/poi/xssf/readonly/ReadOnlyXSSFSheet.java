@@ -0,0 +1,1102 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xssf.readonly;
+
+import static org.apache.poi.xssf.readonly.ReadOnlyXSSFWorkbook.isTrue;
+import static org.apache.poi.xssf.readonly.ReadOnlyXSSFWorkbook.notRead;
+import static org.apache.poi.xssf.readonly.ReadOnlyXSSFWorkbook.parseInt;
+import static org.apache.poi.xssf.readonly.ReadOnlyXSSFWorkbook.readOnly;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.poi.POIXMLException;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.ss.usermodel.AutoFilter;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellRange;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Comment;
+import org.apache.poi.ss.usermodel.DataValidation;
+import org.apache.poi.ss.usermodel.DataValidationHelper;
+import org.apache.poi.ss.usermodel.Drawing;
+import org.apache.poi.ss.usermodel.Footer;
+import org.apache.poi.ss.usermodel.FormulaError;
+import org.apache.poi.ss.usermodel.Header;
+import org.apache.poi.ss.usermodel.Hyperlink;
+import org.apache.poi.ss.usermodel.PrintSetup;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.SheetConditionalFormatting;
+import org.apache.poi.ss.usermodel.SheetVisibility;
+import org.apache.poi.ss.util.CellAddress;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.ss.util.PaneInformation;
+import org.apache.poi.util.SortedIntMap;
+import org.apache.poi.util.StaxHelper;
+import org.apache.poi.util.Units;
+
+/**
+ * A sheet of a {@link ReadOnlyXSSFWorkbook}, which is read with StAX.
+ *
+ * @since POI 4.0.0
+ */
+public final class ReadOnlyXSSFSheet implements Sheet {
+    private final ReadOnlyXSSFWorkbook workbook;
+    private final String name;
+    private final String relId;
+    private final SheetVisibility visibility;
+
+    // null until the sheet has been read
+    private SortedIntMap<ReadOnlyXSSFRow> rows;
+    private final List<CellRangeAddress> mergedRegions = new ArrayList<>();
+    private final List<CellRangeAddress> arrayFormulas = new ArrayList<>();
+    private final Map<Integer, SharedFormulaMaster> sharedFormulas = new HashMap<>();
+    private final List<ColumnInfo> columns = new ArrayList<>();
+    private final List<Integer> rowBreaks = new ArrayList<>();
+    private final List<Integer> columnBreaks = new ArrayList<>();
+    private final double[] margins = new double[6];
+
+    private boolean selected;
+    private boolean displayGridlines = true;
+    private boolean displayFormulas;
+    private boolean displayRowColHeadings = true;
+    private boolean displayZeros = true;
+    private boolean rightToLeft;
+    private String topLeftCell;
+    private String activeCell;
+    private float defaultRowHeight;
+    private int defaultColumnWidth = 8;
+    private boolean protect;
+    private boolean scenarioProtect;
+    private boolean printGridlines;
+    private boolean printHeadings;
+    private boolean horizontallyCenter;
+    private boolean verticallyCenter;
+    private boolean forceFormulaRecalculation;
+    private boolean fitToPage;
+    private boolean autobreaks = true;
+    private boolean rowSumsBelow = true;
+    private boolean rowSumsRight = true;
+    private boolean displayGuts = true;
+
+    ReadOnlyXSSFSheet(ReadOnlyXSSFWorkbook workbook, String name, String relId, SheetVisibility visibility) {
+        this.workbook = workbook;
+        this.name = name;
+        this.relId = relId;
+        this.visibility = visibility;
+    }
+
+    SheetVisibility getVisibility() {
+        return visibility;
+    }
+
+    /**
+     * Read the sheet part, if this hasn't been done yet
+     */
+    void ensureRead() {
+        if (rows != null) {
+            return;
+        }
+        try (InputStream is = workbook.getReader().getSheet(relId)) {
+            read(is);
+        } catch (IOException | InvalidFormatException | XMLStreamException e) {
+            throw new POIXMLException(e);
+        }
+    }
+
+    private void read(InputStream is) throws XMLStreamException {
+        SortedIntMap<ReadOnlyXSSFRow> readRows = new SortedIntMap<>();
+        XMLStreamReader xr = StaxHelper.newXMLInputFactory().createXMLStreamReader(is);
+        try {
+            ReadOnlyXSSFRow row = null;
+            int nextRowNum = 0;
+            int nextColumn = 0;
+            boolean firstView = true;
+            boolean inFirstView = false;
+            List<Integer> breaks = null;
+            while (xr.hasNext()) {
+                int event = xr.next();
+                if (event == XMLStreamConstants.END_ELEMENT) {
+                    switch (xr.getLocalName()) {
+                        case "row":
+                            row.trimToSize();
+                            break;
+                        case "sheetView":
+                            inFirstView = false;
+                            break;
+                        case "rowBreaks":
+                        case "colBreaks":
+                            breaks = null;
+                            break;
+                        default:
+                            break;
+                    }
+                    continue;
+                }
+                if (event != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+                switch (xr.getLocalName()) {
+                    case "row": {
+                        int rowNum = parseInt(xr.getAttributeValue(null, "r"), nextRowNum + 1) - 1;
+                        String ht = xr.getAttributeValue(null, "ht");
+                        row = new ReadOnlyXSSFRow(this, rowNum,
+                                ht == null ? -1 : Float.parseFloat(ht),
+                                isTrue(xr.getAttributeValue(null, "hidden")),
+                                parseInt(xr.getAttributeValue(null, "s"), -1),
+                                parseInt(xr.getAttributeValue(null, "outlineLevel"), 0));
+                        readRows.put(rowNum, row);
+                        nextRowNum = rowNum + 1;
+                        nextColumn = 0;
+                        break;
+                    }
+                    case "c":
+                        nextColumn = readCell(xr, row, nextColumn) + 1;
+                        break;
+                    case "sheetView":
+                        if (firstView) {
+                            firstView = false;
+                            inFirstView = true;
+                            selected = isTrue(xr.getAttributeValue(null, "tabSelected"));
+                            displayGridlines = isTrue(xr.getAttributeValue(null, "showGridLines"), true);
+                            displayFormulas = isTrue(xr.getAttributeValue(null, "showFormulas"));
+                            displayRowColHeadings = isTrue(xr.getAttributeValue(null, "showRowColHeaders"), true);
+                            displayZeros = isTrue(xr.getAttributeValue(null, "showZeros"), true);
+                            rightToLeft = isTrue(xr.getAttributeValue(null, "rightToLeft"));
+                            topLeftCell = xr.getAttributeValue(null, "topLeftCell");
+                        }
+                        break;
+                    case "selection":
+                        if (inFirstView && activeCell == null) {
+                            activeCell = xr.getAttributeValue(null, "activeCell");
+                        }
+                        break;
+                    case "sheetFormatPr": {
+                        String ht = xr.getAttributeValue(null, "defaultRowHeight");
+                        defaultRowHeight = ht == null ? 0 : Float.parseFloat(ht);
+                        defaultColumnWidth = parseInt(xr.getAttributeValue(null, "baseColWidth"), 8);
+                        break;
+                    }
+                    case "col": {
+                        String width = xr.getAttributeValue(null, "width");
+                        columns.add(new ColumnInfo(
+                                parseInt(xr.getAttributeValue(null, "min"), 1) - 1,
+                                parseInt(xr.getAttributeValue(null, "max"), 1) - 1,
+                                width == null ? -1 : Double.parseDouble(width),
+                                isTrue(xr.getAttributeValue(null, "hidden")),
+                                parseInt(xr.getAttributeValue(null, "style"), -1),
+                                parseInt(xr.getAttributeValue(null, "outlineLevel"), 0)));
+                        break;
+                    }
+                    case "mergeCell":
+                        mergedRegions.add(CellRangeAddress.valueOf(xr.getAttributeValue(null, "ref")));
+                        break;
+                    case "sheetProtection":
+                        protect = isTrue(xr.getAttributeValue(null, "sheet"));
+                        scenarioProtect = isTrue(xr.getAttributeValue(null, "scenarios"));
+                        break;
+                    case "printOptions":
+                        printGridlines = isTrue(xr.getAttributeValue(null, "gridLines"));
+                        printHeadings = isTrue(xr.getAttributeValue(null, "headings"));
+                        horizontallyCenter = isTrue(xr.getAttributeValue(null, "horizontalCentered"));
+                        verticallyCenter = isTrue(xr.getAttributeValue(null, "verticalCentered"));
+                        break;
+                    case "pageMargins":
+                        margins[LeftMargin] = parseDouble(xr.getAttributeValue(null, "left"));
+                        margins[RightMargin] = parseDouble(xr.getAttributeValue(null, "right"));
+                        margins[TopMargin] = parseDouble(xr.getAttributeValue(null, "top"));
+                        margins[BottomMargin] = parseDouble(xr.getAttributeValue(null, "bottom"));
+                        margins[HeaderMargin] = parseDouble(xr.getAttributeValue(null, "header"));
+                        margins[FooterMargin] = parseDouble(xr.getAttributeValue(null, "footer"));
+                        break;
+                    case "sheetCalcPr":
+                        forceFormulaRecalculation = isTrue(xr.getAttributeValue(null, "fullCalcOnLoad"));
+                        break;
+                    case "pageSetUpPr":
+                        fitToPage = isTrue(xr.getAttributeValue(null, "fitToPage"));
+                        autobreaks = isTrue(xr.getAttributeValue(null, "autoPageBreaks"), true);
+                        break;
+                    case "outlinePr":
+                        rowSumsBelow = isTrue(xr.getAttributeValue(null, "summaryBelow"), true);
+                        rowSumsRight = isTrue(xr.getAttributeValue(null, "summaryRight"), true);
+                        displayGuts = isTrue(xr.getAttributeValue(null, "showOutlineSymbols"), true);
+                        break;
+                    case "rowBreaks":
+                        breaks = rowBreaks;
+                        break;
+                    case "colBreaks":
+                        breaks = columnBreaks;
+                        break;
+                    case "brk":
+                        if (breaks != null) {
+                            breaks.add(parseInt(xr.getAttributeValue(null, "id"), 0) - 1);
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+        } finally {
+            xr.close();
+        }
+        rows = readRows;
+    }
+
+    private static double parseDouble(String value) {
+        return value == null ? 0 : Double.parseDouble(value);
+    }
+
+    /**
+     * Read a cell element and append it to the row
+     *
+     * @return the column index of the cell
+     */
+    private int readCell(XMLStreamReader xr, ReadOnlyXSSFRow row, int nextColumn) throws XMLStreamException {
+        String ref = xr.getAttributeValue(null, "r");
+        int column = (ref == null) ? nextColumn : CellReference.convertCellRefToColIndex(ref);
+        if (column < 0) {
+            throw new POIXMLException("Invalid cell reference '" + ref + "'");
+        }
+        String t = xr.getAttributeValue(null, "t");
+        int style = parseInt(xr.getAttributeValue(null, "s"), 0);
+
+        String v = null;
+        String inline = null;
+        Object formula = null;
+        while (xr.hasNext()) {
+            int event = xr.next();
+            if (event == XMLStreamConstants.END_ELEMENT && "c".equals(xr.getLocalName())) {
+                break;
+            }
+            if (event != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+            switch (xr.getLocalName()) {
+                case "v":
+                    v = xr.getElementText();
+                    break;
+                case "f":
+                    formula = readFormula(xr, row.getRowNum(), column);
+                    break;
+                case "is":
+                    inline = readInlineString(xr);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        if (row.getPhysicalNumberOfCells() > 0 && column < row.getLastCellNum()) {
+            throw new POIXMLException("The cells of row " + (row.getRowNum() + 1)
+                    + " of sheet '" + name + "' are not in ascending order");
+        }
+
+        byte type;
+        double value = 0;
+        String text = null;
+        if ("s".equals(t)) {
+            if (v != null && !v.isEmpty()) {
+                type = ReadOnlyXSSFRow.TYPE_SHARED_STRING;
+                value = Integer.parseInt(v);
+            } else {
+                type = ReadOnlyXSSFRow.TYPE_INLINE_STRING;
+                text = "";
+            }
+        } else if ("inlineStr".equals(t)) {
+            type = ReadOnlyXSSFRow.TYPE_INLINE_STRING;
+            text = (inline != null) ? inline : (v != null) ? v : "";
+        } else if ("str".equals(t) || "d".equals(t)) {
+            type = ReadOnlyXSSFRow.TYPE_INLINE_STRING;
+            text = (v != null) ? v : "";
+        } else if ("b".equals(t)) {
+            type = ReadOnlyXSSFRow.TYPE_BOOLEAN;
+            value = "1".equals(v) || "true".equalsIgnoreCase(v) ? 1 : 0;
+        } else if ("e".equals(t)) {
+            type = ReadOnlyXSSFRow.TYPE_ERROR;
+            if (v != null && !v.isEmpty()) {
+                try {
+                    value = FormulaError.forString(v).getCode();
+                } catch (IllegalArgumentException e) {
+                    throw new POIXMLException("Unexpected error code " + v + " in sheet '" + name + "'", e);
+                }
+            }
+        } else if (v != null) {
+            type = ReadOnlyXSSFRow.TYPE_NUMERIC;
+            value = v.isEmpty() ? 0 : Double.parseDouble(v);
+        } else {
+            type = ReadOnlyXSSFRow.TYPE_BLANK;
+        }
+        row.addCell(column, type, value, text, formula, style);
+        return column;
+    }
+
+    /**
+     * @return the formula text or the Integer group index for shared formulas
+     */
+    private Object readFormula(XMLStreamReader xr, int rowNum, int column) throws XMLStreamException {
+        String t = xr.getAttributeValue(null, "t");
+        String ref = xr.getAttributeValue(null, "ref");
+        String si = xr.getAttributeValue(null, "si");
+        String text = xr.getElementText();
+        if ("shared".equals(t) && si != null) {
+            Integer group = Integer.valueOf(si);
+            if (ref != null && !text.isEmpty()) {
+                sharedFormulas.put(group, new SharedFormulaMaster(text, CellRangeAddress.valueOf(ref)));
+            }
+            return group;
+        }
+        if ("array".equals(t) && ref != null) {
+            arrayFormulas.add(CellRangeAddress.valueOf(ref));
+        }
+        return text;
+    }
+
+    /**
+     * @return the text of the inline string without the phonetic runs
+     */
+    private static String readInlineString(XMLStreamReader xr) throws XMLStreamException {
+        StringBuilder sb = new StringBuilder();
+        int phoneticDepth = 0;
+        while (xr.hasNext()) {
+            int event = xr.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String localName = xr.getLocalName();
+                if ("rPh".equals(localName)) {
+                    phoneticDepth++;
+                } else if ("t".equals(localName) && phoneticDepth == 0) {
+                    sb.append(xr.getElementText());
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                String localName = xr.getLocalName();
+                if ("rPh".equals(localName)) {
+                    phoneticDepth--;
+                } else if ("is".equals(localName)) {
+                    break;
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    SharedFormulaMaster getSharedFormula(int si) {
+        return sharedFormulas.get(si);
+    }
+
+    /**
+     * @return the range of the array formula containing the cell or {@code null}
+     */
+    CellRangeAddress getArrayFormulaRange(int rowIndex, int columnIndex) {
+        for (CellRangeAddress range : arrayFormulas) {
+            if (range.isInRange(rowIndex, columnIndex)) {
+                return range;
+            }
+        }
+        return null;
+    }
+
+    private ColumnInfo getColumnInfo(int column) {
+        for (ColumnInfo info : columns) {
+            if (info.min <= column && column <= info.max) {
+                return info;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Row createRow(int rownum) {
+        throw readOnly();
+    }
+
+    @Override
+    public void removeRow(Row row) {
+        throw readOnly();
+    }
+
+    @Override
+    public ReadOnlyXSSFRow getRow(int rownum) {
+        return rows.get(rownum);
+    }
+
+    @Override
+    public int getPhysicalNumberOfRows() {
+        return rows.size();
+    }
+
+    @Override
+    public int getFirstRowNum() {
+        return rows.isEmpty() ? 0 : rows.firstKey();
+    }
+
+    @Override
+    public int getLastRowNum() {
+        return rows.isEmpty() ? 0 : rows.lastKey();
+    }
+
+    @Override
+    public void setColumnHidden(int columnIndex, boolean hidden) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean isColumnHidden(int columnIndex) {
+        ColumnInfo info = getColumnInfo(columnIndex);
+        return info != null && info.hidden;
+    }
+
+    @Override
+    public void setRightToLeft(boolean value) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean isRightToLeft() {
+        return rightToLeft;
+    }
+
+    @Override
+    public void setColumnWidth(int columnIndex, int width) {
+        throw readOnly();
+    }
+
+    @Override
+    public int getColumnWidth(int columnIndex) {
+        ColumnInfo info = getColumnInfo(columnIndex);
+        double width = info == null || info.width < 0 ? getDefaultColumnWidth() : info.width;
+        return (int)(width*256);
+    }
+
+    @Override
+    public float getColumnWidthInPixels(int columnIndex) {
+        float widthIn256 = getColumnWidth(columnIndex);
+        return (float)(widthIn256/256.0*Units.DEFAULT_CHARACTER_WIDTH);
+    }
+
+    @Override
+    public void setDefaultColumnWidth(int width) {
+        throw readOnly();
+    }
+
+    @Override
+    public int getDefaultColumnWidth() {
+        return defaultColumnWidth;
+    }
+
+    @Override
+    public short getDefaultRowHeight() {
+        return (short)(getDefaultRowHeightInPoints() * 20);
+    }
+
+    @Override
+    public float getDefaultRowHeightInPoints() {
+        return defaultRowHeight;
+    }
+
+    @Override
+    public void setDefaultRowHeight(short height) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setDefaultRowHeightInPoints(float height) {
+        throw readOnly();
+    }
+
+    @Override
+    public CellStyle getColumnStyle(int column) {
+        ColumnInfo info = getColumnInfo(column);
+        return workbook.getCellStyleAt(info == null || info.style == -1 ? 0 : info.style);
+    }
+
+    @Override
+    public int addMergedRegion(CellRangeAddress region) {
+        throw readOnly();
+    }
+
+    @Override
+    public int addMergedRegionUnsafe(CellRangeAddress region) {
+        throw readOnly();
+    }
+
+    @Override
+    public void validateMergedRegions() {
+        throw readOnly();
+    }
+
+    @Override
+    public void setVerticallyCenter(boolean value) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setHorizontallyCenter(boolean value) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean getHorizontallyCenter() {
+        return horizontallyCenter;
+    }
+
+    @Override
+    public boolean getVerticallyCenter() {
+        return verticallyCenter;
+    }
+
+    @Override
+    public void removeMergedRegion(int index) {
+        throw readOnly();
+    }
+
+    @Override
+    public void removeMergedRegions(Collection<Integer> indices) {
+        throw readOnly();
+    }
+
+    @Override
+    public int getNumMergedRegions() {
+        return mergedRegions.size();
+    }
+
+    @Override
+    public CellRangeAddress getMergedRegion(int index) {
+        return mergedRegions.get(index);
+    }
+
+    @Override
+    public List<CellRangeAddress> getMergedRegions() {
+        return Collections.unmodifiableList(mergedRegions);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Iterator<Row> rowIterator() {
+        final Iterator<ReadOnlyXSSFRow> it = rows.values().iterator();
+        return new Iterator<Row>() {
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public Row next() {
+                return it.next();
+            }
+
+            @Override
+            public void remove() {
+                throw readOnly();
+            }
+        };
+    }
+
+    /**
+     * Alias for {@link #rowIterator()} to allow foreach loops
+     */
+    @Override
+    public Iterator<Row> iterator() {
+        return rowIterator();
+    }
+
+    @Override
+    public void setForceFormulaRecalculation(boolean value) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean getForceFormulaRecalculation() {
+        return forceFormulaRecalculation;
+    }
+
+    @Override
+    public void setAutobreaks(boolean value) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setDisplayGuts(boolean value) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setDisplayZeros(boolean value) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean isDisplayZeros() {
+        return displayZeros;
+    }
+
+    @Override
+    public void setFitToPage(boolean value) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setRowSumsBelow(boolean value) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setRowSumsRight(boolean value) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean getAutobreaks() {
+        return autobreaks;
+    }
+
+    @Override
+    public boolean getDisplayGuts() {
+        return displayGuts;
+    }
+
+    @Override
+    public boolean getFitToPage() {
+        return fitToPage;
+    }
+
+    @Override
+    public boolean getRowSumsBelow() {
+        return rowSumsBelow;
+    }
+
+    @Override
+    public boolean getRowSumsRight() {
+        return rowSumsRight;
+    }
+
+    @Override
+    public boolean isPrintGridlines() {
+        return printGridlines;
+    }
+
+    @Override
+    public void setPrintGridlines(boolean show) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean isPrintRowAndColumnHeadings() {
+        return printHeadings;
+    }
+
+    @Override
+    public void setPrintRowAndColumnHeadings(boolean show) {
+        throw readOnly();
+    }
+
+    @Override
+    public PrintSetup getPrintSetup() {
+        throw notRead("Print setups");
+    }
+
+    @Override
+    public Header getHeader() {
+        throw notRead("Headers");
+    }
+
+    @Override
+    public Footer getFooter() {
+        throw notRead("Footers");
+    }
+
+    @Override
+    public void setSelected(boolean value) {
+        throw readOnly();
+    }
+
+    @Override
+    public double getMargin(short margin) {
+        if (margin < 0 || margin >= margins.length) {
+            throw new IllegalArgumentException("Unknown margin constant:  " + margin);
+        }
+        return margins[margin];
+    }
+
+    @Override
+    public void setMargin(short margin, double size) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean getProtect() {
+        return protect;
+    }
+
+    @Override
+    public void protectSheet(String password) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean getScenarioProtect() {
+        return scenarioProtect;
+    }
+
+    @Override
+    public void setZoom(int scale) {
+        throw readOnly();
+    }
+
+    @Override
+    public short getTopRow() {
+        return topLeftCell == null ? 0 : (short)new CellReference(topLeftCell).getRow();
+    }
+
+    @Override
+    public short getLeftCol() {
+        return topLeftCell == null ? 0 : new CellReference(topLeftCell).getCol();
+    }
+
+    @Override
+    public void showInPane(int toprow, int leftcol) {
+        throw readOnly();
+    }
+
+    @Override
+    public void shiftRows(int startRow, int endRow, int n) {
+        throw readOnly();
+    }
+
+    @Override
+    public void shiftRows(int startRow, int endRow, int n, boolean copyRowHeight, boolean resetOriginalRowHeight) {
+        throw readOnly();
+    }
+
+    @Override
+    public void createFreezePane(int colSplit, int rowSplit, int leftmostColumn, int topRow) {
+        throw readOnly();
+    }
+
+    @Override
+    public void createFreezePane(int colSplit, int rowSplit) {
+        throw readOnly();
+    }
+
+    @Override
+    public void createSplitPane(int xSplitPos, int ySplitPos, int leftmostColumn, int topRow, int activePane) {
+        throw readOnly();
+    }
+
+    @Override
+    public PaneInformation getPaneInformation() {
+        throw notRead("Panes");
+    }
+
+    @Override
+    public void setDisplayGridlines(boolean show) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean isDisplayGridlines() {
+        return displayGridlines;
+    }
+
+    @Override
+    public void setDisplayFormulas(boolean show) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean isDisplayFormulas() {
+        return displayFormulas;
+    }
+
+    @Override
+    public void setDisplayRowColHeadings(boolean show) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean isDisplayRowColHeadings() {
+        return displayRowColHeadings;
+    }
+
+    @Override
+    public void setRowBreak(int row) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean isRowBroken(int row) {
+        return rowBreaks.contains(row);
+    }
+
+    @Override
+    public void removeRowBreak(int row) {
+        throw readOnly();
+    }
+
+    @Override
+    public int[] getRowBreaks() {
+        return toArray(rowBreaks);
+    }
+
+    @Override
+    public int[] getColumnBreaks() {
+        return toArray(columnBreaks);
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+
+    @Override
+    public void setColumnBreak(int column) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean isColumnBroken(int column) {
+        return columnBreaks.contains(column);
+    }
+
+    @Override
+    public void removeColumnBreak(int column) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setColumnGroupCollapsed(int columnNumber, boolean collapsed) {
+        throw readOnly();
+    }
+
+    @Override
+    public void groupColumn(int fromColumn, int toColumn) {
+        throw readOnly();
+    }
+
+    @Override
+    public void ungroupColumn(int fromColumn, int toColumn) {
+        throw readOnly();
+    }
+
+    @Override
+    public void groupRow(int fromRow, int toRow) {
+        throw readOnly();
+    }
+
+    @Override
+    public void ungroupRow(int fromRow, int toRow) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setRowGroupCollapsed(int row, boolean collapse) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setDefaultColumnStyle(int column, CellStyle style) {
+        throw readOnly();
+    }
+
+    @Override
+    public void autoSizeColumn(int column) {
+        throw readOnly();
+    }
+
+    @Override
+    public void autoSizeColumn(int column, boolean useMergedCells) {
+        throw readOnly();
+    }
+
+    @Override
+    public Comment getCellComment(CellAddress ref) {
+        throw notRead("Comments");
+    }
+
+    @Override
+    public Map<CellAddress, ? extends Comment> getCellComments() {
+        throw notRead("Comments");
+    }
+
+    @Override
+    public Drawing<?> getDrawingPatriarch() {
+        throw notRead("Drawings");
+    }
+
+    @Override
+    public Drawing<?> createDrawingPatriarch() {
+        throw readOnly();
+    }
+
+    @Override
+    public ReadOnlyXSSFWorkbook getWorkbook() {
+        return workbook;
+    }
+
+    @Override
+    public String getSheetName() {
+        return name;
+    }
+
+    @Override
+    public boolean isSelected() {
+        return selected;
+    }
+
+    @Override
+    public CellRange<? extends Cell> setArrayFormula(String formula, CellRangeAddress range) {
+        throw readOnly();
+    }
+
+    @Override
+    public CellRange<? extends Cell> removeArrayFormula(Cell cell) {
+        throw readOnly();
+    }
+
+    @Override
+    public DataValidationHelper getDataValidationHelper() {
+        throw readOnly();
+    }
+
+    @Override
+    public List<? extends DataValidation> getDataValidations() {
+        throw notRead("Data validations");
+    }
+
+    @Override
+    public void addValidationData(DataValidation dataValidation) {
+        throw readOnly();
+    }
+
+    @Override
+    public AutoFilter setAutoFilter(CellRangeAddress range) {
+        throw readOnly();
+    }
+
+    @Override
+    public SheetConditionalFormatting getSheetConditionalFormatting() {
+        throw notRead("Conditional formattings");
+    }
+
+    @Override
+    public CellRangeAddress getRepeatingRows() {
+        throw notRead("Repeating rows");
+    }
+
+    @Override
+    public CellRangeAddress getRepeatingColumns() {
+        throw notRead("Repeating columns");
+    }
+
+    @Override
+    public void setRepeatingRows(CellRangeAddress rowRangeRef) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setRepeatingColumns(CellRangeAddress columnRangeRef) {
+        throw readOnly();
+    }
+
+    @Override
+    public int getColumnOutlineLevel(int columnIndex) {
+        ColumnInfo info = getColumnInfo(columnIndex);
+        return info == null ? 0 : info.outlineLevel;
+    }
+
+    @Override
+    public Hyperlink getHyperlink(int row, int column) {
+        throw notRead("Hyperlinks");
+    }
+
+    @Override
+    public Hyperlink getHyperlink(CellAddress addr) {
+        throw notRead("Hyperlinks");
+    }
+
+    @Override
+    public List<? extends Hyperlink> getHyperlinkList() {
+        throw notRead("Hyperlinks");
+    }
+
+    @Override
+    public CellAddress getActiveCell() {
+        return activeCell == null ? null : new CellAddress(activeCell);
+    }
+
+    @Override
+    public void setActiveCell(CellAddress address) {
+        throw readOnly();
+    }
+
+    /**
+     * The properties of a range of columns
+     */
+    private static final class ColumnInfo {
+        private final int min;
+        private final int max;
+        private final double width;
+        private final boolean hidden;
+        private final int style;
+        private final int outlineLevel;
+
+        ColumnInfo(int min, int max, double width, boolean hidden, int style, int outlineLevel) {
+            this.min = min;
+            this.max = max;
+            this.width = width;
+            this.hidden = hidden;
+            this.style = style;
+            this.outlineLevel = outlineLevel;
+        }
+    }
+
+    /**
+     * The formula and range of the master cell of a shared formula
+     */
+    static final class SharedFormulaMaster {
+        private final String formula;
+        private final CellRangeAddress range;
+
+        SharedFormulaMaster(String formula, CellRangeAddress range) {
+            this.formula = formula;
+            this.range = range;
+        }
+
+        String getFormula() {
+            return formula;
+        }
+
+        CellRangeAddress getRange() {
+            return range;
+        }
+    }
+}
@@ -0,0 +1,690 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xssf.readonly;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.poi.POIXMLException;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.formula.udf.AggregatingUDFFinder;
+import org.apache.poi.ss.formula.udf.IndexedUDFFinder;
+import org.apache.poi.ss.formula.udf.UDFFinder;
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CreationHelper;
+import org.apache.poi.ss.usermodel.DataFormat;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Name;
+import org.apache.poi.ss.usermodel.PictureData;
+import org.apache.poi.ss.usermodel.Row.MissingCellPolicy;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.SheetVisibility;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.util.StaxHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFFont;
+import org.xml.sax.SAXException;
+
+/**
+ * A read-only {@link Workbook} for .xlsx files, which needs a fraction of the memory
+ *  of an {@link org.apache.poi.xssf.usermodel.XSSFWorkbook}.
+ * <p>
+ * The workbook and sheet parts are read with StAX directly into compact arrays,
+ *  without building XMLBeans objects for the rows and cells. Shared strings are
+ *  read with a {@link ReadOnlySharedStringsTable}, so rich text formatting is not
+ *  available. Only the (small) styles part is parsed into a {@link StylesTable}.
+ * </p>
+ * <p>
+ * A sheet is parsed when it is first returned, e.g. by {@link #getSheetAt(int)}.
+ *  The values, formulas and styles of the cells, row heights, column widths,
+ *  merged regions and the basic sheet properties are available. Formulas can be
+ *  evaluated with {@link ReadOnlyXSSFFormulaEvaluator#evaluate(org.apache.poi.ss.usermodel.Cell)}.
+ *  Comments, hyperlinks, drawings, data validations, conditional formatting and
+ *  print setup are not read; the corresponding getters throw an
+ *  {@link UnsupportedOperationException}, as do all methods modifying the workbook.
+ * </p>
+ *
+ * @since POI 4.0.0
+ */
+public class ReadOnlyXSSFWorkbook implements Workbook {
+    static final String NS_RELATIONSHIPS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+    private final OPCPackage pkg;
+    private final XSSFReader reader;
+    private final StylesTable stylesSource;
+    private final ReadOnlySharedStringsTable sharedStringSource;
+    private final List<ReadOnlyXSSFSheet> sheets = new ArrayList<>();
+    private final List<ReadOnlyXSSFName> names = new ArrayList<>();
+    private final IndexedUDFFinder udfFinder = new IndexedUDFFinder(AggregatingUDFFinder.DEFAULT);
+
+    private boolean date1904;
+    private boolean forceFormulaRecalculation;
+    private boolean hidden;
+    private int activeTab;
+    private int firstVisibleTab;
+    private MissingCellPolicy missingCellPolicy = MissingCellPolicy.RETURN_NULL_AND_BLANK;
+    private ReadOnlyXSSFEvaluationWorkbook evaluationWorkbook;
+
+    /**
+     * Opens the given file read-only
+     *
+     * @param file the .xlsx file
+     * @throws IOException if the file can't be read
+     */
+    public ReadOnlyXSSFWorkbook(File file) throws IOException {
+        this(openPackage(file));
+    }
+
+    /**
+     * Reads the workbook from the given stream, which is buffered into memory
+     *
+     * @param is the stream to read from, which is not closed
+     * @throws IOException if the stream can't be read
+     */
+    public ReadOnlyXSSFWorkbook(InputStream is) throws IOException {
+        this(openPackage(is));
+    }
+
+    /**
+     * Reads the workbook from the given package.
+     * The package is closed without saving by {@link #close()}.
+     *
+     * @param pkg the OpenXML4J <code>OPC Package</code> object.
+     * @throws IOException if the package can't be read
+     */
+    public ReadOnlyXSSFWorkbook(OPCPackage pkg) throws IOException {
+        this.pkg = pkg;
+        try {
+            reader = new XSSFReader(pkg);
+            StylesTable styles = reader.getStylesTable();
+            stylesSource = (styles != null) ? styles : new StylesTable();
+            sharedStringSource = new ReadOnlySharedStringsTable(pkg, false);
+            try (InputStream is = reader.getWorkbookData()) {
+                readWorkbook(is);
+            }
+        } catch (OpenXML4JException | SAXException | XMLStreamException e) {
+            throw new POIXMLException(e);
+        }
+    }
+
+    private static OPCPackage openPackage(File file) throws IOException {
+        try {
+            return OPCPackage.open(file, PackageAccess.READ);
+        } catch (InvalidFormatException e) {
+            throw new IOException(e.toString(), e);
+        }
+    }
+
+    private static OPCPackage openPackage(InputStream is) throws IOException {
+        try {
+            return OPCPackage.open(is);
+        } catch (InvalidFormatException e) {
+            throw new IOException(e.toString(), e);
+        }
+    }
+
+    private void readWorkbook(InputStream is) throws XMLStreamException {
+        XMLStreamReader xr = StaxHelper.newXMLInputFactory().createXMLStreamReader(is);
+        try {
+            boolean firstView = true;
+            while (xr.hasNext()) {
+                if (xr.next() != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+                switch (xr.getLocalName()) {
+                    case "workbookPr":
+                        date1904 = isTrue(xr.getAttributeValue(null, "date1904"));
+                        break;
+                    case "workbookView":
+                        if (firstView) {
+                            firstView = false;
+                            activeTab = parseInt(xr.getAttributeValue(null, "activeTab"), 0);
+                            firstVisibleTab = parseInt(xr.getAttributeValue(null, "firstSheet"), 0);
+                            hidden = "hidden".equals(xr.getAttributeValue(null, "visibility"));
+                        }
+                        break;
+                    case "sheet":
+                        sheets.add(new ReadOnlyXSSFSheet(this,
+                                xr.getAttributeValue(null, "name"),
+                                xr.getAttributeValue(NS_RELATIONSHIPS, "id"),
+                                parseVisibility(xr.getAttributeValue(null, "state"))));
+                        break;
+                    case "definedName": {
+                        String name = xr.getAttributeValue(null, "name");
+                        int sheetIndex = parseInt(xr.getAttributeValue(null, "localSheetId"), -1);
+                        boolean function = isTrue(xr.getAttributeValue(null, "function"));
+                        String comment = xr.getAttributeValue(null, "comment");
+                        String refersTo = xr.getElementText();
+                        names.add(new ReadOnlyXSSFName(this, name, refersTo, sheetIndex, function, comment));
+                        break;
+                    }
+                    case "calcPr":
+                        forceFormulaRecalculation = isTrue(xr.getAttributeValue(null, "fullCalcOnLoad"));
+                        break;
+                    default:
+                        break;
+                }
+            }
+        } finally {
+            xr.close();
+        }
+    }
+
+    private static SheetVisibility parseVisibility(String state) {
+        if ("hidden".equals(state)) {
+            return SheetVisibility.HIDDEN;
+        }
+        if ("veryHidden".equals(state)) {
+            return SheetVisibility.VERY_HIDDEN;
+        }
+        return SheetVisibility.VISIBLE;
+    }
+
+    static boolean isTrue(String value) {
+        return "1".equals(value) || "true".equals(value);
+    }
+
+    static boolean isTrue(String value, boolean defaultValue) {
+        return value == null ? defaultValue : isTrue(value);
+    }
+
+    static int parseInt(String value, int defaultValue) {
+        return value == null || value.isEmpty() ? defaultValue : Integer.parseInt(value);
+    }
+
+    static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("The workbook is read-only");
+    }
+
+    static UnsupportedOperationException notRead(String what) {
+        return new UnsupportedOperationException(what + " are not read by the read-only workbook");
+    }
+
+    XSSFReader getReader() {
+        return reader;
+    }
+
+    StylesTable getStylesSource() {
+        return stylesSource;
+    }
+
+    ReadOnlySharedStringsTable getSharedStringSource() {
+        return sharedStringSource;
+    }
+
+    /**
+     * @return the evaluation workbook used for formula parsing and evaluation
+     */
+    ReadOnlyXSSFEvaluationWorkbook getEvaluationWorkbook() {
+        if (evaluationWorkbook == null) {
+            evaluationWorkbook = new ReadOnlyXSSFEvaluationWorkbook(this);
+        }
+        return evaluationWorkbook;
+    }
+
+    UDFFinder getUDFFinder() {
+        return udfFinder;
+    }
+
+    /**
+     * Gets a boolean value that indicates whether the date systems used in the workbook starts in 1904.
+     *
+     * @return true if the date systems used in the workbook starts in 1904
+     */
+    public boolean isDate1904() {
+        return date1904;
+    }
+
+    @Override
+    public int getActiveSheetIndex() {
+        return activeTab;
+    }
+
+    @Override
+    public void setActiveSheet(int sheetIndex) {
+        throw readOnly();
+    }
+
+    @Override
+    public int getFirstVisibleTab() {
+        return firstVisibleTab;
+    }
+
+    @Override
+    public void setFirstVisibleTab(int sheetIndex) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setSheetOrder(String sheetname, int pos) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setSelectedTab(int index) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setSheetName(int sheet, String name) {
+        throw readOnly();
+    }
+
+    @Override
+    public String getSheetName(int sheet) {
+        validateSheetIndex(sheet);
+        return sheets.get(sheet).getSheetName();
+    }
+
+    @Override
+    public int getSheetIndex(String name) {
+        for (int i = 0; i < sheets.size(); i++) {
+            if (name.equalsIgnoreCase(sheets.get(i).getSheetName())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int getSheetIndex(Sheet sheet) {
+        return sheets.indexOf(sheet);
+    }
+
+    @Override
+    public Sheet createSheet() {
+        throw readOnly();
+    }
+
+    @Override
+    public Sheet createSheet(String sheetname) {
+        throw readOnly();
+    }
+
+    @Override
+    public Sheet cloneSheet(int sheetNum) {
+        throw readOnly();
+    }
+
+    @Override
+    public Iterator<Sheet> sheetIterator() {
+        return new Iterator<Sheet>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < sheets.size();
+            }
+
+            @Override
+            public Sheet next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return getSheetAt(next++);
+            }
+
+            @Override
+            public void remove() {
+                throw readOnly();
+            }
+        };
+    }
+
+    /**
+     * Alias for {@link #sheetIterator()} to allow foreach loops
+     */
+    @Override
+    public Iterator<Sheet> iterator() {
+        return sheetIterator();
+    }
+
+    @Override
+    public int getNumberOfSheets() {
+        return sheets.size();
+    }
+
+    /**
+     * Get the sheet at the given index, which is parsed on first access.
+     *
+     * @param index of the sheet number (0-based physical &amp; logical)
+     * @return the sheet at the provided index
+     * @throws IllegalArgumentException if the index is out of range
+     * @throws POIXMLException if the sheet can't be parsed
+     */
+    @Override
+    public ReadOnlyXSSFSheet getSheetAt(int index) {
+        validateSheetIndex(index);
+        ReadOnlyXSSFSheet sheet = sheets.get(index);
+        sheet.ensureRead();
+        return sheet;
+    }
+
+    @Override
+    public ReadOnlyXSSFSheet getSheet(String name) {
+        int index = getSheetIndex(name);
+        return index == -1 ? null : getSheetAt(index);
+    }
+
+    private void validateSheetIndex(int index) {
+        int lastSheetIx = sheets.size() - 1;
+        if (index < 0 || index > lastSheetIx) {
+            String range = "(0.." + lastSheetIx + ")";
+            if (lastSheetIx == -1) {
+                range = "(no sheets)";
+            }
+            throw new IllegalArgumentException("Sheet index ("
+                    + index +") is out of range " + range);
+        }
+    }
+
+    @Override
+    public void removeSheetAt(int index) {
+        throw readOnly();
+    }
+
+    @Override
+    public Font createFont() {
+        throw readOnly();
+    }
+
+    @Override
+    public XSSFFont findFont(boolean bold, short color, short fontHeight, String name, boolean italic,
+            boolean strikeout, short typeOffset, byte underline) {
+        return stylesSource.findFont(bold, color, fontHeight, name, italic, strikeout, typeOffset, underline);
+    }
+
+    @Override
+    public short getNumberOfFonts() {
+        return (short)stylesSource.getFonts().size();
+    }
+
+    @Override
+    public XSSFFont getFontAt(short idx) {
+        return stylesSource.getFontAt(idx);
+    }
+
+    @Override
+    public CellStyle createCellStyle() {
+        throw readOnly();
+    }
+
+    @Override
+    public int getNumCellStyles() {
+        return stylesSource.getNumCellStyles();
+    }
+
+    @Override
+    public XSSFCellStyle getCellStyleAt(int idx) {
+        return stylesSource.getStyleAt(idx);
+    }
+
+    @Override
+    public void write(OutputStream stream) throws IOException {
+        throw readOnly();
+    }
+
+    /**
+     * Closes the underlying package without saving any changes
+     */
+    @Override
+    public void close() throws IOException {
+        pkg.revert();
+    }
+
+    @Override
+    public int getNumberOfNames() {
+        return names.size();
+    }
+
+    @Override
+    public ReadOnlyXSSFName getName(String name) {
+        for (ReadOnlyXSSFName nm : names) {
+            if (nm.getNameName().equalsIgnoreCase(name)) {
+                return nm;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public List<ReadOnlyXSSFName> getNames(String name) {
+        List<ReadOnlyXSSFName> result = new ArrayList<>();
+        for (ReadOnlyXSSFName nm : names) {
+            if (nm.getNameName().equalsIgnoreCase(name)) {
+                result.add(nm);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<ReadOnlyXSSFName> getAllNames() {
+        return Collections.unmodifiableList(names);
+    }
+
+    @Override
+    public ReadOnlyXSSFName getNameAt(int nameIndex) {
+        int nNames = names.size();
+        if (nNames < 1) {
+            throw new IllegalStateException("There are no defined names in this workbook");
+        }
+        if (nameIndex < 0 || nameIndex >= nNames) {
+            throw new IllegalArgumentException("Specified name index " + nameIndex
+                    + " is outside the allowable range (0.." + (nNames-1) + ").");
+        }
+        return names.get(nameIndex);
+    }
+
+    @Override
+    public Name createName() {
+        throw readOnly();
+    }
+
+    @Override
+    public int getNameIndex(String name) {
+        return names.indexOf(getName(name));
+    }
+
+    @Override
+    public void removeName(int index) {
+        throw readOnly();
+    }
+
+    @Override
+    public void removeName(String name) {
+        throw readOnly();
+    }
+
+    @Override
+    public void removeName(Name name) {
+        throw readOnly();
+    }
+
+    @Override
+    public int linkExternalWorkbook(String name, Workbook workbook) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setPrintArea(int sheetIndex, String reference) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setPrintArea(int sheetIndex, int startColumn, int endColumn, int startRow, int endRow) {
+        throw readOnly();
+    }
+
+    @Override
+    public String getPrintArea(int sheetIndex) {
+        for (ReadOnlyXSSFName nm : names) {
+            if (nm.getSheetIndex() == sheetIndex && "_xlnm.Print_Area".equalsIgnoreCase(nm.getNameName())) {
+                return nm.getRefersToFormula();
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void removePrintArea(int sheetIndex) {
+        throw readOnly();
+    }
+
+    @Override
+    public MissingCellPolicy getMissingCellPolicy() {
+        return missingCellPolicy;
+    }
+
+    @Override
+    public void setMissingCellPolicy(MissingCellPolicy missingCellPolicy) {
+        this.missingCellPolicy = missingCellPolicy;
+    }
+
+    /**
+     * @return a data format, which only looks up the existing formats
+     */
+    @Override
+    public DataFormat createDataFormat() {
+        return new DataFormat() {
+            @Override
+            public short getFormat(String format) {
+                int idx = BuiltinFormats.getBuiltinFormat(format);
+                if (idx == -1) {
+                    for (Map.Entry<Short, String> e : stylesSource.getNumberFormats().entrySet()) {
+                        if (e.getValue().equals(format)) {
+                            return e.getKey();
+                        }
+                    }
+                    throw readOnly();
+                }
+                return (short)idx;
+            }
+
+            @Override
+            public String getFormat(short index) {
+                String fmt = stylesSource.getNumberFormatAt(index);
+                if (fmt == null) {
+                    fmt = BuiltinFormats.getBuiltinFormat(index);
+                }
+                return fmt;
+            }
+        };
+    }
+
+    @Override
+    public int addPicture(byte[] pictureData, int format) {
+        throw readOnly();
+    }
+
+    @Override
+    public List<? extends PictureData> getAllPictures() {
+        throw notRead("Pictures");
+    }
+
+    @Override
+    public CreationHelper getCreationHelper() {
+        return new ReadOnlyXSSFCreationHelper(this);
+    }
+
+    @Override
+    public boolean isHidden() {
+        return hidden;
+    }
+
+    @Override
+    public void setHidden(boolean hiddenFlag) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean isSheetHidden(int sheetIx) {
+        return getSheetVisibility(sheetIx) == SheetVisibility.HIDDEN;
+    }
+
+    @Override
+    public boolean isSheetVeryHidden(int sheetIx) {
+        return getSheetVisibility(sheetIx) == SheetVisibility.VERY_HIDDEN;
+    }
+
+    @Override
+    public void setSheetHidden(int sheetIx, boolean hidden) {
+        throw readOnly();
+    }
+
+    @Override
+    public SheetVisibility getSheetVisibility(int sheetIx) {
+        validateSheetIndex(sheetIx);
+        return sheets.get(sheetIx).getVisibility();
+    }
+
+    @Override
+    public void setSheetVisibility(int sheetIx, SheetVisibility visibility) {
+        throw readOnly();
+    }
+
+    /**
+     * Register a new toolpack in this workbook, to be used for evaluating the formulas
+     *
+     * @param toopack the toolpack to register
+     */
+    @Override
+    public void addToolPack(UDFFinder toopack) {
+        udfFinder.add(toopack);
+    }
+
+    @Override
+    public void setForceFormulaRecalculation(boolean value) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean getForceFormulaRecalculation() {
+        return forceFormulaRecalculation;
+    }
+
+    @Override
+    public SpreadsheetVersion getSpreadsheetVersion() {
+        return SpreadsheetVersion.EXCEL2007;
+    }
+
+    @Override
+    public int addOlePackage(byte[] oleData, String label, String fileName, String command) throws IOException {
+        throw readOnly();
+    }
+}
@@ -31,6 +31,7 @@ import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.DataFormatter;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.GlyphWidthCache;
 import org.apache.poi.ss.util.SheetUtil;
 import org.apache.poi.util.Internal;
 
@@ -49,6 +50,8 @@ import org.apache.poi.util.Internal;
 /*package*/ class AutoSizeColumnTracker {
     private final int defaultCharWidth;
     private final DataFormatter dataFormatter = new DataFormatter();
+    // most cells are measured by summing up cached glyph advances instead of a text layout per cell
+    private final GlyphWidthCache glyphWidths = new GlyphWidthCache();
 
     // map of tracked columns, with values containing the best-fit width for the column
     // Using a HashMap instead of a TreeMap because insertion (trackColumn), removal (untrackColumn), and membership (everything)
@@ -308,9 +311,6 @@ import org.apache.poi.util.Internal;
                 // FIXME: if cell belongs to a merged region, some of the merged region may have fallen outside of the random access window
                 // In this case, getting the column width may result in an error. Need to gracefully handle this.
 
-                // FIXME: Most cells are not merged, so calling getCellWidth twice re-computes the same value twice.
-                // Need to rewrite this to avoid unnecessary computation if this proves to be a performance bottleneck.
-
                 if (cell != null) {
                     final ColumnWidthPair pair = e.getValue();
                     updateColumnWidth(cell, pair);
@@ -325,9 +325,6 @@ import org.apache.poi.util.Internal;
                 // FIXME: if cell belongs to a merged region, some of the merged region may have fallen outside of the random access window
                 // In this case, getting the column width may result in an error. Need to gracefully handle this.
 
-                // FIXME: Most cells are not merged, so calling getCellWidth twice re-computes the same value twice.
-                // Need to rewrite this to avoid unnecessary computation if this proves to be a performance bottleneck.
-
                 if (maxColumnWidths.containsKey(column)) {
                     final ColumnWidthPair pair = maxColumnWidths.get(column);
                     updateColumnWidth(cell, pair);
@@ -364,8 +361,10 @@ import org.apache.poi.util.Internal;
      * @since 3.14beta1
      */
     private void updateColumnWidth(final Cell cell, final ColumnWidthPair pair) {
-        final double unmergedWidth = SheetUtil.getCellWidth(cell, defaultCharWidth, dataFormatter, false);
-        final double mergedWidth = SheetUtil.getCellWidth(cell, defaultCharWidth, dataFormatter, true);
+        final double mergedWidth = SheetUtil.getCellWidth(cell, defaultCharWidth, dataFormatter, true, glyphWidths);
+        // without merged regions both widths are the same, so the cell doesn't need to be measured twice
+        final double unmergedWidth = (cell.getSheet().getNumMergedRegions() == 0) ? mergedWidth
+                : SheetUtil.getCellWidth(cell, defaultCharWidth, dataFormatter, false, glyphWidths);
         pair.setMaxColumnWidths(unmergedWidth, mergedWidth);
     }
 }
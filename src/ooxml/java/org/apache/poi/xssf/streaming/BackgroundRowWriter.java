@@ -0,0 +1,172 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xssf.streaming;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.apache.poi.util.Internal;
+
+/**
+ * Writes the flushed rows of all sheets of a {@link SXSSFWorkbook} on a
+ * background thread, so that the producer of the rows doesn't wait for
+ * the serialization and disk I/O.
+ * <p>
+ * The rows are passed through a bounded queue, i.e. the producer is blocked
+ * when the background thread falls behind. A single thread serves all sheets,
+ * because the sheet data writers share the (not thread-safe) shared strings table.
+ * Errors of the background thread are rethrown by the next call of
+ * {@link #submit(SheetDataWriter, int, SXSSFRow)} or {@link #await()}.
+ * </p>
+ *
+ * @see SXSSFWorkbook#setAsyncFlushing(int)
+ */
+@Internal
+/* package */ class BackgroundRowWriter {
+    private static final Task SHUTDOWN = new Task(null, -1, null);
+
+    private final BlockingQueue<Task> _queue;
+    private final Thread _thread;
+    private int _pending;
+    private IOException _failure;
+
+    private static final class Task {
+        final SheetDataWriter writer;
+        final int rownum;
+        final SXSSFRow row;
+
+        Task(SheetDataWriter writer, int rownum, SXSSFRow row) {
+            this.writer = writer;
+            this.rownum = rownum;
+            this.row = row;
+        }
+    }
+
+    BackgroundRowWriter(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be greater than 0");
+        }
+        _queue = new ArrayBlockingQueue<>(capacity);
+        _thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                processQueue();
+            }
+        }, "poi-sxssf-flush");
+        _thread.setDaemon(true);
+        _thread.start();
+    }
+
+    /**
+     * Queue a row for writing. The row must not be modified afterwards.
+     * Blocks, if the queue is full.
+     */
+    void submit(SheetDataWriter writer, int rownum, SXSSFRow row) throws IOException {
+        synchronized (this) {
+            checkFailure();
+            _pending++;
+        }
+        try {
+            _queue.put(new Task(writer, rownum, row));
+        } catch (InterruptedException e) {
+            synchronized (this) {
+                _pending--;
+            }
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while flushing row " + rownum);
+        }
+    }
+
+    /**
+     * Wait until all queued rows have been written
+     */
+    synchronized void await() throws IOException {
+        while (_pending > 0 && _failure == null) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for flushed rows");
+            }
+        }
+        checkFailure();
+    }
+
+    /**
+     * Write the queued rows and stop the background thread
+     */
+    void shutdown() throws IOException {
+        try {
+            await();
+        } finally {
+            try {
+                // after a failure the queue might still be full, the thread keeps draining it
+                _queue.put(SHUTDOWN);
+                _thread.join();
+            } catch (InterruptedException e) {
+                _thread.interrupt();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void checkFailure() throws IOException {
+        if (_failure != null) {
+            throw new IOException("Writing a flushed row in the background failed", _failure);
+        }
+    }
+
+    private void processQueue() {
+        while (true) {
+            final Task task;
+            try {
+                task = _queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (task == SHUTDOWN) {
+                return;
+            }
+            IOException failure = null;
+            try {
+                synchronized (this) {
+                    if (_failure != null) {
+                        // the remaining rows are discarded after a failure
+                        _pending--;
+                        notifyAll();
+                        continue;
+                    }
+                }
+                task.writer.writeRow(task.rownum, task.row);
+            } catch (IOException e) {
+                failure = e;
+            } catch (RuntimeException e) {
+                failure = new IOException(e);
+            }
+            synchronized (this) {
+                if (failure != null && _failure == null) {
+                    _failure = failure;
+                }
+                _pending--;
+                notifyAll();
+            }
+        }
+    }
+}
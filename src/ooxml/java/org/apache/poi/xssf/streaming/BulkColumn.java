@@ -0,0 +1,115 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xssf.streaming;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+
+/**
+ * The values of a column, which are written by {@link SXSSFSheet#writeColumns(int, BulkColumn...)}
+ * without creating {@link SXSSFRow}s and {@link SXSSFCell}s.
+ * All cells of a column share the same style.
+ */
+public abstract class BulkColumn {
+    private final CellStyle _style;
+
+    private BulkColumn(CellStyle style) {
+        _style = style;
+    }
+
+    /**
+     * @param values the values, <code>NaN</code> entries are skipped
+     * @param style the style or <code>null</code> for the default style
+     */
+    public static BulkColumn numeric(final double[] values, CellStyle style) {
+        return new BulkColumn(style) {
+            @Override
+            int size() {
+                return values.length;
+            }
+
+            @Override
+            void write(BulkRowWriter row, int column, int index) {
+                row.setNumeric(column, values[index], getStyle());
+            }
+        };
+    }
+
+    /**
+     * @param values the values, <code>null</code> entries are skipped
+     * @param style the style or <code>null</code> for the default style
+     */
+    public static BulkColumn text(final String[] values, CellStyle style) {
+        return new BulkColumn(style) {
+            @Override
+            int size() {
+                return values.length;
+            }
+
+            @Override
+            void write(BulkRowWriter row, int column, int index) {
+                row.setString(column, values[index], getStyle());
+            }
+        };
+    }
+
+    /**
+     * @param values the values
+     * @param style the style or <code>null</code> for the default style
+     */
+    public static BulkColumn booleans(final boolean[] values, CellStyle style) {
+        return new BulkColumn(style) {
+            @Override
+            int size() {
+                return values.length;
+            }
+
+            @Override
+            void write(BulkRowWriter row, int column, int index) {
+                row.setBoolean(column, values[index], getStyle());
+            }
+        };
+    }
+
+    /**
+     * @param epochMillis the dates as milliseconds since the epoch
+     * @param style the style, which should have a date format
+     *
+     * @see BulkRowWriter#setDate(int, long, CellStyle)
+     */
+    public static BulkColumn dates(final long[] epochMillis, CellStyle style) {
+        return new BulkColumn(style) {
+            @Override
+            int size() {
+                return epochMillis.length;
+            }
+
+            @Override
+            void write(BulkRowWriter row, int column, int index) {
+                row.setDate(column, epochMillis[index], getStyle());
+            }
+        };
+    }
+
+    CellStyle getStyle() {
+        return _style;
+    }
+
+    abstract int size();
+
+    abstract void write(BulkRowWriter row, int column, int index);
+}
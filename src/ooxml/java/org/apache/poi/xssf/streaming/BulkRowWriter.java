@@ -0,0 +1,178 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xssf.streaming;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.TimeZone;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.util.LocaleUtil;
+
+/**
+ * Writes the cells of a row straight to the sheet data of a {@link SXSSFSheet},
+ * without creating {@link SXSSFRow}s and {@link SXSSFCell}s.
+ * <p>
+ * An instance is handed to the {@link Callback} of
+ * {@link SXSSFSheet#writeRows(int, int, Callback)} for each row.
+ * The cells of a row need to be set in ascending column order.
+ * Missing values - i.e. <code>null</code> strings or <code>NaN</code> numbers - are skipped.
+ * </p>
+ */
+public final class BulkRowWriter {
+    /**
+     * Provides the cell values of the rows written by {@link SXSSFSheet#writeRows(int, int, Callback)}
+     */
+    public interface Callback {
+        /**
+         * @param rownum the 0-based row number
+         * @param row the writer for the cells of the row
+         */
+        void writeRow(int rownum, BulkRowWriter row);
+    }
+
+    private static final int MAX_COLUMN = SpreadsheetVersion.EXCEL2007.getLastColumnIndex();
+    private static final long DAY_MILLISECONDS = 24 * 60 * 60 * 1000L;
+    // 1970-01-01 as excel date
+    private static final int EPOCH_1900 = 25569;
+    private static final int EPOCH_1904 = 24107;
+
+    private final SheetDataWriter _writer;
+    private final boolean _date1904;
+    private final TimeZone _timeZone;
+    private int _lastColumn;
+
+    BulkRowWriter(SheetDataWriter writer, boolean date1904) {
+        _writer = writer;
+        _date1904 = date1904;
+        _timeZone = LocaleUtil.getUserTimeZone();
+    }
+
+    void beginRow(int rownum) throws IOException {
+        _writer.beginRow(rownum);
+        _lastColumn = -1;
+    }
+
+    void endRow() throws IOException {
+        _writer.endRow(_lastColumn + 1);
+    }
+
+    public void setNumeric(int column, double value) {
+        setNumeric(column, value, null);
+    }
+
+    /**
+     * @param column the 0-based column index
+     * @param value the value, <code>NaN</code> for no cell
+     * @param style the style or <code>null</code> for the default style
+     */
+    public void setNumeric(int column, double value, CellStyle style) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        checkColumn(column);
+        try {
+            _writer.writeNumericCell(column, value, styleIndex(style));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public void setString(int column, String value) {
+        setString(column, value, null);
+    }
+
+    /**
+     * @param column the 0-based column index
+     * @param value the value, <code>null</code> for no cell
+     * @param style the style or <code>null</code> for the default style
+     */
+    public void setString(int column, String value, CellStyle style) {
+        if (value == null) {
+            return;
+        }
+        checkColumn(column);
+        try {
+            _writer.writeStringCell(column, value, styleIndex(style));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public void setBoolean(int column, boolean value) {
+        setBoolean(column, value, null);
+    }
+
+    /**
+     * @param column the 0-based column index
+     * @param value the value
+     * @param style the style or <code>null</code> for the default style
+     */
+    public void setBoolean(int column, boolean value, CellStyle style) {
+        checkColumn(column);
+        try {
+            _writer.writeBooleanCell(column, value, styleIndex(style));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Set a date given as milliseconds since the epoch. The date is converted
+     * to the user time zone like {@link DateUtil#getExcelDate(Date, boolean)} does,
+     * so the style should have a date format.
+     *
+     * @param column the 0-based column index
+     * @param epochMillis the date
+     * @param style the style or <code>null</code> for the default style
+     */
+    public void setDate(int column, long epochMillis, CellStyle style) {
+        setNumeric(column, getExcelDate(epochMillis), style);
+    }
+
+    /**
+     * Converts the date without a {@link java.util.Calendar}
+     */
+    double getExcelDate(long epochMillis) {
+        long localMillis = epochMillis + _timeZone.getOffset(epochMillis);
+        long days = Math.floorDiv(localMillis, DAY_MILLISECONDS);
+        double fraction = Math.floorMod(localMillis, DAY_MILLISECONDS) / (double)DAY_MILLISECONDS;
+        double value = days + (_date1904 ? EPOCH_1904 : EPOCH_1900) + fraction;
+        // before March 1900 the leap year bug of Excel and before 1900/1904 the invalid date
+        // needs to be handled, which is left to DateUtil
+        if ((!_date1904 && value < 61) || (_date1904 && value < 0)) {
+            return DateUtil.getExcelDate(new Date(epochMillis), _date1904);
+        }
+        return value;
+    }
+
+    private void checkColumn(int column) {
+        if (column <= _lastColumn || column > MAX_COLUMN) {
+            throw new IllegalArgumentException("Invalid column index (" + column
+                    + "), columns need to be written in ascending order in the range (0.." + MAX_COLUMN + ")");
+        }
+        _lastColumn = column;
+    }
+
+    private static int styleIndex(CellStyle style) {
+        // need to convert the short to unsigned short as the indexes can be up to 64k
+        return (style == null) ? 0 : (style.getIndex() & 0xffff);
+    }
+}
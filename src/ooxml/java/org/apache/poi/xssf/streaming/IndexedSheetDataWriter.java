@@ -0,0 +1,311 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xssf.streaming;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.poi.ss.usermodel.FormulaError;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.StaxHelper;
+import org.apache.poi.xssf.model.SharedStringsTable;
+
+/**
+ * Sheet writer which records the file offset of each flushed row, so that
+ * flushed rows can be read back from the temp file.
+ * <p>
+ * Only the offsets are kept in memory (12 bytes per row). A row is re-read by
+ * seeking to its offset and parsing the <code>&lt;row&gt;</code> fragment, so
+ * the temp file can't be compressed.
+ * </p>
+ *
+ * @see SXSSFWorkbook#setIndexFlushedRows(boolean)
+ * @see SXSSFSheet#getFlushedRow(int)
+ */
+public class IndexedSheetDataWriter extends SheetDataWriter {
+    private final SharedStringsTable _sharedStrings;
+
+    // both are assigned by createWriter(), which is called by the super constructor
+    private CountingOutputStream _counter;
+    private Writer _writer;
+
+    private int[] _rowNums = new int[64];
+    private long[] _offsets = new long[64];
+    private int _numRows;
+    private boolean _closed;
+
+    private RandomAccessFile _raf;
+    private XMLInputFactory _xmlInputFactory;
+
+    public IndexedSheetDataWriter() throws IOException {
+        this(null);
+    }
+
+    /**
+     * @param sharedStringsTable the shared strings table, or null if inline text is used
+     */
+    public IndexedSheetDataWriter(SharedStringsTable sharedStringsTable) throws IOException {
+        super(sharedStringsTable);
+        _sharedStrings = sharedStringsTable;
+    }
+
+    /**
+     * Create a writer for the sheet data, which counts the written bytes.
+     * Subclasses must not decorate the stream, as the offsets need to match the file.
+     *
+     * @param  fd the file to write to
+     */
+    @Override
+    public Writer createWriter(File fd) throws IOException {
+        _counter = new CountingOutputStream(new BufferedOutputStream(new FileOutputStream(fd)));
+        _writer = new BufferedWriter(new OutputStreamWriter(_counter, StandardCharsets.UTF_8));
+        return _writer;
+    }
+
+    @Override
+    public void writeRow(int rownum, SXSSFRow row) throws IOException {
+        recordRowOffset(rownum);
+        super.writeRow(rownum, row);
+    }
+
+    @Override
+    void beginRow(int rownum) throws IOException {
+        recordRowOffset(rownum);
+        super.beginRow(rownum);
+    }
+
+    private void recordRowOffset(int rownum) throws IOException {
+        // push the pending characters through the encoder, so the byte count is exact
+        _writer.flush();
+        if (_numRows == _rowNums.length) {
+            _rowNums = Arrays.copyOf(_rowNums, _numRows * 2);
+            _offsets = Arrays.copyOf(_offsets, _numRows * 2);
+        }
+        _rowNums[_numRows] = rownum;
+        _offsets[_numRows] = _counter.getCount();
+        _numRows++;
+    }
+
+    @Override
+    public void close() throws IOException {
+        _closed = true;
+        super.close();
+    }
+
+    /**
+     * @return true, if the row has been flushed to the temp file
+     */
+    public boolean isRowFlushed(int rownum) {
+        return Arrays.binarySearch(_rowNums, 0, _numRows, rownum) >= 0;
+    }
+
+    /**
+     * @return the row numbers of all flushed rows in ascending order
+     */
+    public int[] getFlushedRowNums() {
+        return Arrays.copyOf(_rowNums, _numRows);
+    }
+
+    /**
+     * Read a flushed row back from the temp file.
+     * <p>
+     * The returned row is a detached copy: it isn't part of the random access window
+     * of the sheet and changes to it won't be written.
+     * </p>
+     *
+     * @param sheet the sheet the row belongs to
+     * @param rownum 0-based row number
+     * @return the row or <code>null</code> if the row hasn't been flushed
+     * @throws IOException If an I/O error occurs
+     */
+    public SXSSFRow readRow(SXSSFSheet sheet, int rownum) throws IOException {
+        int idx = Arrays.binarySearch(_rowNums, 0, _numRows, rownum);
+        if (idx < 0) {
+            return null;
+        }
+        if (!_closed) {
+            _writer.flush();
+            _counter.flushToDisk();
+        }
+        long start = _offsets[idx];
+        long end = (idx + 1 < _numRows) ? _offsets[idx + 1] : _counter.getCount();
+        byte[] buf = new byte[(int)(end - start)];
+        if (_raf == null) {
+            _raf = new RandomAccessFile(getTempFile(), "r");
+        }
+        _raf.seek(start);
+        _raf.readFully(buf);
+
+        try {
+            return parseRow(sheet, rownum, buf);
+        } catch (XMLStreamException e) {
+            throw new IOException("Unable to parse flushed row " + rownum, e);
+        }
+    }
+
+    private SXSSFRow parseRow(SXSSFSheet sheet, int rownum, byte[] buf) throws XMLStreamException {
+        if (_xmlInputFactory == null) {
+            _xmlInputFactory = StaxHelper.newXMLInputFactory();
+        }
+        XMLStreamReader xr = _xmlInputFactory.createXMLStreamReader(new ByteArrayInputStream(buf), "UTF-8");
+        try {
+            SXSSFRow row = new SXSSFRow(sheet, rownum);
+            SXSSFCell cell = null;
+            String cellType = null;
+            String formula = null;
+            while (xr.hasNext()) {
+                int event = xr.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String name = xr.getLocalName();
+                    if ("row".equals(name)) {
+                        readRowAttributes(xr, sheet, row);
+                    } else if ("c".equals(name)) {
+                        int col = new CellReference(xr.getAttributeValue(null, "r")).getCol();
+                        cell = row.createCell(col);
+                        String style = xr.getAttributeValue(null, "s");
+                        if (style != null) {
+                            cell.setCellStyle(sheet.getWorkbook().getCellStyleAt(Integer.parseInt(style)));
+                        }
+                        cellType = xr.getAttributeValue(null, "t");
+                        formula = null;
+                    } else if ("f".equals(name)) {
+                        formula = xr.getElementText();
+                        cell.setCellFormula(formula);
+                    } else if ("v".equals(name)) {
+                        setCellValue(cell, cellType, formula != null, xr.getElementText());
+                    } else if ("t".equals(name)) {
+                        cell.setCellValue(xr.getElementText());
+                    }
+                }
+            }
+            return row;
+        } finally {
+            xr.close();
+        }
+    }
+
+    private static void readRowAttributes(XMLStreamReader xr, SXSSFSheet sheet, SXSSFRow row) {
+        for (int i = 0; i < xr.getAttributeCount(); i++) {
+            String value = xr.getAttributeValue(i);
+            switch (xr.getAttributeLocalName(i)) {
+                case "ht":
+                    row.setHeightInPoints(Float.parseFloat(value));
+                    break;
+                case "s":
+                    row.setRowStyle(sheet.getWorkbook().getCellStyleAt(Integer.parseInt(value)));
+                    break;
+                case "outlineLevel":
+                    row.setOutlineLevel(Integer.parseInt(value));
+                    break;
+                case "hidden":
+                    // "true" is written for zero height rows, "1"/"0" for the hidden state
+                    if ("true".equals(value)) {
+                        row.setZeroHeight(true);
+                    } else {
+                        row.setHidden("1".equals(value));
+                    }
+                    break;
+                case "collapsed":
+                    row.setCollapsed("1".equals(value));
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private void setCellValue(SXSSFCell cell, String cellType, boolean isFormula, String value) {
+        if (isFormula) {
+            // only numeric formula results are written
+            cell.setCellValue(Double.parseDouble(value));
+        } else if ("s".equals(cellType)) {
+            cell.setCellValue(_sharedStrings.getItemAt(Integer.parseInt(value)).getString());
+        } else if ("b".equals(cellType)) {
+            cell.setCellValue("1".equals(value));
+        } else if ("e".equals(cellType)) {
+            cell.setCellErrorValue(FormulaError.forString(value).getCode());
+        } else {
+            cell.setCellValue(Double.parseDouble(value));
+        }
+    }
+
+    @Override
+    boolean dispose() throws IOException {
+        try {
+            if (_raf != null) {
+                _raf.close();
+            }
+        } finally {
+            _closed = true;
+        }
+        return super.dispose();
+    }
+
+    /**
+     * Counts the bytes on their way to disk and only flushes the buffered
+     * stream on request, so that the row boundaries don't cause disk writes
+     */
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long _count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            _count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            _count += len;
+        }
+
+        @Override
+        public void flush() {
+            // see flushToDisk()
+        }
+
+        void flushToDisk() throws IOException {
+            out.flush();
+        }
+
+        long getCount() {
+            return _count;
+        }
+    }
+}
@@ -47,10 +47,22 @@ public class SXSSFRow implements Row, Comparable<SXSSFRow>
     // use Boolean to have a tri-state for on/off/undefined 
     private Boolean _hidden = UNDEFINED;
     private Boolean _collapsed = UNDEFINED;
+    // row number of a row which was read back from disk and isn't part of the sheet's window
+    private final int _detachedRowNum;
     
     public SXSSFRow(SXSSFSheet sheet)
+    {
+        this(sheet, -1);
+    }
+
+    /**
+     * Creates a row which isn't registered in the random access window of the sheet,
+     * e.g. a flushed row which was read back from disk
+     */
+    /* package */ SXSSFRow(SXSSFSheet sheet, int detachedRowNum)
     {
         _sheet=sheet;
+        _detachedRowNum=detachedRowNum;
     }
     
     public Iterator<Cell> allCellsIterator()
@@ -204,7 +216,7 @@ public class SXSSFRow implements Row, Comparable<SXSSFRow>
     @Override
     public int getRowNum()
     {
-        return _sheet.getRowNum(this);
+        return (_detachedRowNum != -1) ? _detachedRowNum : _sheet.getRowNum(this);
     }
 
     /**
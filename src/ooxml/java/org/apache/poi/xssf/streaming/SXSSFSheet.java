@@ -31,6 +31,7 @@ import org.apache.poi.ss.usermodel.AutoFilter;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellRange;
 import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DataFormatter;
 import org.apache.poi.ss.usermodel.DataValidation;
 import org.apache.poi.ss.usermodel.DataValidationHelper;
 import org.apache.poi.ss.usermodel.Footer;
@@ -95,6 +96,7 @@ public class SXSSFSheet implements Sheet
     {
         // flush all remaining data and close the temp file writer
         flushRows(0);
+        awaitFlushedRows();
         _writer.close();
         return _writer.getWorksheetXMLInputStream();
     }
@@ -125,10 +127,10 @@ public class SXSSFSheet implements Sheet
         }
 
         // attempt to overwrite a row that is already flushed to disk
-        if(rownum <= _writer.getLastFlushedRow() ) {
+        if(rownum <= lastFlushedRowNumber ) {
             throw new IllegalArgumentException(
                     "Attempting to write a row["+rownum+"] " +
-                    "in the range [0," + _writer.getLastFlushedRow() + "] that is already written to disk.");
+                    "in the range [0," + lastFlushedRowNumber + "] that is already written to disk.");
         }
 
         // attempt to overwrite a existing row in the input template
@@ -191,6 +193,31 @@ public class SXSSFSheet implements Sheet
         return _rows.get(rownum);
     }
 
+    /**
+     * Reads a row back, which has already been flushed to disk.
+     * <p>
+     * This requires the flushed rows to be indexed, see {@link SXSSFWorkbook#setIndexFlushedRows(boolean)}.
+     * The returned row is a detached copy, i.e. it can be used to look up values or to
+     * compute totals, but modifications of it won't be written to the sheet.
+     * </p>
+     *
+     * @param rownum  row to get (0-based)
+     * @return a copy of the flushed row or null if the row hasn't been flushed
+     * @throws IllegalStateException if the flushed rows aren't indexed
+     */
+    public SXSSFRow getFlushedRow(int rownum)
+    {
+        if (!(_writer instanceof IndexedSheetDataWriter)) {
+            throw new IllegalStateException("Flushed rows can only be read back, if the temp files are indexed.");
+        }
+        try {
+            awaitFlushedRows();
+            return ((IndexedSheetDataWriter)_writer).readRow(this, rownum);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     /**
      * Returns the number of physically defined rows (NOT the number of rows in the sheet)
      *
@@ -199,6 +226,7 @@ public class SXSSFSheet implements Sheet
     @Override
     public int getPhysicalNumberOfRows()
     {
+        awaitFlushedRowsUnchecked();
         return _rows.size()+_writer.getNumberOfFlushedRows();
     }
 
@@ -210,6 +238,7 @@ public class SXSSFSheet implements Sheet
     @Override
     public int getFirstRowNum()
     {
+        awaitFlushedRowsUnchecked();
         if(_writer.getNumberOfFlushedRows() > 0) {
             return _writer.getLowestIndexOfFlushedRows();
         }
@@ -1589,13 +1618,17 @@ public class SXSSFSheet implements Sheet
         // inherent limitation of SXSSF. If having correct auto-sizing is
         // critical, the flushed rows would need to be re-read by the read-only
         // XSSF eventmodel (SAX) or the memory-heavy XSSF usermodel (DOM). 
-        final int flushedWidth;
+        int flushedWidth;
         try {
             // get the best fit width of rows already flushed to disk
             flushedWidth = _autoSizeColumnTracker.getBestFitColumnWidth(column, useMergedCells);
         }
         catch (final IllegalStateException e) {
-            throw new IllegalStateException("Could not auto-size column. Make sure the column was tracked prior to auto-sizing the column.", e);
+            if (!(_writer instanceof IndexedSheetDataWriter)) {
+                throw new IllegalStateException("Could not auto-size column. Make sure the column was tracked prior to auto-sizing the column.", e);
+            }
+            // the untracked column can still be measured by reading the flushed rows back
+            flushedWidth = getFlushedColumnWidth(column, useMergedCells);
         }
         
         // get the best-fit width of rows currently in the random access window
@@ -1612,6 +1645,21 @@ public class SXSSFSheet implements Sheet
         }
     }
     
+    private int getFlushedColumnWidth(int column, boolean useMergedCells) {
+        awaitFlushedRowsUnchecked();
+        final IndexedSheetDataWriter writer = (IndexedSheetDataWriter)_writer;
+        final DataFormatter formatter = new DataFormatter();
+        final int defaultCharWidth = SheetUtil.getDefaultCharWidth(_workbook);
+        double width = -1;
+        for (int rownum : writer.getFlushedRowNums()) {
+            final Cell cell = getFlushedRow(rownum).getCell(column);
+            if (cell != null) {
+                width = Math.max(width, SheetUtil.getCellWidth(cell, defaultCharWidth, formatter, useMergedCells));
+            }
+        }
+        return (int) (256 * width);
+    }
+
     /**
      * Returns cell comment for the specified row and column
      *
@@ -1872,6 +1920,101 @@ public class SXSSFSheet implements Sheet
         this.flushRows(0);
     }
 
+    /**
+     * Writes rows straight to disk, without creating {@link SXSSFRow}s and {@link SXSSFCell}s.
+     * <p>
+     * The callback is invoked for each row in ascending order and sets the cell values
+     * with the primitive setters of {@link BulkRowWriter}. All rows in the random access
+     * window are flushed beforehand, so the rows need to follow the existing rows.
+     * </p>
+     * <p>
+     * Cells written in bulk are not considered when auto-sizing columns.
+     * </p>
+     *
+     * @param firstRow the 0-based number of the first row to write
+     * @param numRows the number of rows to write
+     * @param callback provides the cell values for each row
+     * @throws IllegalArgumentException if the rows overlap with rows written before
+     *      or the max. number of rows is exceeded
+     * @throws IOException If an I/O error occurs
+     *
+     * @since POI 4.0.0
+     */
+    public void writeRows(int firstRow, int numRows, BulkRowWriter.Callback callback) throws IOException
+    {
+        int maxrow = SpreadsheetVersion.EXCEL2007.getLastRowIndex();
+        if (firstRow < 0 || numRows < 0 || firstRow + (long)numRows - 1 > maxrow) {
+            throw new IllegalArgumentException("Invalid row range (" + firstRow + ".." + (firstRow + (long)numRows - 1)
+                    + ") outside allowable range (0.." + maxrow + ")");
+        }
+
+        flushRows();
+        // the rows are written on this thread, so the background writer must be idle
+        awaitFlushedRows();
+
+        int lastWrittenRow = Math.max(_writer.getLastFlushedRow(),
+                _sh.getPhysicalNumberOfRows() > 0 ? _sh.getLastRowNum() : -1);
+        if (firstRow <= lastWrittenRow) {
+            throw new IllegalArgumentException(
+                    "Attempting to write a row["+firstRow+"] " +
+                    "in the range [0," + lastWrittenRow + "] that is already written to disk.");
+        }
+
+        BulkRowWriter row = new BulkRowWriter(_writer, _workbook.isDate1904());
+        for (int rownum = firstRow; rownum < firstRow + numRows; rownum++) {
+            row.beginRow(rownum);
+            callback.writeRow(rownum, row);
+            row.endRow();
+        }
+        if (numRows > 0) {
+            lastFlushedRowNumber = firstRow + numRows - 1;
+        }
+    }
+
+    /**
+     * Writes the values of the columns as rows straight to disk, without creating
+     * {@link SXSSFRow}s and {@link SXSSFCell}s.
+     * <p>
+     * The column index of the cells is the index in the array of columns,
+     * <code>null</code> elements leave the column empty. All columns need to have the same size.
+     * </p>
+     *
+     * @param firstRow the 0-based number of the first row to write
+     * @param columns the values of the columns
+     * @throws IOException If an I/O error occurs
+     *
+     * @see #writeRows(int, int, BulkRowWriter.Callback)
+     * @since POI 4.0.0
+     */
+    public void writeColumns(final int firstRow, final BulkColumn... columns) throws IOException
+    {
+        int numRows = -1;
+        for (BulkColumn column : columns) {
+            if (column == null) {
+                continue;
+            }
+            if (numRows != -1 && numRows != column.size()) {
+                throw new IllegalArgumentException("All columns need to have the same number of values");
+            }
+            numRows = column.size();
+        }
+        if (numRows == -1) {
+            return;
+        }
+
+        writeRows(firstRow, numRows, new BulkRowWriter.Callback() {
+            @Override
+            public void writeRow(int rownum, BulkRowWriter row) {
+                int index = rownum - firstRow;
+                for (int col = 0; col < columns.length; col++) {
+                    if (columns[col] != null) {
+                        columns[col].write(row, col, index);
+                    }
+                }
+            }
+        });
+    }
+
     private void flushOneRow() throws IOException
     {
         Integer firstRowNum = _rows.firstKey();
@@ -1880,7 +2023,12 @@ public class SXSSFSheet implements Sheet
             SXSSFRow row = _rows.get(firstRowNum);
             // Update the best fit column widths for auto-sizing just before the rows are flushed
             _autoSizeColumnTracker.updateColumnWidths(row);
-            _writer.writeRow(rowIndex, row);
+            BackgroundRowWriter backgroundWriter = _workbook.getBackgroundRowWriter();
+            if (backgroundWriter != null) {
+                backgroundWriter.submit(_writer, rowIndex, row);
+            } else {
+                _writer.writeRow(rowIndex, row);
+            }
             _rows.remove(firstRowNum);
             lastFlushedRowNumber = rowIndex;
         }
@@ -1908,10 +2056,36 @@ public class SXSSFSheet implements Sheet
      * @return true if the file was deleted, false if it wasn't.
      */
     boolean dispose() throws IOException {
-        if (!allFlushed) {
-            flushRows();
+        boolean deleted = false;
+        try {
+            if (!allFlushed) {
+                flushRows();
+            }
+            awaitFlushedRows();
+        } finally {
+            // remove the temp file, even if the background writer failed
+            deleted = _writer.dispose();
+        }
+        return deleted;
+    }
+
+    /**
+     * Wait until the rows handed to the background writer have been written,
+     * see {@link SXSSFWorkbook#setAsyncFlushing(int)}
+     */
+    private void awaitFlushedRows() throws IOException {
+        BackgroundRowWriter backgroundWriter = _workbook.getBackgroundRowWriter();
+        if (backgroundWriter != null) {
+            backgroundWriter.await();
+        }
+    }
+
+    private void awaitFlushedRowsUnchecked() {
+        try {
+            awaitFlushedRows();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
         }
-        return _writer.dispose();
     }
 
     @Override
@@ -18,6 +18,7 @@
 package org.apache.poi.xssf.streaming;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -32,6 +33,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.zip.ZipEntry;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 import java.util.zip.ZipFile;
 import java.util.zip.ZipOutputStream;
 
@@ -77,7 +80,8 @@ import org.apache.poi.xssf.usermodel.XSSFWorkbook;
  * memory, but is also known to produce documents that are incompatible with
  * some clients. With shared strings enabled all unique strings in the document
  * has to be kept in memory. Depending on your document content this could use
- * a lot more resources than with shared strings disabled.
+ * a lot more resources than with shared strings disabled. Alternatively the
+ * shared strings can be spilled to a temp file, see {@link SpillingSharedStringsTable}.
  *
  * Carefully review your memory budget and compatibility needs before deciding
  * whether to enable shared strings or not.
@@ -105,6 +109,16 @@ public class SXSSFWorkbook implements Workbook {
      */
     private boolean _compressTmpFiles;
 
+    /**
+     * whether the offsets of flushed rows are recorded, so they can be read back
+     */
+    private boolean _indexFlushedRows;
+
+    /**
+     * writes the flushed rows on a background thread, null if the rows are written synchronously
+     */
+    private BackgroundRowWriter _backgroundRowWriter;
+
     /**
      * shared string table - a cache of strings in this workbook
      */
@@ -230,14 +244,60 @@ public class SXSSFWorkbook implements Workbook {
      * @param useSharedStringsTable whether to use a shared strings table
      */
     public SXSSFWorkbook(XSSFWorkbook workbook, int rowAccessWindowSize, boolean compressTmpFiles, boolean useSharedStringsTable){
+        this(workbook, rowAccessWindowSize, compressTmpFiles, useSharedStringsTable, -1);
+    }
+
+    /**
+     * Constructs an workbook from an existing workbook.
+     * <p>
+     * When a new node is created via {@link SXSSFSheet#createRow} and the total number
+     * of unflushed records would exceed the specified value, then the
+     * row with the lowest index value is flushed and cannot be accessed
+     * via {@link SXSSFSheet#getRow} anymore.
+     * </p>
+     * <p>
+     * A value of <code>-1</code> indicates unlimited access. In this case all
+     * records that have not been flushed by a call to <code>flush()</code> are available
+     * for random access.
+     * </p>
+     * <p>
+     * A value of <code>0</code> is not allowed because it would flush any newly created row
+     * without having a chance to specify any cells.
+     * </p>
+     * <p>
+     * With a non-negative <code>sharedStringsCacheSize</code> the shared strings are not
+     * kept in memory, but spilled to a temp file by a {@link SpillingSharedStringsTable},
+     * which only remembers the given number of recently used strings for de-duplication.
+     * This bounds the memory usage for columns with many distinct strings at the cost of
+     * possibly duplicated entries in the shared strings part.
+     * </p>
+     *
+     * @param workbook  the template workbook
+     * @param rowAccessWindowSize the number of rows that are kept in memory until flushed out, see above.
+     * @param compressTmpFiles whether to use gzip compression for temporary files
+     * @param useSharedStringsTable whether to use a shared strings table
+     * @param sharedStringsCacheSize the number of strings kept in memory when spilling the
+     *      shared strings table to disk, or <code>-1</code> to keep the whole table in memory
+     *
+     * @since POI 4.0.0
+     */
+    public SXSSFWorkbook(XSSFWorkbook workbook, int rowAccessWindowSize, boolean compressTmpFiles,
+                         boolean useSharedStringsTable, int sharedStringsCacheSize){
         setRandomAccessWindowSize(rowAccessWindowSize);
         setCompressTempFiles(compressTmpFiles);
-        if (workbook == null) {
-            _wb=new XSSFWorkbook();
-            _sharedStringSource = useSharedStringsTable ? _wb.getSharedStringSource() : null;
+        _wb = (workbook == null) ? new XSSFWorkbook() : workbook;
+        if (!useSharedStringsTable) {
+            _sharedStringSource = null;
+        } else if (sharedStringsCacheSize < 0) {
+            _sharedStringSource = _wb.getSharedStringSource();
         } else {
-            _wb=workbook;
-            _sharedStringSource = useSharedStringsTable ? _wb.getSharedStringSource() : null;
+            try {
+                _sharedStringSource = createSpillingSharedStringsTable(_wb.getSharedStringSource(), sharedStringsCacheSize);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        if (workbook != null) {
             for ( Sheet sheet : _wb ) {
                 createAndRegisterSXSSFSheet( (XSSFSheet)sheet );
             }
@@ -312,12 +372,139 @@ public class SXSSFWorkbook implements Workbook {
         _compressTmpFiles = compress;
     }
     
+    /**
+     * Get whether the rows flushed to the temp files can be read back.
+     *
+     * @return whether the flushed rows are indexed
+     */
+    public boolean isIndexFlushedRows() {
+        return _indexFlushedRows;
+    }
+
+    /**
+     * Set whether the rows flushed to the temp files can be read back.
+     * <p>
+     *   When enabled, the file offset of each flushed row is recorded (12 bytes per row)
+     *   and {@link SXSSFSheet#getFlushedRow(int)} can re-read a row, e.g. to compute
+     *   totals, to look up earlier values or to auto-size untracked columns.
+     * </p>
+     * <p>
+     *   Indexed temp files can't be compressed, see {@link #setCompressTempFiles(boolean)}.
+     *   Rows with shared strings can't be read back, if the shared strings are spilled
+     *   to disk.
+     * </p>
+     * <p>
+     *   Setting this option only affects subsequent <code>createSheet()</code> calls.
+     * </p>
+     * @param indexFlushedRows whether to index the flushed rows
+     * @since POI 4.0.0
+     */
+    public void setIndexFlushedRows(boolean indexFlushedRows) {
+        _indexFlushedRows = indexFlushedRows;
+    }
+
+    /**
+     * Set whether flushed rows are written to the temp files on a background thread.
+     * <p>
+     *   When enabled, the rows leaving the random access window are handed to a
+     *   background thread, which serializes them while the next rows are created.
+     *   At most <code>queueCapacity</code> rows are waiting to be written, further
+     *   flushes block until the background thread caught up. So the memory footprint
+     *   grows by the queue capacity at most.
+     * </p>
+     * <p>
+     *   The background thread serves all sheets of this workbook and is stopped by
+     *   {@link #close()} or {@link #dispose()}. The workbook itself is still not
+     *   thread-safe, i.e. the rows of the sheets need to be created by a single thread.
+     *   A row must not be modified after it was flushed. I/O errors of the background
+     *   thread are reported by the next flush.
+     * </p>
+     *
+     * @param queueCapacity the maximum number of rows waiting to be written
+     *      or 0 to write the rows synchronously (default)
+     * @throws IOException if writing the pending rows failed
+     * @since POI 4.0.0
+     */
+    public void setAsyncFlushing(int queueCapacity) throws IOException {
+        if (queueCapacity < 0) {
+            throw new IllegalArgumentException("queueCapacity must not be negative");
+        }
+        if (_backgroundRowWriter != null) {
+            BackgroundRowWriter old = _backgroundRowWriter;
+            _backgroundRowWriter = null;
+            old.shutdown();
+        }
+        if (queueCapacity > 0) {
+            _backgroundRowWriter = new BackgroundRowWriter(queueCapacity);
+        }
+    }
+
+    /**
+     * @return whether the flushed rows are written on a background thread
+     * @since POI 4.0.0
+     */
+    public boolean isAsyncFlushing() {
+        return _backgroundRowWriter != null;
+    }
+
+    BackgroundRowWriter getBackgroundRowWriter() {
+        return _backgroundRowWriter;
+    }
+
+    /**
+     * Stop the background writer after the queued rows have been written
+     */
+    private void shutdownBackgroundRowWriter() throws IOException {
+        if (_backgroundRowWriter != null) {
+            BackgroundRowWriter writer = _backgroundRowWriter;
+            _backgroundRowWriter = null;
+            writer.shutdown();
+        }
+    }
+
     @Internal
     protected SharedStringsTable getSharedStringSource() {
         return _sharedStringSource;
     }
 
+    private SpillingSharedStringsTable createSpillingSharedStringsTable(SharedStringsTable template, int cacheSize)
+    throws IOException {
+        if (!_compressTmpFiles) {
+            return new SpillingSharedStringsTable(template, cacheSize);
+        }
+        return new SpillingSharedStringsTable(template, cacheSize) {
+            @Override
+            protected File createTempFile() throws IOException {
+                return TempFile.createTempFile("poi-sxssf-sst-xml", ".gz");
+            }
+
+            @Override
+            protected InputStream decorateInputStream(FileInputStream fis) throws IOException {
+                return new GZIPInputStream(fis);
+            }
+
+            @Override
+            protected OutputStream decorateOutputStream(FileOutputStream fos) throws IOException {
+                return new GZIPOutputStream(fos);
+            }
+        };
+    }
+
+    /**
+     * @return true, if the shared strings aren't kept in the template workbook
+     *  and need to be injected like the sheet data
+     */
+    private boolean isSpillingSharedStrings() {
+        return _sharedStringSource != null && _sharedStringSource != _wb.getSharedStringSource();
+    }
+
     protected SheetDataWriter createSheetDataWriter() throws IOException {
+        if(_indexFlushedRows) {
+            if(_compressTmpFiles) {
+                throw new IllegalStateException("Indexed temp files can't be compressed");
+            }
+            return new IndexedSheetDataWriter(_sharedStringSource);
+        }
         if(_compressTmpFiles) {
             return new GZIPSheetDataWriter(_sharedStringSource);
         }
@@ -347,6 +534,9 @@ public class SXSSFWorkbook implements Workbook {
         
         // ensure that the writer is closed in all cases to not have lingering writers
         try {
+            if (_backgroundRowWriter != null) {
+                _backgroundRowWriter.await();
+            }
             sxSheet.getSheetDataWriter().close();
         } catch (IOException e) {
             // ignore exception here
@@ -369,6 +559,8 @@ public class SXSSFWorkbook implements Workbook {
     }
 
     protected void injectData(ZipEntrySource zipEntrySource, OutputStream out) throws IOException {
+        final String sstEntryName = isSpillingSharedStrings()
+                ? _wb.getSharedStringSource().getPackagePart().getPartName().getName().substring(1) : null;
         try {
             try (ZipOutputStream zos = new ZipOutputStream(out)) {
                 Enumeration<? extends ZipEntry> en = zipEntrySource.getEntries();
@@ -377,8 +569,11 @@ public class SXSSFWorkbook implements Workbook {
                     zos.putNextEntry(new ZipEntry(ze.getName()));
                     InputStream is = zipEntrySource.getInputStream(ze);
                     XSSFSheet xSheet = getSheetFromZipEntryName(ze.getName());
-                    // See bug 56557, we should not inject data into the special ChartSheets
-                    if (xSheet != null && !(xSheet instanceof XSSFChartSheet)) {
+                    if (ze.getName().equals(sstEntryName)) {
+                        // the template only contains the strings known at construction time
+                        _sharedStringSource.writeTo(zos);
+                    } else if (xSheet != null && !(xSheet instanceof XSSFChartSheet)) {
+                        // See bug 56557, we should not inject data into the special ChartSheets
                         SXSSFSheet sxSheet = getSXSSFSheet(xSheet);
                         try (InputStream xis = sxSheet.getWorksheetXMLInputStream()) {
                             copyStreamAndInjectWorksheet(is, zos, xis);
@@ -880,6 +1075,12 @@ public class SXSSFWorkbook implements Workbook {
      */
     @Override
     public void close() throws IOException {
+        try {
+            shutdownBackgroundRowWriter();
+        } catch (IOException e) {
+            logger.log(POILogger.WARN, "An exception occurred while writing the flushed rows.", e);
+        }
+
         // ensure that any lingering writer is closed
         for (SXSSFSheet sheet : _xFromSxHash.values())
         {
@@ -932,6 +1133,9 @@ public class SXSSFWorkbook implements Workbook {
         {
             sheet.flushRows();
         }
+        if (_backgroundRowWriter != null) {
+            _backgroundRowWriter.await();
+        }
     }
     
     /**
@@ -951,6 +1155,20 @@ public class SXSSFWorkbook implements Workbook {
                 success = false;
             }
         }
+        try {
+            shutdownBackgroundRowWriter();
+        } catch (IOException e) {
+            logger.log(POILogger.WARN, e);
+            success = false;
+        }
+        if (isSpillingSharedStrings()) {
+            try {
+                success = ((SpillingSharedStringsTable)_sharedStringSource).dispose() && success;
+            } catch (IOException e) {
+                logger.log(POILogger.WARN, e);
+                success = false;
+            }
+        }
         return success;
     }
 
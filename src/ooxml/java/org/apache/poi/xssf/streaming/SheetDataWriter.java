@@ -38,7 +38,6 @@ import org.apache.poi.ss.usermodel.FormulaError;
 import org.apache.poi.ss.util.CellReference;
 import org.apache.poi.util.POILogFactory;
 import org.apache.poi.util.POILogger;
-import org.apache.poi.util.StringCodepointsIterable;
 import org.apache.poi.util.TempFile;
 import org.apache.poi.xssf.model.SharedStringsTable;
 import org.apache.poi.xssf.usermodel.XSSFRichTextString;
@@ -60,6 +59,7 @@ public class SheetDataWriter implements Closeable {
     private int _lowestIndexOfFlushedRows; // meaningful only of _numberOfFlushedRows>0
     private int _numberOfCellsOfLastFlushedRow; // meaningful only of _numberOfFlushedRows>0
     private int _numberLastFlushedRow = -1; // meaningful only of _numberOfFlushedRows>0
+    private final char[] _colRefBuffer = new char[8];
 
     /**
      * Table of strings shared across this workbook.
@@ -241,13 +241,103 @@ public class SheetDataWriter implements Closeable {
         _out.write("</row>\n");
     }
 
+    /**
+     * Begin a row without row properties, whose cells are written by the
+     * <code>write*Cell(int, ..., int)</code> methods, i.e. without {@link SXSSFCell}s.
+     *
+     * @param rownum 0-based row number
+     * @see #endRow(int)
+     */
+    void beginRow(int rownum) throws IOException {
+        if (_numberOfFlushedRows == 0)
+            _lowestIndexOfFlushedRows = rownum;
+        _numberLastFlushedRow = Math.max(rownum, _numberLastFlushedRow);
+        _numberOfFlushedRows++;
+        _out.write("<row r=\"");
+        _out.write(Integer.toString(rownum + 1));
+        _out.write("\">\n");
+        this._rownum = rownum;
+    }
+
+    /**
+     * End a row which was started by {@link #beginRow(int)}
+     *
+     * @param lastCellNum the last cell index plus one of the row
+     */
+    void endRow(int lastCellNum) throws IOException {
+        _numberOfCellsOfLastFlushedRow = lastCellNum;
+        endRow();
+    }
+
+    void writeNumericCell(int columnIndex, double value, int styleIndex) throws IOException {
+        beginCell(columnIndex, styleIndex);
+        _out.write(" t=\"n\"><v>");
+        _out.write(Double.toString(value));
+        _out.write("</v></c>");
+    }
+
+    void writeBooleanCell(int columnIndex, boolean value, int styleIndex) throws IOException {
+        beginCell(columnIndex, styleIndex);
+        _out.write(value ? " t=\"b\"><v>1</v></c>" : " t=\"b\"><v>0</v></c>");
+    }
+
+    void writeStringCell(int columnIndex, String value, int styleIndex) throws IOException {
+        beginCell(columnIndex, styleIndex);
+        if (_sharedStringSource instanceof SpillingSharedStringsTable) {
+            int sRef = ((SpillingSharedStringsTable)_sharedStringSource).addSharedString(value);
+            _out.write(" t=\"s\"><v>");
+            _out.write(Integer.toString(sRef));
+            _out.write("</v></c>");
+        } else if (_sharedStringSource != null) {
+            int sRef = _sharedStringSource.addSharedStringItem(new XSSFRichTextString(value));
+            _out.write(" t=\"s\"><v>");
+            _out.write(Integer.toString(sRef));
+            _out.write("</v></c>");
+        } else {
+            _out.write(" t=\"inlineStr\"><is><t");
+            if (hasLeadingTrailingSpaces(value)) {
+                writeAttribute("xml:space", "preserve");
+            }
+            _out.write(">");
+            outputQuotedString(value);
+            _out.write("</t></is></c>");
+        }
+    }
+
+    private void beginCell(int columnIndex, int styleIndex) throws IOException {
+        _out.write("<c r=\"");
+        writeCellReference(columnIndex);
+        _out.write('\"');
+        if (styleIndex != 0) {
+            writeAttribute("s", Integer.toString(styleIndex));
+        }
+    }
+
+    /**
+     * Write the A1 style reference of the cell in the current row without
+     * the intermediate {@link CellReference}
+     */
+    private void writeCellReference(int columnIndex) throws IOException {
+        // the maximum column "XFD" has three letters
+        final char[] colRef = _colRefBuffer;
+        int pos = colRef.length;
+        int col = columnIndex + 1;
+        while (col > 0) {
+            int rem = (col - 1) % 26;
+            colRef[--pos] = (char)('A' + rem);
+            col = (col - 1) / 26;
+        }
+        _out.write(colRef, pos, colRef.length - pos);
+        _out.write(Integer.toString(_rownum + 1));
+    }
+
     public void writeCell(int columnIndex, Cell cell) throws IOException {
         if (cell == null) {
             return;
         }
-        String ref = new CellReference(_rownum, columnIndex).formatAsString();
-        _out.write("<c");
-        writeAttribute("r", ref);
+        _out.write("<c r=\"");
+        writeCellReference(columnIndex);
+        _out.write('\"');
         CellStyle cellStyle = cell.getCellStyle();
         if (cellStyle.getIndex() != 0) {
             // need to convert the short to unsigned short as the indexes can be up to 64k
@@ -281,8 +371,14 @@ public class SheetDataWriter implements Closeable {
             }
             case STRING: {
                 if (_sharedStringSource != null) {
-                    XSSFRichTextString rt = new XSSFRichTextString(cell.getStringCellValue());
-                    int sRef = _sharedStringSource.addSharedStringItem(rt);
+                    final int sRef;
+                    if (_sharedStringSource instanceof SpillingSharedStringsTable) {
+                        // avoid the CTRst bean of the rich text string, it would be thrown away immediately
+                        sRef = ((SpillingSharedStringsTable)_sharedStringSource).addSharedString(cell.getStringCellValue());
+                    } else {
+                        XSSFRichTextString rt = new XSSFRichTextString(cell.getStringCellValue());
+                        sRef = _sharedStringSource.addSharedStringItem(rt);
+                    }
 
                     writeAttribute("t", STCellType.S.toString());
                     _out.write("><v>");
@@ -342,7 +438,7 @@ public class SheetDataWriter implements Closeable {
      * @return  whether the string has leading / trailing spaces that
      *  need to be preserved with the xml:space=\"preserve\" attribute
      */
-    boolean hasLeadingTrailingSpaces(String str) {
+    static boolean hasLeadingTrailingSpaces(String str) {
         if (str != null && str.length() > 0) {
             char firstChar = str.charAt(0);
             char lastChar  = str.charAt(str.length() - 1);
@@ -356,45 +452,44 @@ public class SheetDataWriter implements Closeable {
             return;
         }
 
-        for (String codepoint : new StringCodepointsIterable(s)) {
-            switch (codepoint) {
-                case "<":
+        // surrogate pairs don't need to be handled as code points, as their chars
+        // are neither escaped nor replaced
+        final int length = s.length();
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '<':
                     _out.write("&lt;");
                     break;
-                case ">":
+                case '>':
                     _out.write("&gt;");
                     break;
-                case "&":
+                case '&':
                     _out.write("&amp;");
                     break;
-                case "\"":
+                case '\"':
                     _out.write("&quot;");
                     break;
                 // Special characters
-                case "\n":
+                case '\n':
                     _out.write("&#xa;");
                     break;
-                case "\r":
+                case '\r':
                     _out.write("&#xd;");
                     break;
-                case "\t":
+                case '\t':
                     _out.write("&#x9;");
                     break;
-                case "\u00A0": // NO-BREAK SPACE
+                case '\u00A0': // NO-BREAK SPACE
                     _out.write("&#xa0;");
                     break;
                 default:
-                    if (codepoint.length() == 1) {
-                        char c = codepoint.charAt(0);
-                        // YK: XmlBeans silently replaces all ISO control characters ( < 32) with question marks.
-                        // the same rule applies to "not a character" symbols.
-                        if (replaceWithQuestionMark(c)) {
-                            _out.write('?');
-                        } else {
-                            _out.write(c);
-                        }
+                    // YK: XmlBeans silently replaces all ISO control characters ( < 32) with question marks.
+                    // the same rule applies to "not a character" symbols.
+                    if (replaceWithQuestionMark(c)) {
+                        _out.write('?');
                     } else {
-                        _out.write(codepoint);
+                        _out.write(c);
                     }
                     break;
             }
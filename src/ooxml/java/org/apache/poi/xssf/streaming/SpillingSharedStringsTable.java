@@ -0,0 +1,397 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xssf.streaming;
+
+import static org.apache.poi.xssf.usermodel.XSSFRelation.NS_SPREADSHEETML;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.POIXMLException;
+import org.apache.poi.ss.usermodel.RichTextString;
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.util.NotImplemented;
+import org.apache.poi.util.POILogFactory;
+import org.apache.poi.util.POILogger;
+import org.apache.poi.util.TempFile;
+import org.apache.poi.xssf.model.SharedStringsTable;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+import org.apache.xmlbeans.XmlOptions;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTRst;
+
+/**
+ * Shared strings table for {@link SXSSFWorkbook} which does not keep the
+ * string items on the heap.
+ * <p>
+ * Each new entry is serialized as an <code>&lt;si&gt;</code> fragment into a
+ * temp file as soon as it is added, and {@link #writeTo(OutputStream)} streams
+ * the file back out as <code>sharedStrings.xml</code>. Only a bounded LRU map of
+ * the most recently used plain strings is held in memory to de-duplicate
+ * entries. Strings which have been evicted from that map are appended again,
+ * i.e. the table trades some file size for a fixed memory footprint. Duplicate
+ * items are valid SpreadsheetML and are handled by Excel and by XSSF.
+ * </p>
+ * <p>
+ * The entries of the template workbook's shared strings table (if any) are
+ * copied into the temp file on construction, so existing cell references keep
+ * their indexes. The template table must not be modified afterwards.
+ * </p>
+ * <p>
+ * The items can't be read back, so {@link #getItemAt(int)} only works for
+ * entries of the template table.
+ * </p>
+ */
+public class SpillingSharedStringsTable extends SharedStringsTable {
+    private static final POILogger logger = POILogFactory.getLogger(SpillingSharedStringsTable.class);
+
+    /**
+     * Default number of plain strings kept in memory for de-duplication
+     */
+    public static final int DEFAULT_CACHE_SIZE = 10000;
+
+    private static final XmlOptions options = new XmlOptions();
+    static {
+        options.put( XmlOptions.SAVE_INNER );
+        options.put( XmlOptions.SAVE_AGGRESSIVE_NAMESPACES );
+        options.put( XmlOptions.SAVE_USE_DEFAULT_NAMESPACE );
+        options.setSaveImplicitNamespaces(Collections.singletonMap("", NS_SPREADSHEETML));
+    }
+
+    private final File _fd;
+    /** the writer of the temp file, or null while it's closed for reading */
+    private Writer _out;
+    private final Map<String,Integer> _hotStrings;
+    private final SharedStringsTable _template;
+    private final int _templateCount;
+    private int _count;
+    private int _uniqueCount;
+
+    /**
+     * Create an empty table with the default cache size
+     */
+    public SpillingSharedStringsTable() throws IOException {
+        this(null, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param template the shared strings table of the template workbook, or <code>null</code>
+     * @param cacheSize the maximum number of strings kept in memory for de-duplication,
+     *      a value of <code>0</code> disables de-duplication
+     */
+    public SpillingSharedStringsTable(SharedStringsTable template, final int cacheSize) throws IOException {
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("cacheSize must not be negative");
+        }
+        _hotStrings = new LinkedHashMap<String,Integer>(Math.min(cacheSize, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String,Integer> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        _fd = createTempFile();
+        _out = createWriter(_fd, false);
+        _template = template;
+
+        if (template != null) {
+            _count = template.getCount();
+            for (RichTextString rts : template.getSharedStringItems()) {
+                CTRst st = ((XSSFRichTextString)rts).getCTRst();
+                int idx = appendItem(st);
+                if (isPlain(st) && cacheSize > 0) {
+                    _hotStrings.put(st.getT(), idx);
+                }
+            }
+        }
+        _templateCount = _uniqueCount;
+    }
+
+    /**
+     * Create the temp file for the spilled string items.
+     * By default, temp files are created in the default temporary-file directory
+     * with a prefix "poi-sxssf-sst" and suffix ".xml".  Subclasses can override
+     * it and specify a different temp directory or filename or suffix.
+     *
+     * @return temp file to write string items
+     */
+    protected File createTempFile() throws IOException {
+        return TempFile.createTempFile("poi-sxssf-sst", ".xml");
+    }
+
+    private Writer createWriter(File fd, boolean append) throws IOException {
+        FileOutputStream fos = new FileOutputStream(fd, append);
+        OutputStream decorated;
+        try {
+            decorated = decorateOutputStream(fos);
+        } catch (final IOException e) {
+            fos.close();
+            throw e;
+        }
+        return new BufferedWriter(new OutputStreamWriter(decorated, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Override this to translate (such as encrypt or compress) the file output stream
+     * as it is being written to disk.
+     * The default behavior is to to pass the stream through unmodified.
+     *
+     * @param fos  the stream to decorate
+     * @return a decorated stream
+     * @see #decorateInputStream(FileInputStream)
+     */
+    protected OutputStream decorateOutputStream(FileOutputStream fos) throws IOException {
+        return fos;
+    }
+
+    /**
+     * Override this to translate (such as decrypt or expand) the file input stream
+     * as it is being read from disk.
+     * The default behavior is to to pass the stream through unmodified.
+     *
+     * @param fis  the stream to decorate
+     * @return a decorated stream
+     * @see #decorateOutputStream(FileOutputStream)
+     */
+    protected InputStream decorateInputStream(FileInputStream fis) throws IOException {
+        return fis;
+    }
+
+    /**
+     * Add a plain string to this table.
+     *
+     * @param string the entry to add
+     * @return index the index of added entry
+     */
+    public int addSharedString(String string) {
+        _count++;
+        Integer idx = _hotStrings.get(string);
+        if (idx != null) {
+            return idx;
+        }
+
+        int newIdx = _uniqueCount++;
+        try {
+            openWriter();
+            _out.write("<si><t");
+            if (SheetDataWriter.hasLeadingTrailingSpaces(string)) {
+                _out.write(" xml:space=\"preserve\"");
+            }
+            _out.write('>');
+            outputQuotedString(string);
+            _out.write("</t></si>");
+        } catch (IOException e) {
+            throw new POIXMLException("Unable to spill shared string", e);
+        }
+        _hotStrings.put(string, newIdx);
+        return newIdx;
+    }
+
+    @Override
+    public int addSharedStringItem(RichTextString string) {
+        if(!(string instanceof XSSFRichTextString)){
+            throw new IllegalArgumentException("Only XSSFRichTextString argument is supported");
+        }
+        return addEntry(((XSSFRichTextString) string).getCTRst());
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public int addEntry(CTRst st) {
+        if (isPlain(st)) {
+            return addSharedString(st.getT());
+        }
+        _count++;
+        return appendItem(st);
+    }
+
+    private int appendItem(CTRst st) {
+        try {
+            openWriter();
+            _out.write("<si>");
+            _out.write(st.xmlText(options));
+            _out.write("</si>");
+        } catch (IOException e) {
+            throw new POIXMLException("Unable to spill shared string", e);
+        }
+        return _uniqueCount++;
+    }
+
+    private static boolean isPlain(CTRst st) {
+        return st.isSetT() && st.sizeOfRArray() == 0 && st.sizeOfRPhArray() == 0 && !st.isSetPhoneticPr();
+    }
+
+    private void outputQuotedString(String s) throws IOException {
+        final int len = s.length();
+        for (int i = 0; i < len; i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '<':
+                    _out.write("&lt;");
+                    break;
+                case '>':
+                    _out.write("&gt;");
+                    break;
+                case '&':
+                    _out.write("&amp;");
+                    break;
+                case '\n':
+                    _out.write("&#xa;");
+                    break;
+                case '\r':
+                    _out.write("&#xd;");
+                    break;
+                case '\t':
+                    _out.write("&#x9;");
+                    break;
+                default:
+                    // surrogate pairs are written as-is, see SheetDataWriter.outputQuotedString
+                    _out.write(SheetDataWriter.replaceWithQuestionMark(c) ? '?' : c);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Return a string item by index. Only the items copied from the template
+     * table can be accessed, as all other items have been spilled to disk.
+     *
+     * @param idx index of item to return.
+     * @return the item at the specified position in this Shared String table.
+     * @throws UnsupportedOperationException if the item is not part of the template table
+     */
+    @Override
+    public RichTextString getItemAt(int idx) {
+        if (idx < _templateCount) {
+            return _template.getItemAt(idx);
+        }
+        throw new UnsupportedOperationException("Shared string "+idx+" has been spilled to disk");
+    }
+
+    @Override
+    @NotImplemented
+    @SuppressWarnings("deprecation")
+    public CTRst getEntryAt(int idx) {
+        throw new UnsupportedOperationException("Shared strings have been spilled to disk");
+    }
+
+    @Override
+    @NotImplemented
+    @SuppressWarnings("deprecation")
+    public List<CTRst> getItems() {
+        throw new UnsupportedOperationException("Shared strings have been spilled to disk");
+    }
+
+    @Override
+    @NotImplemented
+    public List<RichTextString> getSharedStringItems() {
+        throw new UnsupportedOperationException("Shared strings have been spilled to disk");
+    }
+
+    @Override
+    @NotImplemented
+    public void readFrom(InputStream is) {
+        throw new UnsupportedOperationException("SpillingSharedStringsTable is write-only");
+    }
+
+    @Override
+    public int getCount() {
+        return _count;
+    }
+
+    @Override
+    public int getUniqueCount() {
+        return _uniqueCount;
+    }
+
+    /**
+     * Reopens the temp file for appending, after it has been closed by {@link #writeTo(OutputStream)}.
+     * A decorated (e.g. compressed) file is continued with a new stream, so the
+     * decorator needs to support concatenated streams like gzip does.
+     */
+    private void openWriter() throws IOException {
+        if (_out == null) {
+            _out = createWriter(_fd, true);
+        }
+    }
+
+    /**
+     * Closes the temp file, so its content can be read
+     */
+    private void closeWriter() throws IOException {
+        if (_out != null) {
+            Writer w = _out;
+            _out = null;
+            w.close();
+        }
+    }
+
+    /**
+     * Write this table out as XML. The given stream is not closed and more
+     * items can be added afterwards.
+     *
+     * @param out The stream to write to.
+     * @throws IOException if an error occurs while writing.
+     */
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        closeWriter();
+
+        Writer w = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        w.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n");
+        w.write("<sst xmlns=\""+NS_SPREADSHEETML+"\" count=\""+_count+"\" uniqueCount=\""+_uniqueCount+"\">");
+        w.flush();
+        try (InputStream is = decorateInputStream(new FileInputStream(_fd))) {
+            IOUtils.copy(is, out);
+        }
+        w.write("</sst>");
+        w.flush();
+    }
+
+    /**
+     * Deletes the temporary file that backs this table on disk.
+     * @return true if the file was deleted, false if it wasn't.
+     */
+    boolean dispose() throws IOException {
+        final boolean ret;
+        try {
+            closeWriter();
+        } finally {
+            ret = _fd.delete();
+        }
+        return ret;
+    }
+
+    @Override
+    protected void finalize() throws Throwable {
+        if (_fd.exists() && !_fd.delete()) {
+            logger.log(POILogger.ERROR, "Can't delete temporary shared strings file: "+_fd);
+        }
+        super.finalize();
+    }
+}
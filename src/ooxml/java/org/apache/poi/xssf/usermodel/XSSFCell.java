@@ -51,6 +51,7 @@ import org.apache.poi.xssf.model.SharedStringsTable;
 import org.apache.poi.xssf.model.StylesTable;
 import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTCell;
 import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTCellFormula;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTRst;
 import org.openxmlformats.schemas.spreadsheetml.x2006.main.STCellFormulaType;
 import org.openxmlformats.schemas.spreadsheetml.x2006.main.STCellType;
 
@@ -102,6 +103,15 @@ public final class XSSFCell implements Cell {
      */
     private StylesTable _stylesSource;
 
+    /**
+     * The type, style and value of a cell read by the {@link XSSFSheetDataParser},
+     * as long as the cell has no xml bean, see {@link #attachCTCell(CTCell)}.
+     * The value is the text of an inline string or the cell value.
+     */
+    private STCellType.Enum _rawType;
+    private int _rawStyle = -1;
+    private String _rawValue;
+
     /**
      * Construct a XSSFCell.
      *
@@ -122,6 +132,94 @@ public final class XSSFCell implements Cell {
         _sharedStringSource = row.getSheet().getWorkbook().getSharedStringSource();
         _stylesSource = row.getSheet().getWorkbook().getStylesSource();
     }
+
+    /**
+     * Construct a XSSFCell without xml bean from the values read by the {@link XSSFSheetDataParser}.
+     *
+     * @param row the parent row.
+     * @param cellNum the 0-based column index.
+     * @param type the cell type or null for numeric cells
+     * @param styleIndex the style index or -1 for the default style
+     * @param value the text of an inline string or the cell value, may be null
+     */
+    XSSFCell(XSSFRow row, int cellNum, STCellType.Enum type, int styleIndex, String value) {
+        _row = row;
+        _cellNum = cellNum;
+        _rawType = type;
+        _rawStyle = styleIndex;
+        _rawValue = value;
+        _sharedStringSource = row.getSheet().getWorkbook().getSharedStringSource();
+        _stylesSource = row.getSheet().getWorkbook().getStylesSource();
+    }
+
+    /**
+     * Initializes the bean of a cell read without bean by the {@link XSSFSheetDataParser}
+     */
+    void attachCTCell(CTCell cell) {
+        initCTCell(cell, new CellReference(getRowIndex(), _cellNum).formatAsString(), _rawType, _rawStyle, _rawValue);
+        _cell = cell;
+        _rawType = null;
+        _rawStyle = -1;
+        _rawValue = null;
+    }
+
+    static void initCTCell(CTCell cell, String ref, STCellType.Enum type, int styleIndex, String value) {
+        if (ref != null) {
+            cell.setR(ref);
+        }
+        if (styleIndex != -1) {
+            cell.setS(styleIndex);
+        }
+        if (type != null) {
+            cell.setT(type);
+        }
+        if (value != null) {
+            if (type == STCellType.INLINE_STR) {
+                CTRst is = cell.addNewIs();
+                is.setT(value);
+                XSSFRichTextString.preserveSpaces(is.xgetT());
+            } else {
+                cell.setV(value);
+            }
+        }
+    }
+
+    // the accessors of the values, which are also available without xml bean
+
+    private STCellType.Enum getT() {
+        if (_cell != null) {
+            return _cell.getT();
+        }
+        return _rawType == null ? STCellType.N : _rawType;
+    }
+
+    private String getV() {
+        if (_cell != null) {
+            return _cell.getV();
+        }
+        return _rawType == STCellType.INLINE_STR ? null : _rawValue;
+    }
+
+    private boolean isSetV() {
+        return _cell != null ? _cell.isSetV() : getV() != null;
+    }
+
+    private CTCellFormula getF() {
+        // cells with formulas always have an xml bean
+        return _cell == null ? null : _cell.getF();
+    }
+
+    private boolean isSetF() {
+        return _cell != null && _cell.isSetF();
+    }
+
+    private boolean isSetS() {
+        return _cell != null ? _cell.isSetS() : _rawStyle != -1;
+    }
+
+    private long getS() {
+        return _cell != null ? _cell.getS() : _rawStyle;
+    }
     
     /**
      * Copy cell value, formula and style, from srcCell per cell copy policy
@@ -248,10 +346,10 @@ public final class XSSFCell implements Cell {
             case BLANK:
                 return false;
             case BOOLEAN:
-                return _cell.isSetV() && TRUE_AS_STRING.equals(_cell.getV());
+                return isSetV() && TRUE_AS_STRING.equals(getV());
             case FORMULA:
                 //YK: should throw an exception if requesting boolean value from a non-boolean formula
-                return _cell.isSetV() && TRUE_AS_STRING.equals(_cell.getV());
+                return isSetV() && TRUE_AS_STRING.equals(getV());
             default:
                 throw typeMismatch(CellType.BOOLEAN, cellType, false);
         }
@@ -266,8 +364,9 @@ public final class XSSFCell implements Cell {
      */
     @Override
     public void setCellValue(boolean value) {
-        _cell.setT(STCellType.B);
-        _cell.setV(value ? TRUE_AS_STRING : FALSE_AS_STRING);
+        CTCell cell = getCTCell();
+        cell.setT(STCellType.B);
+        cell.setV(value ? TRUE_AS_STRING : FALSE_AS_STRING);
     }
 
     /**
@@ -290,8 +389,8 @@ public final class XSSFCell implements Cell {
             case FORMULA:
                 // fall-through
             case NUMERIC:
-                if(_cell.isSetV()) {
-                   String v = _cell.getV();
+                if(isSetV()) {
+                   String v = getV();
                    if (v.isEmpty()) {
                        return 0.0;
                    }
@@ -318,19 +417,20 @@ public final class XSSFCell implements Cell {
      */
     @Override
     public void setCellValue(double value) {
+        CTCell cell = getCTCell();
         if(Double.isInfinite(value)) {
             // Excel does not support positive/negative infinities,
             // rather, it gives a #DIV/0! error in these cases.
-            _cell.setT(STCellType.E);
-            _cell.setV(FormulaError.DIV0.getString());
+            cell.setT(STCellType.E);
+            cell.setV(FormulaError.DIV0.getString());
         } else if (Double.isNaN(value)){
             // Excel does not support Not-a-Number (NaN),
             // instead it immediately generates an #NUM! error.
-            _cell.setT(STCellType.E);
-            _cell.setV(FormulaError.NUM.getString());
+            cell.setT(STCellType.E);
+            cell.setV(FormulaError.NUM.getString());
         } else {
-            _cell.setT(STCellType.N);
-            _cell.setV(String.valueOf(value));
+            cell.setT(STCellType.N);
+            cell.setV(String.valueOf(value));
         }
     }
 
@@ -364,8 +464,11 @@ public final class XSSFCell implements Cell {
                 rt = new XSSFRichTextString("");
                 break;
             case STRING:
-                if (_cell.getT() == STCellType.INLINE_STR) {
-                    if(_cell.isSetIs()) {
+                if (getT() == STCellType.INLINE_STR) {
+                    if (_cell == null) {
+                        // plain inline string read by the XSSFSheetDataParser
+                        rt = new XSSFRichTextString(_rawValue != null ? _rawValue : "");
+                    } else if(_cell.isSetIs()) {
                         //string is expressed directly in the cell definition instead of implementing the shared string table.
                         rt = new XSSFRichTextString(_cell.getIs());
                     } else if (_cell.isSetV()) {
@@ -374,12 +477,12 @@ public final class XSSFCell implements Cell {
                     } else {
                         rt = new XSSFRichTextString("");
                     }
-                } else if (_cell.getT() == STCellType.STR) {
+                } else if (getT() == STCellType.STR) {
                     //cached formula value
-                    rt = new XSSFRichTextString(_cell.isSetV() ? _cell.getV() : "");
+                    rt = new XSSFRichTextString(isSetV() ? getV() : "");
                 } else {
-                    if (_cell.isSetV()) {
-                        int idx = Integer.parseInt(_cell.getV());
+                    if (isSetV()) {
+                        int idx = Integer.parseInt(getV());
                         rt = new XSSFRichTextString(_sharedStringSource.getEntryAt(idx));
                     }
                     else {
@@ -389,7 +492,7 @@ public final class XSSFCell implements Cell {
                 break;
             case FORMULA:
                 checkFormulaCachedValueType(CellType.STRING, getBaseCellType(false));
-                rt = new XSSFRichTextString(_cell.isSetV() ? _cell.getV() : "");
+                rt = new XSSFRichTextString(isSetV() ? getV() : "");
                 break;
             default:
                 throw typeMismatch(CellType.STRING, cellType, false);
@@ -437,21 +540,22 @@ public final class XSSFCell implements Cell {
         }
 
         CellType cellType = getCellType();
+        CTCell cell = getCTCell();
         switch (cellType){
             case FORMULA:
-                _cell.setV(str.getString());
-                _cell.setT(STCellType.STR);
+                cell.setV(str.getString());
+                cell.setT(STCellType.STR);
                 break;
             default:
-                if(_cell.getT() == STCellType.INLINE_STR) {
+                if(cell.getT() == STCellType.INLINE_STR) {
                     //set the 'pre-evaluated result
-                    _cell.setV(str.getString());
+                    cell.setV(str.getString());
                 } else {
-                    _cell.setT(STCellType.S);
+                    cell.setT(STCellType.S);
                     XSSFRichTextString rt = (XSSFRichTextString)str;
                     rt.setStylesTableReference(_stylesSource);
                     int sRef = _sharedStringSource.addSharedStringItem(rt);
-                    _cell.setV(Integer.toString(sRef));
+                    cell.setV(Integer.toString(sRef));
                 }
                 break;
         }
@@ -482,7 +586,7 @@ public final class XSSFCell implements Cell {
             throw typeMismatch(CellType.FORMULA, cellType, false);
         }
 
-        CTCellFormula f = _cell.getF();
+        CTCellFormula f = getF();
         if (isPartOfArrayFormulaGroup()) {
             /* In an excel generated array formula, the formula property might be set, but the string is empty in slave cells */
             if (f == null || f.getStringValue().isEmpty()) {
@@ -549,7 +653,7 @@ public final class XSSFCell implements Cell {
 
     /* package */ void setCellArrayFormula(String formula, CellRangeAddress range) {
         setFormula(formula, FormulaType.ARRAY);
-        CTCellFormula cellFormula = _cell.getF();
+        CTCellFormula cellFormula = getCTCell().getF();
         cellFormula.setT(STCellFormulaType.ARRAY);
         cellFormula.setRef(range.formatAsString());
     }
@@ -558,7 +662,7 @@ public final class XSSFCell implements Cell {
         XSSFWorkbook wb = _row.getSheet().getWorkbook();
         if (formula == null) {
             wb.onDeleteFormula(this);
-            if (_cell.isSetF()) {
+            if (isSetF()) {
                 _row.getSheet().onDeleteFormula(this);
                 _cell.unsetF();
             }
@@ -571,9 +675,10 @@ public final class XSSFCell implements Cell {
             FormulaParser.parse(formula, fpb, formulaType, wb.getSheetIndex(getSheet()), getRowIndex());
         }
 
+        CTCell cell = getCTCell();
         CTCellFormula f;
-        if (_cell.isSetF()) {
-            f = _cell.getF();
+        if (cell.isSetF()) {
+            f = cell.getF();
             f.setStringValue(formula);
             if(f.getT() == STCellFormulaType.SHARED){
                 getRow().getSheet().onReadCell(this);
@@ -581,10 +686,10 @@ public final class XSSFCell implements Cell {
         } else {
             f = CTCellFormula.Factory.newInstance();
             f.setStringValue(formula);
-            _cell.setF(f);
+            cell.setF(f);
         }
-        if(_cell.isSetV()) {
-            _cell.unsetV();
+        if(cell.isSetV()) {
+            cell.unsetV();
         }
     }
 
@@ -614,7 +719,7 @@ public final class XSSFCell implements Cell {
      * @return A1 style reference to the location of this cell
      */
     public String getReference() {
-        String ref = _cell.getR();
+        String ref = _cell == null ? null : _cell.getR();
         if(ref == null) {
             return getAddress().formatAsString();
         }
@@ -638,7 +743,7 @@ public final class XSSFCell implements Cell {
     public XSSFCellStyle getCellStyle() {
         XSSFCellStyle style = null;
         if(_stylesSource.getNumCellStyles() > 0){
-            long idx = _cell.isSetS() ? _cell.getS() : 0;
+            long idx = isSetS() ? getS() : 0;
             style = _stylesSource.getStyleAt((int)idx);
         }
         return style;
@@ -658,15 +763,15 @@ public final class XSSFCell implements Cell {
     @Override
     public void setCellStyle(CellStyle style) {
         if(style == null) {
-            if(_cell.isSetS()) {
-                _cell.unsetS();
+            if(isSetS()) {
+                getCTCell().unsetS();
             }
         } else {
             XSSFCellStyle xStyle = (XSSFCellStyle)style;
             xStyle.verifyBelongsToStylesSource(_stylesSource);
 
             long idx = _stylesSource.putStyle(xStyle);
-            _cell.setS(idx);
+            getCTCell().setS(idx);
         }
     }
     
@@ -681,7 +786,7 @@ public final class XSSFCell implements Cell {
      * @return true if the cell is of a formula type POI can handle
      */
     private boolean isFormulaCell() {
-        if ( (_cell.isSetF() && _cell.getF().getT() != STCellFormulaType.DATA_TABLE ) || getSheet().isCellInArrayFormulaContext(this)) {
+        if ( (isSetF() && getF().getT() != STCellFormulaType.DATA_TABLE ) || getSheet().isCellInArrayFormulaContext(this)) {
             return true;
         }
         return false;
@@ -760,11 +865,11 @@ public final class XSSFCell implements Cell {
      * Detect cell type based on the "t" attribute of the CTCell bean
      */
     private CellType getBaseCellType(boolean blankCells) {
-        switch (_cell.getT().intValue()) {
+        switch (getT().intValue()) {
             case STCellType.INT_B:
                 return CellType.BOOLEAN;
             case STCellType.INT_N:
-                if (!_cell.isSetV() && blankCells) {
+                if (!isSetV() && blankCells) {
                     // ooxml does have a separate cell type of 'blank'.  A blank cell gets encoded as
                     // (either not present or) a numeric cell with no value set.
                     // The formula evaluator (and perhaps other clients of this interface) needs to
@@ -780,7 +885,7 @@ public final class XSSFCell implements Cell {
             case STCellType.INT_STR:
                  return CellType.STRING;
             default:
-                throw new IllegalStateException("Illegal cell type: " + this._cell.getT());
+                throw new IllegalStateException("Illegal cell type: " + getT());
         }
     }
 
@@ -864,7 +969,7 @@ public final class XSSFCell implements Cell {
             throw typeMismatch(CellType.ERROR, cellType, false);
         }
 
-        return _cell.getV();
+        return getV();
     }
     /**
      * Get the value of the cell as an error code.
@@ -914,8 +1019,9 @@ public final class XSSFCell implements Cell {
      *        cell and set its value.
      */
     public void setCellErrorValue(FormulaError error) {
-        _cell.setT(STCellType.E);
-        _cell.setV(error.getString());
+        CTCell cell = getCTCell();
+        cell.setT(STCellType.E);
+        cell.setV(error.getString());
     }
 
     /**
@@ -931,12 +1037,13 @@ public final class XSSFCell implements Cell {
      * This method erases all the data previously associated with this cell.
      */
     private void setBlank(){
+        CTCell cell = getCTCell();
         CTCell blank = CTCell.Factory.newInstance();
-        blank.setR(_cell.getR());
-        if(_cell.isSetS()) {
-            blank.setS(_cell.getS());
+        blank.setR(cell.getR());
+        if(cell.isSetS()) {
+            blank.setS(cell.getS());
         }
-        _cell.set(blank);
+        cell.set(blank);
     }
 
     /**
@@ -948,7 +1055,7 @@ public final class XSSFCell implements Cell {
         checkBounds(num);
         _cellNum = num;
         String ref = new CellReference(getRowIndex(), getColumnIndex()).formatAsString();
-        _cell.setR(ref);
+        getCTCell().setR(ref);
     }
 
     /**
@@ -964,15 +1071,16 @@ public final class XSSFCell implements Cell {
             notifyArrayFormulaChanging();
         }
         if(prevType == CellType.FORMULA && cellType != CellType.FORMULA) {
-            if (_cell.isSetF()) {
+            if (isSetF()) {
                 _row.getSheet().onDeleteFormula(this);
             }
             getSheet().getWorkbook().onDeleteFormula(this);
         }
 
+        CTCell cell = getCTCell();
         switch (cellType) {
             case NUMERIC:
-                _cell.setT(STCellType.N);
+                cell.setT(STCellType.N);
                 break;
             case STRING:
                 if(prevType != CellType.STRING){
@@ -980,17 +1088,17 @@ public final class XSSFCell implements Cell {
                     XSSFRichTextString rt = new XSSFRichTextString(str);
                     rt.setStylesTableReference(_stylesSource);
                     int sRef = _sharedStringSource.addSharedStringItem(rt);
-                    _cell.setV(Integer.toString(sRef));
+                    cell.setV(Integer.toString(sRef));
                 }
-                _cell.setT(STCellType.S);
+                cell.setT(STCellType.S);
                 break;
             case FORMULA:
-                if(!_cell.isSetF()){
+                if(!cell.isSetF()){
                     CTCellFormula f =  CTCellFormula.Factory.newInstance();
                     f.setStringValue("0");
-                    _cell.setF(f);
-                    if(_cell.isSetT()) {
-                        _cell.unsetT();
+                    cell.setF(f);
+                    if(cell.isSetT()) {
+                        cell.unsetT();
                     }
                 }
                 break;
@@ -999,20 +1107,20 @@ public final class XSSFCell implements Cell {
                 break;
             case BOOLEAN:
                 String newVal = convertCellValueToBoolean() ? TRUE_AS_STRING : FALSE_AS_STRING;
-                _cell.setT(STCellType.B);
-                _cell.setV(newVal);
+                cell.setT(STCellType.B);
+                cell.setV(newVal);
                 break;
 
             case ERROR:
-                _cell.setT(STCellType.E);
+                cell.setT(STCellType.E);
                 break;
 
 
             default:
                 throw new IllegalArgumentException("Illegal cell type: " + cellType);
         }
-        if (cellType != CellType.FORMULA && _cell.isSetF()) {
-            _cell.unsetF();
+        if (cellType != CellType.FORMULA && cell.isSetF()) {
+            cell.unsetF();
         }
     }
 
@@ -1062,7 +1170,7 @@ public final class XSSFCell implements Cell {
      *     <code>null</code> for blank cells.
      */
     public String getRawValue() {
-        return _cell.getV();
+        return getV();
     }
 
 
@@ -1175,6 +1283,9 @@ public final class XSSFCell implements Cell {
      */
     @Internal
     public CTCell getCTCell(){
+        if (_cell == null) {
+            _row.attachCells();
+        }
         return _cell;
     }
     
@@ -1205,14 +1316,14 @@ public final class XSSFCell implements Cell {
 
         switch (cellType) {
             case BOOLEAN:
-                return TRUE_AS_STRING.equals(_cell.getV());
+                return TRUE_AS_STRING.equals(getV());
             case STRING:
-                int sstIndex = Integer.parseInt(_cell.getV());
+                int sstIndex = Integer.parseInt(getV());
                 XSSFRichTextString rt = new XSSFRichTextString(_sharedStringSource.getEntryAt(sstIndex));
                 String text = rt.getString();
                 return Boolean.parseBoolean(text);
             case NUMERIC:
-                return Double.parseDouble(_cell.getV()) != 0;
+                return Double.parseDouble(getV()) != 0;
 
             case ERROR:
                 // fall-through
@@ -1231,14 +1342,14 @@ public final class XSSFCell implements Cell {
             case BLANK:
                 return "";
             case BOOLEAN:
-                return TRUE_AS_STRING.equals(_cell.getV()) ? TRUE : FALSE;
+                return TRUE_AS_STRING.equals(getV()) ? TRUE : FALSE;
             case STRING:
-                int sstIndex = Integer.parseInt(_cell.getV());
+                int sstIndex = Integer.parseInt(getV());
                 XSSFRichTextString rt = new XSSFRichTextString(_sharedStringSource.getEntryAt(sstIndex));
                 return rt.getString();
             case NUMERIC:
             case ERROR:
-                return _cell.getV();
+                return getV();
             case FORMULA:
                 // should really evaluate, but HSSFCell can't call HSSFFormulaEvaluator
                 // just use cached formula result instead
@@ -1247,7 +1358,7 @@ public final class XSSFCell implements Cell {
                 throw new IllegalStateException("Unexpected cell type (" + cellType + ")");
         }
         cellType = getBaseCellType(false);
-        String textValue = _cell.getV();
+        String textValue = getV();
         switch (cellType) {
             case BOOLEAN:
                 if (TRUE_AS_STRING.equals(textValue)) {
@@ -1279,7 +1390,7 @@ public final class XSSFCell implements Cell {
             throw new IllegalStateException("Cell " + getReference()
                     + " is not part of an array formula.");
         }
-        String formulaRef = cell._cell.getF().getRef();
+        String formulaRef = cell.getF().getRef();
         return CellRangeAddress.valueOf(formulaRef);
     }
 
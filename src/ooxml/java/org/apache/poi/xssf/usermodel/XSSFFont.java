@@ -62,6 +62,7 @@ public class XSSFFont implements Font {
 
     private IndexedColorMap _indexedColorMap;
     private ThemesTable _themes;
+    private StylesTable _stylesSource;
     private CTFont _ctFont;
     private short _index;
 
@@ -303,6 +304,7 @@ public class XSSFFont implements Font {
         } else {
             _ctFont.setBArray(null);
         }
+        modified();
     }
 
     /**
@@ -345,6 +347,7 @@ public class XSSFFont implements Font {
        // We know that FontCharset only has valid entries in it,
        //  so we can just set the int value from it
        charsetProperty.setVal( charSet.getValue() );
+       modified();
     }
 
     /**
@@ -368,6 +371,7 @@ public class XSSFFont implements Font {
             default:
                 ctColor.setIndexed(color);
         }
+        modified();
     }
 
     /**
@@ -384,6 +388,7 @@ public class XSSFFont implements Font {
             }
             ctColor.setRgb(color.getRGB());
         }
+        modified();
     }
 
     /**
@@ -403,6 +408,7 @@ public class XSSFFont implements Font {
     public void setFontHeight(double height) {
         CTFontSize fontSize = _ctFont.sizeOfSzArray() == 0 ? _ctFont.addNewSz() : _ctFont.getSzArray(0);
         fontSize.setVal(height);
+        modified();
     }
 
     /**
@@ -422,6 +428,7 @@ public class XSSFFont implements Font {
     public void setThemeColor(short theme) {
         CTColor ctColor = _ctFont.sizeOfColorArray() == 0 ? _ctFont.addNewColor() : _ctFont.getColorArray(0);
         ctColor.setTheme(theme);
+        modified();
     }
 
     /**
@@ -438,6 +445,7 @@ public class XSSFFont implements Font {
     public void setFontName(String name) {
         CTFontName fontName = _ctFont.sizeOfNameArray() == 0 ? _ctFont.addNewName() : _ctFont.getNameArray(0);
         fontName.setVal(name == null ? DEFAULT_FONT_NAME : name);
+        modified();
     }
 
 
@@ -454,6 +462,7 @@ public class XSSFFont implements Font {
         } else {
             _ctFont.setIArray(null);
         }
+        modified();
     }
 
 
@@ -470,6 +479,7 @@ public class XSSFFont implements Font {
         } else {
             _ctFont.setStrikeArray(null);
         }
+        modified();
     }
 
     /**
@@ -501,6 +511,7 @@ public class XSSFFont implements Font {
                     throw new IllegalStateException("Invalid type offset: " + offset);
             }
         }
+        modified();
     }
 
     /**
@@ -529,6 +540,7 @@ public class XSSFFont implements Font {
             STUnderlineValues.Enum val = STUnderlineValues.Enum.forInt(underline.getValue());
             ctUnderline.setVal(val);
         }
+        modified();
     }
 
 
@@ -536,6 +548,21 @@ public class XSSFFont implements Font {
         return _ctFont.toString();
     }
 
+    /**
+     * Records the styles table which contains this font, it's notified of
+     *  modifications of the font to keep its indexes up to date
+     */
+    @Internal
+    public void setStylesSource(StylesTable styles) {
+        this._stylesSource = styles;
+    }
+
+    private void modified() {
+        if (_stylesSource != null) {
+            _stylesSource.fontModified(this);
+        }
+    }
+
 
     /**
      * Perform a registration of ourselves 
@@ -578,6 +605,7 @@ public class XSSFFont implements Font {
         CTFontScheme ctFontScheme = _ctFont.sizeOfSchemeArray() == 0 ? _ctFont.addNewScheme() : _ctFont.getSchemeArray(0);
         STFontScheme.Enum val = STFontScheme.Enum.forInt(scheme.getValue());
         ctFontScheme.setVal(val);
+        modified();
     }
 
     /**
@@ -602,6 +630,7 @@ public class XSSFFont implements Font {
     public void setFamily(int value) {
         CTIntProperty family = _ctFont.sizeOfFamilyArray() == 0 ? _ctFont.addNewFamily() : _ctFont.getFamilyArray(0);
         family.setVal(value);
+        modified();
     }
 
     /**
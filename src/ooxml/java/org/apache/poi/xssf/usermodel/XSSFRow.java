@@ -20,7 +20,6 @@ package org.apache.poi.xssf.usermodel;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
-import java.util.TreeMap;
 
 import org.apache.poi.ss.formula.FormulaShifter;
 import org.apache.poi.ss.SpreadsheetVersion;
@@ -33,6 +32,7 @@ import org.apache.poi.ss.util.CellRangeAddress;
 import org.apache.poi.ss.util.CellReference;
 import org.apache.poi.util.Beta;
 import org.apache.poi.util.Internal;
+import org.apache.poi.util.SortedIntMap;
 import org.apache.poi.xssf.model.CalculationChain;
 import org.apache.poi.xssf.model.StylesTable;
 import org.apache.poi.xssf.usermodel.helpers.XSSFRowShifter;
@@ -52,15 +52,20 @@ public class XSSFRow implements Row, Comparable<XSSFRow> {
 
     /**
      * Cells of this row keyed by their column indexes.
-     * The TreeMap ensures that the cells are ordered by columnIndex in the ascending order.
+     * The SortedIntMap ensures that the cells are ordered by columnIndex in the ascending order.
      */
-    private final TreeMap<Integer, XSSFCell> _cells;
+    private final SortedIntMap<XSSFCell> _cells;
 
     /**
      * the parent sheet
      */
     private final XSSFSheet _sheet;
 
+    /**
+     * set, while the cells read by the {@link XSSFSheetDataParser} have no xml beans
+     */
+    private boolean _detachedCells;
+
     /**
      * Construct a XSSFRow.
      *
@@ -70,15 +75,67 @@ public class XSSFRow implements Row, Comparable<XSSFRow> {
     protected XSSFRow(CTRow row, XSSFSheet sheet) {
         _row = row;
         _sheet = sheet;
-        _cells = new TreeMap<>();
-        for (CTCell c : row.getCArray()) {
+        CTCell[] cArray = row.getCArray();
+        _cells = new SortedIntMap<>(cArray.length);
+        for (CTCell c : cArray) {
             XSSFCell cell = new XSSFCell(this, c);
-            // Performance optimization for bug 57840: explicit boxing is slightly faster than auto-unboxing, though may use more memory
-            final Integer colI = Integer.valueOf(cell.getColumnIndex()); // NOSONAR
-            _cells.put(colI, cell);
+            _cells.put(cell.getColumnIndex(), cell);
             sheet.onReadCell(cell);
         }
         
+        initRowNum(row, sheet);
+    }
+
+    /**
+     * Construct a XSSFRow from the cells collected by the {@link XSSFSheetDataParser}.
+     * <p>
+     * The xml beans of simple cells are created on demand by {@link #attachCells()}.
+     * If the row contains formulas or other complex cells, all beans are created right away,
+     * so the cells keep their order within the row.
+     * </p>
+     *
+     * @param row the xml bean of the row without its cells
+     * @param parsedRow the cells of the row
+     * @param sheet the parent sheet
+     */
+    XSSFRow(CTRow row, XSSFSheetDataParser.ParsedRow parsedRow, XSSFSheet sheet) {
+        _row = row;
+        _sheet = sheet;
+        initRowNum(row, sheet);
+
+        int size = parsedRow.size();
+        _cells = new SortedIntMap<>(size);
+        if (parsedRow.hasComplexCells()) {
+            int rowNum = getRowNum();
+            for (int i = 0; i < size; i++) {
+                CTCell c = row.addNewC();
+                CTCell complexCell = parsedRow.getComplexCell(i);
+                if (complexCell != null) {
+                    c.set(complexCell);
+                } else {
+                    int column = parsedRow.getColumn(i);
+                    String ref = column == -1 ? null : new CellReference(rowNum, column).formatAsString();
+                    XSSFCell.initCTCell(c, ref, parsedRow.getType(i), parsedRow.getStyle(i), parsedRow.getValue(i));
+                }
+                XSSFCell cell = new XSSFCell(this, c);
+                _cells.put(cell.getColumnIndex(), cell);
+                sheet.onReadCell(cell);
+            }
+        } else {
+            for (int i = 0; i < size; i++) {
+                int column = parsedRow.getColumn(i);
+                if (column == -1) {
+                    // same as for cells without reference in the xml bean
+                    column = _cells.isEmpty() ? 0 : _cells.lastKey() + 1;
+                }
+                XSSFCell cell = new XSSFCell(this, column, parsedRow.getType(i), parsedRow.getStyle(i), parsedRow.getValue(i));
+                _cells.put(column, cell);
+            }
+            _detachedCells = size > 0;
+        }
+    }
+
+    private static void initRowNum(CTRow row, XSSFSheet sheet) {
         if (! row.isSetR()) {
             // Certain file format writers skip the row number
             // Assume no gaps, and give this the next row number
@@ -90,6 +147,19 @@ public class XSSFRow implements Row, Comparable<XSSFRow> {
         }
     }
 
+    /**
+     * Creates the xml beans of the cells, which have been read without beans by
+     * the {@link XSSFSheetDataParser}. The beans are appended in column order.
+     */
+    void attachCells() {
+        if (_detachedCells) {
+            _detachedCells = false;
+            for (XSSFCell cell : _cells.values()) {
+                cell.attachCTCell(_row.addNewC());
+            }
+        }
+    }
+
     /**
      * Returns the XSSFSheet this row belongs to
      *
@@ -209,10 +279,9 @@ public class XSSFRow implements Row, Comparable<XSSFRow> {
      */
     @Override
     public XSSFCell createCell(int columnIndex, CellType type) {
-        // Performance optimization for bug 57840: explicit boxing is slightly faster than auto-unboxing, though may use more memory
-        final Integer colI = Integer.valueOf(columnIndex); // NOSONAR
+        attachCells();
         CTCell ctCell;
-        XSSFCell prev = _cells.get(colI);
+        XSSFCell prev = _cells.get(columnIndex);
         if(prev != null){
             ctCell = prev.getCTCell();
             ctCell.set(CTCell.Factory.newInstance());
@@ -224,7 +293,7 @@ public class XSSFRow implements Row, Comparable<XSSFRow> {
         if (type != CellType.BLANK) {
             xcell.setCellType(type);
         }
-        _cells.put(colI, xcell);
+        _cells.put(columnIndex, xcell);
         return xcell;
     }
 
@@ -249,9 +318,7 @@ public class XSSFRow implements Row, Comparable<XSSFRow> {
     public XSSFCell getCell(int cellnum, MissingCellPolicy policy) {
         if(cellnum < 0) throw new IllegalArgumentException("Cell index must be >= 0");
 
-        // Performance optimization for bug 57840: explicit boxing is slightly faster than auto-unboxing, though may use more memory
-        final Integer colI = Integer.valueOf(cellnum); // NOSONAR
-        XSSFCell cell = _cells.get(colI);
+        XSSFCell cell = _cells.get(cellnum);
         switch (policy) {
             case RETURN_NULL_AND_BLANK:
                 return cell;
@@ -479,9 +546,7 @@ public class XSSFRow implements Row, Comparable<XSSFRow> {
         if(cell.getCellType() == CellType.FORMULA) {
            _sheet.getWorkbook().onDeleteFormula(xcell);
         }
-        // Performance optimization for bug 57840: explicit boxing is slightly faster than auto-unboxing, though may use more memory
-        final Integer colI = Integer.valueOf(cell.getColumnIndex()); // NOSONAR
-        _cells.remove(colI);
+        _cells.remove(cell.getColumnIndex());
     }
 
     /**
@@ -491,6 +556,7 @@ public class XSSFRow implements Row, Comparable<XSSFRow> {
      */
     @Internal
     public CTRow getCTRow(){
+        attachCells();
         return _row;
     }
 
@@ -500,6 +566,7 @@ public class XSSFRow implements Row, Comparable<XSSFRow> {
      * @see org.apache.poi.xssf.usermodel.XSSFSheet#write(java.io.OutputStream) ()
      */
     protected void onDocumentWrite(){
+        attachCells();
         // check if cells in the CTRow are ordered
         boolean isOrdered = true;
         CTCell[] cArray = _row.getCArray();
@@ -544,7 +611,7 @@ public class XSSFRow implements Row, Comparable<XSSFRow> {
      */
     @Override
     public String toString(){
-        return _row.toString();
+        return getCTRow().toString();
     }
 
     /**
@@ -80,6 +80,8 @@ import org.apache.poi.util.Beta;
 import org.apache.poi.util.Internal;
 import org.apache.poi.util.POILogFactory;
 import org.apache.poi.util.POILogger;
+import org.apache.poi.util.SortedIntMap;
+import org.apache.poi.util.StaxHelper;
 import org.apache.poi.util.Units;
 import org.apache.poi.xssf.model.CommentsTable;
 import org.apache.poi.xssf.usermodel.XSSFPivotTable.PivotTableReferenceConfigurator;
@@ -161,7 +163,7 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
     protected CTSheet sheet;
     protected CTWorksheet worksheet;
 
-    private final SortedMap<Integer, XSSFRow> _rows = new TreeMap<>();
+    private final SortedIntMap<XSSFRow> _rows = new SortedIntMap<>();
     private List<XSSFHyperlink> hyperlinks;
     private ColumnHelper columnHelper;
     private CommentsTable sheetComments;
@@ -174,6 +176,16 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
     private List<CellRangeAddress> arrayFormulas;
     private XSSFDataValidationHelper dataValidationHelper;
 
+    /**
+     * set, if the sheet data has not been parsed yet, see {@link XSSFWorkbook#XSSFWorkbook(org.apache.poi.openxml4j.opc.OPCPackage, boolean)}
+     */
+    private boolean readPending;
+
+    /**
+     * set, if rows read by the {@link XSSFSheetDataParser} may still lack the beans of their cells
+     */
+    private boolean detachedCells;
+
     /**
      * Creates new XSSFSheet   - called by XSSFWorkbook to create a sheet from scratch.
      *
@@ -220,14 +232,47 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
         }
     }
 
+    /**
+     * Postpone the parsing of the sheet data until {@link #ensureRead()} is called
+     */
+    void deferRead() {
+        readPending = true;
+    }
+
+    /**
+     * Parse the sheet data, if it has been deferred
+     */
+    void ensureRead() {
+        if (readPending) {
+            readPending = false;
+            onDocumentRead();
+        }
+    }
+
+    /**
+     * @return true, if the sheet data has not been parsed yet
+     */
+    boolean isReadPending() {
+        return readPending;
+    }
+
     protected void read(InputStream is) throws IOException {
+        // the cells of the sheet data are read by the parser and
+        // not by XMLBeans, their beans are only created when needed
+        XSSFSheetDataParser parser;
         try {
-            worksheet = WorksheetDocument.Factory.parse(is, DEFAULT_XML_OPTIONS).getWorksheet();
-        } catch (XmlException e){
+            XMLStreamReader reader = StaxHelper.newXMLInputFactory().createXMLStreamReader(is);
+            try {
+                parser = new XSSFSheetDataParser(reader);
+                worksheet = WorksheetDocument.Factory.parse(parser, DEFAULT_XML_OPTIONS).getWorksheet();
+            } finally {
+                reader.close();
+            }
+        } catch (XmlException | XMLStreamException e){
             throw new POIXMLException(e);
         }
 
-        initRows(worksheet);
+        initRows(worksheet, parser.getRows());
         columnHelper = new ColumnHelper(worksheet);
         // Look for bits we're interested in
         for(RelationPart rp : getRelationParts()){
@@ -253,22 +298,31 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
     @Override
     protected void onDocumentCreate(){
         worksheet = newSheet();
-        initRows(worksheet);
+        initRows(worksheet, null);
         columnHelper = new ColumnHelper(worksheet);
         hyperlinks = new ArrayList<>();
     }
 
-    private void initRows(CTWorksheet worksheetParam) {
+    /**
+     * @param parsedRows the cells read by the {@link XSSFSheetDataParser}
+     *  or null, if the cells are contained in the row beans
+     */
+    private void initRows(CTWorksheet worksheetParam, List<XSSFSheetDataParser.ParsedRow> parsedRows) {
         _rows.clear();
         tables = new TreeMap<>();
         sharedFormulas = new HashMap<>();
         arrayFormulas = new ArrayList<>();
-        for (CTRow row : worksheetParam.getSheetData().getRowArray()) {
-            XSSFRow r = new XSSFRow(row, this);
-            // Performance optimization: explicit boxing is slightly faster than auto-unboxing, though may use more memory
-            final Integer rownumI = Integer.valueOf(r.getRowNum()); // NOSONAR
-            _rows.put(rownumI, r);
+        CTRow[] rows = worksheetParam.getSheetData().getRowArray();
+        if (parsedRows != null && parsedRows.size() != rows.length) {
+            throw new POIXMLException("Expected " + rows.length + " rows in the sheet data, but parsed " + parsedRows.size());
+        }
+        for (int i = 0; i < rows.length; i++) {
+            XSSFRow r = (parsedRows == null)
+                ? new XSSFRow(rows[i], this)
+                : new XSSFRow(rows[i], parsedRows.get(i), this);
+            _rows.put(r.getRowNum(), r);
         }
+        detachedCells = parsedRows != null;
     }
 
     /**
@@ -329,12 +383,20 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
     }
 
     /**
-     * Provide access to the CTWorksheet bean holding this sheet's data
+     * Provide access to the CTWorksheet bean holding this sheet's data.
+     * The cell beans of the rows read from a file are only created on demand,
+     * so the first call creates the missing beans of all rows.
      *
      * @return the CTWorksheet bean holding this sheet's data
      */
     @Internal
     public CTWorksheet getCTWorksheet() {
+        if (detachedCells) {
+            detachedCells = false;
+            for (XSSFRow row : _rows.values()) {
+                row.attachCells();
+            }
+        }
         return this.worksheet;
     }
 
@@ -750,10 +812,8 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
      */
     @Override
     public XSSFRow createRow(int rownum) {
-        // Performance optimization: explicit boxing is slightly faster than auto-unboxing, though may use more memory
-        final Integer rownumI = Integer.valueOf(rownum); // NOSONAR
         CTRow ctRow;
-        XSSFRow prev = _rows.get(rownumI);
+        XSSFRow prev = _rows.get(rownum);
         if(prev != null){
             // the Cells in an existing row are invalidated on-purpose, in order to clean up correctly, we
             // need to call the remove, so things like ArrayFormulas and CalculationChain updates are done 
@@ -773,13 +833,13 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
             } else {
                 // get number of rows where row index < rownum
                 // --> this tells us where our row should go
-                int idx = _rows.headMap(rownumI).size();
+                int idx = _rows.headSize(rownum);
                 ctRow = worksheet.getSheetData().insertNewRow(idx);
             }
         }
         XSSFRow r = new XSSFRow(ctRow, this);
         r.setRowNum(rownum);
-        _rows.put(rownumI, r);
+        _rows.put(rownum, r);
         return r;
     }
 
@@ -1447,9 +1507,7 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
      */
     @Override
     public XSSFRow getRow(int rownum) {
-        // Performance optimization: explicit boxing is slightly faster than auto-unboxing, though may use more memory
-        final Integer rownumI = Integer.valueOf(rownum); // NOSONAR
-        return _rows.get(rownumI);
+        return _rows.get(rownum);
     }
     
     /**
@@ -1478,11 +1536,7 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
             }
         }
         else {
-            // Performance optimization: explicit boxing is slightly faster than auto-unboxing, though may use more memory
-            final Integer startI = Integer.valueOf(startRowNum); // NOSONAR
-            final Integer endI = Integer.valueOf(endRowNum+1); // NOSONAR
-            final Collection<XSSFRow> inclusive = _rows.subMap(startI, endI).values();
-            rows.addAll(inclusive);
+            rows.addAll(_rows.values(startRowNum, endRowNum+1));
         }
         return rows;
     }
@@ -1980,12 +2034,10 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
             row.removeCell(cell);
         }
 
-        // Performance optimization: explicit boxing is slightly faster than auto-unboxing, though may use more memory
         final int rowNum = row.getRowNum();
-        final Integer rowNumI = Integer.valueOf(rowNum); // NOSONAR
         // this is not the physical row number!
-        final int idx = _rows.headMap(rowNumI).size();
-        _rows.remove(rowNumI);
+        final int idx = _rows.headSize(rowNum);
+        _rows.remove(rowNum);
         worksheet.getSheetData().removeRow(idx);
 
         // also remove any comment located in that row
@@ -2993,9 +3045,7 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
             // check if we should remove this row as it will be overwritten by the data later
             if (shouldRemoveRow(startRow, endRow, n, rownum)) {
                 // remove row from worksheet.getSheetData row array
-                // Performance optimization: explicit boxing is slightly faster than auto-unboxing, though may use more memory
-                final Integer rownumI = Integer.valueOf(row.getRowNum()); // NOSONAR
-                int idx = _rows.headMap(rownumI).size();
+                int idx = _rows.headSize(row.getRowNum());
                 worksheet.getSheetData().removeRow(idx);
 
                 // remove row from _rows
@@ -3115,14 +3165,12 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
         rowShifter.updateHyperlinks(shifter);
 
         //rebuild the _rows map
-        Map<Integer, XSSFRow> map = new HashMap<>();
-        for(XSSFRow r : _rows.values()) {
-            // Performance optimization: explicit boxing is slightly faster than auto-unboxing, though may use more memory
-            final Integer rownumI = Integer.valueOf(r.getRowNum()); // NOSONAR
-            map.put(rownumI, r);
-        }
+        List<XSSFRow> shiftedRows = new ArrayList<>(_rows.values());
+        Collections.sort(shiftedRows);
         _rows.clear();
-        _rows.putAll(map);
+        for(XSSFRow r : shiftedRows) {
+            _rows.put(r.getRowNum(), r);
+        }
     }
 
     private int shiftedRowNum(int startRow, int endRow, int n, int rownum) {
@@ -3443,8 +3491,23 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
         }
     }
 
+    /**
+     * The part of a sheet, which hasn't been read yet, holds the only copy of its data,
+     * so it must not be cleared before {@link #commit()}.
+     */
+    @Override
+    protected void prepareForCommit() {
+        if (!readPending) {
+            super.prepareForCommit();
+        }
+    }
+
     @Override
     protected void commit() throws IOException {
+        if (readPending) {
+            // the sheet hasn't been touched, so the package part is still up to date
+            return;
+        }
         PackagePart part = getPackagePart();
         OutputStream out = part.getOutputStream();
         write(out);
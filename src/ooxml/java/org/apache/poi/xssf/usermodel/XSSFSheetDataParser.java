@@ -0,0 +1,434 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xssf.usermodel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.util.StreamReaderDelegate;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.xmlbeans.XmlCursor;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTCell;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTRow;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.STCellType;
+
+/**
+ * Fast path for reading the sheet data of a worksheet part.
+ * <p>
+ * The worksheet is still parsed into XMLBeans, but through this filtering stream reader,
+ *  which takes the <code>c</code> elements out of the rows of the <code>sheetData</code>.
+ * Instead of a {@link CTCell} bean for every cell, the values of simple cells - i.e. cells
+ *  with a type, a style and a value or a plain inline string - are collected into compact arrays,
+ *  which are turned into {@link XSSFCell}s by {@link XSSFRow}. The xml beans of these cells are
+ *  only created on demand, see {@link XSSFRow#attachCells()}.
+ * Cells with formulas or other content are copied into detached beans.
+ * </p>
+ * <p>
+ * For each <code>row</code> element, which is passed on to XMLBeans, a {@link ParsedRow}
+ *  is recorded, so the parsed rows are in the same order as the {@link CTRow} beans of the sheet data.
+ * </p>
+ *
+ * @since POI 4.0.0
+ */
+final class XSSFSheetDataParser extends StreamReaderDelegate {
+    private static final String NS_SPREADSHEETML = XSSFRelation.NS_SPREADSHEETML;
+
+    private final List<ParsedRow> rows = new ArrayList<>();
+    // holds the detached beans of the cells with formulas or other complex content
+    private CTRow complexCells;
+    private ParsedRow currentRow;
+    // the cursor of a complex cell, which has been started while reading an inline string
+    private XmlCursor complexCellCursor;
+    private int depth;
+    private boolean inSheetData;
+
+    XSSFSheetDataParser(XMLStreamReader reader) {
+        super(reader);
+    }
+
+    /**
+     * @return the cells of the rows in document order
+     */
+    List<ParsedRow> getRows() {
+        return rows;
+    }
+
+    @Override
+    public int next() throws XMLStreamException {
+        int event = super.next();
+        while (event == START_ELEMENT && inSheetData && depth == 3 && isSpreadsheetElement("c")) {
+            readCell();
+            event = super.next();
+        }
+        if (event == START_ELEMENT) {
+            depth++;
+            if (depth == 2 && isSpreadsheetElement("sheetData")) {
+                inSheetData = true;
+            } else if (depth == 3 && inSheetData && isSpreadsheetElement("row")) {
+                currentRow = new ParsedRow();
+                rows.add(currentRow);
+            }
+        } else if (event == END_ELEMENT) {
+            if (depth == 2) {
+                inSheetData = false;
+            }
+            depth--;
+        }
+        return event;
+    }
+
+    @Override
+    public int nextTag() throws XMLStreamException {
+        // the delegate implementation would bypass the filtering of next()
+        int event = next();
+        while ((event == CHARACTERS && isWhiteSpace()) || (event == CDATA && isWhiteSpace())
+                || event == SPACE || event == PROCESSING_INSTRUCTION || event == COMMENT) {
+            event = next();
+        }
+        if (event != START_ELEMENT && event != END_ELEMENT) {
+            throw new XMLStreamException("expected start or end tag", getLocation());
+        }
+        return event;
+    }
+
+    private boolean isSpreadsheetElement(String localName) {
+        return localName.equals(getLocalName()) && NS_SPREADSHEETML.equals(getNamespaceURI());
+    }
+
+    /**
+     * Reads a cell element, the reader is positioned on the start tag and will be positioned
+     * on the end tag afterwards
+     */
+    private void readCell() throws XMLStreamException {
+        String ref = null, type = null, style = null;
+        boolean complex = false;
+        int attributeCount = getAttributeCount();
+        for (int i = 0; i < attributeCount; i++) {
+            String ns = getAttributeNamespace(i);
+            String name = getAttributeLocalName(i);
+            if (ns != null && !ns.isEmpty()) {
+                complex = true;
+            } else if ("r".equals(name)) {
+                ref = getAttributeValue(i);
+            } else if ("t".equals(name)) {
+                type = getAttributeValue(i);
+            } else if ("s".equals(name)) {
+                style = getAttributeValue(i);
+            } else {
+                complex = true;
+            }
+        }
+
+        STCellType.Enum cellType = (type == null) ? null : STCellType.Enum.forString(type);
+        int column = (ref == null) ? -1 : parseColumn(ref);
+        int styleIndex = (style == null) ? -1 : parseStyle(style);
+        if ((type != null && cellType == null) || column == -2 || styleIndex == -2) {
+            // leave the validation to XMLBeans and CellReference
+            complex = true;
+        }
+
+        if (complex) {
+            XmlCursor cursor = newComplexCell(column);
+            copyAttributes(cursor);
+            copyChildren(cursor);
+            cursor.dispose();
+            return;
+        }
+
+        String value = null;
+        XmlCursor cursor = null;
+        while (true) {
+            int event = super.next();
+            if (event == END_ELEMENT) {
+                break;
+            }
+            if (event != START_ELEMENT) {
+                continue;
+            }
+            if (cursor == null && value == null && getAttributeCount() == 0) {
+                if (cellType != STCellType.INLINE_STR && isSpreadsheetElement("v")) {
+                    value = getElementText();
+                    continue;
+                }
+                if (cellType == STCellType.INLINE_STR && isSpreadsheetElement("is")) {
+                    value = readInlineString(ref, type, style, column);
+                    if (value == null) {
+                        // the rich text has been copied into a complex cell
+                        cursor = complexCellCursor;
+                        complexCellCursor = null;
+                    }
+                    continue;
+                }
+            }
+            if (cursor == null) {
+                cursor = newComplexCell(column);
+                insertCellAttributes(cursor, ref, type, style);
+                if (value != null) {
+                    insertValue(cursor, cellType, value);
+                    value = null;
+                }
+            }
+            copyElement(cursor);
+        }
+
+        if (cursor != null) {
+            cursor.dispose();
+        } else {
+            currentRow.addCell(column, cellType, styleIndex, value);
+        }
+    }
+
+    /**
+     * Reads an inline string, the reader is positioned on the start tag of the is element.
+     *
+     * @return the text of the inline string or null, if it contains rich text or phonetic runs.
+     *  In that case, the cell is continued as complex cell in {@link #complexCellCursor}
+     */
+    private String readInlineString(String ref, String type, String style, int column) throws XMLStreamException {
+        String text = null;
+        String space = null;
+        while (true) {
+            int event = super.next();
+            if (event == END_ELEMENT) {
+                return (text == null) ? "" : text;
+            }
+            if (event != START_ELEMENT) {
+                continue;
+            }
+            if (text == null && isSpreadsheetElement("t") && isSimpleText()) {
+                space = getAttributeValue(XMLConstants.XML_NS_URI, "space");
+                text = getElementText();
+                continue;
+            }
+
+            // rich text - continue with a complex cell
+            XmlCursor cursor = newComplexCell(column);
+            insertCellAttributes(cursor, ref, type, style);
+            cursor.beginElement("is", NS_SPREADSHEETML);
+            if (text != null) {
+                insertText(cursor, text, space);
+            }
+            copyElement(cursor);
+            copyChildren(cursor);
+            // leave the is element
+            cursor.toNextToken();
+            complexCellCursor = cursor;
+            return null;
+        }
+    }
+
+    /**
+     * @return true, if the current element has no attributes besides xml:space
+     */
+    private boolean isSimpleText() {
+        int count = getAttributeCount();
+        return count == 0 || (count == 1 && XMLConstants.XML_NS_URI.equals(getAttributeNamespace(0))
+                && "space".equals(getAttributeLocalName(0)));
+    }
+
+    /**
+     * Creates the detached bean of a complex cell and records it with the current row
+     *
+     * @return a cursor positioned within the new, empty cell element
+     */
+    private XmlCursor newComplexCell(int column) {
+        if (complexCells == null) {
+            complexCells = CTRow.Factory.newInstance();
+        }
+        CTCell cell = complexCells.addNewC();
+        currentRow.addComplexCell(column, cell);
+        XmlCursor cursor = cell.newCursor();
+        cursor.toNextToken();
+        return cursor;
+    }
+
+    private static void insertCellAttributes(XmlCursor cursor, String ref, String type, String style) {
+        if (ref != null) {
+            cursor.insertAttributeWithValue("r", ref);
+        }
+        if (style != null) {
+            cursor.insertAttributeWithValue("s", style);
+        }
+        if (type != null) {
+            cursor.insertAttributeWithValue("t", type);
+        }
+    }
+
+    private static void insertValue(XmlCursor cursor, STCellType.Enum cellType, String value) {
+        if (cellType == STCellType.INLINE_STR) {
+            cursor.beginElement("is", NS_SPREADSHEETML);
+            boolean preserve = !value.isEmpty() && (Character.isWhitespace(value.charAt(0))
+                    || Character.isWhitespace(value.charAt(value.length() - 1)));
+            insertText(cursor, value, preserve ? "preserve" : null);
+            cursor.toNextToken();
+        } else {
+            cursor.insertElementWithText("v", NS_SPREADSHEETML, value);
+        }
+    }
+
+    private static void insertText(XmlCursor cursor, String text, String space) {
+        cursor.beginElement("t", NS_SPREADSHEETML);
+        if (space != null) {
+            cursor.insertAttributeWithValue("space", XMLConstants.XML_NS_URI, space);
+        }
+        cursor.insertChars(text);
+        cursor.toNextToken();
+    }
+
+    private void copyAttributes(XmlCursor cursor) {
+        int count = getAttributeCount();
+        for (int i = 0; i < count; i++) {
+            cursor.insertAttributeWithValue(getAttributeName(i), getAttributeValue(i));
+        }
+    }
+
+    /**
+     * Copies the current element with its content, the reader and the cursor
+     * are positioned behind the element afterwards
+     */
+    private void copyElement(XmlCursor cursor) throws XMLStreamException {
+        cursor.beginElement(getName());
+        copyAttributes(cursor);
+        copyChildren(cursor);
+        cursor.toNextToken();
+    }
+
+    /**
+     * Copies the content of the current element, until its end tag is reached
+     */
+    private void copyChildren(XmlCursor cursor) throws XMLStreamException {
+        while (true) {
+            int event = super.next();
+            switch (event) {
+                case START_ELEMENT:
+                    copyElement(cursor);
+                    break;
+                case END_ELEMENT:
+                    return;
+                case CHARACTERS:
+                case CDATA:
+                case SPACE:
+                    cursor.insertChars(getText());
+                    break;
+                default:
+                    // comments and processing instructions are dropped like in the XMLBeans store
+                    break;
+            }
+        }
+    }
+
+    /**
+     * @return the column of a cell reference like "AB12", -2 if it is not a valid reference
+     */
+    private static int parseColumn(String ref) {
+        int column = CellReference.convertCellRefToColIndex(ref);
+        return (column < 0 || column > SpreadsheetVersion.EXCEL2007.getLastColumnIndex()) ? -2 : column;
+    }
+
+    /**
+     * @return the style index or -2, if it's not a valid index
+     */
+    private static int parseStyle(String style) {
+        try {
+            int styleIndex = Integer.parseInt(style);
+            return styleIndex < 0 ? -2 : styleIndex;
+        } catch (NumberFormatException e) {
+            return -2;
+        }
+    }
+
+    /**
+     * The cells of a row, a cell is either given by its type, style and value
+     * or by a detached {@link CTCell} bean for complex cells
+     */
+    static final class ParsedRow {
+        private int size;
+        // -1 for cells without reference
+        private int[] columns = new int[8];
+        private STCellType.Enum[] types = new STCellType.Enum[8];
+        // -1 for cells without style
+        private int[] styles = new int[8];
+        // the text of inline strings or the cell value
+        private String[] values = new String[8];
+        private CTCell[] complexCells;
+
+        private int add(int column) {
+            if (size == columns.length) {
+                int capacity = size * 2;
+                columns = Arrays.copyOf(columns, capacity);
+                types = Arrays.copyOf(types, capacity);
+                styles = Arrays.copyOf(styles, capacity);
+                values = Arrays.copyOf(values, capacity);
+                if (complexCells != null) {
+                    complexCells = Arrays.copyOf(complexCells, capacity);
+                }
+            }
+            columns[size] = column;
+            return size++;
+        }
+
+        void addCell(int column, STCellType.Enum type, int style, String value) {
+            int idx = add(column);
+            types[idx] = type;
+            styles[idx] = style;
+            values[idx] = value;
+        }
+
+        void addComplexCell(int column, CTCell cell) {
+            int idx = add(column);
+            if (complexCells == null) {
+                complexCells = new CTCell[columns.length];
+            }
+            complexCells[idx] = cell;
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean hasComplexCells() {
+            return complexCells != null;
+        }
+
+        int getColumn(int idx) {
+            return columns[idx];
+        }
+
+        STCellType.Enum getType(int idx) {
+            return types[idx];
+        }
+
+        int getStyle(int idx) {
+            return styles[idx];
+        }
+
+        String getValue(int idx) {
+            return values[idx];
+        }
+
+        CTCell getComplexCell(int idx) {
+            return complexCells == null ? null : complexCells[idx];
+        }
+    }
+}
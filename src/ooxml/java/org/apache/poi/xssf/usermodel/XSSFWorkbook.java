@@ -155,6 +155,11 @@ public class XSSFWorkbook extends POIXMLDocument implements Workbook {
      */
     private List<XSSFSheet> sheets;
 
+    /**
+     * if set, the sheets of a read workbook are only parsed on first access
+     */
+    private boolean readSheetsOnDemand;
+
     /**
      * this holds the XSSFName objects attached to this workbook, keyed by lower-case name
      */
@@ -267,8 +272,33 @@ public class XSSFWorkbook extends POIXMLDocument implements Workbook {
      * @param pkg the OpenXML4J <code>OPC Package</code> object.
      */
     public XSSFWorkbook(OPCPackage pkg) throws IOException {
+        this(pkg, false);
+    }
+
+    /**
+     * Constructs a XSSFWorkbook object given a OpenXML4J <code>Package</code> object,
+     *  optionally deferring the parsing of the sheets.
+     *
+     * <p>If <code>readSheetsOnDemand</code> is set, only the workbook part is parsed
+     *  upfront, so the sheet names and indices as well as the defined names are
+     *  available immediately. The data of a sheet is parsed when the sheet is first
+     *  returned, e.g. by {@link #getSheetAt(int)}, {@link #getSheet(String)} or the
+     *  sheet iterator. Sheets which have never been accessed are written back unchanged.
+     *  This reduces the time and memory needed to open a workbook, if only some
+     *  of its sheets are of interest.
+     *
+     * <p>The pivot tables of a sheet are only listed in {@link #getPivotTables()}
+     *  after the sheet has been parsed.
+     *
+     * @param pkg the OpenXML4J <code>OPC Package</code> object.
+     * @param readSheetsOnDemand whether to parse each sheet on first access
+     *
+     * @since POI 4.0.0
+     */
+    public XSSFWorkbook(OPCPackage pkg, boolean readSheetsOnDemand) throws IOException {
         super(pkg);
-        
+        this.readSheetsOnDemand = readSheetsOnDemand;
+
         beforeDocumentRead();
         
         // Build a tree of POIXMLDocumentParts, this workbook being the root
@@ -438,7 +468,11 @@ public class XSSFWorkbook extends POIXMLDocument implements Workbook {
             return;
         }
         sh.sheet = ctSheet;
-        sh.onDocumentRead();
+        if (readSheetsOnDemand) {
+            sh.deferRead();
+        } else {
+            sh.onDocumentRead();
+        }
         sheets.add(sh);
     }
 
@@ -588,7 +622,7 @@ public class XSSFWorkbook extends POIXMLDocument implements Workbook {
      */
     public XSSFSheet cloneSheet(int sheetNum, String newName) {
         validateSheetIndex(sheetNum);
-        XSSFSheet srcSheet = sheets.get(sheetNum);
+        XSSFSheet srcSheet = getSheetAt(sheetNum);
 
         if (newName == null) {
             String srcName = srcSheet.getSheetName();
@@ -1113,6 +1147,7 @@ public class XSSFWorkbook extends POIXMLDocument implements Workbook {
     public XSSFSheet getSheet(String name) {
         for (XSSFSheet sheet : sheets) {
             if (name.equalsIgnoreCase(sheet.getSheetName())) {
+                sheet.ensureRead();
                 return sheet;
             }
         }
@@ -1130,7 +1165,9 @@ public class XSSFWorkbook extends POIXMLDocument implements Workbook {
     @Override
     public XSSFSheet getSheetAt(int index) {
         validateSheetIndex(index);
-        return sheets.get(index);
+        XSSFSheet sheet = sheets.get(index);
+        sheet.ensureRead();
+        return sheet;
     }
 
     /**
@@ -1221,7 +1258,9 @@ public class XSSFWorkbook extends POIXMLDocument implements Workbook {
         }
         @Override
         public T next() throws NoSuchElementException {
-            return it.next();
+            T sheet = it.next();
+            ((XSSFSheet)sheet).ensureRead();
+            return sheet;
         }
         /**
          * Unexpected behavior may occur if sheets are reordered after iterator
@@ -1572,6 +1611,7 @@ public class XSSFWorkbook extends POIXMLDocument implements Workbook {
     public void setSelectedTab(int index) {
         int idx = 0;
         for (XSSFSheet sh : sheets) {
+            sh.ensureRead();
             sh.setSelected(idx == index);
             idx++;
         }
@@ -2347,6 +2387,7 @@ public class XSSFWorkbook extends POIXMLDocument implements Workbook {
     public XSSFTable getTable(String name) {
         if (name != null && sheets != null) {
             for (XSSFSheet sheet : sheets) {
+                sheet.ensureRead();
                 for (XSSFTable tbl : sheet.getTables()) {
                     if (name.equalsIgnoreCase(tbl.getName())) {
                         return tbl;
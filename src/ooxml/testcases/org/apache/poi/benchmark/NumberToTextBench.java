@@ -0,0 +1,78 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+
+package org.apache.poi.benchmark;
+
+import org.apache.poi.ss.util.NumberToTextConverter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class NumberToTextBench {
+
+    private double[] typedValues;
+    private double[] computedValues;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(44);
+        typedValues = new double[1000];
+        computedValues = new double[1000];
+        for (int i = 0; i < typedValues.length; i++) {
+            typedValues[i] = random.nextInt(2000000) / Math.pow(10, random.nextInt(6));
+            computedValues[i] = random.nextDouble() * Math.pow(10, random.nextInt(20) - 10);
+        }
+    }
+
+    @Benchmark
+    public void benchTypedValues(Blackhole blackhole) {
+        for (double value : typedValues) {
+            blackhole.consume(NumberToTextConverter.toText(value));
+        }
+    }
+
+    @Benchmark
+    public void benchComputedValues(Blackhole blackhole) {
+        for (double value : computedValues) {
+            blackhole.consume(NumberToTextConverter.toText(value));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(".*" + NumberToTextBench.class.getSimpleName() + ".*")
+                .addProfiler(GCProfiler.class)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,101 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+
+package org.apache.poi.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures loading and reading a sheet with 100.000 rows of numbers and strings
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class XSSFSheetReadBench {
+
+    private static final int ROWS = 100000;
+    private static final int COLUMNS = 10;
+
+    private byte[] bytes;
+
+    @Setup(Level.Trial)
+    public void createWorkbook() throws IOException {
+        XSSFWorkbook wb = new XSSFWorkbook();
+        try {
+            Sheet sheet = wb.createSheet();
+            for (int r = 0; r < ROWS; r++) {
+                Row row = sheet.createRow(r);
+                for (int c = 0; c < COLUMNS; c++) {
+                    Cell cell = row.createCell(c);
+                    if (c % 2 == 0) {
+                        cell.setCellValue(r * c + 0.5);
+                    } else {
+                        cell.setCellValue("text " + (r % 100));
+                    }
+                }
+            }
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            wb.write(bos);
+            bytes = bos.toByteArray();
+        } finally {
+            wb.close();
+        }
+    }
+
+    @Benchmark
+    public double benchReadSheet() throws IOException {
+        XSSFWorkbook wb = new XSSFWorkbook(new ByteArrayInputStream(bytes));
+        try {
+            double sum = 0;
+            XSSFSheet sheet = wb.getSheetAt(0);
+            for (Row row : sheet) {
+                sum += row.getCell(0).getNumericCellValue();
+            }
+            return sum;
+        } finally {
+            wb.close();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(".*" + XSSFSheetReadBench.class.getSimpleName() + ".*")
+                .addProfiler(GCProfiler.class)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -442,4 +442,32 @@ public class TestRelationships extends TestCase {
         assertTrue("Document not found in " + p.getParts(), foundDocument);
         assertTrue("Theme1 not found in " + p.getParts(), foundTheme1);
     }
+
+    /**
+     * The relationships of parts read from a zip are only loaded on first access,
+     * modifying them must not lose the existing ones
+     */
+    public void testLazyLoadedRelations() throws Exception {
+        OPCPackage pkg = OPCPackage.open(OpenXML4JTestDataSamples.openSampleStream("ExcelWithHyperlinks.xlsx"));
+        PackagePartName sheetName = PackagingURIHelper.createPartName(SHEET_WITH_COMMENTS);
+        int relCount = pkg.getPart(sheetName).getRelationships().size();
+        pkg.revert();
+
+        pkg = OPCPackage.open(OpenXML4JTestDataSamples.openSampleStream("ExcelWithHyperlinks.xlsx"));
+        PackagePart sheet = pkg.getPart(sheetName);
+        assertTrue(sheet.hasRelationships());
+        PackageRelationship added = sheet.addExternalRelationship("http://poi.apache.org/lazy", PackageRelationshipTypes.HYPERLINK_PART);
+        assertEquals(relCount + 1, sheet.getRelationships().size());
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        pkg.save(baos);
+        pkg.revert();
+
+        pkg = OPCPackage.open(new ByteArrayInputStream(baos.toByteArray()));
+        sheet = pkg.getPart(sheetName);
+        assertEquals(relCount + 1, sheet.getRelationships().size());
+        assertEquals("http://poi.apache.org/", sheet.getRelationship("rId1").getTargetURI().toString());
+        assertEquals("http://poi.apache.org/lazy", sheet.getRelationship(added.getId()).getTargetURI().toString());
+        pkg.revert();
+    }
 }
@@ -32,6 +32,8 @@ import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.io.UnsupportedEncodingException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 import org.apache.poi.POIDataSamples;
 import org.apache.poi.POITextExtractor;
@@ -44,6 +46,8 @@ import org.apache.poi.sl.usermodel.SlideShow;
 import org.apache.poi.sl.usermodel.SlideShowFactory;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.util.TempFile;
 import org.apache.poi.xssf.XSSFTestDataSamples;
 import org.apache.poi.xwpf.usermodel.XWPFRelation;
 import org.apache.xmlbeans.XmlException;
@@ -243,4 +247,63 @@ public class TestZipPackage {
             assertTrue(pkg.getZipArchive().isClosed());
         }
     }
+
+    @Test
+    public void testIncrementalSave() throws Exception {
+        File original = TempFile.createTempFile("incremental", ".docx");
+        File saved = TempFile.createTempFile("incremental-saved", ".docx");
+        boolean incremental = ZipPackage.isUseIncrementalSave();
+        try {
+            try (InputStream is = OpenXML4JTestDataSamples.openSampleStream("sample.docx");
+                 OutputStream os = new FileOutputStream(original)) {
+                IOUtils.copy(is, os);
+            }
+
+            for (boolean useIncrementalSave : new boolean[]{ true, false }) {
+                ZipPackage.setUseIncrementalSave(useIncrementalSave);
+                OPCPackage pkg = OPCPackage.open(original, PackageAccess.READ_WRITE);
+                PackagePart document = pkg.getPart(PackagingURIHelper.createPartName("/word/document.xml"));
+                int partCount = pkg.getParts().size();
+                int relCount = document.getRelationships().size();
+                String xml;
+                try (InputStream is = document.getInputStream()) {
+                    xml = new String(IOUtils.toByteArray(is), "UTF-8");
+                }
+                try (OutputStream os = document.getOutputStream()) {
+                    os.write(xml.replace("Lorem", "Modified").getBytes("UTF-8"));
+                }
+                pkg.save(saved);
+                pkg.revert();
+
+                try (ZipFile origZip = new ZipFile(original);
+                     ZipFile savedZip = new ZipFile(saved)) {
+                    ZipEntry origImage = origZip.getEntry("word/media/image1.gif");
+                    ZipEntry savedImage = savedZip.getEntry("word/media/image1.gif");
+                    assertEquals(origImage.getCrc(), savedImage.getCrc());
+                    // the unmodified entries are copied with their original time and compression
+                    assertEquals(useIncrementalSave, origImage.getTime() == savedImage.getTime());
+                    assertEquals(useIncrementalSave, origImage.getCompressedSize() == savedImage.getCompressedSize());
+                    assertTrue(origZip.getEntry("word/document.xml").getTime()
+                            != savedZip.getEntry("word/document.xml").getTime());
+                }
+
+                try (OPCPackage pkg2 = OPCPackage.open(saved, PackageAccess.READ)) {
+                    PackagePart document2 = pkg2.getPart(PackagingURIHelper.createPartName("/word/document.xml"));
+                    try (InputStream is = document2.getInputStream()) {
+                        String xml2 = new String(IOUtils.toByteArray(is), "UTF-8");
+                        assertTrue(xml2.contains("Modified"));
+                        assertFalse(xml2.contains("Lorem"));
+                    }
+                    assertEquals(relCount, document2.getRelationships().size());
+                    assertEquals(partCount, pkg2.getParts().size());
+                    PackagePart image = pkg2.getPart(PackagingURIHelper.createPartName("/word/media/image1.gif"));
+                    assertEquals(2266, IOUtils.toByteArray(image.getInputStream()).length);
+                }
+            }
+        } finally {
+            ZipPackage.setUseIncrementalSave(incremental);
+            assertTrue(original.delete());
+            assertTrue(saved.delete());
+        }
+    }
 }
@@ -0,0 +1,149 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+
+package org.apache.poi.openxml4j.opc.internal;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.openxml4j.opc.PackagePartName;
+import org.apache.poi.openxml4j.opc.PackagingURIHelper;
+import org.apache.poi.openxml4j.opc.ZipPackage;
+import org.apache.poi.util.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public final class TestTempFilePackagePart {
+    private static final String CONTENT_TYPE = "application/octet-stream";
+
+    private long threshold;
+    private boolean encrypt;
+
+    @Before
+    public void setUp() {
+        threshold = ZipPackage.getTempFilePackagePartThreshold();
+        encrypt = ZipPackage.isEncryptTempFilePackageParts();
+    }
+
+    @After
+    public void tearDown() {
+        ZipPackage.setTempFilePackagePartThreshold(threshold);
+        ZipPackage.setEncryptTempFilePackageParts(encrypt);
+    }
+
+    @Test
+    public void smallPartStaysInMemory() throws Exception {
+        OPCPackage pkg = OPCPackage.create(new ByteArrayOutputStream());
+        TempFilePackagePart part = new TempFilePackagePart(pkg, partName("/small.bin"), CONTENT_TYPE, false, 100, false);
+        byte[] data = data(100);
+        try (OutputStream os = part.getOutputStream()) {
+            os.write(data);
+        }
+        assertFalse(part.isInTempFile());
+        assertEquals(100, part.getSize());
+        assertArrayEquals(data, read(part));
+        pkg.revert();
+    }
+
+    @Test
+    public void largePartIsMovedToTempFile() throws Exception {
+        for (boolean encryptParts : new boolean[]{ false, true }) {
+            OPCPackage pkg = OPCPackage.create(new ByteArrayOutputStream());
+            TempFilePackagePart part = new TempFilePackagePart(pkg, partName("/large.bin"), CONTENT_TYPE, false, 1000, encryptParts);
+            byte[] data = data(5000);
+            // the stream appends to the existing data, like the one of MemoryPackagePart
+            try (OutputStream os = part.getOutputStream()) {
+                os.write(data, 0, 600);
+            }
+            assertFalse(part.isInTempFile());
+            try (OutputStream os = part.getOutputStream()) {
+                os.write(data, 600, 600);
+                os.write(data, 1200, 3800);
+            }
+            assertTrue(part.isInTempFile());
+            assertEquals(5000, part.getSize());
+            assertArrayEquals(data, read(part));
+
+            // loading replaces the data
+            part.load(new ByteArrayInputStream(data, 0, 10));
+            assertFalse(part.isInTempFile());
+            assertEquals(10, part.getSize());
+
+            part.load(new ByteArrayInputStream(data));
+            assertTrue(part.isInTempFile());
+            part.clear();
+            assertFalse(part.isInTempFile());
+            assertEquals(0, part.getSize());
+            pkg.revert();
+        }
+    }
+
+    @Test
+    public void packageUsesTempFileParts() throws Exception {
+        ZipPackage.setTempFilePackagePartThreshold(1000);
+        ZipPackage.setEncryptTempFilePackageParts(true);
+        byte[] data = data(100000);
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        OPCPackage pkg = OPCPackage.create(bos);
+        PackagePart part = pkg.createPart(partName("/large.bin"), CONTENT_TYPE);
+        assertTrue(part instanceof TempFilePackagePart);
+        try (OutputStream os = part.getOutputStream()) {
+            os.write(data);
+        }
+        assertTrue(((TempFilePackagePart)part).isInTempFile());
+        pkg.close();
+        assertFalse(((TempFilePackagePart)part).isInTempFile());
+
+        ZipPackage.setTempFilePackagePartThreshold(-1);
+        try (OPCPackage pkg2 = OPCPackage.open(new ByteArrayInputStream(bos.toByteArray()))) {
+            PackagePart part2 = pkg2.getPart(partName("/large.bin"));
+            assertArrayEquals(data, read(part2));
+            assertTrue(pkg2.createPart(partName("/new.bin"), CONTENT_TYPE) instanceof MemoryPackagePart);
+            pkg2.revert();
+        }
+    }
+
+    private static PackagePartName partName(String name) throws Exception {
+        return PackagingURIHelper.createPartName(name);
+    }
+
+    private static byte[] data(int len) {
+        byte[] data = new byte[len];
+        for (int i = 0; i < len; i++) {
+            data[i] = (byte)(i * 31 + i / 7);
+        }
+        return data;
+    }
+
+    private static byte[] read(PackagePart part) throws Exception {
+        try (InputStream is = part.getInputStream()) {
+            return IOUtils.toByteArray(is);
+        }
+    }
+}
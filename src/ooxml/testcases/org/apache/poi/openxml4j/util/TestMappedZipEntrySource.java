@@ -0,0 +1,177 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+
+package org.apache.poi.openxml4j.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.poi.openxml4j.OpenXML4JTestDataSamples;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.ZipPackage;
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.util.TempFile;
+import org.junit.Test;
+
+public final class TestMappedZipEntrySource {
+
+    @Test
+    public void sameContentAsZipFile() throws IOException {
+        File file = OpenXML4JTestDataSamples.getSampleFile("sample.docx");
+        try (ZipFile zipFile = new ZipFile(file);
+             MappedZipEntrySource mapped = new MappedZipEntrySource(file)) {
+            List<? extends ZipEntry> expected = Collections.list(zipFile.entries());
+            List<? extends ZipEntry> actual = Collections.list(mapped.getEntries());
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                ZipEntry exp = expected.get(i);
+                ZipEntry act = actual.get(i);
+                assertEquals(exp.getName(), act.getName());
+                assertEquals(exp.getSize(), act.getSize());
+                assertEquals(exp.getCompressedSize(), act.getCompressedSize());
+                assertEquals(exp.getCrc(), act.getCrc());
+                assertEquals(exp.getTime(), act.getTime());
+                assertArrayEquals(exp.getName(), IOUtils.toByteArray(zipFile.getInputStream(exp)),
+                        IOUtils.toByteArray(mapped.getInputStream(exp)));
+            }
+            assertNull(mapped.getInputStream(new ZipEntry("missing.xml")));
+        }
+    }
+
+    @Test
+    public void storedEntries() throws IOException {
+        File file = TempFile.createTempFile("stored", ".zip");
+        try {
+            byte[] data = "<stored>content</stored>".getBytes("UTF-8");
+            CRC32 crc = new CRC32();
+            crc.update(data);
+            try (OutputStream fos = new FileOutputStream(file);
+                 ZipOutputStream zos = new ZipOutputStream(fos)) {
+                zos.setComment("archive comment");
+                ZipEntry entry = new ZipEntry("stored.xml");
+                entry.setMethod(ZipEntry.STORED);
+                entry.setSize(data.length);
+                entry.setCrc(crc.getValue());
+                zos.putNextEntry(entry);
+                zos.write(data);
+                zos.closeEntry();
+                zos.putNextEntry(new ZipEntry("empty.xml"));
+                zos.closeEntry();
+            }
+
+            try (MappedZipEntrySource mapped = new MappedZipEntrySource(file)) {
+                List<ZipEntry> entries = new ArrayList<>(Collections.list(mapped.getEntries()));
+                assertEquals(2, entries.size());
+                assertEquals(ZipEntry.STORED, entries.get(0).getMethod());
+                assertArrayEquals(data, IOUtils.toByteArray(mapped.getInputStream(entries.get(0))));
+                assertEquals(0, IOUtils.toByteArray(mapped.getInputStream(entries.get(1))).length);
+            }
+        } finally {
+            assertTrue(file.delete());
+        }
+    }
+
+    @Test
+    public void zipBombDetection() throws IOException {
+        File file = TempFile.createTempFile("bomb", ".zip");
+        double ratio = ZipSecureFile.getMinInflateRatio();
+        try {
+            try (OutputStream fos = new FileOutputStream(file);
+                 ZipOutputStream zos = new ZipOutputStream(fos)) {
+                zos.putNextEntry(new ZipEntry("zeros.xml"));
+                zos.write(new byte[1000000]);
+                zos.closeEntry();
+            }
+            ZipSecureFile.setMinInflateRatio(0.1);
+            try (MappedZipEntrySource mapped = new MappedZipEntrySource(file)) {
+                InputStream is = mapped.getInputStream(mapped.getEntries().nextElement());
+                try {
+                    IOUtils.toByteArray(is);
+                    fail("zip bomb wasn't detected");
+                } catch (IOException e) {
+                    assertTrue(e.getMessage(), e.getMessage().startsWith("Zip bomb detected!"));
+                } finally {
+                    is.close();
+                }
+            }
+        } finally {
+            ZipSecureFile.setMinInflateRatio(ratio);
+            assertTrue(file.delete());
+        }
+    }
+
+    @Test
+    public void closed() throws IOException {
+        File file = OpenXML4JTestDataSamples.getSampleFile("sample.docx");
+        MappedZipEntrySource mapped = new MappedZipEntrySource(file);
+        InputStream is = mapped.getInputStream(mapped.getEntries().nextElement());
+        mapped.close();
+        assertTrue(mapped.isClosed());
+        try {
+            is.read();
+            fail("stream of closed zip file can be read");
+        } catch (IOException e) {
+            assertEquals("Zip File is closed", e.getMessage());
+        }
+        try {
+            mapped.getEntries();
+            fail("closed zip file can be read");
+        } catch (IllegalStateException e) {
+            assertEquals("Zip File is closed", e.getMessage());
+        }
+        is.close();
+        mapped.close();
+    }
+
+    @Test
+    public void readOnlyPackageIsMapped() throws Exception {
+        File file = OpenXML4JTestDataSamples.getSampleFile("sample.docx");
+        boolean useMapping = ZipPackage.isUseMemoryMapping();
+        try {
+            ZipPackage.setUseMemoryMapping(true);
+            try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+                assertTrue(((ZipPackage)pkg).getZipArchive() instanceof MappedZipEntrySource);
+                assertEquals(1, pkg.getPartsByContentType(
+                        "application/vnd.openxmlformats-officedocument.wordprocessingml.document.main+xml").size());
+            }
+            ZipPackage.setUseMemoryMapping(false);
+            try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+                assertTrue(((ZipPackage)pkg).getZipArchive() instanceof ZipFileZipEntrySource);
+            }
+        } finally {
+            ZipPackage.setUseMemoryMapping(useMapping);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+
+package org.apache.poi.openxml4j.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipInputStream;
+
+import org.apache.poi.openxml4j.OpenXML4JTestDataSamples;
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.util.TempFile;
+import org.junit.Test;
+
+public final class TestZipRawCopyOutputStream {
+
+    @Test
+    public void copyRawAndWriteEntries() throws IOException {
+        File file = OpenXML4JTestDataSamples.getSampleFile("sample.docx");
+        byte[] stored = "<stored>content</stored>".getBytes("UTF-8");
+        byte[] deflated = "<deflated>content</deflated>".getBytes("UTF-8");
+        CRC32 crc = new CRC32();
+        crc.update(stored);
+
+        Map<String, byte[]> expected = new HashMap<>();
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (MappedZipEntrySource source = new MappedZipEntrySource(file);
+             ZipRawCopyOutputStream zos = new ZipRawCopyOutputStream(bos)) {
+            ZipEntry raw = source.getEntry("word/media/image1.gif");
+            try (InputStream is = source.getRawInputStream(raw)) {
+                zos.putRawEntry(raw, is);
+            }
+            expected.put(raw.getName(), IOUtils.toByteArray(source.getInputStream(raw)));
+
+            zos.putNextEntry(new ZipEntry("deflated.xml"));
+            zos.write(deflated);
+            expected.put("deflated.xml", deflated);
+
+            ZipEntry entry = new ZipEntry("stored.xml");
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(stored.length);
+            entry.setCrc(crc.getValue());
+            zos.putNextEntry(entry);
+            zos.write(stored);
+            zos.closeEntry();
+            expected.put("stored.xml", stored);
+
+            raw = source.getEntry("word/document.xml");
+            try (InputStream is = source.getRawInputStream(raw)) {
+                zos.putRawEntry(raw, is);
+            }
+            expected.put(raw.getName(), IOUtils.toByteArray(source.getInputStream(raw)));
+            assertNull(source.getEntry("missing.xml"));
+        }
+
+        // the entries can be read with and without the central directory
+        File saved = TempFile.createTempFile("rawcopy", ".zip");
+        try {
+            IOUtils.copy(new ByteArrayInputStream(bos.toByteArray()), saved);
+            try (MappedZipEntrySource mapped = new MappedZipEntrySource(saved)) {
+                for (Map.Entry<String, byte[]> me : expected.entrySet()) {
+                    ZipEntry entry = mapped.getEntry(me.getKey());
+                    assertArrayEquals(me.getKey(), me.getValue(), IOUtils.toByteArray(mapped.getInputStream(entry)));
+                }
+            }
+        } finally {
+            assertTrue(saved.delete());
+        }
+
+        int count = 0;
+        try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+            for (ZipEntry entry; (entry = zis.getNextEntry()) != null; count++) {
+                assertArrayEquals(entry.getName(), expected.get(entry.getName()), IOUtils.toByteArray(zis));
+            }
+        }
+        assertEquals(expected.size(), count);
+    }
+
+    @Test
+    public void invalidEntries() throws IOException {
+        try (ZipRawCopyOutputStream zos = new ZipRawCopyOutputStream(new ByteArrayOutputStream())) {
+            zos.putNextEntry(new ZipEntry("a.xml"));
+            try {
+                zos.putNextEntry(new ZipEntry("a.xml"));
+                fail("duplicate entry was accepted");
+            } catch (ZipException e) {
+                assertEquals("duplicate entry: a.xml", e.getMessage());
+            }
+
+            ZipEntry raw = new ZipEntry("raw.xml");
+            raw.setMethod(ZipEntry.DEFLATED);
+            raw.setCrc(0);
+            raw.setSize(10);
+            raw.setCompressedSize(10);
+            try {
+                zos.putRawEntry(raw, new ByteArrayInputStream(new byte[5]));
+                fail("truncated raw data was accepted");
+            } catch (ZipException e) {
+                assertEquals("Raw entry raw.xml has less data than its compressed size", e.getMessage());
+            }
+
+            ZipEntry stored = new ZipEntry("stored.xml");
+            stored.setMethod(ZipEntry.STORED);
+            try {
+                zos.putNextEntry(stored);
+                fail("stored entry without size was accepted");
+            } catch (ZipException e) {
+                // expected
+            }
+        }
+    }
+}
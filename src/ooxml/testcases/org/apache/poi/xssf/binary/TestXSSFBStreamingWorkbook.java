@@ -0,0 +1,243 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xssf.binary;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.FormulaError;
+import org.apache.poi.ss.util.CellAddress;
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.util.LittleEndian;
+import org.apache.poi.xssf.eventusermodel.XSSFBReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.junit.Test;
+
+public final class TestXSSFBStreamingWorkbook {
+
+    @Test
+    public void roundTrip() throws Exception {
+        for (boolean useSharedStrings : new boolean[]{false, true}) {
+            XSSFBStreamingWorkbook wb = new XSSFBStreamingWorkbook(10, useSharedStrings);
+            int twoDecimals = wb.createCellStyle("0.00");
+            int custom = wb.createCellStyle("#,##0.000 \"units\"");
+            assertEquals(twoDecimals, wb.createCellStyle("0.00"));
+
+            XSSFBStreamingSheet sheet = wb.createSheet("First");
+            for (int r = 0; r < 1000; r++) {
+                XSSFBStreamingRow row = sheet.createRow(r);
+                row.setNumericCell(0, r);
+                row.setStringCell(1, "row " + (r % 7));
+                row.setNumericCell(2, r + 0.5, twoDecimals);
+            }
+            XSSFBStreamingRow row = sheet.createRow(1000);
+            row.setBooleanCell(0, true);
+            row.setErrorCell(1, FormulaError.DIV0);
+            row.setNumericCell(2, 1234.5678, custom);
+            row.setBlankCell(3, twoDecimals);
+            row.setNumericCell(1500, -7);
+            wb.createSheet();
+
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            wb.write(bos);
+            assertTrue(wb.dispose());
+            wb.close();
+
+            try (OPCPackage pkg = OPCPackage.open(new ByteArrayInputStream(bos.toByteArray()))) {
+                XSSFBReader reader = new XSSFBReader(pkg);
+                XSSFBSharedStringsTable sst = new XSSFBSharedStringsTable(pkg);
+                assertEquals(useSharedStrings ? 1000 : 0, sst.getCount());
+                assertEquals(useSharedStrings ? 7 : 0, sst.getUniqueCount());
+
+                XSSFBReader.SheetIterator it = (XSSFBReader.SheetIterator) reader.getSheetsData();
+                List<String> names = new ArrayList<>();
+                List<Map<String, Object>> typed = new ArrayList<>();
+                List<Map<String, String>> formatted = new ArrayList<>();
+                while (it.hasNext()) {
+                    byte[] data;
+                    try (InputStream is = it.next()) {
+                        ByteArrayOutputStream sheetData = new ByteArrayOutputStream();
+                        IOUtils.copy(is, sheetData);
+                        data = sheetData.toByteArray();
+                    }
+                    names.add(it.getSheetName());
+
+                    TypedHandler typedHandler = new TypedHandler(sst);
+                    new XSSFBTypedSheetHandler(new ByteArrayInputStream(data), typedHandler).parse();
+                    typed.add(typedHandler.values);
+
+                    FormattedHandler formattedHandler = new FormattedHandler();
+                    new XSSFBSheetHandler(new ByteArrayInputStream(data), reader.getXSSFBStylesTable(),
+                            null, sst, formattedHandler, new DataFormatter(), false).parse();
+                    formatted.add(formattedHandler.values);
+                }
+
+                assertEquals(2, names.size());
+                assertEquals("First", names.get(0));
+                assertEquals("Sheet1", names.get(1));
+                assertTrue(typed.get(1).isEmpty());
+
+                Map<String, Object> values = typed.get(0);
+                assertEquals(3 * 1000 + 5, values.size());
+                assertEquals(0.0, values.get("A1"));
+                assertEquals(999.0, values.get("A1000"));
+                assertEquals("row 5", values.get("B1000"));
+                assertEquals(10.5, values.get("C11"));
+                assertEquals(Boolean.TRUE, values.get("A1001"));
+                assertSame(FormulaError.DIV0, values.get("B1001"));
+                assertEquals(1234.5678, values.get("C1001"));
+                assertEquals(-7.0, values.get(new CellAddress(1000, 1500).formatAsString()));
+
+                Map<String, String> texts = formatted.get(0);
+                assertEquals("10.50", texts.get("C11"));
+                assertEquals("1,234.568 units", texts.get("C1001"));
+                assertEquals("row 3", texts.get("B4"));
+                assertEquals("42", texts.get("A43"));
+            }
+        }
+    }
+
+    @Test
+    public void flushedRowsCannotBeRewritten() throws Exception {
+        try (XSSFBStreamingWorkbook wb = new XSSFBStreamingWorkbook(2)) {
+            XSSFBStreamingSheet sheet = wb.createSheet("Sheet");
+            sheet.createRow(0);
+            sheet.createRow(1);
+            assertEquals(-1, sheet.getLastFlushedRowNum());
+            sheet.createRow(2);
+            assertEquals(0, sheet.getLastFlushedRowNum());
+            assertNull(sheet.getRow(0));
+            try {
+                sheet.createRow(0);
+                fail("a flushed row can't be created again");
+            } catch (IllegalArgumentException e) {
+                assertEquals("Attempting to write a row[0] in the range [0,0] that is already written to disk.", e.getMessage());
+            }
+            try {
+                sheet.getRow(1).setNumericCell(0, 1, 5);
+                fail("unknown style index");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+            try {
+                wb.createSheet("SHEET");
+                fail("duplicate sheet name");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void rkNumbers() {
+        double[] values = {0, 1, -1, 42, -536870912, 536870911, 0.5, -2.75, 1e10, 3.14, 123.45, -0.01, 1e-300};
+        for (double value : values) {
+            int rk = XSSFBStreamingRow.toRkNumber(value);
+            if (rk != -1) {
+                byte[] data = new byte[4];
+                LittleEndian.putInt(data, 0, rk);
+                assertEquals(value, XSSFBUtils.rkNumber(data, 0), 0.0);
+            }
+        }
+        assertEquals(42 << 2 | 0x02, XSSFBStreamingRow.toRkNumber(42));
+        assertEquals(-1, XSSFBStreamingRow.toRkNumber(Math.PI));
+        assertEquals(-1, XSSFBStreamingRow.toRkNumber(1234567890123.0));
+    }
+
+    private static final class TypedHandler implements XSSFBTypedSheetHandler.TypedSheetContentsHandler {
+        private final XSSFBSharedStringsTable sst;
+        private final Map<String, Object> values = new HashMap<>();
+
+        TypedHandler(XSSFBSharedStringsTable sst) {
+            this.sst = sst;
+        }
+
+        private void put(int rowNum, int columnIndex, Object value) {
+            values.put(new CellAddress(rowNum, columnIndex).formatAsString(), value);
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+        }
+
+        @Override
+        public void numericCell(int rowNum, int columnIndex, int styleIndex, double value, boolean formula) {
+            put(rowNum, columnIndex, value);
+        }
+
+        @Override
+        public void booleanCell(int rowNum, int columnIndex, int styleIndex, boolean value, boolean formula) {
+            put(rowNum, columnIndex, value);
+        }
+
+        @Override
+        public void sharedStringCell(int rowNum, int columnIndex, int styleIndex, int sstIndex) {
+            put(rowNum, columnIndex, sst.getEntryAt(sstIndex));
+        }
+
+        @Override
+        public void stringCell(int rowNum, int columnIndex, int styleIndex, String value, boolean formula) {
+            put(rowNum, columnIndex, value);
+        }
+
+        @Override
+        public void errorCell(int rowNum, int columnIndex, int styleIndex, FormulaError error, boolean formula) {
+            put(rowNum, columnIndex, error);
+        }
+
+        @Override
+        public void blankCell(int rowNum, int columnIndex, int styleIndex) {
+            put(rowNum, columnIndex, "");
+        }
+    }
+
+    private static final class FormattedHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final Map<String, String> values = new HashMap<>();
+
+        @Override
+        public void startRow(int rowNum) {
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            values.put(cellReference, formattedValue);
+        }
+    }
+}
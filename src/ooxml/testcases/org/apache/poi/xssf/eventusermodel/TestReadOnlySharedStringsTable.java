@@ -82,6 +82,45 @@ public final class TestReadOnlySharedStringsTable extends TestCase {
 
     }
 
+    public void testDiskBacked() throws Exception {
+        OPCPackage pkg = OPCPackage.open(_ssTests.openResourceAsStream("51519.xlsx"));
+        List<PackagePart> parts = pkg.getPartsByName(Pattern.compile("/xl/sharedStrings.xml"));
+        assertEquals(1, parts.size());
+
+        ReadOnlySharedStringsTable rtbl = new ReadOnlySharedStringsTable(parts.get(0), true);
+        DiskBackedSharedStringsTable dtbl = new DiskBackedSharedStringsTable(parts.get(0), true);
+        try {
+            dtbl.setCacheSize(2);
+            assertEquals(rtbl.getCount(), dtbl.getCount());
+            assertEquals(rtbl.getUniqueCount(), dtbl.getUniqueCount());
+            assertEquals(rtbl.getItems(), dtbl.getItems());
+            // read again in reverse order through the cache
+            for (int i = rtbl.getUniqueCount() - 1; i >= 0; i--) {
+                assertEquals(rtbl.getEntryAt(i), dtbl.getEntryAt(i));
+                assertEquals(rtbl.getEntryAt(i), dtbl.getEntryAt(i));
+            }
+            try {
+                dtbl.getEntryAt(rtbl.getUniqueCount());
+                fail("expected IndexOutOfBoundsException");
+            } catch (IndexOutOfBoundsException e) {
+                // expected
+            }
+        } finally {
+            dtbl.close();
+        }
+        assertEquals(0, dtbl.getItems().size());
+        pkg.close();
+    }
+
+    public void testDiskBackedEmptySST() throws Exception {
+        OPCPackage pkg = OPCPackage.open(_ssTests.openResourceAsStream("noSharedStringTable.xlsx"));
+        DiskBackedSharedStringsTable sst = new DiskBackedSharedStringsTable(pkg);
+        assertEquals(0, sst.getUniqueCount());
+        assertEquals(0, sst.getItems().size());
+        sst.close();
+        pkg.close();
+    }
+
     public void testEmptySSTOnPackageObtainedViaWorkbook() throws Exception {
         XSSFWorkbook wb = new XSSFWorkbook(_ssTests.openResourceAsStream("noSharedStringTable.xlsx"));
         OPCPackage pkg = wb.getPackage();
@@ -23,16 +23,23 @@ import static org.junit.Assert.assertNotNull;
 
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.poi.POIDataSamples;
 import org.apache.poi.openxml4j.opc.OPCPackage;
 import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.FormulaError;
+import org.apache.poi.ss.util.CellAddress;
 import org.apache.poi.xssf.binary.XSSFBSharedStringsTable;
 import org.apache.poi.xssf.binary.XSSFBSheetHandler;
 import org.apache.poi.xssf.binary.XSSFBStylesTable;
+import org.apache.poi.xssf.binary.XSSFBTypedSheetHandler;
 import org.apache.poi.xssf.usermodel.XSSFComment;
 import org.junit.Test;
+import org.xml.sax.ContentHandler;
 
 public class TestXSSFBReader {
 
@@ -125,6 +132,46 @@ public class TestXSSFBReader {
         assertEquals("C:\\Users\\tallison\\Desktop\\working\\xlsb\\", r.getAbsPathMetadata());
     }
 
+    @Test
+    public void testTypedSheets() throws Exception {
+        OPCPackage pkg = OPCPackage.open(_ssTests.openResourceAsStream("testVarious.xlsb"));
+        XSSFBReader r = new XSSFBReader(pkg);
+        final XSSFBSharedStringsTable sst = new XSSFBSharedStringsTable(pkg);
+        final List<Map<String, Object>> sheets = Collections.synchronizedList(new ArrayList<Map<String, Object>>());
+        r.processTypedSheets(new XSSFBReader.TypedSheetHandlerFactory() {
+            @Override
+            public XSSFBTypedSheetHandler.TypedSheetContentsHandler createSheetHandler(int sheetIndex, String sheetName) {
+                TypedTestSheetHandler handler = new TypedTestSheetHandler(sst);
+                sheets.add(handler.values);
+                return handler;
+            }
+        }, 2);
+
+        assertEquals(1, sheets.size());
+        Map<String, Object> values = sheets.get(0);
+        assertEquals(13.0, values.get("B2"));
+        assertEquals(13.1211231321, values.get("B3"));
+        assertEquals(0.2, values.get("B5"));
+        assertEquals(1.23456789012345E15, (Double)values.get("B8"), 1);
+        assertEquals("This is a string", values.get("B1"));
+        assertEquals("longer int", values.get("A8"));
+        assertEquals(4.0, values.get("B13"));
+        assertEquals(FormulaError.NAME, values.get("B14"));
+        pkg.close();
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSaxSheetsAreUnsupported() throws Exception {
+        try (OPCPackage pkg = OPCPackage.open(_ssTests.openResourceAsStream("testVarious.xlsb"))) {
+            new XSSFBReader(pkg).processSheets(new XSSFReader.SheetHandlerFactory() {
+                @Override
+                public ContentHandler createSheetHandler(int sheetIndex, String sheetName) {
+                    return null;
+                }
+            }, 1);
+        }
+    }
+
     private List<String> getSheets(String testFileName) throws Exception {
         OPCPackage pkg = OPCPackage.open(_ssTests.openResourceAsStream(testFileName));
         List<String> sheetTexts = new ArrayList<>();
@@ -164,6 +211,52 @@ public class TestXSSFBReader {
     }
 
 
+    private static class TypedTestSheetHandler implements XSSFBTypedSheetHandler.TypedSheetContentsHandler {
+        private final XSSFBSharedStringsTable sst;
+        private final Map<String, Object> values = new HashMap<>();
+
+        TypedTestSheetHandler(XSSFBSharedStringsTable sst) {
+            this.sst = sst;
+        }
+
+        private void put(int rowNum, int columnIndex, Object value) {
+            values.put(new CellAddress(rowNum, columnIndex).formatAsString(), value);
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+        }
+
+        @Override
+        public void numericCell(int rowNum, int columnIndex, int styleIndex, double value, boolean formula) {
+            put(rowNum, columnIndex, value);
+        }
+
+        @Override
+        public void booleanCell(int rowNum, int columnIndex, int styleIndex, boolean value, boolean formula) {
+            put(rowNum, columnIndex, value);
+        }
+
+        @Override
+        public void sharedStringCell(int rowNum, int columnIndex, int styleIndex, int sstIndex) {
+            put(rowNum, columnIndex, sst.getEntryAt(sstIndex));
+        }
+
+        @Override
+        public void stringCell(int rowNum, int columnIndex, int styleIndex, String value, boolean formula) {
+            put(rowNum, columnIndex, value);
+        }
+
+        @Override
+        public void errorCell(int rowNum, int columnIndex, int styleIndex, FormulaError error, boolean formula) {
+            put(rowNum, columnIndex, error);
+        }
+    }
+
     private class TestSheetHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
         private final StringBuilder sb = new StringBuilder();
 
@@ -0,0 +1,200 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xssf.eventusermodel;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.ss.usermodel.FormulaError;
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.util.SAXHelper;
+import org.apache.poi.xssf.XSSFTestDataSamples;
+import org.apache.poi.xssf.eventusermodel.XSSFTypedSheetXMLHandler.TypedCell;
+import org.apache.poi.xssf.eventusermodel.XSSFTypedSheetXMLHandler.TypedSheetContentsHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFRow;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+/**
+ * Tests for {@link XSSFParallelSheetReader}
+ */
+public final class TestXSSFParallelSheetReader {
+
+    @Test
+    public void testParallelMatchesSequential() throws Exception {
+        XSSFWorkbook wb = new XSSFWorkbook();
+        XSSFSheet sheet = wb.createSheet();
+        XSSFCellStyle style = wb.createCellStyle();
+        style.setDataFormat(wb.createDataFormat().getFormat("0.00"));
+        for (int r = 0; r < 3000; r += (r % 7 == 0) ? 2 : 1) {
+            XSSFRow row = sheet.createRow(r);
+            row.createCell(0).setCellValue(r * 1.5);
+            row.getCell(0).setCellStyle(style);
+            row.createCell(1).setCellValue("Text " + (r % 50));
+            row.createCell(3).setCellValue(r % 3 == 0);
+            if (r % 11 == 0) {
+                row.createCell(4).setCellFormula("A" + (r + 1) + "*2");
+                row.getCell(4).setCellValue(r * 3.0);
+            }
+            if (r % 13 == 0) {
+                row.createCell(5).setCellErrorValue(FormulaError.NA.getCode());
+            }
+        }
+        XSSFWorkbook wbBack = XSSFTestDataSamples.writeOutAndReadBack(wb);
+        wb.close();
+
+        OPCPackage pkg = wbBack.getPackage();
+        XSSFReader reader = new XSSFReader(pkg);
+        ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+        StylesTable styles = reader.getStylesTable();
+        byte[] sheetData;
+        try (InputStream is = reader.getSheetsData().next()) {
+            sheetData = IOUtils.toByteArray(is);
+        }
+        wbBack.close();
+
+        List<String> expected = new ArrayList<>();
+        XMLReader parser = SAXHelper.newXMLReader();
+        parser.setContentHandler(new XSSFTypedSheetXMLHandler(styles, strings, new Recorder(expected)));
+        parser.parse(new InputSource(new ByteArrayInputStream(sheetData)));
+        assertEquals("end sheet", expected.get(expected.size() - 1));
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            XSSFParallelSheetReader parallel = new XSSFParallelSheetReader(styles, strings, executor);
+            parallel.setChunkSize(2000);
+            parallel.setMaxPendingChunks(4);
+            List<String> actual = new ArrayList<>();
+            parallel.processSheet(new ByteArrayInputStream(sheetData), new Recorder(actual));
+            assertEquals(expected, actual);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testRowsWithoutNumbersAreParsedSequentially() throws Exception {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+            + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>"
+            + "<row r=\"1\"><c r=\"A1\"><v>1</v></c></row>"
+            + "<row><c r=\"A2\"><v>2</v></c></row>"
+            + "<row><c r=\"A3\"><v>3</v></c></row>"
+            + "</sheetData></worksheet>";
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            XSSFParallelSheetReader parallel = new XSSFParallelSheetReader(null, null, executor);
+            parallel.setChunkSize(1);
+            List<String> actual = new ArrayList<>();
+            parallel.processSheet(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), new Recorder(actual));
+            assertEquals("[start 0, 0/0 NUMERIC 1.0 [1], end 0, start 1, 1/0 NUMERIC 2.0 [2], end 1, "
+                    + "start 2, 2/0 NUMERIC 3.0 [3], end 2, end sheet]", actual.toString());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testUnstyledNumbersKeepTheirRawText() throws Exception {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+            + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>"
+            + "<row r=\"1\"><c r=\"A1\"><v>10000000000</v></c><c r=\"B1\"><v>-3</v></c></row>"
+            + "<row r=\"2\"><c r=\"A2\"><v>2.50</v></c><c r=\"B2\"><v>1E-3</v></c></row>"
+            + "<row r=\"3\"><c r=\"A3\"><v>-0</v></c><c r=\"B3\"><v>0</v></c></row>"
+            + "</sheetData></worksheet>";
+        byte[] sheetData = xml.getBytes(StandardCharsets.UTF_8);
+
+        List<String> expected = new ArrayList<>();
+        XMLReader parser = SAXHelper.newXMLReader();
+        parser.setContentHandler(new XSSFTypedSheetXMLHandler(null, null, new Recorder(expected)));
+        parser.parse(new InputSource(new ByteArrayInputStream(sheetData)));
+        assertEquals("0/0 NUMERIC 1.0E10 [10000000000]", expected.get(1));
+        assertEquals("1/0 NUMERIC 2.5 [2.50]", expected.get(5));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            XSSFParallelSheetReader parallel = new XSSFParallelSheetReader(null, null, executor);
+            parallel.setChunkSize(1);
+            List<String> actual = new ArrayList<>();
+            parallel.processSheet(new ByteArrayInputStream(sheetData), new Recorder(actual));
+            assertEquals(expected, actual);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static final class Recorder implements TypedSheetContentsHandler {
+        private final List<String> events;
+
+        Recorder(List<String> events) {
+            this.events = events;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            events.add("start " + rowNum);
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            events.add("end " + rowNum);
+        }
+
+        @Override
+        public void cell(TypedCell cell) {
+            String value;
+            switch (cell.getCellType()) {
+                case NUMERIC:
+                    value = Double.toString(cell.getNumericCellValue());
+                    break;
+                case STRING:
+                    value = cell.getSharedStringIndex() + ":" + cell.getStringCellValue();
+                    break;
+                case BOOLEAN:
+                    value = Boolean.toString(cell.getBooleanCellValue());
+                    break;
+                case ERROR:
+                    value = cell.getErrorCellValue().getString();
+                    break;
+                default:
+                    value = "";
+                    break;
+            }
+            events.add(cell.getRowIndex() + "/" + cell.getColumnIndex() + " " + cell.getCellType() + " " + value
+                    + (cell.isFormula() ? " =" + cell.getFormula() : "")
+                    + " [" + cell.getFormattedValue() + "]");
+        }
+
+        @Override
+        public void endSheet() {
+            events.add("end sheet");
+        }
+    }
+}
@@ -26,6 +26,11 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.poi.POIDataSamples;
 import org.apache.poi.POIXMLException;
@@ -34,13 +39,21 @@ import org.apache.poi.ss.usermodel.Name;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.util.IOUtils;
 import org.apache.poi.xssf.XSSFTestDataSamples;
+import org.apache.poi.xssf.eventusermodel.XSSFTypedSheetXMLHandler.TypedCell;
+import org.apache.poi.xssf.eventusermodel.XSSFTypedSheetXMLHandler.TypedSheetContentsHandler;
 import org.apache.poi.xssf.model.CommentsTable;
 import org.apache.poi.xssf.model.StylesTable;
 import org.apache.poi.xssf.usermodel.XSSFRichTextString;
 import org.apache.poi.xssf.usermodel.XSSFShape;
 import org.apache.poi.xssf.usermodel.XSSFSimpleShape;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.Ignore;
 import org.junit.Test;
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
 
 /**
  * Tests for {@link XSSFReader}
@@ -314,6 +327,184 @@ public final class TestXSSFReader {
         pkg.close();
     }
 
+    @Test
+    public void testProcessSheetsInParallel() throws Exception {
+        XSSFWorkbook wb = new XSSFWorkbook();
+        for (int s = 0; s < 4; s++) {
+            XSSFSheet sheet = wb.createSheet("Sheet " + s);
+            for (int r = 0; r <= s * 100; r++) {
+                sheet.createRow(r).createCell(0).setCellValue(r);
+                sheet.getRow(r).createCell(1).setCellValue("S" + s);
+            }
+        }
+        XSSFWorkbook wbBack = XSSFTestDataSamples.writeOutAndReadBack(wb);
+        wb.close();
+
+        OPCPackage pkg = wbBack.getPackage();
+        XSSFReader reader = new XSSFReader(pkg);
+        final ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+        final String[] names = new String[4];
+        final double[] sums = new double[4];
+        final String[] texts = new String[4];
+        reader.processSheets(new XSSFReader.SheetHandlerFactory() {
+            @Override
+            public ContentHandler createSheetHandler(final int sheetIndex, String sheetName) {
+                names[sheetIndex] = sheetName;
+                if (sheetIndex == 2) {
+                    return null;
+                }
+                return new XSSFTypedSheetXMLHandler(null, strings, new TypedSheetContentsHandler() {
+                    @Override
+                    public void startRow(int rowNum) {
+                    }
+
+                    @Override
+                    public void endRow(int rowNum) {
+                    }
+
+                    @Override
+                    public void cell(TypedCell cell) {
+                        if (cell.getColumnIndex() == 0) {
+                            sums[sheetIndex] += cell.getNumericCellValue();
+                        } else {
+                            texts[sheetIndex] = cell.getStringCellValue();
+                        }
+                    }
+                });
+            }
+        }, 3);
+        wbBack.close();
+
+        assertArrayEquals(new String[] { "Sheet 0", "Sheet 1", "Sheet 2", "Sheet 3" }, names);
+        assertEquals(0, sums[0], 0);
+        assertEquals(5050, sums[1], 0);
+        assertEquals(0, sums[2], 0);
+        assertNull(texts[2]);
+        assertEquals(45150, sums[3], 0);
+        assertEquals("S3", texts[3]);
+    }
+
+    @Test
+    public void testProcessSheetsInParallelRethrowsErrors() throws Exception {
+        OPCPackage pkg = XSSFTestDataSamples.openSamplePackage("SampleSS.xlsx");
+        XSSFReader reader = new XSSFReader(pkg);
+        try {
+            reader.processSheets(new XSSFReader.SheetHandlerFactory() {
+                @Override
+                public ContentHandler createSheetHandler(int sheetIndex, String sheetName) {
+                    return new DefaultHandler() {
+                        @Override
+                        public void startElement(String uri, String localName, String qName, Attributes attributes)
+                        throws SAXException {
+                            throw new SAXException("failed " + sheetName);
+                        }
+                    };
+                }
+            }, 2);
+            fail("expected SAXException");
+        } catch (SAXException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("failed "));
+        }
+        pkg.close();
+    }
+
+    @Test
+    public void testProcessSheetsInParallelCancelsOnFirstFailure() throws Exception {
+        OPCPackage pkg = XSSFTestDataSamples.openSamplePackage("SampleSS.xlsx");
+        XSSFReader reader = new XSSFReader(pkg);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            reader.processSheets(new XSSFReader.SheetHandlerFactory() {
+                @Override
+                public ContentHandler createSheetHandler(final int sheetIndex, final String sheetName) {
+                    return new DefaultHandler() {
+                        @Override
+                        public void startElement(String uri, String localName, String qName, Attributes attributes)
+                        throws SAXException {
+                            if (sheetIndex != 0) {
+                                throw new SAXException("failed " + sheetName);
+                            }
+                            // the first sheet only finishes, when it's cancelled
+                            try {
+                                Thread.sleep(60000);
+                            } catch (InterruptedException e) {
+                                interrupted.countDown();
+                                throw new SAXException("cancelled " + sheetName);
+                            }
+                        }
+                    };
+                }
+            }, executor);
+            fail("expected SAXException");
+        } catch (SAXException e) {
+            // the failure of a later sheet is reported before the first sheet completes
+            assertTrue(e.getMessage(), e.getMessage().startsWith("failed "));
+            assertTrue("the first sheet wasn't cancelled", interrupted.await(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        pkg.close();
+    }
+
+    @Test
+    public void testProcessSheetsInParallelAwaitsRunningSheets() throws Exception {
+        OPCPackage pkg = XSSFTestDataSamples.openSamplePackage("SampleSS.xlsx");
+        XSSFReader reader = new XSSFReader(pkg);
+        final CountDownLatch started = new CountDownLatch(1);
+        final AtomicBoolean completed = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            reader.processSheets(new XSSFReader.SheetHandlerFactory() {
+                @Override
+                public ContentHandler createSheetHandler(final int sheetIndex, final String sheetName) {
+                    if (sheetIndex > 1) {
+                        return null;
+                    }
+                    return new DefaultHandler() {
+                        @Override
+                        public void startElement(String uri, String localName, String qName, Attributes attributes)
+                        throws SAXException {
+                            if (sheetIndex == 1) {
+                                try {
+                                    started.await(10, TimeUnit.SECONDS);
+                                } catch (InterruptedException e) {
+                                    throw new SAXException(e);
+                                }
+                                throw new SAXException("failed " + sheetName);
+                            }
+                            if (started.getCount() == 0) {
+                                return;
+                            }
+                            started.countDown();
+                            // the first sheet ignores the cancellation and keeps parsing for a while
+                            long end = System.currentTimeMillis() + 500;
+                            while (System.currentTimeMillis() < end) {
+                                try {
+                                    Thread.sleep(end - System.currentTimeMillis());
+                                } catch (InterruptedException e) {
+                                    // ignored
+                                }
+                            }
+                        }
+
+                        @Override
+                        public void endDocument() {
+                            completed.set(true);
+                        }
+                    };
+                }
+            }, executor);
+            fail("expected SAXException");
+        } catch (SAXException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("failed "));
+            assertTrue("the running sheet hasn't completed", completed.get());
+        } finally {
+            executor.shutdownNow();
+        }
+        pkg.close();
+    }
+
     @Test
     @Ignore("until we fix issue https://bz.apache.org/bugzilla/show_bug.cgi?id=61701")
     public void test61701() throws Exception {
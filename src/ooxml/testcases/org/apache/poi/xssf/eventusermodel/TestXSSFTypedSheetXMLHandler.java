@@ -0,0 +1,258 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xssf.eventusermodel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.FormulaError;
+import org.apache.poi.util.SAXHelper;
+import org.apache.poi.xssf.XSSFTestDataSamples;
+import org.apache.poi.xssf.eventusermodel.XSSFTypedSheetXMLHandler.TypedCell;
+import org.apache.poi.xssf.eventusermodel.XSSFTypedSheetXMLHandler.TypedSheetContentsHandler;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.apache.poi.xssf.usermodel.XSSFRow;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+/**
+ * Tests for {@link XSSFTypedSheetXMLHandler}
+ */
+public final class TestXSSFTypedSheetXMLHandler {
+
+    @Test
+    public void testTypedCells() throws Exception {
+        XSSFWorkbook wb = new XSSFWorkbook();
+        XSSFSheet sheet = wb.createSheet();
+        XSSFCellStyle percent = wb.createCellStyle();
+        percent.setDataFormat(wb.createDataFormat().getFormat("0.0%"));
+
+        XSSFRow row = sheet.createRow(0);
+        row.createCell(0).setCellValue(12.5);
+        row.createCell(1).setCellValue("text");
+        row.createCell(2).setCellValue(true);
+        row.createCell(27).setCellValue(0.25);
+        row.getCell(27).setCellStyle(percent);
+        row = sheet.createRow(2);
+        row.createCell(1).setCellFormula("A1*2");
+        row.getCell(1).setCellValue(25);
+        row.createCell(2).setCellErrorValue(FormulaError.DIV0.getCode());
+
+        XSSFWorkbook wbBack = XSSFTestDataSamples.writeOutAndReadBack(wb);
+        wb.close();
+
+        final List<String> events = new ArrayList<>();
+        OPCPackage pkg = wbBack.getPackage();
+        XSSFReader reader = new XSSFReader(pkg);
+        ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+        TypedSheetContentsHandler handler = new TypedSheetContentsHandler() {
+            @Override
+            public void startRow(int rowNum) {
+                events.add("start " + rowNum);
+            }
+
+            @Override
+            public void endRow(int rowNum) {
+                events.add("end " + rowNum);
+            }
+
+            @Override
+            public void cell(TypedCell cell) {
+                StringBuilder sb = new StringBuilder();
+                sb.append(cell.getRowIndex()).append('/').append(cell.getColumnIndex()).append(' ');
+                sb.append(cell.getCellType()).append(' ');
+                switch (cell.getCellType()) {
+                    case NUMERIC:
+                        sb.append(cell.getNumericCellValue());
+                        break;
+                    case STRING:
+                        assertTrue(cell.isSharedString());
+                        sb.append(cell.getSharedStringIndex()).append(':').append(cell.getStringCellValue());
+                        break;
+                    case BOOLEAN:
+                        sb.append(cell.getBooleanCellValue());
+                        break;
+                    case ERROR:
+                        sb.append(cell.getErrorCellValue());
+                        break;
+                    default:
+                        break;
+                }
+                if (cell.isFormula()) {
+                    sb.append(" =").append(cell.getFormula());
+                }
+                sb.append(" [").append(cell.getFormattedValue()).append(']');
+                events.add(sb.toString());
+            }
+
+            @Override
+            public void endSheet() {
+                events.add("end sheet");
+            }
+        };
+
+        XMLReader parser = SAXHelper.newXMLReader();
+        parser.setContentHandler(new XSSFTypedSheetXMLHandler(reader.getStylesTable(), strings, handler));
+        try (InputStream is = reader.getSheetsData().next()) {
+            parser.parse(new InputSource(is));
+        }
+        wbBack.close();
+
+        String[] expected = {
+            "start 0",
+            "0/0 NUMERIC 12.5 [12.5]",
+            "0/1 STRING 0:text [text]",
+            "0/2 BOOLEAN true [TRUE]",
+            "0/27 NUMERIC 0.25 [25.0%]",
+            "end 0",
+            "start 2",
+            "2/1 NUMERIC 25.0 =A1*2 [25]",
+            "2/2 ERROR DIV0 [ERROR:#DIV/0!]",
+            "end 2",
+            "end sheet"
+        };
+        assertEquals(Arrays.asList(expected), events);
+    }
+
+    @Test
+    public void testParseDouble() {
+        String[] values = {
+            "0", "-0", "1", "42", "-17", "0.1", "3.14159", "-2.5", "123456789012345",
+            "1234567890123456789", "0.30000000000000004", "1E-3", "1.5E+20", "4.9406564584124654E-324",
+            "0.000001", "1.", ".5", "99999999.999999"
+        };
+        for (String v : values) {
+            double expected = Double.parseDouble(v);
+            double actual = XSSFTypedSheetXMLHandler.parseDouble(new StringBuilder(v));
+            assertEquals(v, Double.doubleToLongBits(expected), Double.doubleToLongBits(actual));
+        }
+    }
+
+    @Test
+    public void testInlineStrings() throws Exception {
+        String xml = "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>"
+            + "<row><c t=\"inlineStr\"><is><r><t>Hello </t></r><r><t>World</t></r><rPh><t>x</t></rPh></is></c>"
+            + "<c t=\"str\"><f>\"a\"&amp;\"b\"</f><v>ab</v></c><c s=\"0\"/><c><v></v></c></row>"
+            + "</sheetData></worksheet>";
+        final List<String> cells = new ArrayList<>();
+        XMLReader parser = SAXHelper.newXMLReader();
+        parser.setContentHandler(new XSSFTypedSheetXMLHandler(null, null, new TypedSheetContentsHandler() {
+            @Override
+            public void startRow(int rowNum) {
+                assertEquals(0, rowNum);
+            }
+
+            @Override
+            public void endRow(int rowNum) {
+            }
+
+            @Override
+            public void cell(TypedCell cell) {
+                assertFalse(cell.isSharedString());
+                if (cell.getCellType() == CellType.STRING) {
+                    cells.add(cell.getColumnIndex() + ":" + cell.getStringCellValue() + ":" + cell.getFormula());
+                } else {
+                    assertNull(cell.getFormula());
+                    cells.add(cell.getColumnIndex() + ":" + cell.getCellType());
+                }
+            }
+        }));
+        parser.parse(new InputSource(new StringReader(xml)));
+
+        assertEquals(3, cells.size());
+        assertEquals("0:Hello World:null", cells.get(0));
+        assertEquals("1:ab:\"a\"&\"b\"", cells.get(1));
+        assertEquals("3:BLANK", cells.get(2));
+    }
+
+    @Test
+    public void testUnstyledNumbers() throws Exception {
+        String xml = "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>"
+            + "<row r=\"1\"><c r=\"A1\"><v>1</v></c><c r=\"B1\"><v>10000000000</v></c>"
+            + "<c r=\"C1\"><v>0.5</v></c><c r=\"D1\"><v>-0</v></c></row>"
+            + "</sheetData></worksheet>";
+
+        // without a styles table, the raw values are reported like XSSFSheetXMLHandler does
+        final List<String> typed = new ArrayList<>();
+        XMLReader parser = SAXHelper.newXMLReader();
+        parser.setContentHandler(new XSSFTypedSheetXMLHandler(null, null, new TypedSheetContentsHandler() {
+            @Override
+            public void startRow(int rowNum) {
+            }
+
+            @Override
+            public void endRow(int rowNum) {
+            }
+
+            @Override
+            public void cell(TypedCell cell) {
+                typed.add(cell.getFormattedValue());
+            }
+        }));
+        parser.parse(new InputSource(new StringReader(xml)));
+
+        final List<String> formatted = new ArrayList<>();
+        parser = SAXHelper.newXMLReader();
+        parser.setContentHandler(new XSSFSheetXMLHandler(null, null, new XSSFSheetXMLHandler.SheetContentsHandler() {
+            @Override
+            public void startRow(int rowNum) {
+            }
+
+            @Override
+            public void endRow(int rowNum) {
+            }
+
+            @Override
+            public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+                formatted.add(formattedValue);
+            }
+        }, false));
+        parser.parse(new InputSource(new StringReader(xml)));
+
+        assertEquals(Arrays.asList("1", "10000000000", "0.5", "-0"), typed);
+        assertEquals(formatted, typed);
+    }
+
+    @Test
+    public void testIsPlainInteger() {
+        assertTrue(XSSFTypedSheetXMLHandler.isPlainInteger("0"));
+        assertTrue(XSSFTypedSheetXMLHandler.isPlainInteger("-17"));
+        assertTrue(XSSFTypedSheetXMLHandler.isPlainInteger("123456789012345"));
+        assertFalse(XSSFTypedSheetXMLHandler.isPlainInteger("1234567890123456"));
+        assertFalse(XSSFTypedSheetXMLHandler.isPlainInteger("-0"));
+        assertFalse(XSSFTypedSheetXMLHandler.isPlainInteger("007"));
+        assertFalse(XSSFTypedSheetXMLHandler.isPlainInteger("1.0"));
+        assertFalse(XSSFTypedSheetXMLHandler.isPlainInteger("1E3"));
+        assertFalse(XSSFTypedSheetXMLHandler.isPlainInteger("-"));
+        assertFalse(XSSFTypedSheetXMLHandler.isPlainInteger(""));
+    }
+}
@@ -23,6 +23,8 @@ import org.junit.Test;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -32,9 +34,13 @@ import java.util.Map;
 import org.apache.poi.ss.usermodel.BuiltinFormats;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.Font;
 import org.apache.poi.xssf.XSSFTestDataSamples;
 import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFFont;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTFont;
 
 public final class TestStylesTable {
     private static final String testFile = "Formatting.xlsx";
@@ -358,4 +364,42 @@ public final class TestStylesTable {
 
         assertNotNull(XSSFTestDataSamples.writeOutAndReadBack(workbook));
     }
+
+    @Test
+    public void deduplicateModifiedParts() throws IOException {
+        try (XSSFWorkbook wb = new XSSFWorkbook()) {
+            StylesTable st = wb.getStylesSource();
+            short black = XSSFFont.DEFAULT_FONT_COLOR;
+
+            // fonts are usually modified after their registration
+            XSSFFont font = wb.createFont();
+            font.setFontName("Arial");
+            font.setColor(black);
+            assertSame(font, st.findFont(false, black, (short)220, "Arial", false, false, Font.SS_NONE, Font.U_NONE));
+            font.setBold(true);
+            font.setFontHeightInPoints((short)14);
+            assertSame(font, st.findFont(true, black, (short)280, "Arial", false, false, Font.SS_NONE, Font.U_NONE));
+            assertNull(st.findFont(false, black, (short)280, "Arial", false, false, Font.SS_NONE, Font.U_NONE));
+
+            XSSFFont copy = new XSSFFont((CTFont)font.getCTFont().copy());
+            assertEquals(font.getIndex(), st.putFont(copy));
+            font.setItalic(true);
+            assertEquals(st.getFonts().size(), st.putFont(copy));
+
+            // the fonts of a loaded workbook report their modifications as well
+            XSSFFont defaultFont = st.getFontAt(0);
+            defaultFont.setStrikeout(true);
+            assertSame(defaultFont, st.findFont(false, defaultFont.getColor(), defaultFont.getFontHeight(),
+                    defaultFont.getFontName(), false, true, Font.SS_NONE, Font.U_NONE));
+
+            // equal borders are shared, the styles keep their index
+            XSSFCellStyle style1 = wb.createCellStyle();
+            style1.setBorderTop(BorderStyle.THIN);
+            XSSFCellStyle style2 = wb.createCellStyle();
+            style2.setBorderTop(BorderStyle.THIN);
+            assertEquals(style1.getCoreXf().getBorderId(), style2.getCoreXf().getBorderId());
+            assertEquals(style1.getIndex(), st.putStyle(style1));
+            assertEquals(style2.getIndex(), st.putStyle(style2));
+        }
+    }
 }
@@ -0,0 +1,208 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xssf.readonly;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.poi.POIDataSamples;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.CellValue;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.FormulaError;
+import org.apache.poi.ss.usermodel.FormulaEvaluator;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFName;
+import org.apache.poi.xssf.usermodel.XSSFRow;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+public final class TestReadOnlyXSSFWorkbook {
+
+    private static byte[] createWorkbook() throws IOException {
+        try (XSSFWorkbook wb = new XSSFWorkbook()) {
+            XSSFSheet sh = wb.createSheet("Data");
+            wb.createSheet("Other").createRow(0).createCell(0).setCellValue(5);
+
+            XSSFName name = wb.createName();
+            name.setNameName("Total");
+            name.setRefersToFormula("Data!$A$1:$A$3");
+
+            XSSFRow r0 = sh.createRow(0);
+            r0.createCell(0).setCellValue(1.5);
+            r0.createCell(1).setCellValue("text");
+            r0.createCell(2).setCellValue(true);
+            r0.createCell(3).setCellErrorValue(FormulaError.DIV0.getCode());
+            r0.createCell(5).setCellFormula("A1*2+Other!A1");
+            r0.setHeightInPoints(30);
+
+            XSSFCellStyle style = wb.createCellStyle();
+            style.setDataFormat(wb.createDataFormat().getFormat("0.00"));
+            XSSFRow r2 = sh.createRow(2);
+            r2.createCell(0).setCellValue(3);
+            r2.getCell(0).setCellStyle(style);
+            r2.createCell(1).setCellFormula("SUM(Total)");
+            r2.createCell(2);
+
+            sh.addMergedRegion(new CellRangeAddress(5, 6, 0, 1));
+            sh.setColumnWidth(1, 20 * 256);
+            sh.setColumnHidden(4, true);
+            sh.setArrayFormula("A1*10", CellRangeAddress.valueOf("H1:H1"));
+
+            wb.getCreationHelper().createFormulaEvaluator().evaluateAll();
+
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            wb.write(bos);
+            return bos.toByteArray();
+        }
+    }
+
+    @Test
+    public void readValues() throws IOException {
+        try (ReadOnlyXSSFWorkbook wb = new ReadOnlyXSSFWorkbook(new ByteArrayInputStream(createWorkbook()))) {
+            assertEquals(2, wb.getNumberOfSheets());
+            assertEquals("Other", wb.getSheetName(1));
+            assertEquals(1, wb.getSheetIndex("Other"));
+
+            ReadOnlyXSSFSheet sh = wb.getSheetAt(0);
+            assertEquals(0, sh.getFirstRowNum());
+            assertEquals(2, sh.getLastRowNum());
+            assertEquals(2, sh.getPhysicalNumberOfRows());
+            assertNull(sh.getRow(1));
+
+            Row r0 = sh.getRow(0);
+            assertEquals(30, r0.getHeightInPoints(), 0);
+            assertEquals(1.5, r0.getCell(0).getNumericCellValue(), 0);
+            assertEquals("text", r0.getCell(1).getStringCellValue());
+            assertTrue(r0.getCell(2).getBooleanCellValue());
+            assertEquals(CellType.ERROR, r0.getCell(3).getCellType());
+            assertEquals(FormulaError.DIV0.getCode(), r0.getCell(3).getErrorCellValue());
+            assertNull(r0.getCell(4));
+            assertEquals(CellType.FORMULA, r0.getCell(5).getCellType());
+            assertEquals("A1*2+Other!A1", r0.getCell(5).getCellFormula());
+            assertEquals(CellType.NUMERIC, r0.getCell(5).getCachedFormulaResultType());
+            assertEquals(8, r0.getCell(5).getNumericCellValue(), 0);
+            assertEquals(CellType.FORMULA, r0.getCell(7).getCellType());
+            assertEquals("A1*10", r0.getCell(7).getCellFormula());
+            assertTrue(r0.getCell(7).isPartOfArrayFormulaGroup());
+
+            Row r2 = sh.getRow(2);
+            assertEquals("3.00", new DataFormatter().formatCellValue(r2.getCell(0)));
+            assertEquals("SUM(Total)", r2.getCell(1).getCellFormula());
+            assertEquals(CellType.BLANK, r2.getCell(2).getCellType());
+            assertNull(r2.getCell(2, Row.MissingCellPolicy.RETURN_BLANK_AS_NULL));
+
+            assertEquals(1, sh.getNumMergedRegions());
+            assertEquals("A6:B7", sh.getMergedRegion(0).formatAsString());
+            assertEquals(20 * 256, sh.getColumnWidth(1));
+            assertTrue(sh.isColumnHidden(4));
+            assertFalse(sh.isColumnHidden(1));
+
+            assertEquals(1, wb.getNumberOfNames());
+            assertEquals("Data!$A$1:$A$3", wb.getName("Total").getRefersToFormula());
+        }
+    }
+
+    @Test
+    public void evaluateFormulas() throws IOException {
+        try (ReadOnlyXSSFWorkbook wb = new ReadOnlyXSSFWorkbook(new ByteArrayInputStream(createWorkbook()))) {
+            FormulaEvaluator evaluator = wb.getCreationHelper().createFormulaEvaluator();
+            Sheet sh = wb.getSheetAt(0);
+
+            CellValue value = evaluator.evaluate(sh.getRow(0).getCell(5));
+            assertEquals(8, value.getNumberValue(), 0);
+            value = evaluator.evaluate(sh.getRow(2).getCell(1));
+            assertEquals(4.5, value.getNumberValue(), 0);
+            value = evaluator.evaluate(sh.getRow(0).getCell(7));
+            assertEquals(15, value.getNumberValue(), 0);
+        }
+    }
+
+    @Test
+    public void sampleFiles() throws IOException {
+        for (String file : new String[] {"shared_formulas.xlsx", "SampleSS.xlsx", "sample.xlsx", "Formatting.xlsx", "WithVariousData.xlsx"}) {
+            try (InputStream is = POIDataSamples.getSpreadSheetInstance().openResourceAsStream(file);
+                 ReadOnlyXSSFWorkbook wb = new ReadOnlyXSSFWorkbook(is);
+                 XSSFWorkbook expected = new XSSFWorkbook(POIDataSamples.getSpreadSheetInstance().openResourceAsStream(file))) {
+                assertSameContent(expected, wb);
+            }
+        }
+    }
+
+    private static void assertSameContent(XSSFWorkbook expected, ReadOnlyXSSFWorkbook actual) {
+        DataFormatter formatter = new DataFormatter();
+        assertEquals(expected.getNumberOfSheets(), actual.getNumberOfSheets());
+        for (int s = 0; s < expected.getNumberOfSheets(); s++) {
+            Sheet es = expected.getSheetAt(s);
+            Sheet as = actual.getSheetAt(s);
+            assertEquals(es.getSheetName(), as.getSheetName());
+            assertEquals(es.getPhysicalNumberOfRows(), as.getPhysicalNumberOfRows());
+            assertEquals(es.getNumMergedRegions(), as.getNumMergedRegions());
+            for (Row er : es) {
+                Row ar = as.getRow(er.getRowNum());
+                assertNotNull(ar);
+                assertEquals(er.getPhysicalNumberOfCells(), ar.getPhysicalNumberOfCells());
+                assertEquals(er.getHeightInPoints(), ar.getHeightInPoints(), 0);
+                for (Cell ec : er) {
+                    Cell ac = ar.getCell(ec.getColumnIndex());
+                    String ref = es.getSheetName() + "!" + ec.getAddress();
+                    assertNotNull(ref, ac);
+                    assertEquals(ref, ec.getCellType(), ac.getCellType());
+                    assertEquals(ref, formatter.formatCellValue(ec), formatter.formatCellValue(ac));
+                    assertEquals(ref, ec.getCellStyle().getIndex(), ac.getCellStyle().getIndex());
+                    if (ec.getCellType() == CellType.FORMULA) {
+                        assertEquals(ref, ec.getCellFormula(), ac.getCellFormula());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void readOnly() throws IOException {
+        try (ReadOnlyXSSFWorkbook wb = new ReadOnlyXSSFWorkbook(new ByteArrayInputStream(createWorkbook()))) {
+            try {
+                wb.createSheet();
+                fail("read-only workbooks can't be modified");
+            } catch (UnsupportedOperationException e) {
+                // expected here
+            }
+            Cell cell = wb.getSheetAt(0).getRow(0).getCell(0);
+            try {
+                cell.setCellValue(2);
+                fail("read-only workbooks can't be modified");
+            } catch (UnsupportedOperationException e) {
+                // expected here
+            }
+        }
+    }
+}
@@ -20,11 +20,19 @@
 package org.apache.poi.xssf.streaming;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.IOException;
+import java.util.Date;
 
 import org.apache.poi.ss.usermodel.BaseTestXSheet;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.xssf.SXSSFITestDataProvider;
@@ -128,6 +136,129 @@ public final class TestSXSSFSheet extends BaseTestXSheet {
         }
     }
 
+    @Test
+    public void readFlushedRows() throws IOException {
+        SXSSFWorkbook wb = new SXSSFWorkbook(2);
+        try {
+            wb.setIndexFlushedRows(true);
+            SXSSFSheet sheet = wb.createSheet();
+            CellStyle style = wb.createCellStyle();
+            style.setWrapText(true);
+
+            for (int i = 0; i < 10; i++) {
+                Row row = sheet.createRow(i*2);
+                row.createCell(0).setCellValue(i);
+                row.createCell(2).setCellValue("text <" + i + ">");
+                row.getCell(2).setCellStyle(style);
+                row.createCell(3).setCellValue(i % 2 == 0);
+                row.createCell(4).setCellFormula("A" + (i*2+1) + "*2");
+            }
+
+            assertNull(sheet.getRow(0));
+            assertNull(sheet.getFlushedRow(1));
+            assertNull(sheet.getFlushedRow(18));
+
+            double total = 0;
+            for (int i = 0; i < 8; i++) {
+                SXSSFRow row = sheet.getFlushedRow(i*2);
+                assertNotNull(row);
+                assertEquals(i*2, row.getRowNum());
+                total += row.getCell(0).getNumericCellValue();
+                assertNull(row.getCell(1));
+                assertEquals("text <" + i + ">", row.getCell(2).getStringCellValue());
+                assertEquals(style.getIndex(), row.getCell(2).getCellStyle().getIndex());
+                assertEquals(i % 2 == 0, row.getCell(3).getBooleanCellValue());
+                assertEquals("A" + (i*2+1) + "*2", row.getCell(4).getCellFormula());
+            }
+            assertEquals(28, total, 0);
+
+            // untracked columns can be auto-sized with the flushed rows
+            sheet.autoSizeColumn(2);
+            assertTrue(sheet.getColumnWidth(2) > 0);
+
+            // flushed rows are still readable after the sheet has been written
+            SXSSFITestDataProvider.instance.writeOutAndReadBack(wb).close();
+            assertEquals(9, sheet.getFlushedRow(18).getCell(0).getNumericCellValue(), 0);
+        } finally {
+            wb.dispose();
+            wb.close();
+        }
+    }
+
+    @Test
+    public void readFlushedRowsRequiresIndex() throws IOException {
+        SXSSFWorkbook wb = new SXSSFWorkbook(1);
+        try {
+            SXSSFSheet sheet = wb.createSheet();
+            sheet.createRow(0);
+            sheet.createRow(1);
+            thrown.expect(IllegalStateException.class);
+            sheet.getFlushedRow(0);
+        } finally {
+            wb.close();
+        }
+    }
+
+    @Test
+    public void writeColumnsAndRows() throws IOException {
+        SXSSFWorkbook wb = new SXSSFWorkbook();
+        try {
+            SXSSFSheet sheet = wb.createSheet();
+            CellStyle dateStyle = wb.createCellStyle();
+            dateStyle.setDataFormat(wb.createDataFormat().getFormat("yyyy-mm-dd hh:mm"));
+            sheet.createRow(0).createCell(0).setCellValue("header");
+
+            long[] dates = { 0L, 1234567890123L, -2208988800000L };
+            sheet.writeColumns(1,
+                    BulkColumn.numeric(new double[] { 1.5, Double.NaN, 3 }, null),
+                    null,
+                    BulkColumn.text(new String[] { "a", null, " <c> " }, null),
+                    BulkColumn.dates(dates, dateStyle),
+                    BulkColumn.booleans(new boolean[] { true, false, true }, null));
+            sheet.writeRows(4, 2, new BulkRowWriter.Callback() {
+                @Override
+                public void writeRow(int rownum, BulkRowWriter row) {
+                    row.setNumeric(0, rownum);
+                    row.setString(5, "row" + rownum);
+                }
+            });
+
+            try {
+                sheet.writeRows(5, 1, new BulkRowWriter.Callback() {
+                    @Override
+                    public void writeRow(int rownum, BulkRowWriter row) {
+                    }
+                });
+                fail("expected exception");
+            } catch (IllegalArgumentException e) {
+                assertEquals("Attempting to write a row[5] in the range [0,5] that is already written to disk.", e.getMessage());
+            }
+
+            XSSFWorkbook xwb = SXSSFITestDataProvider.instance.writeOutAndReadBack(wb);
+            Sheet xs = xwb.getSheetAt(0);
+            assertEquals("header", xs.getRow(0).getCell(0).getStringCellValue());
+            assertEquals(1.5, xs.getRow(1).getCell(0).getNumericCellValue(), 0);
+            assertNull(xs.getRow(2).getCell(0));
+            assertNull(xs.getRow(1).getCell(1));
+            assertEquals("a", xs.getRow(1).getCell(2).getStringCellValue());
+            assertNull(xs.getRow(2).getCell(2));
+            assertEquals(" <c> ", xs.getRow(3).getCell(2).getStringCellValue());
+            for (int i = 0; i < dates.length; i++) {
+                Cell cell = xs.getRow(i+1).getCell(3);
+                assertEquals(DateUtil.getExcelDate(new Date(dates[i])), cell.getNumericCellValue(), 1e-9);
+                assertEquals(dateStyle.getIndex(), cell.getCellStyle().getIndex());
+            }
+            assertTrue(xs.getRow(3).getCell(4).getBooleanCellValue());
+            assertEquals(5, xs.getRow(5).getCell(0).getNumericCellValue(), 0);
+            assertEquals("row5", xs.getRow(5).getCell(5).getStringCellValue());
+            assertEquals(5, xs.getLastRowNum());
+            xwb.close();
+        } finally {
+            wb.dispose();
+            wb.close();
+        }
+    }
+
     @Test
     public void overrideRowsInTemplate() throws IOException {
         XSSFWorkbook template = new XSSFWorkbook();
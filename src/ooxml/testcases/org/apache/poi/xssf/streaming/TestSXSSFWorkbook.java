@@ -32,8 +32,15 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import org.apache.poi.POIDataSamples;
 import org.apache.poi.POITestCase;
@@ -166,6 +173,163 @@ public final class TestSXSSFWorkbook extends BaseTestXWorkbook {
         wb.close();
     }
 
+    @Test
+    public void useSpillingSharedStringsTable() throws Exception {
+        XSSFWorkbook template = new XSSFWorkbook();
+        template.createSheet("S1").createRow(0).createCell(0).setCellValue("T");
+        SXSSFWorkbook wb = new SXSSFWorkbook(template, 10, true, true, 2);
+
+        SharedStringsTable sss = POITestCase.getFieldValue(SXSSFWorkbook.class, wb, SharedStringsTable.class, "_sharedStringSource");
+        assertTrue(sss instanceof SpillingSharedStringsTable);
+        assertEquals(1, sss.getUniqueCount());
+
+        Row row = wb.getSheetAt(0).createRow(1);
+        row.createCell(0).setCellValue("A");
+        row.createCell(1).setCellValue("B");
+        row.createCell(2).setCellValue("A");
+        row.createCell(3).setCellValue("C");
+        row.createCell(4).setCellValue("D");
+        // "A" has been evicted from the cache of two strings and is added again
+        row.createCell(5).setCellValue("A");
+        row.createCell(6).setCellValue("T & <T>");
+
+        XSSFWorkbook xssfWorkbook = SXSSFITestDataProvider.instance.writeOutAndReadBack(wb);
+        assertEquals(7, sss.getUniqueCount());
+        assertEquals(8, sss.getCount());
+        assertTrue(wb.dispose());
+
+        Sheet sheet1 = xssfWorkbook.getSheetAt(0);
+        assertEquals("T", sheet1.getRow(0).getCell(0).getStringCellValue());
+        row = sheet1.getRow(1);
+        String[] expected = { "A", "B", "A", "C", "D", "A", "T & <T>" };
+        for (int i=0; i<expected.length; i++) {
+            assertEquals(expected[i], row.getCell(i).getStringCellValue());
+        }
+        assertEquals(7, xssfWorkbook.getSharedStringSource().getUniqueCount());
+
+        xssfWorkbook.close();
+        wb.close();
+    }
+
+    @Test
+    public void spillingSharedStringsTableWrittenTwice() throws Exception {
+        SpillingSharedStringsTable sst = new SpillingSharedStringsTable(null, 10) {
+            @Override
+            protected InputStream decorateInputStream(FileInputStream fis) throws IOException {
+                return new GZIPInputStream(fis);
+            }
+
+            @Override
+            protected OutputStream decorateOutputStream(FileOutputStream fos) throws IOException {
+                return new GZIPOutputStream(fos);
+            }
+        };
+        try {
+            sst.addSharedString("A");
+            final boolean[] closed = { false };
+            ByteArrayOutputStream bos = new ByteArrayOutputStream() {
+                @Override
+                public void close() {
+                    closed[0] = true;
+                }
+            };
+            sst.writeTo(bos);
+            assertFalse("the stream is closed by the caller", closed[0]);
+            assertTrue(bos.toString("UTF-8").contains("<si><t>A</t></si></sst>"));
+
+            // items can be added after writing the table
+            sst.addSharedString("B");
+            bos.reset();
+            sst.writeTo(bos);
+            String xml = bos.toString("UTF-8");
+            assertTrue(xml, xml.contains("uniqueCount=\"2\"><si><t>A</t></si><si><t>B</t></si></sst>"));
+        } finally {
+            assertTrue(sst.dispose());
+        }
+    }
+
+    @Test
+    public void asyncFlushing() throws Exception {
+        SXSSFWorkbook wb = new SXSSFWorkbook(null, 5, false, true);
+        assertFalse(wb.isAsyncFlushing());
+        wb.setAsyncFlushing(3);
+        assertTrue(wb.isAsyncFlushing());
+
+        SXSSFSheet sheet1 = wb.createSheet("S1");
+        SXSSFSheet sheet2 = wb.createSheet("S2");
+        for (int i = 0; i < 1000; i++) {
+            Row row1 = sheet1.createRow(i);
+            row1.createCell(0).setCellValue("S" + (i % 10));
+            row1.createCell(1).setCellValue(i);
+            sheet2.createRow(i).createCell(0).setCellValue("T" + i);
+        }
+        assertEquals(994, sheet1.getLastFlushedRowNum());
+        assertEquals(1000, sheet1.getPhysicalNumberOfRows());
+        assertEquals(0, sheet2.getFirstRowNum());
+        try {
+            sheet1.createRow(994);
+            fail("flushed rows can't be overwritten");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Attempting to write a row[994] in the range [0,994] that is already written to disk.", e.getMessage());
+        }
+
+        XSSFWorkbook xssfWorkbook = SXSSFITestDataProvider.instance.writeOutAndReadBack(wb);
+        assertTrue(wb.dispose());
+        assertFalse(wb.isAsyncFlushing());
+        wb.close();
+
+        Sheet xs1 = xssfWorkbook.getSheet("S1");
+        Sheet xs2 = xssfWorkbook.getSheet("S2");
+        assertEquals(999, xs1.getLastRowNum());
+        assertEquals(999, xs2.getLastRowNum());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("S" + (i % 10), xs1.getRow(i).getCell(0).getStringCellValue());
+            assertEquals(i, xs1.getRow(i).getCell(1).getNumericCellValue(), 0);
+            assertEquals("T" + i, xs2.getRow(i).getCell(0).getStringCellValue());
+        }
+        assertEquals(1010, xssfWorkbook.getSharedStringSource().getUniqueCount());
+        xssfWorkbook.close();
+    }
+
+    @Test
+    public void disposeAfterAsyncFlushingFailed() throws Exception {
+        final List<SheetDataWriter> writers = new ArrayList<>();
+        SXSSFWorkbook wb = new SXSSFWorkbook(null, 5, false, true) {
+            @Override
+            protected SheetDataWriter createSheetDataWriter() throws IOException {
+                SheetDataWriter writer = new SheetDataWriter(getSharedStringSource()) {
+                    @Override
+                    protected OutputStream decorateOutputStream(FileOutputStream fos) {
+                        return new FilterOutputStream(fos) {
+                            @Override
+                            public void write(byte[] b, int off, int len) throws IOException {
+                                throw new IOException("disk full");
+                            }
+                        };
+                    }
+                };
+                writers.add(writer);
+                return writer;
+            }
+        };
+        wb.setAsyncFlushing(3);
+        SXSSFSheet sheet = wb.createSheet("S1");
+        try {
+            for (int i = 0; i < 5000; i++) {
+                sheet.createRow(i).createCell(0).setCellValue("value " + i);
+            }
+            fail("the failure of the background writer wasn't reported");
+        } catch (RuntimeException e) {
+            assertEquals("Writing a flushed row in the background failed", e.getCause().getMessage());
+        }
+
+        // the temp file is removed, although the rows couldn't be written
+        assertFalse(wb.dispose());
+        assertEquals(1, writers.size());
+        assertFalse(writers.get(0).getTempFile().exists());
+        wb.close();
+    }
+
     @Test
     public void addToExistingWorkbook() throws IOException {
     	XSSFWorkbook xssfWb1 = new XSSFWorkbook();
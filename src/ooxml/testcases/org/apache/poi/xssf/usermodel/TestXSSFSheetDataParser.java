@@ -0,0 +1,226 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+
+package org.apache.poi.xssf.usermodel;
+
+import static org.apache.poi.POIXMLTypeLoader.DEFAULT_XML_OPTIONS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.FormulaError;
+import org.apache.poi.util.StaxHelper;
+import org.apache.poi.xssf.XSSFTestDataSamples;
+import org.junit.Test;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTCell;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTWorksheet;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.STCellType;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.WorksheetDocument;
+
+public final class TestXSSFSheetDataParser {
+
+    private static final String SHEET_START =
+        "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" " +
+        "xmlns:x14ac=\"http://schemas.microsoft.com/office/spreadsheetml/2009/9/ac\">" +
+        "<dimension ref=\"A1:C2\"/><sheetData>";
+    private static final String SHEET_END =
+        "</sheetData><pageMargins left=\"0.7\" right=\"0.7\" top=\"0.75\" bottom=\"0.75\" header=\"0.3\" footer=\"0.3\"/>" +
+        "</worksheet>";
+
+    private static List<XSSFSheetDataParser.ParsedRow> parse(String sheetData, CTWorksheet[] worksheet) throws Exception {
+        XMLStreamReader reader = StaxHelper.newXMLInputFactory().createXMLStreamReader(
+                new StringReader(SHEET_START + sheetData + SHEET_END));
+        XSSFSheetDataParser parser = new XSSFSheetDataParser(reader);
+        worksheet[0] = WorksheetDocument.Factory.parse(parser, DEFAULT_XML_OPTIONS).getWorksheet();
+        reader.close();
+        return parser.getRows();
+    }
+
+    @Test
+    public void simpleCells() throws Exception {
+        CTWorksheet[] worksheet = new CTWorksheet[1];
+        List<XSSFSheetDataParser.ParsedRow> rows = parse(
+            "<row r=\"1\" spans=\"1:3\" x14ac:dyDescent=\"0.25\">" +
+            "<c r=\"A1\" s=\"1\"><v>1.5</v></c>" +
+            "<c r=\"B1\" t=\"s\"><v>0</v></c>" +
+            "<c r=\"C1\" t=\"inlineStr\"><is><t xml:space=\"preserve\"> a b </t></is></c>" +
+            "</row>" +
+            "<row r=\"2\"><c t=\"b\"><v>1</v></c><c t=\"e\"><v>#DIV/0!</v></c><c r=\"E2\" s=\"2\"/></row>",
+            worksheet);
+
+        assertEquals(2, rows.size());
+        // the rows are kept, but their cells are not part of the beans
+        assertEquals(2, worksheet[0].getSheetData().sizeOfRowArray());
+        assertEquals(0, worksheet[0].getSheetData().getRowArray(0).sizeOfCArray());
+        assertEquals(0.75, worksheet[0].getPageMargins().getTop(), 0);
+
+        XSSFSheetDataParser.ParsedRow row = rows.get(0);
+        assertEquals(3, row.size());
+        assertFalse(row.hasComplexCells());
+        assertEquals(0, row.getColumn(0));
+        assertNull(row.getType(0));
+        assertEquals(1, row.getStyle(0));
+        assertEquals("1.5", row.getValue(0));
+        assertEquals(STCellType.S, row.getType(1));
+        assertEquals(-1, row.getStyle(1));
+        assertEquals(STCellType.INLINE_STR, row.getType(2));
+        assertEquals(" a b ", row.getValue(2));
+
+        row = rows.get(1);
+        assertEquals(3, row.size());
+        assertEquals(-1, row.getColumn(0));
+        assertEquals(STCellType.B, row.getType(0));
+        assertEquals(STCellType.E, row.getType(1));
+        assertEquals("#DIV/0!", row.getValue(1));
+        assertEquals(4, row.getColumn(2));
+        assertEquals(2, row.getStyle(2));
+        assertNull(row.getValue(2));
+    }
+
+    @Test
+    public void complexCells() throws Exception {
+        CTWorksheet[] worksheet = new CTWorksheet[1];
+        List<XSSFSheetDataParser.ParsedRow> rows = parse(
+            "<row r=\"1\">" +
+            "<c r=\"A1\"><f>1+2</f><v>3</v></c>" +
+            "<c r=\"B1\" t=\"inlineStr\"><is><r><rPr><b/></rPr><t>bold</t></r><r><t>plain</t></r></is></c>" +
+            "<c r=\"C1\" cm=\"1\"><v>2</v></c>" +
+            "<c r=\"D1\"><v>4</v></c>" +
+            "</row>",
+            worksheet);
+
+        XSSFSheetDataParser.ParsedRow row = rows.get(0);
+        assertEquals(4, row.size());
+        assertTrue(row.hasComplexCells());
+
+        CTCell formula = row.getComplexCell(0);
+        assertNotNull(formula);
+        assertEquals("A1", formula.getR());
+        assertEquals("1+2", formula.getF().getStringValue());
+        assertEquals("3", formula.getV());
+
+        CTCell rich = row.getComplexCell(1);
+        assertEquals(STCellType.INLINE_STR, rich.getT());
+        assertEquals(2, rich.getIs().sizeOfRArray());
+        assertTrue(rich.getIs().getRArray(0).getRPr().sizeOfBArray() > 0);
+
+        CTCell foreign = row.getComplexCell(2);
+        assertEquals(1, foreign.getCm());
+
+        assertNull(row.getComplexCell(3));
+        assertEquals("4", row.getValue(3));
+    }
+
+    @Test
+    public void roundTrip() throws IOException {
+        XSSFWorkbook wb = new XSSFWorkbook();
+        XSSFSheet sheet = wb.createSheet();
+        XSSFRow row = sheet.createRow(0);
+        row.createCell(0).setCellValue(1.5);
+        row.createCell(1).setCellValue("shared");
+        row.createCell(2).setCellValue(true);
+        row.createCell(3).setCellErrorValue(FormulaError.NA);
+        row.createCell(5).setCellFormula("A1*2");
+        XSSFCell inline = row.createCell(6);
+        inline.getCTCell().setT(STCellType.INLINE_STR);
+        inline.getCTCell().addNewIs().setT("inline");
+        XSSFCellStyle style = wb.createCellStyle();
+        style.setWrapText(true);
+        row.getCell(0).setCellStyle(style);
+        sheet.createRow(1).createCell(0).setCellFormula("SUM(A1:A1)");
+
+        XSSFWorkbook wb2 = XSSFTestDataSamples.writeOutAndReadBack(wb);
+        wb.close();
+
+        XSSFSheet sheet2 = wb2.getSheetAt(0);
+        row = sheet2.getRow(0);
+        assertEquals(6, row.getPhysicalNumberOfCells());
+        assertEquals(1.5, row.getCell(0).getNumericCellValue(), 0);
+        assertTrue(row.getCell(0).getCellStyle().getWrapText());
+        assertEquals("shared", row.getCell(1).getStringCellValue());
+        assertTrue(row.getCell(2).getBooleanCellValue());
+        assertEquals(FormulaError.NA.getCode(), row.getCell(3).getErrorCellValue());
+        assertNull(row.getCell(4));
+        assertEquals("A1*2", row.getCell(5).getCellFormula());
+        assertEquals(CellType.STRING, row.getCell(6).getCellType());
+        assertEquals("inline", row.getCell(6).getStringCellValue());
+        assertEquals("G1", row.getCell(6).getReference());
+
+        // modify a read cell and add new ones
+        row.getCell(0).setCellValue(2.5);
+        row.createCell(4).setCellValue("new");
+        sheet2.getRow(1).createCell(1).setCellValue(7);
+
+        XSSFWorkbook wb3 = XSSFTestDataSamples.writeOutAndReadBack(wb2);
+        wb2.close();
+
+        row = wb3.getSheetAt(0).getRow(0);
+        assertEquals(7, row.getPhysicalNumberOfCells());
+        assertEquals(2.5, row.getCell(0).getNumericCellValue(), 0);
+        assertTrue(row.getCell(0).getCellStyle().getWrapText());
+        assertEquals("new", row.getCell(4).getStringCellValue());
+        assertEquals("inline", row.getCell(6).getStringCellValue());
+        assertEquals("SUM(A1:A1)", wb3.getSheetAt(0).getRow(1).getCell(0).getCellFormula());
+        assertEquals(7, wb3.getSheetAt(0).getRow(1).getCell(1).getNumericCellValue(), 0);
+        assertEquals("B2", wb3.getSheetAt(0).getRow(1).getCell(1).getCTCell().getR());
+        wb3.close();
+    }
+
+    @Test
+    public void cellBeansOfTheWorksheet() throws IOException {
+        XSSFWorkbook wb = new XSSFWorkbook();
+        XSSFSheet sheet = wb.createSheet();
+        XSSFRow row = sheet.createRow(0);
+        row.createCell(0).setCellValue(1.5);
+        row.createCell(2).setCellValue("text");
+        sheet.createRow(2).createCell(1).setCellValue(true);
+
+        XSSFWorkbook wb2 = XSSFTestDataSamples.writeOutAndReadBack(wb);
+        wb.close();
+
+        // the cell beans of all rows are available via the worksheet bean
+        CTWorksheet worksheet = wb2.getSheetAt(0).getCTWorksheet();
+        assertEquals(2, worksheet.getSheetData().sizeOfRowArray());
+        CTCell[] cells = worksheet.getSheetData().getRowArray(0).getCArray();
+        assertEquals(2, cells.length);
+        assertEquals("A1", cells[0].getR());
+        assertEquals("1.5", cells[0].getV());
+        assertEquals("C1", cells[1].getR());
+        assertEquals(STCellType.S, cells[1].getT());
+        cells = worksheet.getSheetData().getRowArray(1).getCArray();
+        assertEquals(1, cells.length);
+        assertEquals("B3", cells[0].getR());
+        assertEquals(STCellType.B, cells[0].getT());
+
+        // the beans are created only once and stay in sync with the cells
+        wb2.getSheetAt(0).getRow(0).getCell(0).setCellValue(2.5);
+        worksheet = wb2.getSheetAt(0).getCTWorksheet();
+        assertEquals(2, worksheet.getSheetData().getRowArray(0).sizeOfCArray());
+        assertEquals("2.5", worksheet.getSheetData().getRowArray(0).getCArray(0).getV());
+        wb2.close();
+    }
+}
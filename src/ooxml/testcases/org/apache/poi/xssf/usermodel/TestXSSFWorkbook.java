@@ -39,6 +39,7 @@ import java.util.List;
 import java.util.zip.CRC32;
 
 import org.apache.poi.POIDataSamples;
+import org.apache.poi.POIXMLDocumentPart;
 import org.apache.poi.POIXMLProperties;
 import org.apache.poi.hssf.HSSFTestDataSamples;
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
@@ -1119,4 +1120,74 @@ public final class TestXSSFWorkbook extends BaseTestXWorkbook {
 
         wb.close();
     }
+
+    @Test
+    public void testReadSheetsOnDemand() throws IOException, InvalidFormatException {
+        XSSFWorkbook wb = new XSSFWorkbook();
+        for (String name : new String[] { "First", "Second", "Third" }) {
+            wb.createSheet(name).createRow(0).createCell(0).setCellValue(name);
+        }
+        XSSFName name = wb.createName();
+        name.setNameName("myName");
+        name.setRefersToFormula("Third!$A$1");
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        wb.write(bos);
+        wb.close();
+
+        XSSFWorkbook wbLazy = new XSSFWorkbook(OPCPackage.open(new ByteArrayInputStream(bos.toByteArray())), true);
+        assertEquals(3, wbLazy.getNumberOfSheets());
+        assertEquals("Second", wbLazy.getSheetName(1));
+        assertEquals(2, wbLazy.getSheetIndex("Third"));
+        assertEquals("Third!$A$1", wbLazy.getName("myName").getRefersToFormula());
+        assertEquals(3, countSheetsPendingRead(wbLazy));
+
+        XSSFSheet second = wbLazy.getSheet("second");
+        assertFalse(second.isReadPending());
+        assertEquals(2, countSheetsPendingRead(wbLazy));
+        assertEquals("Second", second.getRow(0).getCell(0).getStringCellValue());
+        second.getRow(0).createCell(1).setCellValue(2);
+
+        XSSFWorkbook wbBack = XSSFTestDataSamples.writeOutAndReadBack(wbLazy);
+        assertEquals(2, countSheetsPendingRead(wbLazy));
+        wbLazy.close();
+
+        assertEquals("First", wbBack.getSheetAt(0).getRow(0).getCell(0).getStringCellValue());
+        assertEquals(2, wbBack.getSheetAt(1).getRow(0).getCell(1).getNumericCellValue(), 0);
+        assertEquals("Third", wbBack.getSheetAt(2).getRow(0).getCell(0).getStringCellValue());
+        wbBack.close();
+    }
+
+    @Test
+    public void testSheetsNotReadKeepTheirMemoryParts() throws IOException {
+        XSSFWorkbook wb = new XSSFWorkbook();
+        for (String name : new String[] { "First", "Second" }) {
+            wb.createSheet(name).createRow(0).createCell(0).setCellValue(name);
+        }
+        // saving the new workbook fills its memory based parts
+        wb.write(new ByteArrayOutputStream());
+        assertTrue(wb.getSheetAt(0).getPackagePart() instanceof MemoryPackagePart);
+
+        XSSFWorkbook wbLazy = new XSSFWorkbook(wb.getPackage(), true);
+        assertEquals(2, countSheetsPendingRead(wbLazy));
+        wbLazy.getSheet("Second").getRow(0).createCell(1).setCellValue(2);
+
+        XSSFWorkbook wbBack = XSSFTestDataSamples.writeOutAndReadBack(wbLazy);
+        assertEquals(1, countSheetsPendingRead(wbLazy));
+        assertEquals("First", wbBack.getSheetAt(0).getRow(0).getCell(0).getStringCellValue());
+        assertEquals("Second", wbBack.getSheetAt(1).getRow(0).getCell(0).getStringCellValue());
+        assertEquals(2, wbBack.getSheetAt(1).getRow(0).getCell(1).getNumericCellValue(), 0);
+        wbBack.close();
+        wb.close();
+    }
+
+    private static int countSheetsPendingRead(XSSFWorkbook wb) {
+        // the sheet parts are reachable without triggering the parsing
+        int count = 0;
+        for (POIXMLDocumentPart part : wb.getRelations()) {
+            if (part instanceof XSSFSheet && ((XSSFSheet)part).isReadPending()) {
+                count++;
+            }
+        }
+        return count;
+    }
 }
@@ -30,6 +30,7 @@ import org.apache.poi.hssf.record.FormulaRecord;
 import org.apache.poi.hssf.record.NumberRecord;
 import org.apache.poi.hssf.record.Record;
 import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.ss.usermodel.DateUtil;
 import org.junit.Test;
 /**
  * Tests for FormatTrackingHSSFListener
@@ -97,6 +98,11 @@ public final class TestFormatTrackingHSSFListener {
 					String s = listener.formatNumberDateCell(cvr);
 					assertNotNull(s);
 					assertTrue(s.length() > 0);
+
+					// The cached date format check agrees with DateUtil
+					int formatIndex = listener.getFormatIndex(cvr);
+					assertEquals(DateUtil.isADateFormat(formatIndex, listener.getFormatString(formatIndex)),
+							listener.isDateFormatted(cvr));
 				}
 			}
 			
@@ -24,6 +24,7 @@ import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Locale;
 import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.swing.JLabel;
 
@@ -1011,4 +1012,75 @@ public class TestCellFormat {
         assertNotNull(instance);
         assertEquals("01/01/1970", instance.apply(new Date(12345)).text);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testCache() {
+        int maxSize = CellFormat.getMaxCacheSize();
+        try {
+            CellFormat.clearCache();
+            CellFormat fmt = CellFormat.getInstance(Locale.US, "0.00;[Red]-0.00");
+            assertSame(fmt, CellFormat.getInstance(Locale.US, "0.00;[Red]-0.00"));
+            assertNotSame(fmt, CellFormat.getInstance(Locale.GERMANY, "0.00;[Red]-0.00"));
+            assertEquals(1, CellFormat.getCacheHitCount());
+            assertEquals(2, CellFormat.getCacheMissCount());
+            assertEquals(2, CellFormat.getCacheSize());
+
+            CellFormat.setMaxCacheSize(5);
+            for (int i = 0; i < 20; i++) {
+                assertEquals("1.0 #" + i, CellFormat.getInstance(Locale.US, "0.0\" #" + i + "\"").apply(1.0).text);
+            }
+            assertEquals(5, CellFormat.getCacheSize());
+
+            CellFormat.setMaxCacheSize(0);
+            assertEquals(0, CellFormat.getCacheSize());
+            assertEquals("1.00", CellFormat.getInstance(Locale.US, "0.00").apply(1.0).text);
+            assertEquals(0, CellFormat.getCacheSize());
+        } finally {
+            CellFormat.setMaxCacheSize(maxSize);
+            CellFormat.clearCache();
+        }
+        assertEquals(0, CellFormat.getCacheHitCount());
+        assertEquals(0, CellFormat.getCacheMissCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeCacheSize() {
+        CellFormat.setMaxCacheSize(-1);
+    }
+
+    @Test
+    public void testSharedBetweenThreads() throws InterruptedException {
+        final String format = "0.000E+00;[Red]-0.000E+00;0;@";
+        final Date date = new Date(12345);
+        final String[] expected = new String[2000];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = CellFormat.getInstance(Locale.US, format).apply(i * 1.5 + 1000).text;
+        }
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        for (int i = 0; i < expected.length; i++) {
+                            String actual = CellFormat.getInstance(Locale.US, format).apply(i * 1.5 + 1000).text;
+                            assertEquals(expected[i], actual);
+                            assertEquals("01/01/1970",
+                                    CellFormat.getInstance(Locale.US, "dd/mm/yyyy").apply(date).text);
+                        }
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+    }
+}
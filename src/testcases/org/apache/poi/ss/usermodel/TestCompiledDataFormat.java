@@ -0,0 +1,162 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+
+package org.apache.poi.ss.usermodel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+/**
+ * Tests of {@link CompiledDataFormat}
+ */
+public final class TestCompiledDataFormat {
+    private static final String[] FORMATS = {
+        "General", "@", "0", "0.00", "#,##0.00", "0.00%", "0.00E+00", "#,##0,", "# ?/?", "# ??/??",
+        "[$-409]mmmm d, yyyy", "m/d/yy h:mm", "[h]:mm:ss", "mm:ss.0", "yyyy-mm-dd",
+        "$#,##0.00_);($#,##0.00)", "#,##0.00;[Red]-#,##0.00;\"zero\"", "[>999]0.0,\"K\";0",
+        "00000\\-0000", "###", "\"text\""
+    };
+    private static final double[] VALUES = {
+        0, 1, -1, 0.5, 12.345, -1234.5678, 42000.75, 1e12, 1.23e-12, 2958466, -0.25
+    };
+
+    @Test
+    public void sameResultsAsDataFormatter() {
+        for (boolean emulateCSV : new boolean[]{ false, true }) {
+            for (String format : FORMATS) {
+                CompiledDataFormat compiled = CompiledDataFormat.getInstance(Locale.US, -1, format, emulateCSV);
+                for (double value : VALUES) {
+                    // a new formatter, as the formatter caches the format of the first value
+                    DataFormatter formatter = new DataFormatter(Locale.US, emulateCSV);
+                    String expected = formatter.formatRawCellContents(value, -1, format);
+                    assertEquals(format + " / " + value, expected, compiled.format(value));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void conditionalDateFormats() {
+        String[] formats = { "dd/mm/yyyy;dd/mm/yyyy;\"zero\"", "yyyy-mm-dd;\"neg\";\"zero\"" };
+        double[] values = { 0, -1, -0.25, 42000.75, 2958465 };
+        for (boolean emulateCSV : new boolean[]{ false, true }) {
+            for (String format : formats) {
+                CompiledDataFormat compiled = CompiledDataFormat.getInstance(Locale.US, -1, format, emulateCSV);
+                for (double value : values) {
+                    DataFormatter formatter = new DataFormatter(Locale.US, emulateCSV);
+                    String expected = formatter.formatRawCellContents(value, -1, format);
+                    assertEquals(format + " / " + value, expected, compiled.format(value));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void builtinDateFormat() {
+        CompiledDataFormat compiled = CompiledDataFormat.getInstance(Locale.US, 14, "m/d/yy");
+        DataFormatter formatter = new DataFormatter(Locale.US);
+        StringBuilder sb = new StringBuilder("date: ");
+        compiled.format(42000, true, sb);
+        assertEquals("date: " + formatter.formatRawCellContents(42000, 14, "m/d/yy", true), sb.toString());
+    }
+
+    @Test
+    public void sharedInstances() {
+        CompiledDataFormat compiled = CompiledDataFormat.getInstance(Locale.US, -1, "0.00");
+        assertSame(compiled, CompiledDataFormat.getInstance(Locale.US, -1, "0.00"));
+        assertEquals("0.00", compiled.getFormatString());
+        assertEquals(Locale.US, compiled.getLocale());
+        assertEquals("1,5", CompiledDataFormat.getInstance(Locale.GERMANY, -1, "0.0").format(1.5));
+    }
+
+    @Test
+    public void threadCopiesAreDroppedWithTheCache() {
+        CompiledDataFormat compiled = CompiledDataFormat.getInstance(Locale.US, -1, "0.0");
+        assertEquals("1.5", compiled.format(1.5));
+        assertTrue(CompiledDataFormat.getNumberOfThreadCopies() > 0);
+
+        // exceed the cache size, so the cache is cleared
+        for (int i = 0; i <= 10000; i++) {
+            CompiledDataFormat.getInstance(Locale.US, -1, "\"#" + i + "\" 0");
+        }
+        CompiledDataFormat other = CompiledDataFormat.getInstance(Locale.US, -1, "0.00");
+        assertEquals("1.50", other.format(1.5));
+        assertEquals(1, CompiledDataFormat.getNumberOfThreadCopies());
+
+        // instances from before the clear can still be used
+        assertEquals("2.5", compiled.format(2.5));
+        assertEquals(2, CompiledDataFormat.getNumberOfThreadCopies());
+    }
+
+    @Test
+    public void concurrentFormatting() throws Exception {
+        final CompiledDataFormat number = CompiledDataFormat.getInstance(Locale.US, -1, "#,##0.000");
+        final CompiledDataFormat date = CompiledDataFormat.getInstance(Locale.US, -1, "yyyy-mm-dd hh:mm:ss");
+        final DataFormatter formatter = new DataFormatter(Locale.US);
+        final int count = 2000;
+        final String[] expectedNumbers = new String[count];
+        final String[] expectedDates = new String[count];
+        for (int i = 0; i < count; i++) {
+            expectedNumbers[i] = formatter.formatRawCellContents(i * 1234.5678, -1, "#,##0.000");
+            expectedDates[i] = formatter.formatRawCellContents(30000 + i * 1.37, -1, "yyyy-mm-dd hh:mm:ss");
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                results.add(executor.submit(new Callable<String>() {
+                    @Override
+                    public String call() {
+                        StringBuilder sb = new StringBuilder();
+                        for (int i = 0; i < count; i++) {
+                            sb.setLength(0);
+                            number.format(i * 1234.5678, false, sb);
+                            if (!expectedNumbers[i].equals(sb.toString())) {
+                                return sb.toString();
+                            }
+                            sb.setLength(0);
+                            date.format(30000 + i * 1.37, false, sb);
+                            if (!expectedDates[i].equals(sb.toString())) {
+                                return sb.toString();
+                            }
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<String> result : results) {
+                assertNull(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
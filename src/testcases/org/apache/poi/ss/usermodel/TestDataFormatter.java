@@ -412,6 +412,29 @@ public class TestDataFormatter {
         assertEquals("1904-01-01 06:00:00 PM", dfUS.formatRawCellContents(0.75, -1, "yyyy-mm-dd hh:mm:ss AM/PM", true));
     }
 
+    /**
+     * Test that an "m" is only read as minutes right after the hours or before the seconds,
+     *  even if the format shows no year or day
+     */
+    @Test
+    public void testMonthsNextToHours() {
+        DataFormatter dfUS = new DataFormatter(Locale.US);
+
+        // 2017-09-18 18:22
+        double value = 42996 + (18*60 + 22) / 1440.0;
+
+        assertEquals("Sep 18", dfUS.formatRawCellContents(value, -1, "mmm h"));
+        assertEquals("September 18", dfUS.formatRawCellContents(value, -1, "mmmm hh"));
+        assertEquals("09 18", dfUS.formatRawCellContents(value, -1, "mm hh"));
+        assertEquals("09/18", dfUS.formatRawCellContents(value, -1, "mm/h"));
+        assertEquals("Sep 18", dfUS.formatRawCellContents(value, -1, "[$-409]mmm h"));
+        assertEquals("09 18", dfUS.formatRawCellContents(value, -1, "[Red]mm hh"));
+
+        assertEquals("18:22", dfUS.formatRawCellContents(value, -1, "h:mm"));
+        assertEquals("22:00", dfUS.formatRawCellContents(value, -1, "mm:ss"));
+        assertEquals("Sep 18:22", dfUS.formatRawCellContents(value, -1, "mmm h:mm"));
+    }
+
     /**
      * Test that we can handle elapsed time,
      *  eg formatting 1 day 4 hours as 28 hours
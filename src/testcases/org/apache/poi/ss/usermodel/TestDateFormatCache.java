@@ -0,0 +1,93 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+
+package org.apache.poi.ss.usermodel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Locale;
+
+import org.junit.Test;
+
+public final class TestDateFormatCache {
+
+    @Test
+    public void builtinFormats() {
+        DateFormatCache cache = new DateFormatCache();
+        for (int i = 0; i < BuiltinFormats.getAll().length; i++) {
+            String fmt = BuiltinFormats.getBuiltinFormat(i);
+            assertEquals(fmt, DateUtil.isADateFormat(i, fmt), cache.isADateFormat(i, fmt));
+        }
+        assertTrue(cache.isADateFormat(0x0e, "m/d/yy"));
+        assertFalse(cache.isTimeFormat(0x0e, "m/d/yy"));
+        assertTrue(cache.isTimeFormat(0x14, "h:mm"));
+        assertFalse(cache.isElapsedTimeFormat(0x14, "h:mm"));
+        assertTrue(cache.isElapsedTimeFormat(0x2e, "[h]:mm:ss"));
+        assertFalse(cache.isADateFormat(0x02, "0.00"));
+    }
+
+    @Test
+    public void customFormats() {
+        DateFormatCache cache = new DateFormatCache();
+        assertTrue(cache.isADateFormat(164, "yyyy-mm-dd hh:mm"));
+        assertFalse(cache.isTimeFormat(164, "yyyy-mm-dd hh:mm"));
+
+        assertTrue(cache.isTimeFormat(165, "[$-409]h:mm:ss\\ AM/PM;@"));
+        assertFalse(cache.isElapsedTimeFormat(165, "[$-409]h:mm:ss\\ AM/PM;@"));
+
+        assertTrue(cache.isElapsedTimeFormat(166, "[mm]:ss"));
+        assertTrue(cache.isTimeFormat(166, "[mm]:ss"));
+
+        assertFalse(cache.isADateFormat(167, "\"Day\" 0"));
+        assertFalse(cache.isTimeFormat(167, "\"Day\" 0"));
+
+        // large indexes and missing formats
+        assertTrue(cache.isADateFormat(100000, "dd.mm.yyyy"));
+        assertFalse(cache.isADateFormat(-1, null));
+        assertFalse(cache.isADateFormat(168, null));
+    }
+
+    @Test
+    public void changedFormatString() {
+        DateFormatCache cache = new DateFormatCache();
+        assertTrue(cache.isADateFormat(170, "dd/mm/yyyy"));
+        assertFalse(cache.isADateFormat(170, "#,##0.00"));
+        assertTrue(cache.isADateFormat(170, new String("dd/mm/yyyy")));
+        cache.clear();
+        assertTrue(cache.isADateFormat(170, "dd/mm/yyyy"));
+    }
+
+    @Test
+    public void sharedByFormatters() {
+        DateFormatCache cache = new DateFormatCache();
+        DataFormatter f1 = new DataFormatter(Locale.ROOT);
+        DataFormatter f2 = new DataFormatter(Locale.ROOT);
+        f1.setDateFormatCache(cache);
+        f2.setDateFormatCache(cache);
+        assertSame(cache, f2.getDateFormatCache());
+
+        assertEquals("36:00:00", f1.formatRawCellContents(1.5, 0x2e, "[h]:mm:ss"));
+        assertEquals("2160:05", f2.formatRawCellContents(1.5 + 5.0 / 86400, 166, "[mm]:ss"));
+        assertEquals("12:30", f2.formatRawCellContents(0.5 + 30.0 / 1440, 167, "hh:mm"));
+        assertTrue(cache.isElapsedTimeFormat(166, "[mm]:ss"));
+        assertTrue(cache.isTimeFormat(167, "hh:mm"));
+    }
+}
@@ -75,6 +75,41 @@ public class BaseTestCellUtil {
         wb.close();
     }
     
+    @Test
+    public void setCellStylePropertyCached() throws IOException {
+        try (Workbook wb = _testDataProvider.createWorkbook()) {
+            Sheet s = wb.createSheet();
+            Row r = s.createRow(0);
+            Cell c1 = r.createCell(0);
+            Cell c2 = r.createCell(1);
+
+            Map<String, Object> props = new HashMap<>();
+            props.put(CellUtil.BORDER_TOP, BorderStyle.THIN);
+            CellUtil.setCellStyleProperties(c1, props);
+            int styCnt = wb.getNumCellStyles();
+
+            // changes of the properties after the call don't affect the cache
+            props.put(CellUtil.BORDER_TOP, BorderStyle.THICK);
+            CellUtil.setCellStyleProperties(c2, props);
+            assertEquals(styCnt + 1, wb.getNumCellStyles());
+            assertEquals(BorderStyle.THIN, c1.getCellStyle().getBorderTop());
+            assertEquals(BorderStyle.THICK, c2.getCellStyle().getBorderTop());
+
+            // the cached style is reused
+            Cell c3 = r.createCell(2);
+            CellUtil.setCellStyleProperty(c3, CellUtil.BORDER_TOP, BorderStyle.THIN);
+            assertEquals(c1.getCellStyle().getIndex(), c3.getCellStyle().getIndex());
+            assertEquals(styCnt + 1, wb.getNumCellStyles());
+
+            // modified styles aren't reused
+            c1.getCellStyle().setBorderTop(BorderStyle.DOUBLE);
+            Cell c4 = r.createCell(3);
+            CellUtil.setCellStyleProperty(c4, CellUtil.BORDER_TOP, BorderStyle.THIN);
+            assertNotEquals(c1.getCellStyle().getIndex(), c4.getCellStyle().getIndex());
+            assertEquals(BorderStyle.THIN, c4.getCellStyle().getBorderTop());
+        }
+    }
+
     @Test(expected=RuntimeException.class)
     public void setCellStylePropertyWithInvalidValue() throws IOException {
         try (Workbook wb = _testDataProvider.createWorkbook()) {
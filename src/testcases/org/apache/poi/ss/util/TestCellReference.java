@@ -146,6 +146,21 @@ public final class TestCellReference {
         assertEquals("AABC", parts[2]);
     }
 
+    @Test
+    public void testConvertCellRefToColIndex() {
+        assertEquals(0, CellReference.convertCellRefToColIndex("A1"));
+        assertEquals(27, CellReference.convertCellRefToColIndex("AB100"));
+        assertEquals(27, CellReference.convertCellRefToColIndex(new StringBuilder("ab100")));
+        assertEquals(16383, CellReference.convertCellRefToColIndex("XFD1048576"));
+        assertEquals(2, CellReference.convertCellRefToColIndex("$C$3"));
+        assertEquals(-1, CellReference.convertCellRefToColIndex("C"));
+        assertEquals(-1, CellReference.convertCellRefToColIndex("12"));
+        assertEquals(-1, CellReference.convertCellRefToColIndex("A1B"));
+        assertEquals(-1, CellReference.convertCellRefToColIndex("Sheet1!A1"));
+        assertEquals(-1, CellReference.convertCellRefToColIndex("ZZZZZZZZZZ1"));
+        assertEquals(-1, CellReference.convertCellRefToColIndex(""));
+    }
+
     @Test
     public void testGetColNumFromRef() {
         String cellRef = "A1";
@@ -22,6 +22,7 @@ import junit.framework.ComparisonFailure;
 import junit.framework.TestCase;
 
 import java.util.Locale;
+import java.util.Random;
 
 import org.apache.poi.hssf.record.FormulaRecord;
 import org.apache.poi.ss.formula.constant.ConstantValueParser;
@@ -125,4 +126,43 @@ public final class TestNumberToTextConverter extends TestCase {
 		}
 		assertEquals("0.06", actualText);
 	}
+
+	/**
+	 * The fast path, which rounds the value scaled by a power of ten to 15 significant digits,
+	 * must render exactly what the {@link NormalisedDecimal} conversion does.
+	 */
+	public void testFastPathMatchesExactConversion() {
+		for (ExampleConversion example : NumberToTextConversionExamples.getExampleConversions()) {
+			confirmFastPath(example.getRawDoubleBits());
+		}
+		Random random = new Random(56156);
+		for (int i = 0; i < 200000; i++) {
+			// arbitrary bit patterns
+			confirmFastPath(random.nextLong());
+			// values with few significant digits, as typed into cells
+			double shortValue = random.nextInt(2000000) / Math.pow(10, random.nextInt(12));
+			confirmFastPath(Double.doubleToLongBits(shortValue));
+			// results of arithmetic, which need more than 15 digits
+			confirmFastPath(Double.doubleToLongBits(shortValue * 0.1 + 0.2));
+			confirmFastPath(Double.doubleToLongBits(random.nextDouble() * Math.pow(10, random.nextInt(40) - 20)));
+		}
+		// values at the 15 digit rounding boundaries
+		double[] boundaries = { 0.1234567890123455, 999999999999999.5, 99999999999999.95,
+				1.0000000000000005, 9.9999999999999995E-5, 123456789012345.5, 1E99, 9.999999999999999E98 };
+		for (double boundary : boundaries) {
+			long bits = Double.doubleToLongBits(boundary);
+			for (int i = -20; i <= 20; i++) {
+				confirmFastPath(bits + i);
+			}
+		}
+	}
+
+	private static void confirmFastPath(long rawBits) {
+		String expected = NumberToTextConverter.rawDoubleBitsToText(rawBits, false);
+		String actual = NumberToTextConverter.rawDoubleBitsToText(rawBits, true);
+		if (!expected.equals(actual)) {
+			throw new ComparisonFailure("Fast path mismatch for " + Double.longBitsToDouble(rawBits),
+					expected, actual);
+		}
+	}
 }
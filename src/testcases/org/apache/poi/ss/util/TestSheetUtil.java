@@ -21,6 +21,9 @@ import java.io.IOException;
 
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Font;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
@@ -103,6 +106,62 @@ public final class TestSheetUtil extends TestCase {
         wb.close();
     }
 
+    public void testGetCellWidthWithGlyphWidthCache() throws IOException {
+        Workbook wb = new HSSFWorkbook();
+        Sheet sheet = wb.createSheet("sheet");
+        Row row = sheet.createRow(0);
+        Font bold = wb.createFont();
+        bold.setBold(true);
+        bold.setFontHeightInPoints((short)14);
+        CellStyle boldStyle = wb.createCellStyle();
+        boldStyle.setFont(bold);
+
+        Object[] values = { "sometext", "  leading spaces", "Gr\u00fc\u00dfe \u0391\u03b2\u03b3 \u0416", "two\nlines", 88.234, true };
+        GlyphWidthCache cache = new GlyphWidthCache();
+        DataFormatter formatter = new DataFormatter();
+        int charWidth = SheetUtil.getDefaultCharWidth(wb);
+        for (int i = 0; i < values.length; i++) {
+            Cell cell = row.createCell(i);
+            if (values[i] instanceof String) {
+                cell.setCellValue((String)values[i]);
+            } else if (values[i] instanceof Double) {
+                cell.setCellValue((Double)values[i]);
+            } else {
+                cell.setCellValue((Boolean)values[i]);
+            }
+            for (CellStyle style : new CellStyle[]{ cell.getCellStyle(), boldStyle }) {
+                cell.setCellStyle(style);
+                double expected = SheetUtil.getCellWidth(cell, charWidth, formatter, false);
+                double actual = SheetUtil.getCellWidth(cell, charWidth, formatter, false, cache);
+                assertEquals("cell " + i, expected, actual, 0.01);
+            }
+        }
+
+        // complex scripts are left to the text layout
+        assertEquals(-1.0, cache.getTextWidth(bold, "\u05e9\u05dc\u05d5\u05dd", '0'));
+        assertEquals(-1.0, cache.getTextWidth(bold, "e\u0301", '0'));
+        assertTrue(cache.getTextWidth(bold, "abc", '0') > 0);
+
+        wb.close();
+    }
+
+    public void testGlyphWidthCacheWithModifiedFont() throws IOException {
+        Workbook wb = new HSSFWorkbook();
+        Font font = wb.createFont();
+        font.setFontHeightInPoints((short)10);
+        Font other = wb.createFont();
+        other.setFontHeightInPoints((short)10);
+
+        GlyphWidthCache cache = new GlyphWidthCache();
+        assertTrue(cache.getTextWidth(font, "a", '0') > 0);
+        // the cached advances of the 10pt font must not be measured with the new size
+        font.setFontHeightInPoints((short)20);
+        double expected = new GlyphWidthCache().getTextWidth(other, "bcd", '1');
+        assertEquals(expected, cache.getTextWidth(other, "bcd", '1'), 0.0001);
+
+        wb.close();
+    }
+
     public void testGetCellWidthNumber() throws IOException {
         Workbook wb = new HSSFWorkbook();
         Sheet sheet = wb.createSheet("sheet");
@@ -0,0 +1,140 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link SortedIntMap}
+ */
+public final class TestSortedIntMap {
+    @Test
+    public void testBasics() {
+        SortedIntMap<String> map = new SortedIntMap<>(0);
+        assertTrue(map.isEmpty());
+        assertNull(map.get(0));
+        assertEquals(0, map.headSize(5));
+
+        assertNull(map.put(5, "5"));
+        assertNull(map.put(1, "1"));
+        assertNull(map.put(3, "3"));
+        assertEquals("3", map.put(3, "three"));
+        assertEquals(3, map.size());
+
+        assertEquals(1, map.firstKey());
+        assertEquals(5, map.lastKey());
+        assertEquals("three", map.get(3));
+        assertNull(map.get(2));
+        assertNull(map.get(6));
+        assertTrue(map.containsKey(5));
+        assertFalse(map.containsKey(4));
+
+        assertEquals(0, map.headSize(1));
+        assertEquals(2, map.headSize(4));
+        assertEquals(3, map.headSize(100));
+
+        assertEquals(Arrays.asList("1", "three", "5"), new ArrayList<>(map.values()));
+        assertEquals(Arrays.asList("three", "5"), map.values(2, 6));
+        assertEquals(Arrays.asList("three"), map.values(3, 5));
+
+        assertEquals("1", map.remove(1));
+        assertNull(map.remove(1));
+        assertEquals(3, map.firstKey());
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        try {
+            map.firstKey();
+            fail("expected NoSuchElementException");
+        } catch (NoSuchElementException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testMatchesTreeMap() {
+        Random rnd = new Random(12345);
+        SortedIntMap<Integer> map = new SortedIntMap<>();
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        for (int i = 0; i < 5000; i++) {
+            // mostly dense keys with some gaps, to use both lookup paths
+            int key = rnd.nextInt(i % 3 == 0 ? 2000 : 300);
+            if (rnd.nextInt(4) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            }
+            int probe = rnd.nextInt(2100) - 50;
+            assertEquals(expected.get(probe), map.get(probe));
+            assertEquals(expected.headMap(probe).size(), map.headSize(probe));
+        }
+        assertEquals(expected.size(), map.size());
+        assertEquals(new ArrayList<>(expected.values()), new ArrayList<>(map.values()));
+        assertEquals(new ArrayList<>(expected.subMap(100, 200).values()), map.values(100, 200));
+    }
+
+    @Test
+    public void testIterator() {
+        SortedIntMap<String> map = new SortedIntMap<>();
+        for (int i = 0; i < 10; i++) {
+            map.put(i, Integer.toString(i));
+        }
+        for (Iterator<String> it = map.values().iterator(); it.hasNext(); ) {
+            if (Integer.parseInt(it.next()) % 2 == 1) {
+                it.remove();
+            }
+        }
+        assertEquals(Arrays.asList("0", "2", "4", "6", "8"), new ArrayList<>(map.values()));
+        assertEquals(2, map.headSize(4));
+
+        Map<Integer, String> copy = new TreeMap<>();
+        for (String s : map.values()) {
+            copy.put(Integer.valueOf(s), s);
+        }
+        assertEquals(5, copy.size());
+
+        Iterator<String> it = map.values().iterator();
+        it.next();
+        map.put(20, "20");
+        try {
+            it.next();
+            fail("expected ConcurrentModificationException");
+        } catch (ConcurrentModificationException e) {
+            // expected
+        }
+
+        List<String> values = map.values(-5, 5);
+        assertEquals(Arrays.asList("0", "2", "4"), values);
+    }
+}